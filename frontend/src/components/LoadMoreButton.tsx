@@ -0,0 +1,25 @@
+import React from 'react';
+
+interface LoadMoreButtonProps {
+    hasMore: boolean;
+    loading: boolean;
+    onClick: () => void;
+}
+
+const LoadMoreButton: React.FC<LoadMoreButtonProps> = ({ hasMore, loading, onClick }) => {
+    if (!hasMore) {
+        return null;
+    }
+    return (
+        <div className="flex justify-center mb-6">
+            <button
+                onClick={onClick}
+                disabled={loading}
+                className="bg-primary text-white rounded-md px-4 py-2 hover:bg-indigo-500 disabled:opacity-50">
+                {loading ? 'Loading...' : 'Load more'}
+            </button>
+        </div>
+    );
+};
+
+export default LoadMoreButton;
@@ -0,0 +1,41 @@
+import { useCallback, useState } from "react";
+import { CursorPage } from "../types/types";
+import useAxiosPrivate from "./useAxiosPrivate";
+
+const PAGE_SIZE = 24;
+
+// one page of a paged list endpoint at a time: loadMore appends the page after next_cursor, reload starts over
+const useCursorPages = <T>(url: string, params: Record<string, unknown> = {}) => {
+    const axiosPrivate = useAxiosPrivate();
+    const [items, setItems] = useState<T[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [loading, setLoading] = useState(false);
+    const paramsKey = JSON.stringify(params);
+
+    const fetchPage = useCallback(async (cursor: string | null) => {
+        setLoading(true);
+        try {
+            const response = await axiosPrivate.get<CursorPage<T>>(url, {
+                params: { ...JSON.parse(paramsKey), limit: PAGE_SIZE, cursor: cursor ?? undefined },
+            });
+            setItems(previous => cursor ? [...previous, ...response.data.items] : response.data.items);
+            setNextCursor(response.data.next_cursor);
+        } catch (error) {
+            console.error(error);
+        } finally {
+            setLoading(false);
+        }
+    }, [axiosPrivate, url, paramsKey]);
+
+    const reload = useCallback(() => fetchPage(null), [fetchPage]);
+
+    const loadMore = useCallback(() => {
+        if (nextCursor) {
+            fetchPage(nextCursor);
+        }
+    }, [fetchPage, nextCursor]);
+
+    return { items, hasMore: nextCursor !== null, loading, loadMore, reload };
+};
+
+export default useCursorPages;
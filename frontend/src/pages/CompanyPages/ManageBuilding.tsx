@@ -12,39 +12,25 @@ import condo4 from '../../images/condos/condo4.jpg';
 import condo5 from '../../images/condos/condo5.jpg';
 import condo6 from '../../images/condos/condo6.jpg';
 import AddPropertyPopup from '../../components/AddPropertyPopup';
-import useAxiosPrivate from '../../hooks/useAxiosPrivate';
 import useAuth from '../../hooks/useAuth';
 import { Building } from '../../types/types';
 import EditPropertyPopup from '../../components/EditPropertyPopup';
+import useCursorPages from '../../hooks/useCursorPages';
+import LoadMoreButton from '../../components/LoadMoreButton';
 import { parse } from 'date-fns';
 
 
 const Buildings: React.FC = () => {
     // const [cardCollection, setCardCollection] = React.useState<any[]>([]);
-    const [buildings, setBuildings] = React.useState<Building[]>([]);
     const [addBuildingPopup, setAddBuildingPopup] = React.useState(false);
     const [editBuildingPopup, setEditBuildingPopup] = React.useState(false);
     const [selectedBuilding, setSelectedBuilding] = React.useState<Building | undefined>(undefined);
     const { auth } = useAuth();
-    const axiosPrivate = useAxiosPrivate();
+    const { items: buildings, hasMore, loading, loadMore, reload } = useCursorPages<Building>(`/company-admin/buildings`);
 
     useEffect(() => {
-        fetchBuildings();
+        reload();
     }, [addBuildingPopup]);
-
-    useEffect(() => {
-        fetchBuildings();
-    }, []);
-
-    const fetchBuildings = async () => {
-        try {
-            const response = await axiosPrivate.get(`/company-admin/buildings`);
-            console.log("Units fetched: ", response.data);
-            setBuildings(response.data);
-        } catch (error) {
-            console.error(error);
-        }
-    };
     
     const toggleAddBuildingPopup = () => {
         setAddBuildingPopup(((prev) => !prev));
@@ -183,6 +169,8 @@ const Buildings: React.FC = () => {
                 }
             </div>
 
+            <LoadMoreButton hasMore={hasMore} loading={loading} onClick={loadMore} />
+
         </DefaultLayout>
     );
 };
@@ -8,39 +8,25 @@ import { useParams } from 'react-router-dom';
 import AddUnitPopup from '../../components/AddUnitPopup';
 import useAuth from '../../hooks/useAuth';
 import { Unit } from '../../types/types';
-import useAxiosPrivate from '../../hooks/useAxiosPrivate';
 import EditUnitPopup from '../../components/EditUnitPopup';
+import useCursorPages from '../../hooks/useCursorPages';
+import LoadMoreButton from '../../components/LoadMoreButton';
 
 
 
 const ManageUnits: React.FC = () => {
     // const [cardCollection, setCardCollection] = React.useState<any[]>([]);
     const { buildingId } = useParams<{ buildingId: string }>();
-    const [units, setUnits] = React.useState<Unit[]>([]);
     const [addUnitPopup, setAddUnitPopup] = React.useState(false);
     const [editUnitPopup, setEditUnitPopup] = React.useState(false);
     const [selectedUnit, setSelectedUnit] = React.useState<Unit | undefined>(undefined);
     const { auth } = useAuth();
-    const axiosPrivate = useAxiosPrivate();
+    const { items: units, hasMore, loading, loadMore, reload } = useCursorPages<Unit>(`/company-admin/condos/all`, { buildingId });
 
 
     useEffect(() => {
-        fetchUnits();
-    }, [addUnitPopup]);
-
-    useEffect(() => {
-        fetchUnits();
-    }, []);
-
-    const fetchUnits = async () => {
-        try {
-            const response = await axiosPrivate.get(`/company-admin/condos/all`);
-            console.log("Units fetched: ", response.data);
-            setUnits(response.data);
-        } catch (error) {
-            console.error(error);
-        }
-    };
+        reload();
+    }, [addUnitPopup, buildingId]);
 
     
     const toggleAddUnitPopup = () => {
@@ -161,6 +147,8 @@ const ManageUnits: React.FC = () => {
                 }
             </div>
 
+            <LoadMoreButton hasMore={hasMore} loading={loading} onClick={loadMore} />
+
         </DefaultLayout>
     );
 };
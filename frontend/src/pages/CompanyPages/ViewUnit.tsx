@@ -16,12 +16,10 @@ const ViewUnit: React.FC = () => {
     const [isGenerateKeyOpen, setIsGenerateKeyOpen] = useState(false);
    
 
-    const fetchUnits = async () => {
+    const fetchUnit = async () => {
         try {
-            const response = await axiosPrivate.get(`/company-admin/condos/all`);
-            console.log("Units fetched: ", response.data);
-            const foundUnit = response.data.find((unit: Unit) => unit.id === Number(id)); // Find the unit with the specified unitId
-            setUnit(foundUnit || null); // Set the found unit in state, or null if not found
+            const response = await axiosPrivate.get<Unit>(`/company-admin/condos/id=${id}`);
+            setUnit(response.data);
         } catch (error) {
             console.error(error);
         }
@@ -39,7 +37,7 @@ const ViewUnit: React.FC = () => {
         setIsGenerateKeyOpen(false);
         
     try {
-        await fetchUnits(); 
+        await fetchUnit(); 
         unit && toast.success(`The new key ${unit.registration_key ? unit.registration_key : ''} generated successfully`);
 
        
@@ -49,7 +47,7 @@ const ViewUnit: React.FC = () => {
       };
 
     useEffect(() => {
-        fetchUnits();
+        fetchUnit();
     }, []);
 
     return (
@@ -92,4 +92,9 @@ export interface Employee {
     roles: string;
     company_id?: number;
     employee_type?: EmployeeType;
-}
\ No newline at end of file
+}
+// one page of a paged list endpoint, next_cursor is null on the last page
+export interface CursorPage<T> {
+    items: T[];
+    next_cursor: string | null;
+}
@@ -0,0 +1,89 @@
+package com.rently.rentlyAPI.security.filter;
+
+import com.rently.rentlyAPI.auth.services.TokenRevocationService;
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.user.CompanyAdmin;
+import com.rently.rentlyAPI.repository.RevokedTokenRepository;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.utils.JwtUtils;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Per-request cost of JwtAuthenticationFilter with an in-memory UserDetailsService, so the numbers isolate the
+ * token verification and authentication work from the database lookup it normally does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean claimsOnly;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final FilterChain filterChain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretKey", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpiration", 604800000L);
+        ReflectionTestUtils.setField(jwtUtils, "claimsOnlyAuthentication", claimsOnly);
+        ReflectionTestUtils.setField(jwtUtils, "claimsMaxAge", 3600000L);
+        ReflectionTestUtils.setField(jwtUtils, "activeKeyId", JwtUtils.DEFAULT_KEY_ID);
+        jwtUtils.initKeys();
+
+        CompanyAdmin user = CompanyAdmin.builder()
+                .id(7)
+                .email("admin@rently.com")
+                .role(Role.COMPANY_ADMIN)
+                .company(Company.builder().id(3).build())
+                .build();
+        UserDetailsService userDetailsService = username -> user;
+
+        // the repository is only read once, when the revocations are loaded
+        TokenRevocationService tokenRevocationService = new TokenRevocationService(mock(RevokedTokenRepository.class));
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedRevocations", 100000);
+        tokenRevocationService.loadRevokedTokens();
+
+        filter = new JwtAuthenticationFilter(jwtUtils, userDetailsService, tokenRevocationService);
+        request = new MockHttpServletRequest("GET", "/api/company-admin/buildings");
+        request.setServletPath("/api/company-admin/buildings");
+        request.addHeader("Authorization", "Bearer " + jwtUtils.generateToken(user, false));
+    }
+
+    @Benchmark
+    public Authentication doFilterInternal() throws Exception {
+        filter.doFilterInternal(request, response, filterChain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
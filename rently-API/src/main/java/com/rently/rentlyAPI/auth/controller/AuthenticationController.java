@@ -5,6 +5,8 @@ import com.rently.rentlyAPI.auth.dto.AuthenticationResponseDto;
 import com.rently.rentlyAPI.auth.dto.ChangePasswordRequestDto;
 import com.rently.rentlyAPI.auth.dto.LoginRequestDto;
 import com.rently.rentlyAPI.auth.services.Impl.AuthenticationServiceImpl;
+import com.rently.rentlyAPI.entity.user.User;
+import com.rently.rentlyAPI.security.CurrentUser;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -31,8 +33,8 @@ public class AuthenticationController {
   }
   
   @PostMapping("/change-password")
-  public ResponseEntity<String> changePassword(@RequestHeader("Authorization") String token, @RequestBody ChangePasswordRequestDto changePasswordRequestDto) {
-    return ResponseEntity.ok(service.changePassword(token, changePasswordRequestDto));
+  public ResponseEntity<String> changePassword(@CurrentUser User user, @RequestBody ChangePasswordRequestDto changePasswordRequestDto) {
+    return ResponseEntity.ok(service.changePassword(user, changePasswordRequestDto));
   }
 
  @PostMapping("/refresh-token")
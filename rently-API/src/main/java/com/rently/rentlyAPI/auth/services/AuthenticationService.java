@@ -4,13 +4,14 @@ import com.rently.rentlyAPI.auth.dto.AuthenticationResponseDto;
 import com.rently.rentlyAPI.auth.dto.ChangePasswordRequestDto;
 import com.rently.rentlyAPI.auth.dto.LoginRequestDto;
 import com.rently.rentlyAPI.dto.RootUserDto;
+import com.rently.rentlyAPI.entity.user.User;
 import jakarta.servlet.http.HttpServletResponse;
 
 public interface AuthenticationService {
      
      AuthenticationResponseDto authenticate(LoginRequestDto loginRequestDto, HttpServletResponse response);
      
-     String changePassword(String token, ChangePasswordRequestDto changePasswordRequestDto);
+     String changePassword(User user, ChangePasswordRequestDto changePasswordRequestDto);
      
      AuthenticationResponseDto buildAuthenticationResponse(String jwtToken, String refreshToken, RootUserDto userDto);
 }
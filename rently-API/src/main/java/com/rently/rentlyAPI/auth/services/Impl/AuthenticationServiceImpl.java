@@ -5,6 +5,7 @@ import com.rently.rentlyAPI.auth.dto.AuthenticationResponseDto;
 import com.rently.rentlyAPI.auth.dto.ChangePasswordRequestDto;
 import com.rently.rentlyAPI.auth.dto.LoginRequestDto;
 import com.rently.rentlyAPI.auth.services.AuthenticationService;
+import com.rently.rentlyAPI.auth.services.RefreshTokenService;
 import com.rently.rentlyAPI.dto.RootUserDto;
 import com.rently.rentlyAPI.entity.user.User;
 import com.rently.rentlyAPI.repository.UserRepository;
@@ -36,6 +37,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
   private final ObjectsValidator<Object> validator;
   
   private final PasswordEncoder passwordEncoder;
+  private final RefreshTokenService refreshTokenService;
+  private final ObjectMapper objectMapper;
 
 
 
@@ -57,7 +60,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     );
 
     String jwtToken = jwtUtils.generateToken(user, false);
-    String refreshToken = jwtUtils.generateToken(user, true);
+    String refreshToken = refreshTokenService.issue(user);
 
     jwtUtils.addTokensAsCookies(response, jwtToken, refreshToken);
     RootUserDto userDto = RootUserDto.toDto(user);
@@ -66,12 +69,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
   }
   
   @Override
-  public String changePassword(String token, ChangePasswordRequestDto changePasswordRequestDto) {
-    String tokenWithoutBearer = token.substring(7);
-    String email = jwtUtils.extractUsername(tokenWithoutBearer);
-    User user = userService.findUserAccordingToTypeWithEmail(email);
-    
-    
+  public String changePassword(User user, ChangePasswordRequestDto changePasswordRequestDto) {
     if(passwordEncoder.matches(changePasswordRequestDto.getOldPassword(), user.getPassword()) && changePasswordRequestDto.getNewPassword().equals(changePasswordRequestDto.getConfirmationPassword())){
       String newEncodedPassword = passwordEncoder.encode(changePasswordRequestDto.getNewPassword());
       user.setPassword(newEncodedPassword);
@@ -86,9 +84,9 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
  /**
 * The refreshToken method is responsible for refreshing the user's access token, the user refresh token is used to generate a new access token and refresh token.
-* We retrieve the refresh token from the request cookies and use it to get the user's email.
-* We then use the user's email to get the user from the database.
-* The old tokens are revoked and the new tokens are saved in the database and sent as cookies in the response.
+* We retrieve the refresh token from the request cookies and rotate it: the stored token is marked as used and
+* its successor is saved in the same family. Presenting an already used refresh token revokes the whole family.
+* The new tokens are sent as cookies in the response.
 * @param request The HttpServletRequest object
 * @param response The HttpServletResponse object
 * @throws IOException If an input or output exception occurs
@@ -114,20 +112,16 @@ public class AuthenticationServiceImpl implements AuthenticationService {
      return;
    }
 
-   String userEmail = jwtUtils.extractUsername(refreshToken);
-   System.out.println("userEmail in AuthenticationService: " + userEmail);
-
-   User user = userService.findUserAccordingToTypeWithEmail(userEmail);
-
-   System.out.println("user in AuthenticationService: " + user.getRole());
+   RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate(refreshToken);
+   User user = rotated.user();
 
    String accessToken = jwtUtils.generateToken(user, false);
-   String newRefreshToken = jwtUtils.generateToken(user, true);
+   String newRefreshToken = rotated.refreshToken();
 
    jwtUtils.addTokensAsCookies(response, accessToken, newRefreshToken);
 
    AuthenticationResponseDto authResponse = buildAuthenticationResponse(accessToken, newRefreshToken, RootUserDto.toDto(user));
-   new ObjectMapper().writeValue(response.getOutputStream(), authResponse);
+   objectMapper.writeValue(response.getOutputStream(), authResponse);
  }
 
   // Helper methods
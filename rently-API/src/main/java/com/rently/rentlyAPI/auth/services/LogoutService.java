@@ -1,10 +1,13 @@
 package com.rently.rentlyAPI.auth.services;
 
+import com.rently.rentlyAPI.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 import org.springframework.stereotype.Service;
 
@@ -12,17 +15,41 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class LogoutService implements LogoutHandler {
 
+  private final JwtUtils jwtUtils;
+  private final TokenRevocationService tokenRevocationService;
+  private final RefreshTokenService refreshTokenService;
+
   @Override
   public void logout(
       HttpServletRequest request,
       HttpServletResponse response,
       Authentication authentication
   ) {
+    revokeRefreshToken(request);
+
     final String authHeader = request.getHeader("Authorization");
     final String jwt;
     if (authHeader == null ||!authHeader.startsWith("Bearer ")) {
       return;
     }
     jwt = authHeader.substring(7);
+    try {
+      Claims claims = jwtUtils.parseClaims(jwt);
+      tokenRevocationService.revoke(claims.getId(), claims.getExpiration());
+    } catch (JwtException e) {
+      // expired or tampered tokens are already unusable, nothing to revoke
+    }
+  }
+
+  private void revokeRefreshToken(HttpServletRequest request) {
+    if (request.getCookies() == null) {
+      return;
+    }
+    for (Cookie cookie : request.getCookies()) {
+      if (cookie.getName().equals("refreshToken")) {
+        refreshTokenService.revokeFamily(cookie.getValue());
+        return;
+      }
+    }
   }
 }
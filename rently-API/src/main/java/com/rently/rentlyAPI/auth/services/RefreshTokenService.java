@@ -0,0 +1,129 @@
+package com.rently.rentlyAPI.auth.services;
+
+import com.rently.rentlyAPI.entity.Key;
+import com.rently.rentlyAPI.entity.user.User;
+import com.rently.rentlyAPI.exceptions.AuthenticationException;
+import com.rently.rentlyAPI.repository.KeyRepository;
+import com.rently.rentlyAPI.services.UserService;
+import com.rently.rentlyAPI.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Stores refresh tokens in the key table so they can be rotated and revoked.
+ * Only the SHA-256 of a token is kept, under the unique index on key, so validating a presented token is a
+ * single indexed lookup. Each refresh token can be used once: rotating it issues the next token of the same
+ * family, and presenting an already used token means it leaked, so the whole family is revoked.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+  private final KeyRepository keyRepository;
+  private final JwtUtils jwtUtils;
+  private final UserService userService;
+
+  @Value("${application.security.jwt.refresh-token.sweep-batch-size:1000}")
+  private int sweepBatchSize;
+
+  /**
+   * Issues the first refresh token of a new family, on login.
+   */
+  public String issue(User user) {
+    return issue(user, UUID.randomUUID().toString());
+  }
+
+  /**
+   * Consumes the presented refresh token and returns the user it belongs to along with its successor.
+   */
+  public RotatedRefreshToken rotate(String refreshToken) {
+    Claims claims;
+    try {
+      claims = jwtUtils.parseClaims(refreshToken);
+    } catch (JwtException e) {
+      throw new AuthenticationException("Invalid refresh token");
+    }
+
+    Key key = keyRepository.findByKey(hash(refreshToken));
+    if (key == null || !key.isActive() || key.getExpiresAt() == null || key.getExpiresAt().isBefore(LocalDateTime.now())) {
+      throw new AuthenticationException("Invalid refresh token");
+    }
+    // a concurrent rotation of the same token loses the update too, which is treated as a reuse
+    if (key.isRevoked() || keyRepository.markUsed(key.getId()) == 0) {
+      keyRepository.revokeFamily(key.getFamilyId());
+      log.warn("Refresh token reuse detected, family {} revoked", key.getFamilyId());
+      throw new AuthenticationException("Refresh token has already been used");
+    }
+
+    User user = userService.findUserAccordingToTypeWithEmail(claims.getSubject());
+    return new RotatedRefreshToken(user, issue(user, key.getFamilyId()));
+  }
+
+  /**
+   * Revokes the family of the given refresh token, on logout. Unknown or invalid tokens are ignored.
+   */
+  public void revokeFamily(String refreshToken) {
+    Key key = keyRepository.findByKey(hash(refreshToken));
+    if (key != null && key.getFamilyId() != null) {
+      keyRepository.revokeFamily(key.getFamilyId());
+    }
+  }
+
+  /**
+   * Deletes expired refresh tokens in small batches so the sweep never holds long locks on the table.
+   */
+  @Scheduled(
+      initialDelayString = "${application.security.jwt.refresh-token.sweep-interval:3600000}",
+      fixedDelayString = "${application.security.jwt.refresh-token.sweep-interval:3600000}"
+  )
+  public void sweepExpired() {
+    LocalDateTime now = LocalDateTime.now();
+    int total = 0;
+    int deleted;
+    do {
+      deleted = keyRepository.deleteExpiredBatch(now, sweepBatchSize);
+      total += deleted;
+    } while (deleted == sweepBatchSize);
+    log.info("Swept {} expired refresh tokens", total);
+  }
+
+  private String issue(User user, String familyId) {
+    String refreshToken = jwtUtils.generateToken(user, true);
+    Claims claims = jwtUtils.parseClaims(refreshToken);
+    keyRepository.save(Key.builder()
+        .key(hash(refreshToken))
+        .isActive(true)
+        .role(user.getRole())
+        .user(user)
+        .familyId(familyId)
+        .expiresAt(LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()))
+        .build());
+    return refreshToken;
+  }
+
+  static String hash(String token) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  public record RotatedRefreshToken(User user, String refreshToken) {
+  }
+}
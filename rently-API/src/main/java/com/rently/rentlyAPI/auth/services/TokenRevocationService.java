@@ -0,0 +1,129 @@
+package com.rently.rentlyAPI.auth.services;
+
+import com.rently.rentlyAPI.auth.entity.RevokedToken;
+import com.rently.rentlyAPI.repository.RevokedTokenRepository;
+import com.rently.rentlyAPI.utils.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of access tokens revoked before their expiration.
+ * Revocations are persisted so they survive restarts and reach the other instances, while the check done
+ * on every request is answered from memory: a Bloom filter rejects the common case (token never revoked)
+ * and an exact set confirms the rare positive. Expired revocations are swept in the background.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+  private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+  private final RevokedTokenRepository revokedTokenRepository;
+
+  @Value("${application.security.jwt.revocation.expected-revocations:100000}")
+  private int expectedRevocations;
+
+  // token id -> expiration, the exact (authoritative) in-memory view
+  private final Map<String, LocalDateTime> revokedTokens = new ConcurrentHashMap<>();
+
+  private volatile BloomFilter bloomFilter;
+
+  private volatile LocalDateTime lastSynchronization;
+
+  @PostConstruct
+  public void loadRevokedTokens() {
+    LocalDateTime now = LocalDateTime.now();
+    revokedTokenRepository.findAllByExpiresAtAfter(now)
+        .forEach(revokedToken -> revokedTokens.put(revokedToken.getTokenId(), revokedToken.getExpiresAt()));
+    lastSynchronization = now;
+    rebuildBloomFilter();
+  }
+
+  public void revoke(String tokenId, Date expiration) {
+    if (tokenId == null || expiration == null) {
+      return;
+    }
+    LocalDateTime expiresAt = LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault());
+    remember(tokenId, expiresAt);
+
+    if (!revokedTokenRepository.existsByTokenId(tokenId)) {
+      try {
+        revokedTokenRepository.save(RevokedToken.builder()
+            .tokenId(tokenId)
+            .expiresAt(expiresAt)
+            .build());
+      } catch (DataIntegrityViolationException e) {
+        // revoked concurrently (e.g. double logout), the row is already there
+        log.debug("Token {} was already revoked", tokenId);
+      }
+    }
+  }
+
+  public boolean isRevoked(String tokenId) {
+    if (tokenId == null) {
+      return false;
+    }
+    return bloomFilter.mightContain(tokenId) && revokedTokens.containsKey(tokenId);
+  }
+
+  /**
+   * Pulls revocations made by other instances since the last synchronization.
+   */
+  @Scheduled(
+      initialDelayString = "${application.security.jwt.revocation.sync-interval:30000}",
+      fixedDelayString = "${application.security.jwt.revocation.sync-interval:30000}"
+  )
+  public void synchronize() {
+    LocalDateTime now = LocalDateTime.now();
+    // overlap the previous window a little: rows committed late are not missed and re-adding is idempotent
+    LocalDateTime since = lastSynchronization.minusMinutes(1);
+    List<RevokedToken> newRevocations = revokedTokenRepository.findAllByCreationDateAfterAndExpiresAtAfter(since, now);
+    newRevocations.forEach(revokedToken -> remember(revokedToken.getTokenId(), revokedToken.getExpiresAt()));
+    lastSynchronization = now;
+  }
+
+  /**
+   * Removes revocations of tokens that have expired since, in the database and in memory.
+   * The Bloom filter cannot forget entries, so it is rebuilt from what is left.
+   */
+  @Scheduled(
+      initialDelayString = "${application.security.jwt.revocation.sweep-interval:3600000}",
+      fixedDelayString = "${application.security.jwt.revocation.sweep-interval:3600000}"
+  )
+  public void sweepExpired() {
+    LocalDateTime now = LocalDateTime.now();
+    int deleted = revokedTokenRepository.deleteAllExpired(now);
+    revokedTokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+    rebuildBloomFilter();
+    log.info("Swept {} expired token revocations, {} still active", deleted, revokedTokens.size());
+  }
+
+  // writers are rare (logout, sync, sweep) and serialized so a rebuild never drops a concurrent revocation,
+  // readers stay lock free
+  private synchronized void remember(String tokenId, LocalDateTime expiresAt) {
+    if (expiresAt.isBefore(LocalDateTime.now())) {
+      return;
+    }
+    revokedTokens.put(tokenId, expiresAt);
+    bloomFilter.put(tokenId);
+  }
+
+  private synchronized void rebuildBloomFilter() {
+    BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revokedTokens.size() * 2), FALSE_POSITIVE_PROBABILITY);
+    revokedTokens.keySet().forEach(rebuilt::put);
+    bloomFilter = rebuilt;
+  }
+}
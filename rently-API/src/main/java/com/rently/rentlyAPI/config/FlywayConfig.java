@@ -0,0 +1,18 @@
+package com.rently.rentlyAPI.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+public class FlywayConfig {
+
+    // the default lock is an advisory lock held in an open transaction, CREATE INDEX CONCURRENTLY waits for every
+    // open transaction to finish and would wait for it forever. The session lock excludes other instances just as well
+    @Bean
+    public FlywayConfigurationCustomizer sessionLevelMigrationLock() {
+        return configuration -> configuration.configuration(Map.of("flyway.postgresql.transactional.lock", "false"));
+    }
+}
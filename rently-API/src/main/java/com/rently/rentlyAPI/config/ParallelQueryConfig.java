@@ -0,0 +1,26 @@
+package com.rently.rentlyAPI.config;
+
+import com.rently.rentlyAPI.utils.ParallelQueryExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class ParallelQueryConfig {
+
+    // keep it below the connection pool size, every running query holds a connection
+    @Value("${application.parallel-queries.threads:4}")
+    private int threads;
+
+    @Value("${application.parallel-queries.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${application.parallel-queries.timeout:10000}")
+    private long timeout;
+
+    @Bean(destroyMethod = "shutdown")
+    public ParallelQueryExecutor parallelQueryExecutor(PlatformTransactionManager transactionManager) {
+        return new ParallelQueryExecutor(threads, queueCapacity, timeout, transactionManager);
+    }
+}
@@ -1,14 +1,26 @@
 package com.rently.rentlyAPI.controller;
 
 import com.rently.rentlyAPI.dto.*;
+import com.rently.rentlyAPI.entity.enums.CondoStatus;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
+import com.rently.rentlyAPI.security.CurrentUser;
 import com.rently.rentlyAPI.services.CompanyAdminService;
+import com.rently.rentlyAPI.services.PortfolioExportService;
+import com.rently.rentlyAPI.services.PortfolioImportService;
 import com.rently.rentlyAPI.services.S3Service;
 import com.rently.rentlyAPI.services.UserService;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,29 +30,59 @@ public class CompanyAdminController {
     private final UserService userService;
     private final CompanyAdminService companyAdminService;
     private final S3Service s3Service;
+    private final PortfolioExportService portfolioExportService;
+    private final PortfolioImportService portfolioImportService;
 
     @PostMapping(path = "/create/building")
-    public ResponseEntity<BuildingDto> createBuilding(@RequestHeader("Authorization") String token, @RequestBody BuildingDto buildingDto) {
-        return ResponseEntity.ok(companyAdminService.createBuildingAndLinkToCompany(token, buildingDto));
+    public ResponseEntity<BuildingDto> createBuilding(@CurrentUser AuthenticatedUser currentUser, @RequestBody BuildingDto buildingDto) {
+        return ResponseEntity.ok(companyAdminService.createBuildingAndLinkToCompany(currentUser, buildingDto));
     }
 
     @GetMapping(path = "/buildings/id={buildingId}")
-    public ResponseEntity<BuildingDto> getBuildingById(@RequestHeader("Authorization") String token, @PathVariable(name = "buildingId") Integer buildingId) {
-        return ResponseEntity.ok(companyAdminService.getBuildingById(token, buildingId));
+    public ResponseEntity<BuildingDto> getBuildingById(@CurrentUser AuthenticatedUser currentUser, @PathVariable(name = "buildingId") Integer buildingId) {
+        return ResponseEntity.ok(companyAdminService.getBuildingById(currentUser, buildingId));
     }
 
     @GetMapping(path = "/buildings/name={buildingName}")
-    public ResponseEntity<BuildingDto> getBuildingByName(@RequestHeader("Authorization") String token, @PathVariable(name = "buildingName") String buildingName) {
-        return ResponseEntity.ok(companyAdminService.getBuildingByName(token, buildingName));
+    public ResponseEntity<BuildingDto> getBuildingByName(@CurrentUser AuthenticatedUser currentUser, @PathVariable(name = "buildingName") String buildingName) {
+        return ResponseEntity.ok(companyAdminService.getBuildingByName(currentUser, buildingName));
     }
 
-    //company admin can see all his buildings
+    //company admin can see all his buildings, one page at a time
     @GetMapping(path = "/buildings")
-    public ResponseEntity<List<BuildingDto>> getAllBuildings(@RequestHeader("Authorization") String token) {
-        // token.substring(7) To remove the Bearer prefix from the token
-        Integer companyId = companyAdminService.findCompanyAdminEntityByToken(token).getCompany().getId();
-        return ResponseEntity.ok(companyAdminService.getAllBuildingsByCompanyId(companyId));
+    public ResponseEntity<CursorPageDto<BuildingDto>> getAllBuildings(@CurrentUser AuthenticatedUser currentUser,
+                                                                     @ParameterObject PageQueryDto page,
+                                                                     @RequestParam(required = false) String name) {
+        return ResponseEntity.ok(companyAdminService.getBuildings(currentUser.getCompanyId(), name, KeysetPageRequest.of(page)));
+    }
+
+    // streams the buildings, condos, housing contracts and employees of the company: ?format=ndjson|csv&section=
+    @GetMapping(path = "/export")
+    public ResponseEntity<StreamingResponseBody> exportPortfolio(@CurrentUser AuthenticatedUser currentUser,
+                                                                 @RequestParam(defaultValue = "ndjson") String format,
+                                                                 @RequestParam(required = false) String section) {
+        PortfolioExportService.Export export = portfolioExportService.prepare(currentUser.getCompanyId(), format, section);
+        return ResponseEntity.ok()
+                .contentType(export.format().mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(export.filename()).build().toString())
+                .body(out -> portfolioExportService.write(export, out));
     }
+
+    // imports buildings, condos, parkings or lockers from the body: ?section=&format=csv|json, see PortfolioImportService.Section
+    @PostMapping(path = "/import")
+    public ResponseEntity<ImportJobDto> importPortfolio(@CurrentUser AuthenticatedUser currentUser,
+                                                        @RequestParam String section,
+                                                        @RequestParam(defaultValue = "csv") String format,
+                                                        InputStream body) throws IOException {
+        return ResponseEntity.accepted().body(portfolioImportService.start(currentUser.getCompanyId(), format, section, body));
+    }
+
+    // progress of an import and the rows it rejected
+    @GetMapping(path = "/import/{jobId}")
+    public ResponseEntity<ImportJobDto> getImportJob(@CurrentUser AuthenticatedUser currentUser, @PathVariable String jobId) {
+        return ResponseEntity.ok(portfolioImportService.getJob(currentUser.getCompanyId(), jobId));
+    }
+
     // Condo
     @PostMapping(path = "/create/condo")
     public ResponseEntity<CondoDto> createCondo(@RequestBody CondoDto condoDto) {
@@ -48,10 +90,18 @@ public class CompanyAdminController {
     }
     
     @GetMapping(path = "/condos/all")
-    public ResponseEntity<List<CondoDto>> getAllCondos() {
-        return ResponseEntity.ok(companyAdminService.getAllCondos());
+    public ResponseEntity<CursorPageDto<CondoDto>> getAllCondos(@CurrentUser AuthenticatedUser currentUser,
+                                                               @ParameterObject PageQueryDto page,
+                                                               @RequestParam(required = false) Integer buildingId,
+                                                               @RequestParam(required = false) CondoStatus status) {
+        return ResponseEntity.ok(companyAdminService.getCondos(currentUser.getCompanyId(), buildingId, status, KeysetPageRequest.of(page)));
     }
     
+    @GetMapping(path = "/condos/id={condoId}")
+    public ResponseEntity<CondoDto> getCondoById(@CurrentUser AuthenticatedUser currentUser, @PathVariable(name = "condoId") Integer condoId) {
+        return ResponseEntity.ok(companyAdminService.getCondoById(currentUser, condoId));
+    }
+
     @GetMapping(path = "/condos/buildingId={buildingId}")
     public ResponseEntity<List<CondoDto>> getAllCondosByBuildingId(@PathVariable(name = "buildingId") Integer buildingId) {
         return ResponseEntity.ok(companyAdminService.getAllCondosByBuildingId(buildingId));
@@ -99,9 +149,11 @@ public class CompanyAdminController {
     }
 
     @GetMapping(path = "/common-facilities")
-    public ResponseEntity<List<CommonFacilityDto>> getAllCommonFacilities() {
-        // token.substring(7) To remove the Bearer prefix from the token
-        return ResponseEntity.ok(companyAdminService.getAllCommonFacilities());
+    public ResponseEntity<CursorPageDto<CommonFacilityDto>> getAllCommonFacilities(@CurrentUser AuthenticatedUser currentUser,
+                                                                                  @ParameterObject PageQueryDto page,
+                                                                                  @RequestParam(required = false) Integer buildingId,
+                                                                                  @RequestParam(required = false) String name) {
+        return ResponseEntity.ok(companyAdminService.getCommonFacilities(currentUser.getCompanyId(), buildingId, name, KeysetPageRequest.of(page)));
     }
 
     @GetMapping(path = "/common-facilities/building={buildingId}")
@@ -129,13 +181,13 @@ public class CompanyAdminController {
     }
 
     @GetMapping(path = "/employees")
-    public ResponseEntity<List<EmployeeDto>> getAllEmployees(@RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(companyAdminService.getAllEmployees(token));
+    public ResponseEntity<List<EmployeeDto>> getAllEmployees(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(companyAdminService.getAllEmployees(currentUser));
     }
 
     @GetMapping(path = "/employees/type={employeeType}/building={buildingId}")
-    public ResponseEntity<List<EmployeeDto>> getAllEmployeesByTypeAndBuilding(@RequestHeader("Authorization") String token, @PathVariable String employeeType, @PathVariable Integer buildingId) {
-        return ResponseEntity.ok(companyAdminService.getAllEmployeesByTypeAndBuilding(token, employeeType, buildingId));
+    public ResponseEntity<List<EmployeeDto>> getAllEmployeesByTypeAndBuilding(@CurrentUser AuthenticatedUser currentUser, @PathVariable String employeeType, @PathVariable Integer buildingId) {
+        return ResponseEntity.ok(companyAdminService.getAllEmployeesByTypeAndBuilding(currentUser, employeeType, buildingId));
     }
 
     @DeleteMapping(path = "/delete/employee/id={id}")
@@ -152,13 +204,13 @@ public class CompanyAdminController {
 
     // get all assignments
     @GetMapping(path = "/assignments")
-    public ResponseEntity<List<EmployeeAssignmentDto>> getAllEmployeeAssignments(@RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(companyAdminService.getAllEmployeeAssignments(token));
+    public ResponseEntity<List<EmployeeAssignmentDto>> getAllEmployeeAssignments(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(companyAdminService.getAllEmployeeAssignments(currentUser));
     }
 
     @GetMapping(path = "/assignments/unassigned")
-    public ResponseEntity<List<EmployeeAssignmentDto>> getAllUnassignedEmployeeAssignments(@RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(companyAdminService.getAllUnassignedEmployeeAssignments(token));
+    public ResponseEntity<List<EmployeeAssignmentDto>> getAllUnassignedEmployeeAssignments(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(companyAdminService.getAllUnassignedEmployeeAssignments(currentUser));
     }
 
     @PatchMapping(path = "/assignments/assign/employee={employeeId}/assignment={assignmentId}")
@@ -2,6 +2,8 @@ package com.rently.rentlyAPI.controller;
 
 import com.rently.rentlyAPI.dto.AssignmentUpdateDto;
 import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
+import com.rently.rentlyAPI.security.CurrentUser;
 import com.rently.rentlyAPI.services.EmployeeService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -16,18 +18,18 @@ public class EmployeeController {
     private final EmployeeService employeeService;
 
     @GetMapping(path = "/assignments")
-    public ResponseEntity<List<EmployeeAssignmentDto>> getAssignments(@RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(employeeService.getAllAssignments(token));
+    public ResponseEntity<List<EmployeeAssignmentDto>> getAssignments(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(employeeService.getAllAssignments(currentUser));
     }
 
     @GetMapping(path = "/assignments/id={id}")
-    public ResponseEntity<EmployeeAssignmentDto> getAssignmentById(@RequestHeader("Authorization") String token, @PathVariable Integer id) {
-        return ResponseEntity.ok(employeeService.getAssignmentById(token, id));
+    public ResponseEntity<EmployeeAssignmentDto> getAssignmentById(@CurrentUser AuthenticatedUser currentUser, @PathVariable Integer id) {
+        return ResponseEntity.ok(employeeService.getAssignmentById(currentUser, id));
     }
 
     @PostMapping(path = "/assignments/id={assignmentId}")
-    public ResponseEntity<AssignmentUpdateDto> updateAssignmentStatusOnProgress(@RequestHeader("Authorization") String token, @RequestBody AssignmentUpdateDto assignmentUpdateDto, @PathVariable Integer assignmentId) {
-        return ResponseEntity.ok(employeeService.updateAssignmentStatus(token, assignmentUpdateDto, assignmentId));
+    public ResponseEntity<AssignmentUpdateDto> updateAssignmentStatusOnProgress(@CurrentUser AuthenticatedUser currentUser, @RequestBody AssignmentUpdateDto assignmentUpdateDto, @PathVariable Integer assignmentId) {
+        return ResponseEntity.ok(employeeService.updateAssignmentStatus(currentUser, assignmentUpdateDto, assignmentId));
     }
 
 }
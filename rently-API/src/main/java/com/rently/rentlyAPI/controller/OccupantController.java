@@ -1,15 +1,28 @@
 package com.rently.rentlyAPI.controller;
 
+import com.rently.rentlyAPI.dto.BulkReservationReportDto;
+import com.rently.rentlyAPI.dto.BulkReservationRequestDto;
 import com.rently.rentlyAPI.dto.CommonFacilityReservationDto;
 import com.rently.rentlyAPI.dto.CondoDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.HousingContractAndCondoDto;
 import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
+import com.rently.rentlyAPI.dto.FacilityAvailabilityDto;
+import com.rently.rentlyAPI.dto.OccupantDashboardDto;
 import com.rently.rentlyAPI.dto.OwnerRequestDto;
+import com.rently.rentlyAPI.dto.OccupantNotificationDto;
+import com.rently.rentlyAPI.dto.WaitlistEntryDto;
+import com.rently.rentlyAPI.entity.user.Occupant;
+import com.rently.rentlyAPI.entity.user.Owner;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
+import com.rently.rentlyAPI.security.CurrentUser;
 import com.rently.rentlyAPI.services.OccupantService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,71 +31,134 @@ import java.util.List;
 public class OccupantController {
     private final OccupantService occupantService;
 
+    // condos, contracts, reservations, requests and their statuses in one call
+    @GetMapping(path = "/dashboard")
+    public ResponseEntity<OccupantDashboardDto> getDashboard(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(occupantService.getDashboard(currentUser));
+    }
+
     // facility reservations
     @PostMapping(path = "/create/facility-reservation")
-    public ResponseEntity<CommonFacilityReservationDto> createFacilityReservation(@RequestHeader("Authorization") String token, @RequestBody CommonFacilityReservationDto commonFacilityReservationDto) {
-        return ResponseEntity.ok(occupantService.createCommonFacilityReservation(token, commonFacilityReservationDto));
+    public ResponseEntity<CommonFacilityReservationDto> createFacilityReservation(@CurrentUser Occupant occupant, @RequestBody CommonFacilityReservationDto commonFacilityReservationDto) {
+        return ResponseEntity.ok(occupantService.createCommonFacilityReservation(occupant, commonFacilityReservationDto));
+    }
+
+    // recurring or several reservations of a facility at once, each occurrence is accepted or rejected on its own
+    @PostMapping(path = "/create/facility-reservations")
+    public ResponseEntity<BulkReservationReportDto> createFacilityReservations(@CurrentUser Occupant occupant, @RequestBody BulkReservationRequestDto bulkReservationRequestDto) {
+        return ResponseEntity.ok(occupantService.createCommonFacilityReservations(occupant, bulkReservationRequestDto));
     }
 
     @DeleteMapping(path = "/delete/facility-reservation/{id}")
-    public ResponseEntity<String> deleteFacilityReservation(@RequestHeader("Authorization") String token, @PathVariable Integer id) {
-        occupantService.deleteCommonFacilityReservation(token, id);
+    public ResponseEntity<String> deleteFacilityReservation(@CurrentUser AuthenticatedUser currentUser, @PathVariable Integer id) {
+        occupantService.deleteCommonFacilityReservation(currentUser, id);
         return ResponseEntity.ok("Reservation deleted successfully");
     }
 
     @GetMapping(path = "/facility-reservation/{id}")
-    public ResponseEntity<CommonFacilityReservationDto> getFacilityReservation(@RequestHeader("Authorization") String token, @PathVariable Integer id) {
-        return ResponseEntity.ok(occupantService.getCommonFacilityReservation(token, id));
+    public ResponseEntity<CommonFacilityReservationDto> getFacilityReservation(@CurrentUser AuthenticatedUser currentUser, @PathVariable Integer id) {
+        return ResponseEntity.ok(occupantService.getCommonFacilityReservation(currentUser, id));
     }
 
     @GetMapping(path = "/facility-reservation")
-    public ResponseEntity<List<CommonFacilityReservationDto>> getAllFacilityReservations(@RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(occupantService.getAllCommonFacilityReservations(token));
+    public ResponseEntity<List<CommonFacilityReservationDto>> getAllFacilityReservations(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(occupantService.getAllCommonFacilityReservations(currentUser));
+    }
+
+    // the free slots from the start of from to the end of to, e.g. ?from=2024-06-03&to=2024-06-09 for a week
+    @GetMapping(path = "/common-facilities/{id}/availability")
+    public ResponseEntity<FacilityAvailabilityDto> getFacilityAvailability(@CurrentUser AuthenticatedUser currentUser, @PathVariable Integer id,
+                                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(occupantService.getCommonFacilityAvailability(currentUser, id, from, to));
+    }
+
+    // the same for every common facility of the building
+    @GetMapping(path = "/buildings/{id}/availability")
+    public ResponseEntity<List<FacilityAvailabilityDto>> getBuildingAvailability(@CurrentUser AuthenticatedUser currentUser, @PathVariable Integer id,
+                                                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(occupantService.getBuildingAvailability(currentUser, id, from, to));
+    }
+
+    // facility waitlist: a taken slot is booked for the first occupant waiting for it once it is cancelled
+    @PostMapping(path = "/create/facility-waitlist")
+    public ResponseEntity<WaitlistEntryDto> joinFacilityWaitlist(@CurrentUser Occupant occupant, @RequestBody CommonFacilityReservationDto commonFacilityReservationDto) {
+        return ResponseEntity.ok(occupantService.joinCommonFacilityWaitlist(occupant, commonFacilityReservationDto));
+    }
+
+    @DeleteMapping(path = "/delete/facility-waitlist/{id}")
+    public ResponseEntity<String> leaveFacilityWaitlist(@CurrentUser AuthenticatedUser currentUser, @PathVariable Integer id) {
+        occupantService.leaveCommonFacilityWaitlist(currentUser, id);
+        return ResponseEntity.ok("Waitlist entry deleted successfully");
+    }
+
+    @GetMapping(path = "/facility-waitlist")
+    public ResponseEntity<List<WaitlistEntryDto>> getAllWaitlistEntries(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(occupantService.getAllWaitlistEntries(currentUser));
+    }
+
+    @GetMapping(path = "/common-facilities/{id}/waitlist")
+    public ResponseEntity<List<WaitlistEntryDto>> getFacilityWaitlist(@CurrentUser AuthenticatedUser currentUser, @PathVariable Integer id) {
+        return ResponseEntity.ok(occupantService.getCommonFacilityWaitlist(currentUser, id));
+    }
+
+    // what happened while the occupant was away, e.g. a waitlist entry booked for them
+    @GetMapping(path = "/notifications")
+    public ResponseEntity<List<OccupantNotificationDto>> getNotifications(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(occupantService.getNotifications(currentUser));
+    }
+
+    @PatchMapping(path = "/notifications/{id}/read")
+    public ResponseEntity<OccupantNotificationDto> markNotificationAsRead(@CurrentUser AuthenticatedUser currentUser, @PathVariable Integer id) {
+        return ResponseEntity.ok(occupantService.markNotificationAsRead(currentUser, id));
     }
 
     // owner requests
     @PostMapping(path = "/create/request")
-    public ResponseEntity<OwnerRequestDto> createOwnerRequest(@RequestHeader("Authorization") String token, @RequestBody OwnerRequestDto ownerRequestDto) {
-        return ResponseEntity.ok(occupantService.createOwnerRequest(token, ownerRequestDto));
+    public ResponseEntity<OwnerRequestDto> createOwnerRequest(@CurrentUser Owner owner, @RequestBody OwnerRequestDto ownerRequestDto) {
+        return ResponseEntity.ok(occupantService.createOwnerRequest(owner, ownerRequestDto));
     }
 
     @DeleteMapping(path = "/delete/request/id={id}")
-    public ResponseEntity<String> deleteOwnerRequest(@RequestHeader("Authorization") String token, @PathVariable Integer id) {
-        occupantService.deleteOwnerRequest(token, id);
+    public ResponseEntity<String> deleteOwnerRequest(@CurrentUser Owner owner, @PathVariable Integer id) {
+        occupantService.deleteOwnerRequest(owner, id);
         return ResponseEntity.ok("Owner request with ID " + id + " deleted successfully");
     }
 
     @GetMapping(path = "/request")
-    public ResponseEntity<List<OwnerRequestDto>> getAllOwnerRequests(@RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(occupantService.getAllOwnerRequests(token));
+    public ResponseEntity<List<OwnerRequestDto>> getAllOwnerRequests(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(occupantService.getAllOwnerRequests(currentUser));
     }
 
     @GetMapping(path = "/request/id={id}")
-    public ResponseEntity<OwnerRequestDto> getOwnerRequestById(@RequestHeader("Authorization") String token, @PathVariable Integer id) {
-        return ResponseEntity.ok(occupantService.getOwnerRequestById(token, id));
+    public ResponseEntity<OwnerRequestDto> getOwnerRequestById(@CurrentUser AuthenticatedUser currentUser, @PathVariable Integer id) {
+        return ResponseEntity.ok(occupantService.getOwnerRequestById(currentUser, id));
     }
     
-    // get condo of an occupant just by its token
+    // get condos of the current occupant
     @GetMapping(path = "/my-condos")
-    public ResponseEntity<List<CondoDto>> getMyCondos(@RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(occupantService.getMyCondos(token));
+    public ResponseEntity<List<CondoDto>> getMyCondos(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(occupantService.getMyCondos(currentUser));
     }
     
     // get condo by its id
     @GetMapping(path = "/my-condo/condoId={condoId}")
-    public ResponseEntity<HousingContractAndCondoDto> getMyCondoInformationById(@RequestHeader("Authorization") String token, @PathVariable Integer condoId) {
-        return ResponseEntity.ok(occupantService.getMyCondoInformationById(token, condoId));
+    public ResponseEntity<HousingContractAndCondoDto> getMyCondoInformationById(@CurrentUser AuthenticatedUser currentUser, @PathVariable Integer condoId) {
+        return ResponseEntity.ok(occupantService.getMyCondoInformationById(currentUser, condoId));
     }
     
 
     @GetMapping(path = "/request/status")
-    public ResponseEntity<List<EmployeeAssignmentDto>> getAllStatus(@RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(occupantService.getAllOwnerRequestsStatus(token));
+    public ResponseEntity<CursorPageDto<EmployeeAssignmentDto>> getAllStatus(@CurrentUser AuthenticatedUser currentUser,
+                                                                             @RequestParam(required = false) String cursor,
+                                                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(occupantService.getAllOwnerRequestsStatus(currentUser, cursor, limit));
     }
 
     @GetMapping(path = "/request/status/requestId={requestId}")
-    public ResponseEntity<EmployeeAssignmentDto> getStatusByRequest(@RequestHeader("Authorization") String token, @PathVariable Integer requestId) {
-        return ResponseEntity.ok(occupantService.getOwnerRequestStatusByRequestId(token, requestId));
+    public ResponseEntity<EmployeeAssignmentDto> getStatusByRequest(@CurrentUser AuthenticatedUser currentUser, @PathVariable Integer requestId) {
+        return ResponseEntity.ok(occupantService.getOwnerRequestStatusByRequestId(currentUser, requestId));
     }
 
 }
@@ -1,6 +1,8 @@
 package com.rently.rentlyAPI.controller;
 
 import com.rently.rentlyAPI.dto.PublicUserDto;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
+import com.rently.rentlyAPI.security.CurrentUser;
 import com.rently.rentlyAPI.services.PublicUserService;
 import com.rently.rentlyAPI.services.UserService;
 import lombok.RequiredArgsConstructor;
@@ -23,9 +25,8 @@ public class PublicUserController {
     }
     
     @GetMapping(path = "/view-profile")
-    public ResponseEntity<PublicUserDto> viewProfileById(@RequestHeader("Authorization") String token) {
-        Integer publicUserId = publicUserService.findPublicUserEntityByToken(token).getId();
-        return ResponseEntity.ok(publicUserService.findPublicUserDtoById(publicUserId));
+    public ResponseEntity<PublicUserDto> viewProfileById(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(publicUserService.findPublicUserDtoById(currentUser.getId()));
     }
     
     @PatchMapping(path = "/update-profile")
@@ -34,9 +35,8 @@ public class PublicUserController {
     }
     
     @DeleteMapping(path = "/delete-profile")
-    public ResponseEntity<String> deleteProfile(@RequestHeader("Authorization") String token) {
-        Integer publicUserId = publicUserService.findPublicUserEntityByToken(token).getId();
-        String successMessage = publicUserService.deletePublicUserById(publicUserId);
+    public ResponseEntity<String> deleteProfile(@CurrentUser AuthenticatedUser currentUser) {
+        String successMessage = publicUserService.deletePublicUserById(currentUser.getId());
         return ResponseEntity.ok(successMessage);
     }
     
@@ -2,15 +2,17 @@ package com.rently.rentlyAPI.controller;
 
 import com.rently.rentlyAPI.dto.CompanyAdminDto;
 import com.rently.rentlyAPI.dto.CompanyDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
+import com.rently.rentlyAPI.dto.PageQueryDto;
 import com.rently.rentlyAPI.dto.SystemAdminDto;
 import com.rently.rentlyAPI.services.SystemAdminService;
 import com.rently.rentlyAPI.services.UserService;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/system-admin")
 @RequiredArgsConstructor
@@ -35,8 +37,9 @@ public class SystemAdminController {
     }
 
     @GetMapping(path = "/get/system-admin")
-    public ResponseEntity<List<SystemAdminDto>> getAllSystemAdmin() {
-        return ResponseEntity.ok(userService.getAllSystemAdmins());
+    public ResponseEntity<CursorPageDto<SystemAdminDto>> getAllSystemAdmin(@ParameterObject PageQueryDto page,
+                                                                          @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(userService.getSystemAdmins(email, KeysetPageRequest.of(page)));
     }
 
 
@@ -52,8 +55,10 @@ public class SystemAdminController {
     }
 
     @GetMapping(path = "/get/company-admin")
-    public ResponseEntity<List<CompanyAdminDto>> getAllCompanyAdmin() {
-        return ResponseEntity.ok(userService.getAllCompanyAdmins());
+    public ResponseEntity<CursorPageDto<CompanyAdminDto>> getAllCompanyAdmin(@ParameterObject PageQueryDto page,
+                                                                            @RequestParam(required = false) Integer companyId,
+                                                                            @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(userService.getCompanyAdmins(companyId, email, KeysetPageRequest.of(page)));
     }
 
 //
@@ -1,6 +1,8 @@
 package com.rently.rentlyAPI.controller;
 
 import com.rently.rentlyAPI.auth.dto.ChangePasswordRequestDto;
+import com.rently.rentlyAPI.entity.user.User;
+import com.rently.rentlyAPI.security.CurrentUser;
 import com.rently.rentlyAPI.services.S3Service;
 import com.rently.rentlyAPI.services.UserService;
 
@@ -21,16 +23,16 @@ public class UserController {
 	private final S3Service s3Service;
 	
 	@PostMapping(path = "/activate-key/key={registrationKey}")
-	public ResponseEntity<String> activateKeyToChangeRole(@RequestHeader("Authorization") String token, @PathVariable(name = "registrationKey") String registrationKey) {
-		return ResponseEntity.ok(userService.userKeyActivation(token, registrationKey));
+	public ResponseEntity<String> activateKeyToChangeRole(@CurrentUser User user, @PathVariable(name = "registrationKey") String registrationKey) {
+		return ResponseEntity.ok(userService.userKeyActivation(user, registrationKey));
 	}
 
 	@PostMapping("/profile-picture/update")
 	public ResponseEntity<?> uploadProfilePicture(
 			@RequestParam("image") MultipartFile multipartFile,
-			@RequestHeader("Authorization") String token
+			@CurrentUser User user
 	) throws Exception {
-		s3Service.uploadImage(multipartFile, token.substring(7));
+		s3Service.uploadImage(multipartFile, user);
 		return ResponseEntity.ok().body("Image uploaded successfully.");
 	}
 }
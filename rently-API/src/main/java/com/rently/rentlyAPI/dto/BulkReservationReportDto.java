@@ -0,0 +1,27 @@
+package com.rently.rentlyAPI.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class BulkReservationReportDto {
+
+    @JsonProperty("common_facility_id")
+    private Integer commonFacilityId;
+
+    @JsonProperty("accepted")
+    private int accepted;
+
+    @JsonProperty("rejected")
+    private int rejected;
+
+    // by start time
+    @JsonProperty("occurrences")
+    private List<OccurrenceReportDto> occurrences;
+}
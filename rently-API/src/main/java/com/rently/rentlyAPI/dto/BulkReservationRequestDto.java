@@ -0,0 +1,28 @@
+package com.rently.rentlyAPI.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class BulkReservationRequestDto {
+
+    @JsonProperty("common_facility_id")
+    @NotNull(message = "The common facility id is required")
+    private Integer commonFacilityId;
+
+    // the first occurrence of each reservation, or every reservation when there is no recurrence
+    @JsonProperty("reservations")
+    @NotEmpty(message = "At least one reservation is required")
+    private List<TimeSlotDto> reservations;
+
+    @JsonProperty("recurrence")
+    private RecurrenceDto recurrence;
+}
@@ -3,10 +3,13 @@ package com.rently.rentlyAPI.dto;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.rently.rentlyAPI.entity.CommonFacilityReservation;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 
 @Data
 @Builder
@@ -20,15 +23,20 @@ public class CommonFacilityReservationDto {
     private Integer commonFacilityId;
 
 
-    @JsonProperty("reservation_date DD-MM-YYYY")
-    @NotBlank(message = "The date is required")
-    private String reservationDate;
+    @JsonProperty("start_time")
+    @NotNull(message = "The start time is required")
+    private LocalDateTime startTime;
+
+    @JsonProperty("end_time")
+    @NotNull(message = "The end time is required")
+    private LocalDateTime endTime;
 
 
     public static CommonFacilityReservation toEntity(CommonFacilityReservationDto commonFacilityReservationDto) {
         return com.rently.rentlyAPI.entity.CommonFacilityReservation.builder()
                 .id(commonFacilityReservationDto.getId())
-                .date(commonFacilityReservationDto.getReservationDate())
+                .startTime(commonFacilityReservationDto.getStartTime())
+                .endTime(commonFacilityReservationDto.getEndTime())
                 //TODO: handle logic for setting the companyId, commonFacilityId, and occupantId
                 .build();
 
@@ -38,7 +46,8 @@ public class CommonFacilityReservationDto {
         return CommonFacilityReservationDto.builder()
                 .id(commonFacilityReservation.getId())
                 .commonFacilityId(commonFacilityReservation.getCommonFacility().getId())
-                .reservationDate(commonFacilityReservation.getDate())
+                .startTime(commonFacilityReservation.getStartTime())
+                .endTime(commonFacilityReservation.getEndTime())
                 .build();
     }
 }
@@ -44,6 +44,12 @@ public class CompanyAdminDto extends RootUserDto {
     @JsonProperty("company_id")
     private Integer companyId;
 
+    // used by the list projections in CompanyAdminRepository, the password is never read
+    public CompanyAdminDto(Integer id, String email, String firstName, String lastName, String phoneNumber,
+                           String bio, Role role, Integer companyId) {
+        this(id, email, null, firstName, lastName, phoneNumber, bio, role.name(), companyId);
+    }
+
     public static CompanyAdmin toEntity(CompanyAdminDto companyAdminDto){
 
         return CompanyAdmin.builder()
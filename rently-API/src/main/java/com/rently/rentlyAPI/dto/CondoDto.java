@@ -48,6 +48,12 @@ public class CondoDto {
     private Integer lockerId;
 
 
+    // used by the list projections in CondoRepository
+    public CondoDto(Integer id, String address, Integer unitNumber, String description, String registrationKey,
+                    CondoStatus status, Integer buildingId, Integer parkingId, Integer lockerId) {
+        this(id, address, unitNumber, description, registrationKey, status.toString(), buildingId, parkingId, lockerId);
+    }
+
     public static Condo toEntity(CondoDto condoDto){
         return Condo.builder()
                 // Address logic is handled in business logic (Building address + condo number)
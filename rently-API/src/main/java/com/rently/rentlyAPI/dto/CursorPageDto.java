@@ -0,0 +1,33 @@
+package com.rently.rentlyAPI.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class CursorPageDto<T> {
+
+    @JsonProperty("items")
+    private List<T> items;
+
+    // pass it back as the cursor parameter to get the next page, null on the last page
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    /**
+     * Builds a page from rows fetched with limit + 1, the extra row only tells that there is a next page.
+     */
+    public static <T> CursorPageDto<T> of(List<T> rows, int limit, Function<T, String> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPageDto<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPageDto<>(items, cursorOf.apply(items.get(limit - 1)));
+    }
+}
@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +33,12 @@ public class EmployeeAssignmentDto {
     private List<AssignmentUpdateDto> assignmentUpdates;
 
 
+    // used by the list projections in EmployeeAssignmentRepository, the updates are attached afterwards
+    public EmployeeAssignmentDto(Integer id, Integer companyId, Integer employeeId, Integer ownerRequestId,
+                                 WorkType workType, AssignmentStatus status) {
+        this(id, companyId, employeeId, ownerRequestId, workType.name(), status.name(), new ArrayList<>());
+    }
+
     public static EmployeeAssignmentDto fromEntity(EmployeeAssignment employeeAssignment) {
         EmployeeAssignmentDtoBuilder dtoBuilder = EmployeeAssignmentDto.builder()
                 .id(employeeAssignment.getId())
@@ -49,6 +49,12 @@ public class EmployeeDto extends RootUserDto {
     private String employeeType;
 
 
+    // used by the list projections in EmployeeRepository, the password is never read
+    public EmployeeDto(Integer id, String email, String firstName, String lastName, String phoneNumber,
+                       String bio, Role role, Integer companyId, WorkType employeeType) {
+        this(id, email, null, firstName, lastName, phoneNumber, bio, role.name(), companyId, employeeType.toString());
+    }
+
     public static Employee toEntity(EmployeeDto employeeDto) {
         return Employee.builder()
                 .email(employeeDto.getEmail())
@@ -0,0 +1,33 @@
+package com.rently.rentlyAPI.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class FacilityAvailabilityDto {
+
+    @JsonProperty("common_facility_id")
+    private Integer commonFacilityId;
+
+    @JsonProperty("from")
+    private LocalDate from;
+
+    // inclusive, the free slots run to the end of this day
+    @JsonProperty("to")
+    private LocalDate to;
+
+    // the free slots start and end on multiples of it, a slot partly reserved is not free
+    @JsonProperty("slot_minutes")
+    private int slotMinutes;
+
+    // by start time, the ones running past midnight are not split
+    @JsonProperty("free_slots")
+    private List<TimeSlotDto> freeSlots;
+}
@@ -0,0 +1,47 @@
+package com.rently.rentlyAPI.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class ImportJobDto {
+
+    @JsonProperty("job_id")
+    private String jobId;
+
+    @JsonProperty("section")
+    private String section;
+
+    // QUEUED, RUNNING, COMPLETED or FAILED (the file could not be read past rows_read)
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("rows_read")
+    private long rowsRead;
+
+    @JsonProperty("rows_imported")
+    private long rowsImported;
+
+    @JsonProperty("rows_rejected")
+    private long rowsRejected;
+
+    // the first rejected rows, rows_rejected tells how many there are in total
+    @JsonProperty("errors")
+    private List<ImportRowErrorDto> errors;
+
+    @JsonProperty("message")
+    private String message;
+
+    @JsonProperty("started_at")
+    private LocalDateTime startedAt;
+
+    @JsonProperty("finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,19 @@
+package com.rently.rentlyAPI.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class ImportRowErrorDto {
+
+    // 1-based position of the record in the file, the csv header is not counted
+    @JsonProperty("row")
+    private long row;
+
+    @JsonProperty("message")
+    private String message;
+}
@@ -0,0 +1,31 @@
+package com.rently.rentlyAPI.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class OccupantDashboardDto {
+
+    @JsonProperty("condos")
+    private List<CondoDto> condos;
+
+    @JsonProperty("housing_contracts")
+    private List<HousingContractDto> housingContracts;
+
+    @JsonProperty("facility_reservations")
+    private List<CommonFacilityReservationDto> facilityReservations;
+
+    // always empty for renters, only owners can create requests
+    @JsonProperty("owner_requests")
+    private List<OwnerRequestDto> ownerRequests;
+
+    // the latest statuses, the next pages come from /request/status with the cursor
+    @JsonProperty("request_statuses")
+    private CursorPageDto<EmployeeAssignmentDto> requestStatuses;
+}
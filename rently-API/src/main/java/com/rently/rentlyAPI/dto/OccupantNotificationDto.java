@@ -0,0 +1,41 @@
+package com.rently.rentlyAPI.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.rently.rentlyAPI.entity.OccupantNotification;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class OccupantNotificationDto {
+
+    @JsonProperty("id")
+    private Integer id;
+
+    @JsonProperty("message")
+    private String message;
+
+    @JsonProperty("common_facility_reservation_id")
+    private Integer commonFacilityReservationId;
+
+    @JsonProperty("created_date")
+    private LocalDateTime createdDate;
+
+    // null while unread
+    @JsonProperty("read_date")
+    private LocalDateTime readDate;
+
+    public static OccupantNotificationDto fromEntity(OccupantNotification notification) {
+        return OccupantNotificationDto.builder()
+                .id(notification.getId())
+                .message(notification.getMessage())
+                .commonFacilityReservationId(notification.getCommonFacilityReservationId())
+                .createdDate(notification.getCreationDate())
+                .readDate(notification.getReadDate())
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.rently.rentlyAPI.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class OccurrenceReportDto {
+
+    @JsonProperty("start_time")
+    private LocalDateTime startTime;
+
+    @JsonProperty("end_time")
+    private LocalDateTime endTime;
+
+    @JsonProperty("accepted")
+    private boolean accepted;
+
+    // the reservation made for an accepted occurrence
+    @JsonProperty("reservation_id")
+    private Integer reservationId;
+
+    // why a rejected occurrence was not booked
+    @JsonProperty("message")
+    private String message;
+}
@@ -23,6 +23,11 @@ public class OwnerRequestDto {
     @JsonProperty("work_type")
     private String workType;
 
+    // used by the list projections in OwnerRequestRepository
+    public OwnerRequestDto(Integer id, Integer ownerId, Integer buildingId, String requestDescription, WorkType workType) {
+        this(id, ownerId, buildingId, requestDescription, workType.name());
+    }
+
     public static OwnerRequestDto fromEntity(OwnerRequest ownerRequest) {
         return OwnerRequestDto.builder()
                 .id(ownerRequest.getId())
@@ -0,0 +1,23 @@
+package com.rently.rentlyAPI.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Paging query parameters of the list endpoints: ?cursor=&limit=&sort=id|lastModifiedDate&direction=asc|desc
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageQueryDto {
+
+    // next_cursor of the previous page, it carries the sort and direction of that page
+    private String cursor;
+
+    private Integer limit;
+
+    private String sort;
+
+    private String direction;
+}
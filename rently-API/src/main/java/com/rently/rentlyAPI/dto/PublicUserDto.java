@@ -47,6 +47,12 @@ public class PublicUserDto extends RootUserDto {
     @JsonProperty("registration_key")
     private String registrationKey;
 
+    // used by the list projections in PublicUserRepository, the password is never read
+    public PublicUserDto(Integer id, String email, String firstName, String lastName, String phoneNumber,
+                         String bio, Role role) {
+        this(id, email, null, firstName, lastName, phoneNumber, bio, role.name(), null);
+    }
+
     public static PublicUser toEntity(PublicUserDto publicUserDto){
         return PublicUser.builder()
                 .email(publicUserDto.getEmail())
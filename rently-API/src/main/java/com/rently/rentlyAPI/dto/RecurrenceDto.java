@@ -0,0 +1,32 @@
+package com.rently.rentlyAPI.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.rently.rentlyAPI.entity.enums.RecurrenceFrequency;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class RecurrenceDto {
+
+    @JsonProperty("frequency")
+    @NotNull(message = "The frequency is required")
+    private RecurrenceFrequency frequency;
+
+    // every interval days, weeks or months, 1 when not set
+    @JsonProperty("interval")
+    private Integer interval;
+
+    // occurrences of each reservation, the first one included; count, until or both
+    @JsonProperty("count")
+    private Integer count;
+
+    // inclusive, the last day an occurrence can start on
+    @JsonProperty("until")
+    private LocalDate until;
+}
@@ -44,6 +44,12 @@ public class SystemAdminDto extends RootUserDto {
     @JsonProperty("role")
     private String role;
 
+    // used by the list projections in SystemAdminRepository, the password is never read
+    public SystemAdminDto(Integer id, Integer numberCreatedCompanies, String email, String firstName, String lastName,
+                          String phoneNumber, String bio, Role role) {
+        this(id, numberCreatedCompanies, email, null, firstName, lastName, phoneNumber, bio, role.name());
+    }
+
     public static SystemAdmin toEntity(SystemAdminDto systemAdminDto){
         return SystemAdmin.builder()
                 .id(systemAdminDto.getId())
@@ -0,0 +1,21 @@
+package com.rently.rentlyAPI.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class TimeSlotDto {
+
+    @JsonProperty("start_time")
+    private LocalDateTime startTime;
+
+    // exclusive, a reservation can start at the end of another
+    @JsonProperty("end_time")
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,41 @@
+package com.rently.rentlyAPI.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.rently.rentlyAPI.entity.ReservationWaitlistEntry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class WaitlistEntryDto {
+
+    @JsonProperty("id")
+    private Integer id;
+
+    @JsonProperty("common_facility_id")
+    private Integer commonFacilityId;
+
+    @JsonProperty("start_time")
+    private LocalDateTime startTime;
+
+    @JsonProperty("end_time")
+    private LocalDateTime endTime;
+
+    // 1 for the first in line, counting the earlier entries overlapping this slot
+    @JsonProperty("position")
+    private Long position;
+
+    public static WaitlistEntryDto fromEntity(ReservationWaitlistEntry entry, long position) {
+        return WaitlistEntryDto.builder()
+                .id(entry.getId())
+                .commonFacilityId(entry.getCommonFacility().getId())
+                .startTime(entry.getStartTime())
+                .endTime(entry.getEndTime())
+                .position(position)
+                .build();
+    }
+}
@@ -20,7 +20,7 @@ public class AssignmentUpdate extends AbstractEntity {
 
     private String comment;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private EmployeeAssignment employeeAssignment;
 
 }
@@ -7,6 +7,10 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.List;
 
@@ -17,9 +21,13 @@ import java.util.List;
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
+// read on nearly every request, cached in the second-level cache (see hibernate-cache.conf)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "building")
+@NaturalIdCache(region = "building-natural-id")
 public class Building extends AbstractEntity {
 	
 	@NotBlank(message = "Name is required")
+	@NaturalId(mutable = true)
 	@Column(unique = true)
 	private String name;
 	
@@ -0,0 +1,34 @@
+package com.rently.rentlyAPI.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * An entity of the second-level cache updated or deleted, written in the transaction of the change so the other
+ * instances evict it too. See CacheInvalidationService and the V7 migration.
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "cache_invalidation", indexes = {
+        @Index(name = "idx_cache_invalidation_created_date", columnList = "createdDate")
+})
+public class CacheInvalidation extends AbstractEntity {
+
+    // the Hibernate entity name, e.g. com.rently.rentlyAPI.entity.Building
+    @Column(nullable = false)
+    private String entityName;
+
+    @Column(nullable = false)
+    private Integer entityId;
+}
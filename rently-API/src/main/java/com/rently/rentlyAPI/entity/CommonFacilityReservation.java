@@ -2,7 +2,10 @@ package com.rently.rentlyAPI.entity;
 
 
 import com.rently.rentlyAPI.entity.user.Occupant;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -11,28 +14,36 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
+import java.time.LocalDateTime;
+
 @Data
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "common_facility_reservation")
+@Table(name = "common_facility_reservation", indexes = {
+        @Index(name = "idx_common_facility_reservation_facility_end", columnList = "common_facility_id, end_time"),
+        @Index(name = "idx_common_facility_reservation_occupant_end", columnList = "occupant_id, end_time")
+})
 public class CommonFacilityReservation extends AbstractEntity{
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id")
     private Company company;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "common_facility_id")
     private CommonFacility commonFacility;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "occupant_id")
     private Occupant occupant;
 
-    private long duration;
-    
-    private String date;
+    // [startTime, endTime), two reservations of a facility or of an occupant cannot overlap, see V3 migration
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
 
 }
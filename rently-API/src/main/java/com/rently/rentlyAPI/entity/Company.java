@@ -9,6 +9,10 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.List;
 
@@ -18,9 +22,13 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "company")
+// read on nearly every request, cached in the second-level cache (see hibernate-cache.conf)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "company")
+@NaturalIdCache(region = "company-natural-id")
 public class Company extends AbstractEntity {
     
     @NotBlank(message = "Name is required")
+    @NaturalId(mutable = true)
     @Column(unique = true, name = "name")
     private String name;
 
@@ -16,15 +16,18 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "employee_assignment")
+@Table(name = "employee_assignment", indexes = {
+        @Index(name = "idx_employee_assignment_company_status", columnList = "company_id, status"),
+        @Index(name = "idx_employee_assignment_request", columnList = "request_id")
+})
 public class EmployeeAssignment extends AbstractEntity {
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id")
     private Company company;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id")
     private Employee employee;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private OwnerRequest ownerRequest;
     @Enumerated(EnumType.STRING)
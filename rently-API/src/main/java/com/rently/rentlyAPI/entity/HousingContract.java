@@ -2,6 +2,8 @@ package com.rently.rentlyAPI.entity;
 
 import com.rently.rentlyAPI.entity.user.Occupant;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -17,18 +19,21 @@ import lombok.experimental.SuperBuilder;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "housing_contract")
+@Table(name = "housing_contract", indexes = {
+        @Index(name = "idx_housing_contract_occupant", columnList = "occupant_id"),
+        @Index(name = "idx_housing_contract_condo", columnList = "condo_id")
+})
 public class HousingContract extends AbstractEntity{
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id")
     private Company company;
    
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "occupant_id")
     private Occupant occupant;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "condo_id")
     private Condo condo;
     
@@ -8,17 +8,25 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
+import java.time.LocalDateTime;
+
 @Data
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name = "Key")
+@Table(name = "key", indexes = {
+        @Index(name = "idx_key_family_id", columnList = "familyId"),
+        @Index(name = "idx_key_expires_at", columnList = "expiresAt")
+})
 public class Key extends AbstractEntity{
 
 
+    // refresh tokens are stored as their SHA-256 hash, never in clear
     @Column(unique = true, nullable = false, columnDefinition = "varchar(1000)")
     public String key;
 
+    // set once the key has been used (rotated) or its family revoked
     public boolean revoked;
 
     public boolean isActive;
@@ -31,4 +39,13 @@ public class Key extends AbstractEntity{
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     public User user;
+
+    // every refresh token rotated from the same login shares the family of the first one
+    public String familyId;
+
+    public LocalDateTime expiresAt;
+
+    public Key(String key, boolean revoked, boolean isActive, Integer companyId, Role role, User user) {
+        this(key, revoked, isActive, companyId, role, user, null, null);
+    }
 }
@@ -12,7 +12,9 @@ import lombok.experimental.SuperBuilder;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "locker")
+@Table(name = "locker", uniqueConstraints = {
+        @UniqueConstraint(name = "locker_building_external_ref", columnNames = {"building_id", "externalRef"})
+})
 public class Locker extends AbstractEntity {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "building_id")
@@ -21,6 +23,9 @@ public class Locker extends AbstractEntity {
     @NotBlank(message = "The locker fee is required")
     private long lockerFee;
 
+    // the reference the company gives the locker in its own records, unique in the building
+    private String externalRef;
+
     //associated condo
     @OneToOne
     @JoinColumn(name = "condo_id", unique = true)
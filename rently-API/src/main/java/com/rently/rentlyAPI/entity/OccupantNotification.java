@@ -0,0 +1,49 @@
+package com.rently.rentlyAPI.entity;
+
+import com.rently.rentlyAPI.entity.user.Occupant;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Something that happened to an occupant while they were away, e.g. a waitlist entry promoted to a reservation,
+ * kept until they read it. See OccupantNotificationServiceImpl and the V6 migration.
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "occupant_notification", indexes = {
+        @Index(name = "idx_occupant_notification_occupant", columnList = "occupant_id")
+})
+public class OccupantNotification extends AbstractEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "occupant_id", nullable = false)
+    private Occupant occupant;
+
+    @Column(nullable = false)
+    private String message;
+
+    // not a foreign key: the notification outlives a cancellation of the reservation
+    @Column(name = "common_facility_reservation_id")
+    private Integer commonFacilityReservationId;
+
+    // null until the occupant reads it
+    @Column(name = "read_date")
+    private LocalDateTime readDate;
+
+}
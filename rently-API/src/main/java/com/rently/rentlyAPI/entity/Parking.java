@@ -12,7 +12,9 @@ import lombok.experimental.SuperBuilder;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "parking")
+@Table(name = "parking", uniqueConstraints = {
+        @UniqueConstraint(name = "parking_building_external_ref", columnNames = {"building_id", "externalRef"})
+})
 public class Parking extends AbstractEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -22,6 +24,9 @@ public class Parking extends AbstractEntity {
     @NotBlank(message = "The parking fee is required")
     private long parkingFee;
 
+    // the reference the company gives the parking in its own records, unique in the building
+    private String externalRef;
+
     //associated condo
     @OneToOne
     @JoinColumn(name = "condo_id", unique = true)
@@ -0,0 +1,57 @@
+package com.rently.rentlyAPI.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * The progress of a portfolio import, written by the instance running it after every chunk so any instance can
+ * report it, and after a restart too. See PortfolioImportServiceImpl and the V9 migration.
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "portfolio_import_job", indexes = {
+        @Index(name = "idx_portfolio_import_job_created_date", columnList = "createdDate")
+})
+public class PortfolioImportJob extends AbstractEntity {
+
+    // the id given to the company, a random UUID
+    @Column(nullable = false, unique = true)
+    private String jobId;
+
+    @Column(nullable = false)
+    private Integer companyId;
+
+    // buildings, condos, parkings or lockers
+    @Column(nullable = false)
+    private String section;
+
+    // QUEUED, RUNNING, COMPLETED or FAILED
+    @Column(nullable = false)
+    private String status;
+
+    private long rowsRead;
+
+    private long rowsImported;
+
+    private long rowsRejected;
+
+    @Column(length = 1000)
+    private String message;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
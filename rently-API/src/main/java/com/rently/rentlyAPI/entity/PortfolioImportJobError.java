@@ -0,0 +1,36 @@
+package com.rently.rentlyAPI.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * A row a portfolio import rejected, among the first ones of the job. See PortfolioImportJob.
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "portfolio_import_job_error", indexes = {
+        @Index(name = "idx_portfolio_import_job_error_job", columnList = "jobId, fileRow")
+})
+public class PortfolioImportJobError extends AbstractEntity {
+
+    // PortfolioImportJob#jobId
+    @Column(nullable = false)
+    private String jobId;
+
+    // the position of the row in the file, from 1
+    private long fileRow;
+
+    @Column(nullable = false, length = 1000)
+    private String message;
+}
@@ -0,0 +1,57 @@
+package com.rently.rentlyAPI.entity;
+
+
+import com.rently.rentlyAPI.entity.user.Occupant;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * An occupant waiting for a taken [startTime, endTime) of a facility, first come (lowest id) first served.
+ * Promoted to a reservation once the slot is free, see ReservationWaitlistServiceImpl and the V4 migration.
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "reservation_waitlist_entry", indexes = {
+        @Index(name = "idx_reservation_waitlist_entry_facility_end", columnList = "common_facility_id, end_time")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "reservation_waitlist_entry_occupant_slot",
+                columnNames = {"occupant_id", "common_facility_id", "start_time", "end_time"})
+})
+public class ReservationWaitlistEntry extends AbstractEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id")
+    private Company company;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "common_facility_id")
+    private CommonFacility commonFacility;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "occupant_id")
+    private Occupant occupant;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+}
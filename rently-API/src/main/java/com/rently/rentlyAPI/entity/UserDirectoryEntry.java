@@ -0,0 +1,32 @@
+package com.rently.rentlyAPI.entity;
+
+import com.rently.rentlyAPI.security.Role;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Maps every email to the concrete user table (through its role) and the id in that table,
+ * so a user of any type is found with one indexed lookup. The unique email also keeps emails
+ * unique across the user tables.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_directory")
+public class UserDirectoryEntry extends AbstractEntity {
+
+    @Column(unique = true, nullable = false)
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Role role;
+
+    @Column(nullable = false)
+    private Integer userId;
+}
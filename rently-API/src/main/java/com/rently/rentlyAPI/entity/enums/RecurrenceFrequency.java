@@ -0,0 +1,7 @@
+package com.rently.rentlyAPI.entity.enums;
+
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY //Same day of the month, the last day of the month for the days it does not have
+}
@@ -10,7 +10,6 @@ import lombok.experimental.SuperBuilder;
 import org.hibernate.annotations.Cascade;
 
 @Entity
-@Table(name = "company_admin")
 @Data
 @EqualsAndHashCode(callSuper = true)
 @SuperBuilder
@@ -8,7 +8,6 @@ import lombok.AllArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Table(name = "owner")
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -8,7 +8,6 @@ import lombok.AllArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Table(name = "public_user")
 @Data
 @EqualsAndHashCode(callSuper = true)
 @SuperBuilder
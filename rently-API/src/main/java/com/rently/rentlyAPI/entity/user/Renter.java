@@ -8,7 +8,6 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Table(name = "renter")
 @Data
 @EqualsAndHashCode(callSuper = true)
 @AllArgsConstructor
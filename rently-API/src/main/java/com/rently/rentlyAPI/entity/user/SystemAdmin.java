@@ -8,7 +8,6 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Table(name = "system_admin")
 @Data
 @EqualsAndHashCode(callSuper = true)
 @SuperBuilder
@@ -0,0 +1,12 @@
+package com.rently.rentlyAPI.exceptions;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final String errorMsg;
+
+}
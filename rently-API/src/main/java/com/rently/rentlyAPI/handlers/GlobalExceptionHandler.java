@@ -3,8 +3,10 @@ package com.rently.rentlyAPI.handlers;
 import com.rently.rentlyAPI.exceptions.FileUploadException;
 import com.rently.rentlyAPI.exceptions.ObjectValidationException;
 import com.rently.rentlyAPI.exceptions.OperationNonPermittedException;
+import com.rently.rentlyAPI.exceptions.ServiceUnavailableException;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -53,6 +55,16 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).body(representation);
 	}
 	
+	@ExceptionHandler(ServiceUnavailableException.class)
+	public ResponseEntity<ExceptionRepresentation> handleException(ServiceUnavailableException e) {
+		ExceptionRepresentation representation = ExceptionRepresentation.builder()
+				.errorMessage(e.getErrorMsg())
+				.build();
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(representation);
+	}
+	
 	@ExceptionHandler(DataIntegrityViolationException.class)
 	public ResponseEntity<ExceptionRepresentation> handleException(DataIntegrityViolationException e) {
 		ExceptionRepresentation representation = ExceptionRepresentation.builder()
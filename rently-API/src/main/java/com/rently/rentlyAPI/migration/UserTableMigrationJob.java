@@ -0,0 +1,246 @@
+package com.rently.rentlyAPI.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Copies the users from the legacy table-per-class tables (system_admin, company_admin, employee, public_user,
+ * owner, renter) into the single app_user table mapped by META-INF/orm-single-table-users.xml. The table and its
+ * sequence are created by the V5 migration.
+ *
+ * Migration steps:
+ * 1. Run the current (table-per-class) version with application.user-migration.enabled=true. Every run prunes the
+ *    users deleted since the last run and upserts the legacy rows in keyset batches (newest last_modified_date wins),
+ *    so the job can repeat while the app keeps serving and app_user converges on the legacy tables.
+ * 2. Switch to the single-table-users profile. Its first run copies what changed in between, moves the foreign keys
+ *    that reference the legacy tables to app_user and stops. Legacy tables are left untouched for rollback.
+ *
+ * Ids are preserved and app_user_seq is moved past the legacy user_seq, so references keep pointing to the same users.
+ * Every run also logs the latency of the legacy lookups against their single-table equivalent.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.user-migration.enabled", havingValue = "true")
+public class UserTableMigrationJob {
+
+    private static final String TARGET_TABLE = "app_user";
+    private static final String TARGET_SEQUENCE = "app_user_seq";
+    private static final String LEGACY_SEQUENCE = "user_seq";
+    // Hibernate's default allocation size for the pooled sequence optimizer
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    private static final List<String> COMMON_COLUMNS = List.of(
+            "created_date", "last_modified_date", "email", "password", "first_name", "last_name",
+            "phone_number", "bio", "role", "profile_picture_id");
+
+    // legacy table -> discriminator and its own columns, in the order the legacy lookup used to probe them
+    private static final List<LegacyTable> LEGACY_TABLES = List.of(
+            new LegacyTable("system_admin", "SYSTEM_ADMIN", List.of("number_created_companies")),
+            new LegacyTable("company_admin", "COMPANY_ADMIN", List.of("company_id")),
+            new LegacyTable("employee", "EMPLOYEE", List.of("company_id", "assignment_count", "employee_type")),
+            new LegacyTable("public_user", "PUBLIC_USER", List.of("field_to_change_later")),
+            new LegacyTable("owner", "OWNER", List.of("resident_since_years", "property_owned", "request_count")),
+            new LegacyTable("renter", "RENTER", List.of("resident_since_years", "property_rented"))
+    );
+
+    private record LegacyTable(String name, String discriminator, List<String> columns) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${application.user-migration.batch-size:500}")
+    private int batchSize;
+
+    @Value("${application.user-migration.cutover:false}")
+    private boolean cutover;
+
+    @Value("${application.user-migration.benchmark-samples:200}")
+    private int benchmarkSamples;
+
+    private volatile boolean cutoverCompleted = false;
+
+    public UserTableMigrationJob(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Scheduled(
+            initialDelayString = "${application.user-migration.initial-delay:60000}",
+            fixedDelayString = "${application.user-migration.interval:300000}"
+    )
+    public void run() {
+        if (cutoverCompleted) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+
+        // once cut over, app_user is the source of truth and the frozen legacy tables must not delete from it
+        int pruned = cutover ? 0 : pruneDeletedUsers();
+        int copied = 0;
+        for (LegacyTable table : LEGACY_TABLES) {
+            copied += copyTable(table);
+        }
+        advanceSequence();
+
+        if (cutover) {
+            repointForeignKeys();
+            cutoverCompleted = true;
+        }
+        log.info("User migration run: {} rows copied, {} pruned in {} ms{}", copied, pruned,
+                System.currentTimeMillis() - start, cutover ? ", cutover completed" : "");
+
+        if (benchmarkSamples > 0) {
+            benchmarkLookups();
+        }
+    }
+
+    private int pruneDeletedUsers() {
+        int pruned = 0;
+        for (LegacyTable table : LEGACY_TABLES) {
+            pruned += jdbcTemplate.update("DELETE FROM app_user a WHERE a.user_type = ? AND NOT EXISTS (SELECT 1 FROM "
+                    + table.name() + " s WHERE s.id = a.id)", table.discriminator());
+        }
+        return pruned;
+    }
+
+    /**
+     * Upserts the table in keyset batches of ids, each batch in its own short statement so the legacy tables
+     * are never locked for long. A row whose email already belongs to another user is skipped: the earlier
+     * table wins, like the legacy lookup did.
+     */
+    private int copyTable(LegacyTable table) {
+        List<String> columns = new ArrayList<>(COMMON_COLUMNS);
+        columns.addAll(table.columns());
+        String columnList = String.join(", ", columns);
+        String sourceColumns = columns.stream().map(column -> "s." + column).collect(Collectors.joining(", "));
+        String updates = columns.stream().map(column -> column + " = EXCLUDED." + column).collect(Collectors.joining(", "));
+
+        String upsert = "INSERT INTO app_user (id, user_type, " + columnList + ") "
+                + "SELECT s.id, ?, " + sourceColumns + " FROM " + table.name() + " s "
+                + "WHERE s.id > ? AND s.id <= ? "
+                + "AND NOT EXISTS (SELECT 1 FROM app_user a WHERE a.email = s.email AND a.id <> s.id) "
+                + "ON CONFLICT (id) DO UPDATE SET user_type = EXCLUDED.user_type, " + updates + " "
+                + "WHERE COALESCE(app_user.last_modified_date, '-infinity') < COALESCE(EXCLUDED.last_modified_date, '-infinity') "
+                + "OR app_user.user_type <> EXCLUDED.user_type";
+        String nextBatch = "SELECT MAX(id) FROM (SELECT id FROM " + table.name() + " WHERE id > ? ORDER BY id LIMIT ?) batch";
+
+        int copied = 0;
+        int lastId = Integer.MIN_VALUE;
+        Integer batchEnd;
+        while ((batchEnd = jdbcTemplate.queryForObject(nextBatch, Integer.class, lastId, batchSize)) != null) {
+            copied += jdbcTemplate.update(upsert, table.discriminator(), lastId, batchEnd);
+            lastId = batchEnd;
+        }
+        return copied;
+    }
+
+    private void advanceSequence() {
+        // every id handed out by the legacy pooled sequence is at most its last value
+        Long legacyValue = jdbcTemplate.queryForObject(
+                "SELECT COALESCE((SELECT last_value FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?), 0)",
+                Long.class, LEGACY_SEQUENCE);
+        jdbcTemplate.queryForObject(
+                "SELECT setval(?, GREATEST(?, (SELECT COALESCE(MAX(id), 0) FROM app_user), (SELECT last_value FROM " + TARGET_SEQUENCE + ")) + ?)",
+                Long.class, TARGET_SEQUENCE, legacyValue, SEQUENCE_INCREMENT);
+    }
+
+    /**
+     * Replaces the foreign keys that reference a legacy user table by the same constraint on app_user.
+     * Without it, rows referencing a user created after the cutover would violate the legacy constraint.
+     */
+    private void repointForeignKeys() {
+        List<String> legacyTables = LEGACY_TABLES.stream().map(LegacyTable::name).toList();
+        List<Map<String, Object>> foreignKeys = jdbcTemplate.queryForList("""
+                SELECT tc.table_name, tc.constraint_name, kcu.column_name
+                FROM information_schema.table_constraints tc
+                JOIN information_schema.key_column_usage kcu
+                  ON tc.constraint_name = kcu.constraint_name AND tc.table_schema = kcu.table_schema
+                JOIN information_schema.constraint_column_usage ccu
+                  ON tc.constraint_name = ccu.constraint_name AND tc.table_schema = ccu.table_schema
+                WHERE tc.constraint_type = 'FOREIGN KEY' AND tc.table_schema = current_schema()
+                  AND ccu.table_name IN (%s) AND tc.table_name NOT IN (%s)
+                """.formatted(quoted(legacyTables), quoted(legacyTables)));
+
+        for (Map<String, Object> foreignKey : foreignKeys) {
+            String table = (String) foreignKey.get("table_name");
+            String column = (String) foreignKey.get("column_name");
+            String constraint = (String) foreignKey.get("constraint_name");
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP CONSTRAINT IF EXISTS " + constraint);
+            String replacement = ("fk_" + table + "_" + column + "_" + TARGET_TABLE);
+            replacement = replacement.substring(0, Math.min(replacement.length(), 63));
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP CONSTRAINT IF EXISTS " + replacement);
+            jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + replacement
+                    + " FOREIGN KEY (" + column + ") REFERENCES " + TARGET_TABLE + " (id)");
+            log.info("Foreign key {}.{} now references {}", table, column, TARGET_TABLE);
+        }
+    }
+
+    /**
+     * Times the lookups UserServiceImpl and the login used to run on the legacy tables against the
+     * single-table query that replaces them, on a sample of real emails.
+     */
+    private void benchmarkLookups() {
+        List<String> emails = jdbcTemplate.queryForList(
+                "SELECT email FROM app_user WHERE email IS NOT NULL ORDER BY random() LIMIT ?", String.class, benchmarkSamples);
+        if (emails.isEmpty()) {
+            return;
+        }
+
+        // UserRepository.findByEmail under table-per-class: one UNION ALL over the six tables
+        String unionLookup = "SELECT u.id, u.email, u.password, u.role FROM ("
+                + LEGACY_TABLES.stream()
+                        .map(table -> "SELECT id, email, password, role FROM " + table.name())
+                        .collect(Collectors.joining(" UNION ALL "))
+                + ") u WHERE u.email = ?";
+        String singleTableLookup = "SELECT id, email, password, role FROM app_user WHERE email = ?";
+
+        long[] legacyUnion = time(emails, email -> jdbcTemplate.queryForList(unionLookup, email));
+        // the pre-directory login: each table probed in turn until the email is found
+        long[] legacyProbe = time(emails, email -> {
+            for (LegacyTable table : LEGACY_TABLES) {
+                if (!jdbcTemplate.queryForList("SELECT id FROM " + table.name() + " WHERE email = ?", email).isEmpty()) {
+                    return;
+                }
+            }
+        });
+        long[] singleTable = time(emails, email -> jdbcTemplate.queryForList(singleTableLookup, email));
+
+        log.info("User lookup latency over {} emails (p50/p99 ms): legacy union {}, legacy login probe {}, single table {}",
+                emails.size(), percentiles(legacyUnion), percentiles(legacyProbe), percentiles(singleTable));
+    }
+
+    private static long[] time(List<String> emails, Consumer<String> lookup) {
+        long[] durations = new long[emails.size()];
+        for (int i = 0; i < emails.size(); i++) {
+            long start = System.nanoTime();
+            lookup.accept(emails.get(i));
+            durations[i] = System.nanoTime() - start;
+        }
+        return durations;
+    }
+
+    static String percentiles(long[] durations) {
+        long[] sorted = durations.clone();
+        Arrays.sort(sorted);
+        return String.format("%.2f/%.2f", percentile(sorted, 0.50) / 1_000_000.0, percentile(sorted, 0.99) / 1_000_000.0);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String quoted(List<String> values) {
+        return values.stream().map(value -> "'" + value + "'").collect(Collectors.joining(", "));
+    }
+}
@@ -1,7 +1,32 @@
 package com.rently.rentlyAPI.repository;
 
 import com.rently.rentlyAPI.entity.AssignmentUpdate;
+import com.rently.rentlyAPI.entity.enums.AssignmentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface AssignmentUpdateRepository extends JpaRepository<AssignmentUpdate, Integer> {
+
+    // loads the updates of a whole page of assignments at once instead of one lazy collection per assignment
+    @Query("SELECT u.employeeAssignment.id AS assignmentId, u.id AS id, u.creationDate AS creationDate, " +
+            "u.status AS status, u.comment AS comment " +
+            "FROM AssignmentUpdate u WHERE u.employeeAssignment.id IN :assignmentIds ORDER BY u.id")
+    List<AssignmentUpdateRow> findRowsByAssignmentIds(@Param("assignmentIds") Collection<Integer> assignmentIds);
+
+    interface AssignmentUpdateRow {
+        Integer getAssignmentId();
+
+        Integer getId();
+
+        LocalDateTime getCreationDate();
+
+        AssignmentStatus getStatus();
+
+        String getComment();
+    }
 }
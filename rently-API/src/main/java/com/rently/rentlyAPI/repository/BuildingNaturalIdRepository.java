@@ -0,0 +1,10 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.entity.Building;
+
+import java.util.Optional;
+
+public interface BuildingNaturalIdRepository {
+
+    Optional<Building> findByName(String name);
+}
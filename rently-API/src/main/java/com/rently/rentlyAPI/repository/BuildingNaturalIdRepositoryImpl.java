@@ -0,0 +1,28 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.entity.Building;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Looks the building up by its natural id instead of a query, so the name resolves through the natural-id cache
+ * and the building through the entity cache.
+ */
+@Transactional(readOnly = true)
+public class BuildingNaturalIdRepositoryImpl implements BuildingNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Building> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Building.class).loadOptional(name);
+    }
+}
@@ -1,21 +1,34 @@
 package com.rently.rentlyAPI.repository;
 
 
+import com.rently.rentlyAPI.dto.BuildingDto;
 import com.rently.rentlyAPI.entity.Building;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BuildingRepository extends JpaRepository<Building, Integer> {
+public interface BuildingRepository extends JpaRepository<Building, Integer>, BuildingNaturalIdRepository {
 
 	Optional<Building> findById(Integer id);
 
-	Optional<Building> findByName(String name);
-
 	Optional<Building> getBuildingByName(String buildingName);
 
+	Optional<Building> findByNameAndCompanyId(String name, Integer companyId);
+
 	List<Building> findAllByCompanyId(Integer companyId);
 
 	List<Building> findAllByCompanyName(String companyName);
+
+	@Query("SELECT new com.rently.rentlyAPI.dto.BuildingDto(b.id, b.name, b.numberOfFloors, b.address, b.description, b.company.id) " +
+			"FROM Building b WHERE b.company.id = :companyId ORDER BY b.id")
+	List<BuildingDto> findAllDtosByCompanyId(@Param("companyId") Integer companyId);
+
+	@StreamedQuery
+	@Query("SELECT new com.rently.rentlyAPI.dto.BuildingDto(b.id, b.name, b.numberOfFloors, b.address, b.description, b.company.id) " +
+			"FROM Building b WHERE b.company.id = :companyId ORDER BY b.id")
+	Stream<BuildingDto> streamDtosByCompanyId(@Param("companyId") Integer companyId);
 }
@@ -0,0 +1,20 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.entity.CacheInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Integer> {
+
+    List<CacheInvalidation> findAllByCreationDateAfter(LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CacheInvalidation c WHERE c.creationDate < :before")
+    int deleteAllCreatedBefore(LocalDateTime before);
+}
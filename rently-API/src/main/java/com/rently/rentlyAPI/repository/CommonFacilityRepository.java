@@ -1,8 +1,10 @@
 package com.rently.rentlyAPI.repository;
 
+import com.rently.rentlyAPI.dto.CommonFacilityDto;
 import com.rently.rentlyAPI.entity.CommonFacility;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,4 +16,8 @@ public interface CommonFacilityRepository extends JpaRepository<CommonFacility,
     Optional<CommonFacility> findByNameAndBuildingId(Integer buildingId, String facilityName);
 
     List<CommonFacility> findAllByBuildingId(Integer buildingId);
+
+    @Query("SELECT new com.rently.rentlyAPI.dto.CommonFacilityDto(f.id, f.name, f.description, f.building.id) " +
+            "FROM CommonFacility f WHERE f.building.id = :buildingId ORDER BY f.id")
+    List<CommonFacilityDto> findAllDtosByBuildingId(@Param("buildingId") Integer buildingId);
 }
@@ -1,15 +1,35 @@
 package com.rently.rentlyAPI.repository;
 
+import com.rently.rentlyAPI.dto.CommonFacilityReservationDto;
 import com.rently.rentlyAPI.entity.CommonFacilityReservation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.Optional;
+import java.util.List;
 
 public interface CommonFacilityReservationRepository extends JpaRepository<CommonFacilityReservation, Integer> {
-    Optional<CommonFacilityReservation> findByOccupantIdAndDate(Integer occupantId, String reservationDate);
-
     Collection<CommonFacilityReservation> findAllByOccupantId(Integer occupantId);
 
-    Optional<CommonFacilityReservation> findByCommonFacilityIdAndDate(Integer id, String reservationDate);
+    // the reservations ending after :start are the facility's upcoming ones, see idx_common_facility_reservation_facility_end
+    @Query("SELECT count(r) > 0 FROM CommonFacilityReservation r " +
+            "WHERE r.commonFacility.id = :commonFacilityId AND r.endTime > :start AND r.startTime < :end")
+    boolean existsOverlappingByCommonFacilityId(@Param("commonFacilityId") Integer commonFacilityId,
+                                                @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT count(r) > 0 FROM CommonFacilityReservation r " +
+            "WHERE r.occupant.id = :occupantId AND r.endTime > :start AND r.startTime < :end")
+    boolean existsOverlappingByOccupantId(@Param("occupantId") Integer occupantId,
+                                          @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // loads the interval index of a facility, the legacy rows the V3 migration could not date are left out
+    @Query("SELECT new com.rently.rentlyAPI.dto.CommonFacilityReservationDto(r.id, r.commonFacility.id, r.startTime, r.endTime) " +
+            "FROM CommonFacilityReservation r WHERE r.commonFacility.id = :commonFacilityId AND r.startTime IS NOT NULL")
+    List<CommonFacilityReservationDto> findAllDtosByCommonFacilityId(@Param("commonFacilityId") Integer commonFacilityId);
+
+    @Query("SELECT new com.rently.rentlyAPI.dto.CommonFacilityReservationDto(r.id, r.commonFacility.id, r.startTime, r.endTime) " +
+            "FROM CommonFacilityReservation r WHERE r.occupant.id = :occupantId ORDER BY r.id")
+    List<CommonFacilityReservationDto> findAllDtosByOccupantId(@Param("occupantId") Integer occupantId);
 }
@@ -1,7 +1,10 @@
 package com.rently.rentlyAPI.repository;
 
+import com.rently.rentlyAPI.dto.CompanyAdminDto;
 import com.rently.rentlyAPI.entity.user.CompanyAdmin;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +16,12 @@ public interface CompanyAdminRepository extends JpaRepository<CompanyAdmin, Inte
     List<CompanyAdmin> findAllByCompanyId(Integer companyId);
     
     List<CompanyAdmin> findAllByCompanyName(String companyName);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.rently.rentlyAPI.dto.CompanyAdminDto(a.id, a.email, a.firstName, a.lastName, a.phoneNumber, " +
+            "a.bio, a.role, a.company.id) FROM CompanyAdmin a WHERE a.company.id = :companyId ORDER BY a.id")
+    List<CompanyAdminDto> findAllDtosByCompanyId(@Param("companyId") Integer companyId);
+
+    @Query("SELECT new com.rently.rentlyAPI.dto.CompanyAdminDto(a.id, a.email, a.firstName, a.lastName, a.phoneNumber, " +
+            "a.bio, a.role, c.id) FROM CompanyAdmin a JOIN a.company c WHERE c.name = :companyName ORDER BY a.id")
+    List<CompanyAdminDto> findAllDtosByCompanyName(@Param("companyName") String companyName);
+}
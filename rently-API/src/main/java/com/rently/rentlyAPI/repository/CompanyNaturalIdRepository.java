@@ -0,0 +1,10 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.entity.Company;
+
+import java.util.Optional;
+
+public interface CompanyNaturalIdRepository {
+
+    Optional<Company> findCompanyByName(String name);
+}
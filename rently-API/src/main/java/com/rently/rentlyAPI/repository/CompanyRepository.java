@@ -5,13 +5,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
-public interface CompanyRepository extends JpaRepository<Company, Integer> {
+public interface CompanyRepository extends JpaRepository<Company, Integer>, CompanyNaturalIdRepository {
 
     void deleteCompanyById(Integer companyId);
 
     void deleteCompanyByName(String name);
 
-    Optional<Company> findCompanyByName(String name);
-    
     Optional<Company> findCompanyById(Integer companyId);
 }
@@ -1,13 +1,15 @@
 package com.rently.rentlyAPI.repository;
 
-//import com.rently.rentlyAPI.dto.CondoDto;
+import com.rently.rentlyAPI.dto.CondoDto;
 import com.rently.rentlyAPI.entity.Condo;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.stream.Stream;
 
 public interface CondoRepository extends JpaRepository<Condo, Integer> {
 
@@ -28,6 +30,24 @@ public interface CondoRepository extends JpaRepository<Condo, Integer> {
 	Optional<Condo> findByUnitNumberAndBuildingId(Integer unitNumber, Integer buildingId);
 	
 	boolean existsByRegistrationKey(String registrationKey);
-	
 
+	@Query("SELECT new com.rently.rentlyAPI.dto.CondoDto(c.id, c.address, c.unitNumber, c.description, c.registrationKey, " +
+			"c.status, c.building.id, p.id, l.id) " +
+			"FROM Condo c LEFT JOIN Parking p ON p.condo = c LEFT JOIN Locker l ON l.condo = c " +
+			"WHERE c.building.id = :buildingId ORDER BY c.id")
+	List<CondoDto> findAllDtosByBuildingId(@Param("buildingId") Integer buildingId);
+
+	// the condos the occupant has a housing contract with
+	@Query("SELECT new com.rently.rentlyAPI.dto.CondoDto(c.id, c.address, c.unitNumber, c.description, c.registrationKey, " +
+			"c.status, c.building.id, p.id, l.id) " +
+			"FROM HousingContract h JOIN h.condo c LEFT JOIN Parking p ON p.condo = c LEFT JOIN Locker l ON l.condo = c " +
+			"WHERE h.occupant.id = :occupantId ORDER BY c.id")
+	List<CondoDto> findAllDtosByOccupantId(@Param("occupantId") Integer occupantId);
+
+	@StreamedQuery
+	@Query("SELECT new com.rently.rentlyAPI.dto.CondoDto(c.id, c.address, c.unitNumber, c.description, c.registrationKey, " +
+			"c.status, b.id, p.id, l.id) " +
+			"FROM Condo c JOIN c.building b LEFT JOIN Parking p ON p.condo = c LEFT JOIN Locker l ON l.condo = c " +
+			"WHERE b.company.id = :companyId ORDER BY c.id")
+	Stream<CondoDto> streamDtosByCompanyId(@Param("companyId") Integer companyId);
 }
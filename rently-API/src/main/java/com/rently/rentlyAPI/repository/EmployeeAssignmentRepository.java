@@ -1,8 +1,14 @@
 package com.rently.rentlyAPI.repository;
 
+import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
 import com.rently.rentlyAPI.entity.EmployeeAssignment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,7 +17,37 @@ public interface EmployeeAssignmentRepository extends JpaRepository<EmployeeAssi
 
     List<EmployeeAssignment> findAllByEmployeeId(Integer id);
 
+    // the updates are mapped by EmployeeAssignmentDto#fromEntity, fetched in the same query
+    @EntityGraph(attributePaths = "updates")
     Optional<EmployeeAssignment> findByEmployeeIdAndId(Integer employeeId, Integer assignmentId);
 
+    @EntityGraph(attributePaths = "updates")
     EmployeeAssignment findByOwnerRequestId(Integer id);
+
+    // the assignment with its updates, to which the status changes append
+    @EntityGraph(attributePaths = "updates")
+    Optional<EmployeeAssignment> findWithUpdatesById(Integer id);
+
+    // the updates are not part of the projection, see AssignmentUpdateRepository#findRowsByAssignmentIds
+    @Query("SELECT new com.rently.rentlyAPI.dto.EmployeeAssignmentDto(a.id, a.company.id, e.id, r.id, a.workType, a.status) " +
+            "FROM EmployeeAssignment a LEFT JOIN a.employee e LEFT JOIN a.ownerRequest r " +
+            "WHERE a.company.id = :companyId ORDER BY a.id")
+    List<EmployeeAssignmentDto> findAllDtosByCompanyId(@Param("companyId") Integer companyId);
+
+    @Query("SELECT new com.rently.rentlyAPI.dto.EmployeeAssignmentDto(a.id, a.company.id, e.id, r.id, a.workType, a.status) " +
+            "FROM EmployeeAssignment a JOIN a.employee e LEFT JOIN a.ownerRequest r " +
+            "WHERE e.id = :employeeId ORDER BY a.id")
+    List<EmployeeAssignmentDto> findAllDtosByEmployeeId(@Param("employeeId") Integer employeeId);
+
+    @Query("SELECT new com.rently.rentlyAPI.dto.EmployeeAssignmentDto(a.id, a.company.id, e.id, r.id, a.workType, a.status) " +
+            "FROM EmployeeAssignment a JOIN a.ownerRequest r LEFT JOIN a.employee e " +
+            "WHERE r.id IN :ownerRequestIds ORDER BY a.id")
+    List<EmployeeAssignmentDto> findAllDtosByOwnerRequestIds(@Param("ownerRequestIds") Collection<Integer> ownerRequestIds);
+
+    // the status of each request of an owner, newest first, one keyset page at a time
+    @Query("SELECT new com.rently.rentlyAPI.dto.EmployeeAssignmentDto(a.id, a.company.id, e.id, r.id, a.workType, a.status) " +
+            "FROM EmployeeAssignment a JOIN a.ownerRequest r LEFT JOIN a.employee e " +
+            "WHERE r.owner.id = :ownerId AND a.id < :beforeId ORDER BY a.id DESC")
+    List<EmployeeAssignmentDto> findDtosByOwnerIdBefore(@Param("ownerId") Integer ownerId, @Param("beforeId") Integer beforeId,
+                                                        Pageable pageable);
 }
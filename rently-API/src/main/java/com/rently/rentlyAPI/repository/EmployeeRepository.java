@@ -1,13 +1,26 @@
 package com.rently.rentlyAPI.repository;
 
+import com.rently.rentlyAPI.dto.EmployeeDto;
 import com.rently.rentlyAPI.entity.user.Employee;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EmployeeRepository extends JpaRepository<Employee, Integer> {
     Optional<Employee> findByEmail(String email);
 
     List<Employee> findAllByCompanyId(Integer companyId);
+
+    @Query("SELECT new com.rently.rentlyAPI.dto.EmployeeDto(e.id, e.email, e.firstName, e.lastName, e.phoneNumber, " +
+            "e.bio, e.role, e.company.id, e.employeeType) FROM Employee e WHERE e.company.id = :companyId ORDER BY e.id")
+    List<EmployeeDto> findAllDtosByCompanyId(@Param("companyId") Integer companyId);
+
+    @StreamedQuery
+    @Query("SELECT new com.rently.rentlyAPI.dto.EmployeeDto(e.id, e.email, e.firstName, e.lastName, e.phoneNumber, " +
+            "e.bio, e.role, e.company.id, e.employeeType) FROM Employee e WHERE e.company.id = :companyId ORDER BY e.id")
+    Stream<EmployeeDto> streamDtosByCompanyId(@Param("companyId") Integer companyId);
 }
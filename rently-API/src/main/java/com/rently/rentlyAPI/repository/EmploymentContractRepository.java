@@ -1,10 +1,13 @@
 package com.rently.rentlyAPI.repository;
 
 import com.rently.rentlyAPI.entity.EmploymentContract;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 
 public interface EmploymentContractRepository extends JpaRepository<EmploymentContract, Integer> {
+    // the employees are filtered by type and mapped, fetched in the same query
+    @EntityGraph(attributePaths = "employee")
     List<EmploymentContract> findByCompanyIdAndBuildingId(Integer companyId, Integer buildingId);
 }
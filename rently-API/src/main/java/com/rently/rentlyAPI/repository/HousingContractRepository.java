@@ -1,10 +1,14 @@
 package com.rently.rentlyAPI.repository;
 
+import com.rently.rentlyAPI.dto.HousingContractDto;
 import com.rently.rentlyAPI.entity.HousingContract;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface HousingContractRepository extends JpaRepository<HousingContract, Integer> {
 	
@@ -13,4 +17,12 @@ public interface HousingContractRepository extends JpaRepository<HousingContract
 	
 	List<HousingContract> findAllByOccupantId(Integer occupantId);
 
+	@Query("SELECT new com.rently.rentlyAPI.dto.HousingContractDto(h.id, h.company.id, h.occupant.id, h.condo.id, " +
+			"h.monthlyRent, h.occupantType) FROM HousingContract h WHERE h.occupant.id = :occupantId ORDER BY h.id")
+	List<HousingContractDto> findAllDtosByOccupantId(@Param("occupantId") Integer occupantId);
+
+	@StreamedQuery
+	@Query("SELECT new com.rently.rentlyAPI.dto.HousingContractDto(h.id, h.company.id, h.occupant.id, h.condo.id, " +
+			"h.monthlyRent, h.occupantType) FROM HousingContract h WHERE h.company.id = :companyId ORDER BY h.id")
+	Stream<HousingContractDto> streamDtosByCompanyId(@Param("companyId") Integer companyId);
 }
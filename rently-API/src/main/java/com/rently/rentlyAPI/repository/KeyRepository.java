@@ -1,10 +1,40 @@
 package com.rently.rentlyAPI.repository;
 
 import com.rently.rentlyAPI.entity.Key;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 public interface KeyRepository extends JpaRepository<Key, Integer> {
 
     Key findByKey(String key);
 
+    // only one caller can flip an unused key, the others learn it has been reused
+    @Modifying
+    @Transactional
+    @Query("UPDATE Key k SET k.revoked = true WHERE k.id = :id AND k.revoked = false")
+    int markUsed(Integer id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Key k SET k.revoked = true, k.isActive = false WHERE k.familyId = :familyId")
+    int revokeFamily(String familyId);
+
+    // without its query space, Hibernate would evict the whole second-level cache on every sweep
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "key"))
+    @Query(value = """
+            DELETE FROM key WHERE id IN (
+                SELECT id FROM key WHERE family_id IS NOT NULL AND expires_at < :now LIMIT :batchSize
+            )
+            """, nativeQuery = true)
+    int deleteExpiredBatch(LocalDateTime now, int batchSize);
+
 }
@@ -0,0 +1,98 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.dto.CursorPageDto;
+import com.rently.rentlyAPI.entity.AbstractEntity;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset pagination for the list endpoints. A page is a single statement that selects the DTO projection together
+ * with its sort keys, filtered in SQL and continuing strictly after the keys of the cursor, so the cost of a page
+ * does not depend on how deep it is or on how many rows the table holds.
+ */
+@Repository
+public class KeysetPageRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @FunctionalInterface
+    public interface Projection<E, D> {
+        CompoundSelection<D> select(Root<E> root, CriteriaBuilder cb);
+    }
+
+    @FunctionalInterface
+    public interface Filter<E> {
+        void addPredicates(Root<E> root, CriteriaBuilder cb, List<Predicate> predicates);
+    }
+
+    public <E extends AbstractEntity, D> CursorPageDto<D> findPage(Class<E> entityClass, KeysetPageRequest page,
+                                                                  Projection<E, D> projection, Filter<E> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityClass);
+        Path<Integer> id = root.get("id");
+        Expression<LocalDateTime> modified = cb.coalesce(root.<LocalDateTime>get("lastModifiedDate"), root.<LocalDateTime>get("creationDate"));
+
+        List<Predicate> predicates = new ArrayList<>();
+        filter.addPredicates(root, cb, predicates);
+        if (page.afterId() != null) {
+            predicates.add(after(cb, page, id, modified));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        if (page.sortKey() == KeysetPageRequest.SortKey.LAST_MODIFIED_DATE) {
+            orders.add(page.descending() ? cb.desc(modified) : cb.asc(modified));
+        }
+        // the id breaks the ties, which keeps the order total and the pages stable
+        orders.add(page.descending() ? cb.desc(id) : cb.asc(id));
+
+        // the keys go first: Hibernate orders by the position of a selected expression, and the positions after
+        // the projection are shifted by the columns it expands into
+        query.multiselect(id, modified, projection.select(root, cb))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(orders);
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setMaxResults(page.limit() + 1)
+                .getResultList();
+
+        List<D> items = new ArrayList<>(Math.min(rows.size(), page.limit()));
+        for (int i = 0; i < rows.size() && i < page.limit(); i++) {
+            @SuppressWarnings("unchecked")
+            D item = (D) rows.get(i).get(2);
+            items.add(item);
+        }
+        if (rows.size() <= page.limit()) {
+            return new CursorPageDto<>(items, null);
+        }
+        Tuple last = rows.get(page.limit() - 1);
+        return new CursorPageDto<>(items, page.cursorAfter(last.get(0, Integer.class), last.get(1, LocalDateTime.class)));
+    }
+
+    /**
+     * A case-sensitive prefix match, which an index on the column can serve.
+     */
+    public static Predicate startsWith(CriteriaBuilder cb, Expression<String> column, String prefix) {
+        String escaped = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return cb.like(column, escaped + "%", '\\');
+    }
+
+    private Predicate after(CriteriaBuilder cb, KeysetPageRequest page, Path<Integer> id, Expression<LocalDateTime> modified) {
+        Predicate afterId = page.descending() ? cb.lessThan(id, page.afterId()) : cb.greaterThan(id, page.afterId());
+        if (page.sortKey() == KeysetPageRequest.SortKey.ID) {
+            return afterId;
+        }
+        Predicate afterModified = page.descending()
+                ? cb.lessThan(modified, page.afterModified())
+                : cb.greaterThan(modified, page.afterModified());
+        return cb.or(afterModified, cb.and(cb.equal(modified, page.afterModified()), afterId));
+    }
+}
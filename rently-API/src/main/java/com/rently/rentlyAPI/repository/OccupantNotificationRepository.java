@@ -0,0 +1,17 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.dto.OccupantNotificationDto;
+import com.rently.rentlyAPI.entity.OccupantNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OccupantNotificationRepository extends JpaRepository<OccupantNotification, Integer> {
+
+    // the latest first
+    @Query("SELECT new com.rently.rentlyAPI.dto.OccupantNotificationDto(n.id, n.message, n.commonFacilityReservationId, n.creationDate, n.readDate) " +
+            "FROM OccupantNotification n WHERE n.occupant.id = :occupantId ORDER BY n.id DESC")
+    List<OccupantNotificationDto> findAllDtosByOccupantId(@Param("occupantId") Integer occupantId);
+}
@@ -1,12 +1,20 @@
 package com.rently.rentlyAPI.repository;
 
+import com.rently.rentlyAPI.dto.OwnerRequestDto;
 import com.rently.rentlyAPI.entity.OwnerRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface OwnerRequestRepository extends JpaRepository<OwnerRequest, Integer> {
     Collection<OwnerRequest> findAllByOwnerId(Integer ownerId);
 
     OwnerRequest findByOwnerIdAndId(Integer occupantId, Integer requestId);
+
+    @Query("SELECT new com.rently.rentlyAPI.dto.OwnerRequestDto(r.id, r.owner.id, r.building.id, r.requestDescription, r.workType) " +
+            "FROM OwnerRequest r WHERE r.owner.id = :ownerId ORDER BY r.id")
+    List<OwnerRequestDto> findAllDtosByOwnerId(@Param("ownerId") Integer ownerId);
 }
@@ -11,5 +11,4 @@ public interface PublicUserRepository extends JpaRepository<PublicUser, Integer>
     Optional<PublicUser> findByEmail(String email);
 
     List<PublicUser> findByFirstNameAndLastName(String firstName, String lastName);
-
 }
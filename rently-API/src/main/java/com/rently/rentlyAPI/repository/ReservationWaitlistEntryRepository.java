@@ -0,0 +1,58 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.dto.WaitlistEntryDto;
+import com.rently.rentlyAPI.entity.ReservationWaitlistEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReservationWaitlistEntryRepository extends JpaRepository<ReservationWaitlistEntry, Integer> {
+
+    String POSITION = "(SELECT count(o) + 1 FROM ReservationWaitlistEntry o WHERE o.commonFacility.id = w.commonFacility.id " +
+            "AND o.id < w.id AND o.startTime < w.endTime AND o.endTime > w.startTime)";
+
+    /**
+     * The entries still waiting that the freed [start, end) may satisfy, first come first served, locked for their
+     * promotion. A worker promoting the same entries waits for this one, then finds them gone or their slot taken:
+     * skipping the locked entries instead would let it book a later entry ahead of them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM ReservationWaitlistEntry w WHERE w.commonFacility.id = :commonFacilityId " +
+            "AND w.endTime > :start AND w.startTime < :end AND w.startTime > :now ORDER BY w.id")
+    List<ReservationWaitlistEntry> lockWaitingOverlapping(@Param("commonFacilityId") Integer commonFacilityId,
+                                                          @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                                          @Param("now") LocalDateTime now, Pageable pageable);
+
+    // the entries whose slot is free but were not promoted: cancelled while this instance was down, a full queue
+    @Query("SELECT w FROM ReservationWaitlistEntry w WHERE w.startTime > :now AND NOT EXISTS (" +
+            "SELECT r FROM CommonFacilityReservation r WHERE r.commonFacility.id = w.commonFacility.id " +
+            "AND r.endTime > w.startTime AND r.startTime < w.endTime) ORDER BY w.id")
+    List<ReservationWaitlistEntry> findAllFreeWaiting(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT new com.rently.rentlyAPI.dto.WaitlistEntryDto(w.id, w.commonFacility.id, w.startTime, w.endTime, " + POSITION + ") " +
+            "FROM ReservationWaitlistEntry w WHERE w.commonFacility.id = :commonFacilityId AND w.endTime > :now " +
+            "ORDER BY w.startTime, w.id")
+    List<WaitlistEntryDto> findAllDtosByCommonFacilityId(@Param("commonFacilityId") Integer commonFacilityId,
+                                                         @Param("now") LocalDateTime now);
+
+    @Query("SELECT new com.rently.rentlyAPI.dto.WaitlistEntryDto(w.id, w.commonFacility.id, w.startTime, w.endTime, " + POSITION + ") " +
+            "FROM ReservationWaitlistEntry w WHERE w.occupant.id = :occupantId AND w.endTime > :now ORDER BY w.startTime")
+    List<WaitlistEntryDto> findAllDtosByOccupantId(@Param("occupantId") Integer occupantId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT " + POSITION + " FROM ReservationWaitlistEntry w WHERE w.id = :id")
+    long findPositionById(@Param("id") Integer id);
+
+    // a slot that has started can no longer be promoted
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ReservationWaitlistEntry w WHERE w.startTime <= :now")
+    int deleteAllStarted(@Param("now") LocalDateTime now);
+}
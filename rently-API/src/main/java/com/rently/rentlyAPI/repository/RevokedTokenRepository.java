@@ -0,0 +1,24 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.auth.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Integer> {
+
+    boolean existsByTokenId(String tokenId);
+
+    List<RevokedToken> findAllByExpiresAtAfter(LocalDateTime now);
+
+    List<RevokedToken> findAllByCreationDateAfterAndExpiresAtAfter(LocalDateTime since, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteAllExpired(LocalDateTime now);
+}
@@ -0,0 +1,24 @@
+package com.rently.rentlyAPI.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The hints of a query returning a Stream that can outgrow the heap, such as the ones of the portfolio export: the rows
+ * are fetched from a cursor 1000 at a time and are never tracked by the persistence context, so the stream holds
+ * one fetch at a time instead of the whole result.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+})
+public @interface StreamedQuery {
+}
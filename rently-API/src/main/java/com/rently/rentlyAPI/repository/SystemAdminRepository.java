@@ -8,6 +8,4 @@ import java.util.Optional;
 public interface SystemAdminRepository extends JpaRepository<SystemAdmin, Integer> {
 
     Optional<SystemAdmin> findByEmail(String email);
-    
-    
 }
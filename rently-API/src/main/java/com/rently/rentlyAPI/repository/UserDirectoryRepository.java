@@ -0,0 +1,26 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.entity.UserDirectoryEntry;
+import com.rently.rentlyAPI.security.Role;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserDirectoryRepository extends JpaRepository<UserDirectoryEntry, Integer> {
+
+    Optional<UserDirectoryEntry> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    @Query("SELECT d.email FROM UserDirectoryEntry d WHERE d.email IN :emails")
+    List<String> findAllEmailsIn(Collection<String> emails);
+
+    @Modifying
+    @Query("DELETE FROM UserDirectoryEntry d WHERE d.userId = :userId AND d.role = :role")
+    int deleteByUserIdAndRole(Integer userId, Role role);
+
+}
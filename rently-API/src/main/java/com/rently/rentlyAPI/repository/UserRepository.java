@@ -1,9 +1,12 @@
 package com.rently.rentlyAPI.repository;
 
+import com.rently.rentlyAPI.entity.UserDirectoryEntry;
 import com.rently.rentlyAPI.entity.user.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
@@ -17,4 +20,9 @@ public interface UserRepository extends JpaRepository<User, Integer> {
         """)
     User findUserByKey(String key);
 
+  // the directory entries of the users whose email comes after the given one, in email order
+  @Query("SELECT new com.rently.rentlyAPI.entity.UserDirectoryEntry(u.email, u.role, u.id) FROM User u " +
+          "WHERE u.email > :afterEmail AND u.role IS NOT NULL ORDER BY u.email")
+  List<UserDirectoryEntry> findDirectoryEntriesAfter(String afterEmail, Pageable pageable);
+
 }
@@ -0,0 +1,112 @@
+package com.rently.rentlyAPI.security;
+
+import com.rently.rentlyAPI.entity.user.CompanyAdmin;
+import com.rently.rentlyAPI.entity.user.Employee;
+import com.rently.rentlyAPI.entity.user.User;
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+import static com.rently.rentlyAPI.utils.JwtUtils.COMPANY_ID_CLAIM;
+import static com.rently.rentlyAPI.utils.JwtUtils.ROLES_CLAIM;
+import static com.rently.rentlyAPI.utils.JwtUtils.USER_ID_CLAIM;
+
+/**
+ * Principal built from the verified claims of an access token, used when the
+ * JwtAuthenticationFilter runs in claims-only mode and skips the user lookup.
+ * It carries only what the token carries: no password, no profile fields.
+ * Controllers receive it through {@link CurrentUser} whichever mode the filter runs in.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class AuthenticatedUser implements UserDetails {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final Integer id;
+
+    private final String email;
+
+    private final Role role;
+
+    private final Integer companyId;
+
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    public static AuthenticatedUser fromClaims(Claims claims) {
+        List<SimpleGrantedAuthority> authorities = ((Collection<?>) claims.get(ROLES_CLAIM))
+                .stream()
+                .map(authority -> new SimpleGrantedAuthority(authority.toString()))
+                .toList();
+
+        Role role = authorities.stream()
+                .map(SimpleGrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                .map(authority -> Role.valueOf(authority.substring(ROLE_PREFIX.length())))
+                .findFirst()
+                .orElse(Role.USER);
+
+        return AuthenticatedUser.builder()
+                .id(claims.get(USER_ID_CLAIM, Integer.class))
+                .email(claims.getSubject())
+                .role(role)
+                .companyId(claims.get(COMPANY_ID_CLAIM, Integer.class))
+                .authorities(authorities)
+                .build();
+    }
+
+    public static AuthenticatedUser fromUser(User user) {
+        Integer companyId = null;
+        if (user instanceof CompanyAdmin companyAdmin && companyAdmin.getCompany() != null) {
+            companyId = companyAdmin.getCompany().getId();
+        }
+        if (user instanceof Employee employee && employee.getCompany() != null) {
+            companyId = employee.getCompany().getId();
+        }
+        return AuthenticatedUser.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .companyId(companyId)
+                .authorities(user.getAuthorities())
+                .build();
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,18 @@
+package com.rently.rentlyAPI.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a controller parameter to the user of the current request, as resolved by the JwtAuthenticationFilter.
+ * Declare it as an {@link AuthenticatedUser} when the id, role and company are enough (no database access),
+ * or as a User type when the entity itself is needed (loaded at most once per request).
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -0,0 +1,67 @@
+package com.rently.rentlyAPI.security;
+
+import com.rently.rentlyAPI.entity.user.User;
+import com.rently.rentlyAPI.exceptions.AuthenticationException;
+import com.rently.rentlyAPI.services.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link CurrentUser} parameters from the principal the JwtAuthenticationFilter put in the security context,
+ * so controllers and services no longer parse the Authorization header again.
+ * In claims-only mode the principal is an {@link AuthenticatedUser} and a User entity is loaded only when a
+ * parameter asks for one; otherwise the principal already is the entity loaded by the filter.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String USER_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".user";
+
+    private final UserService userService;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && (AuthenticatedUser.class.equals(type) || User.class.isAssignableFrom(type));
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetails)) {
+            throw new AuthenticationException("No authenticated user");
+        }
+        Object principal = authentication.getPrincipal();
+
+        if (AuthenticatedUser.class.equals(parameter.getParameterType())) {
+            return principal instanceof User user ? AuthenticatedUser.fromUser(user) : principal;
+        }
+
+        User user = principal instanceof User entity ? entity : loadOnce((AuthenticatedUser) principal, webRequest);
+        if (!parameter.getParameterType().isInstance(user)) {
+            throw new AuthenticationException("This operation is not available to a " + user.getRole() + " account");
+        }
+        return user;
+    }
+
+    private User loadOnce(AuthenticatedUser authenticatedUser, NativeWebRequest webRequest) {
+        User user = (User) webRequest.getAttribute(USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (user == null) {
+            user = userService.findUserAccordingToTypeWithEmail(authenticatedUser.getEmail());
+            webRequest.setAttribute(USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,117 @@
+package com.rently.rentlyAPI.security;
+
+import com.rently.rentlyAPI.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the CPU-bound password hashing (BCrypt) on a small fixed pool instead of the servlet threads.
+ * The queue is bounded and a full queue is rejected immediately, so a burst of logins can only hold
+ * threads + queueCapacity servlet threads; every other request keeps being served and the extra
+ * logins get a fast 503 instead of a timeout.
+ * Being a MeterBinder bean, its queue depth and outcomes are exported as password.hashing.* metrics.
+ */
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private static final String UNAVAILABLE_MESSAGE = "Too many concurrent sign-ins, please retry in a moment";
+
+    private final ThreadPoolExecutor executor;
+
+    private final long timeoutMillis;
+
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final AtomicLong timedOutTasks = new AtomicLong();
+
+    public PasswordHashingExecutor(int threads, int queueCapacity, long timeoutMillis) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedTasks.incrementAndGet();
+            throw new ServiceUnavailableException(UNAVAILABLE_MESSAGE);
+        }
+
+        try {
+            T result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            completedTasks.incrementAndGet();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOutTasks.incrementAndGet();
+            throw new ServiceUnavailableException(UNAVAILABLE_MESSAGE);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(UNAVAILABLE_MESSAGE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public ThreadPoolExecutor getThreadPoolExecutor() {
+        return executor;
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks.get();
+    }
+
+    public long getRejectedTasks() {
+        return rejectedTasks.get();
+    }
+
+    public long getTimedOutTasks() {
+        return timedOutTasks.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks running")
+                .register(registry);
+        Gauge.builder("password.hashing.queued", executor, pool -> pool.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(registry);
+        FunctionCounter.builder("password.hashing.tasks", completedTasks, AtomicLong::get)
+                .tag("outcome", "completed")
+                .register(registry);
+        FunctionCounter.builder("password.hashing.tasks", rejectedTasks, AtomicLong::get)
+                .tag("outcome", "rejected")
+                .register(registry);
+        FunctionCounter.builder("password.hashing.tasks", timedOutTasks, AtomicLong::get)
+                .tag("outcome", "timed_out")
+                .register(registry);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,9 +1,13 @@
 package com.rently.rentlyAPI.security.config;
 
+import com.rently.rentlyAPI.entity.user.User;
 import com.rently.rentlyAPI.repository.UserRepository;
+import com.rently.rentlyAPI.security.BoundedBCryptPasswordEncoder;
+import com.rently.rentlyAPI.security.PasswordHashingExecutor;
 import com.rently.rentlyAPI.security.config.audit.ApplicationAuditAware;
-//import com.rently.rentlyAPI.repository.UserRepository;
+import com.rently.rentlyAPI.services.UserDirectoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
@@ -11,20 +15,34 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 @RequiredArgsConstructor
 public class AuthInfrastructureConfig {
 
-  private final UserRepository repository;
+  private final UserDirectoryService userDirectoryService;
+  private final UserRepository userRepository;
+
+  @Value("${application.security.password.bcrypt-strength:10}")
+  private int bcryptStrength;
+
+  // 0 means one thread per core
+  @Value("${application.security.password.hashing.threads:0}")
+  private int hashingThreads;
+
+  @Value("${application.security.password.hashing.queue-capacity:32}")
+  private int hashingQueueCapacity;
+
+  @Value("${application.security.password.hashing.timeout:5000}")
+  private long hashingTimeout;
 
   @Bean
   public UserDetailsService userDetailsService() {
-    return username -> repository.findByEmail(username)
+    return username -> userDirectoryService.findUserByEmail(username)
         .orElseThrow(() -> new UsernameNotFoundException("User not found"));
   }
 
@@ -33,6 +51,7 @@ public class AuthInfrastructureConfig {
     DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
     authProvider.setUserDetailsService(userDetailsService());
     authProvider.setPasswordEncoder(passwordEncoder());
+    authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
     return authProvider;
   }
 
@@ -46,9 +65,29 @@ public class AuthInfrastructureConfig {
     return config.getAuthenticationManager();
   }
 
+  /**
+   * Stores the rehashed password when the provider upgrades the encoding after a successful login.
+   */
+  @Bean
+  public UserDetailsPasswordService userDetailsPasswordService() {
+    return (userDetails, newPassword) -> {
+      if (userDetails instanceof User user) {
+        user.setPassword(newPassword);
+        return userRepository.save(user);
+      }
+      return userDetails;
+    };
+  }
+
+  @Bean(destroyMethod = "shutdown")
+  public PasswordHashingExecutor passwordHashingExecutor() {
+    int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+    return new PasswordHashingExecutor(threads, hashingQueueCapacity, hashingTimeout);
+  }
+
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    return new BoundedBCryptPasswordEncoder(bcryptStrength, passwordHashingExecutor());
   }
 
 }
@@ -2,6 +2,7 @@ package com.rently.rentlyAPI.security.config;
 
 import com.rently.rentlyAPI.security.filter.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -40,6 +41,11 @@ public class WebSecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final AuthenticationProvider authenticationProvider;
     private final LogoutHandler logoutHandler;
+    // the port of the actuator, kept off the public network; the same as the api's when it has none of its own
+    @Value("${management.server.port:${server.port:8080}}")
+    private int managementPort;
+    @Value("${server.port:8080}")
+    private int serverPort;
     private static final String[] WHITE_LIST_URL = {
 //        "/api/system-admin/**",
 //            "/api/company-admin/**",
@@ -56,7 +62,8 @@ public class WebSecurityConfig {
             "/configuration/security",
             "/swagger-ui/**",
             "/webjars/**",
-            "/swagger-ui.html"};
+            "/swagger-ui.html",
+            "/actuator/health"};
 
 
     @Bean
@@ -66,6 +73,9 @@ public class WebSecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(req ->
                         req.requestMatchers(WHITE_LIST_URL)
+                                .permitAll()
+                                // metrics and the prometheus scrape, only reachable from the private network
+                                .requestMatchers(request -> managementPort != serverPort && request.getLocalPort() == managementPort)
                                 .permitAll()
                                 .requestMatchers("/api/v1/company/**").hasAnyRole(SYSTEM_ADMIN.name(), COMPANY_ADMIN.name())
                                 .requestMatchers(GET, "/api/v1/company/**").hasAnyAuthority(SYSTEM_ADMIN_READ.name(), COMPANY_ADMIN_READ.name())
@@ -87,6 +97,9 @@ public class WebSecurityConfig {
                                 .requestMatchers(DELETE, "/api/company-admin/**").hasAnyAuthority(COMPANY_ADMIN_DELETE.name())
 
 
+                                // when the actuator shares the port of the api
+                                .requestMatchers("/actuator/**").hasRole(SYSTEM_ADMIN.name())
+
                                 .anyRequest()
                                 .authenticated()
                 )
@@ -1,6 +1,7 @@
 package com.rently.rentlyAPI.security.config.audit;
 
 import com.rently.rentlyAPI.entity.user.User;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -22,6 +23,10 @@ public class ApplicationAuditAware implements AuditorAware<Integer> {
             return Optional.empty();
         }
 
+        if (authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            return Optional.ofNullable(authenticatedUser.getId());
+        }
+
         User userPrincipal = (User) authentication.getPrincipal();
         return Optional.ofNullable(userPrincipal.getId());
     }
@@ -1,6 +1,9 @@
 package com.rently.rentlyAPI.security.filter;
 
+import com.rently.rentlyAPI.auth.services.TokenRevocationService;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
 import com.rently.rentlyAPI.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +26,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final JwtUtils jwtUtils;
   private final UserDetailsService userDetailsService;
+  private final TokenRevocationService tokenRevocationService;
 
   @Override
   protected void doFilterInternal(
@@ -42,22 +46,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       return;
     }
     jwt = authHeader.substring(7);
-    userEmail = jwtUtils.extractUsername(jwt);
+    final Claims claims = jwtUtils.parseClaims(jwt);
+    userEmail = claims.getSubject();
+    // logged out tokens stay signed and unexpired, they are only rejected here
+    if (tokenRevocationService.isRevoked(claims.getId())) {
+      filterChain.doFilter(request, response);
+      return;
+    }
     if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+      // Claims-only mode: the signature was just verified, so a fresh token is trusted as is
+      if (jwtUtils.canAuthenticateFromClaims(claims)) {
+        authenticate(AuthenticatedUser.fromClaims(claims), request);
+        filterChain.doFilter(request, response);
+        return;
+      }
+
       UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
 
-      if (jwtUtils.isTokenValid(jwt, userDetails)) {
-        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-            userDetails,
-            null,
-            userDetails.getAuthorities()
-        );
-        authToken.setDetails(
-            new WebAuthenticationDetailsSource().buildDetails(request)
-        );
-        SecurityContextHolder.getContext().setAuthentication(authToken);
+      if (jwtUtils.isTokenValid(claims, userDetails)) {
+        authenticate(userDetails, request);
       }
     }
     filterChain.doFilter(request, response);
   }
+
+  private void authenticate(UserDetails userDetails, HttpServletRequest request) {
+    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+        userDetails,
+        null,
+        userDetails.getAuthorities()
+    );
+    authToken.setDetails(
+        new WebAuthenticationDetailsSource().buildDetails(request)
+    );
+    SecurityContextHolder.getContext().setAuthentication(authToken);
+  }
 }
@@ -1,12 +1,17 @@
 package com.rently.rentlyAPI.services;
 
+import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
 import com.rently.rentlyAPI.entity.AssignmentUpdate;
 import com.rently.rentlyAPI.entity.EmployeeAssignment;
 
+import java.util.List;
+
 public interface AssignmentUpdateService {
     AssignmentUpdate createAssignmentUpdateOnCreateAssignment(EmployeeAssignment employeeAssignment);
 
     void save(AssignmentUpdate assignmentUpdate);
 
     AssignmentUpdate createAssignmentUpdateOnAssign(EmployeeAssignment employeeAssignment);
+
+    void attachUpdates(List<EmployeeAssignmentDto> employeeAssignments);
 }
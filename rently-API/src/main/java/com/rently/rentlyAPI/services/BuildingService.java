@@ -1,12 +1,19 @@
 package com.rently.rentlyAPI.services;
 
 import com.rently.rentlyAPI.dto.BuildingDto;
+import com.rently.rentlyAPI.dto.BulkReservationReportDto;
+import com.rently.rentlyAPI.dto.BulkReservationRequestDto;
 import com.rently.rentlyAPI.dto.CommonFacilityDto;
 import com.rently.rentlyAPI.dto.CommonFacilityReservationDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
+import com.rently.rentlyAPI.dto.FacilityAvailabilityDto;
+import com.rently.rentlyAPI.dto.WaitlistEntryDto;
 import com.rently.rentlyAPI.entity.Building;
 import com.rently.rentlyAPI.entity.CommonFacility;
 import com.rently.rentlyAPI.entity.user.Occupant;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,7 +29,7 @@ public interface BuildingService {
     Building findBuildingEntityById(Integer buildingId);
 
     // Find a Building Entity by Name
-    Building findBuildingEntityByName(String buildingName);
+    Building findBuildingEntityByNameAndCompanyId(String buildingName, Integer companyId);
 
     // Update an existing Building
     BuildingDto updateBuilding(BuildingDto buildingDto);
@@ -30,8 +37,8 @@ public interface BuildingService {
     // Delete a Building by ID
     void deleteBuilding(Integer buildingId);
 
-    // Retrieve all Buildings
-    List<BuildingDto> getAllBuildings();
+    // Retrieve a page of Buildings, optionally of one company and whose name starts with the prefix
+    CursorPageDto<BuildingDto> getBuildings(Integer companyId, String namePrefix, KeysetPageRequest page);
 
     BuildingDto createBuildingAndLinkToCompany(BuildingDto buildingDto);
 
@@ -45,18 +52,33 @@ public interface BuildingService {
 
     List<CommonFacilityDto> getAllCommonFacilitiesByBuildingId(Integer buildingId);
 
-    List<CommonFacilityDto> getAllCommonFacilities();
+    // Retrieve a page of the Common Facilities of a company, optionally of one building and whose name starts with the prefix
+    CursorPageDto<CommonFacilityDto> getCommonFacilities(Integer companyId, Integer buildingId, String namePrefix, KeysetPageRequest page);
 
     void deleteCommonFacilityById(Integer commonFacilityId);
 
     CommonFacilityReservationDto createCommonFacilityReservation(Occupant occupant, CommonFacilityReservationDto commonFacilityReservationDto);
 
+    BulkReservationReportDto createCommonFacilityReservations(Occupant occupant, BulkReservationRequestDto bulkReservationRequestDto);
+
     void deleteCommonFacilityReservation(Integer occupantId, Integer id);
 
     CommonFacilityReservationDto getCommonFacilityReservation(Integer occupantId, Integer id);
 
     List<CommonFacilityReservationDto> getAllCommonFacilityReservations(Integer occupantId);
 
+    FacilityAvailabilityDto getCommonFacilityAvailability(Integer commonFacilityId, LocalDate from, LocalDate to);
+
+    List<FacilityAvailabilityDto> getCommonFacilitiesAvailability(Integer buildingId, LocalDate from, LocalDate to);
+
+    WaitlistEntryDto joinCommonFacilityWaitlist(Occupant occupant, CommonFacilityReservationDto commonFacilityReservationDto);
+
+    void leaveCommonFacilityWaitlist(Integer occupantId, Integer id);
+
+    List<WaitlistEntryDto> getAllWaitlistEntries(Integer occupantId);
+
+    List<WaitlistEntryDto> getCommonFacilityWaitlist(Integer commonFacilityId);
+
 //
 //	public Building save(Building building);
 //
@@ -0,0 +1,121 @@
+package com.rently.rentlyAPI.services;
+
+import com.rently.rentlyAPI.entity.CacheInvalidation;
+import com.rently.rentlyAPI.repository.CacheInvalidationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the second-level cache of the instances in step. The cache is per instance and a change only evicts the
+ * entry of the instance that made it, so every update or delete of a cached entity is also written to
+ * cache_invalidation, in the transaction of the change, and each instance polls that table and evicts what the
+ * others changed. An entry is stale on another instance for at most the sync interval.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationService implements PostUpdateEventListener, PostDeleteEventListener {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+    private final long retention;
+
+    private volatile LocalDateTime lastSynchronization;
+
+    public CacheInvalidationService(EntityManagerFactory entityManagerFactory,
+                                    CacheInvalidationRepository cacheInvalidationRepository,
+                                    @Value("${application.cache-invalidation.retention:3600000}") long retention) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cacheInvalidationRepository = cacheInvalidationRepository;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        lastSynchronization = LocalDateTime.now();
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Evicts the entities changed since the last synchronization, by any instance.
+     */
+    @Scheduled(
+            initialDelayString = "${application.cache-invalidation.sync-interval:5000}",
+            fixedDelayString = "${application.cache-invalidation.sync-interval:5000}"
+    )
+    public void synchronize() {
+        LocalDateTime now = LocalDateTime.now();
+        // overlap the previous window a little: rows committed late or stamped by a clock behind this one are not
+        // missed, and evicting twice only costs a reload
+        List<CacheInvalidation> changes = cacheInvalidationRepository.findAllByCreationDateAfter(lastSynchronization.minusMinutes(1));
+        for (CacheInvalidation change : changes) {
+            sessionFactory.getCache().evictEntityData(change.getEntityName(), change.getEntityId());
+            // the natural ids are keyed by the old value, which the change does not tell
+            sessionFactory.getCache().evictNaturalIdData(change.getEntityName());
+        }
+        lastSynchronization = now;
+    }
+
+    @Scheduled(
+            initialDelayString = "${application.cache-invalidation.sweep-interval:3600000}",
+            fixedDelayString = "${application.cache-invalidation.sweep-interval:3600000}"
+    )
+    public void sweep() {
+        int deleted = cacheInvalidationRepository.deleteAllCreatedBefore(LocalDateTime.now().minusNanos(retention * 1_000_000));
+        log.info("Swept {} cache invalidations", deleted);
+    }
+
+    private void record(EventSource session, EntityPersister persister, Object id) {
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        String entityName = persister.getEntityName();
+        Integer entityId = (Integer) id;
+        // written once the changes are flushed, on the connection and in the transaction of the change
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completing -> {
+            try (Session temporarySession = completing.sessionWithOptions()
+                    .connection()
+                    .autoClose(false)
+                    .connectionHandlingMode(PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION)
+                    .openSession()) {
+                temporarySession.persist(CacheInvalidation.builder().entityName(entityName).entityId(entityId).build());
+                temporarySession.flush();
+            }
+        });
+    }
+}
@@ -1,20 +1,33 @@
 package com.rently.rentlyAPI.services;
 
+import com.rently.rentlyAPI.dto.BulkReservationReportDto;
+import com.rently.rentlyAPI.dto.BulkReservationRequestDto;
 import com.rently.rentlyAPI.dto.CommonFacilityReservationDto;
+import com.rently.rentlyAPI.dto.FacilityAvailabilityDto;
 import com.rently.rentlyAPI.entity.CommonFacility;
 import com.rently.rentlyAPI.entity.Company;
 import com.rently.rentlyAPI.entity.user.Occupant;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CommonFacilityReservationService {
 
+    // published when a cancellation commits, the slot it frees may satisfy the waitlist
+    record ReservationCancelledEvent(Integer commonFacilityId, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+
     CommonFacilityReservationDto createCommonFacilityReservation(Company company, CommonFacility commonFacility, Occupant occupant, CommonFacilityReservationDto commonFacilityReservationDto);
 
+    BulkReservationReportDto createCommonFacilityReservations(Company company, CommonFacility commonFacility, Occupant occupant, BulkReservationRequestDto bulkReservationRequestDto);
+
 
     void deleteCommonFacilityReservation(Integer occupantId, Integer id);
 
     CommonFacilityReservationDto findCommonFacilityReservationDtoById(Integer occupantId, Integer id);
 
     List<CommonFacilityReservationDto> getAllCommonFacilityReservations(Integer occupantId);
+
+    FacilityAvailabilityDto getAvailability(Integer commonFacilityId, LocalDate from, LocalDate to);
 }
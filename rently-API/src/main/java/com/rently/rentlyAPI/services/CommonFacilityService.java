@@ -1,8 +1,10 @@
 package com.rently.rentlyAPI.services;
 
 import com.rently.rentlyAPI.dto.CommonFacilityDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.entity.Building;
 import com.rently.rentlyAPI.entity.CommonFacility;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,7 +24,8 @@ public interface CommonFacilityService {
 
     List<CommonFacilityDto> getAllCommonFacilityByBuildingId(Integer buildingId);
 
-    List<CommonFacilityDto> getAllCommonFacilities();
+    // Retrieve a page of the Common Facilities of a company, optionally of one building and whose name starts with the prefix
+    CursorPageDto<CommonFacilityDto> getCommonFacilities(Integer companyId, Integer buildingId, String namePrefix, KeysetPageRequest page);
 
     void deleteCommonFacilityById(Integer commonFacilityId);
 }
@@ -2,17 +2,17 @@ package com.rently.rentlyAPI.services;
 
 import com.rently.rentlyAPI.dto.*;
 import com.rently.rentlyAPI.entity.Condo;
+import com.rently.rentlyAPI.entity.enums.CondoStatus;
 import com.rently.rentlyAPI.entity.user.CompanyAdmin;
 import com.rently.rentlyAPI.entity.user.Occupant;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface CompanyAdminService {
 
-    //Find a CompanyAdminEntity by token
-    CompanyAdmin findCompanyAdminEntityByToken(String token);
-
     // Find a CompanyAdminDto by email
     CompanyAdminDto findCompanyAdminDtoByEmail(String email);
 
@@ -34,8 +34,8 @@ public interface CompanyAdminService {
     // Delete a CompanyAdmin by ID
     void deleteCompanyAdminById(Integer companyAdminId);
     
-    // Retrieve all CompanyAdmins
-    List<CompanyAdminDto> getAllCompanyAdmins();
+    // Retrieve a page of CompanyAdmins, optionally of one company and whose email starts with the prefix
+    CursorPageDto<CompanyAdminDto> getCompanyAdmins(Integer companyId, String emailPrefix, KeysetPageRequest page);
     
     // Retrieve all CompanyAdmins by company name
     List<CompanyAdminDto> getAllCompanyAdminsByCompanyName(String companyName);
@@ -46,17 +46,17 @@ public interface CompanyAdminService {
     /*
      * The following methods are calling other services
      */
-    BuildingDto createBuildingAndLinkToCompany(String token, BuildingDto buildingDto);
+    BuildingDto createBuildingAndLinkToCompany(AuthenticatedUser currentUser, BuildingDto buildingDto);
 
-    BuildingDto getBuildingByName(String token, String buildingName);
+    BuildingDto getBuildingByName(AuthenticatedUser currentUser, String buildingName);
 
-    BuildingDto getBuildingById(String token, Integer buildingId);
+    BuildingDto getBuildingById(AuthenticatedUser currentUser, Integer buildingId);
 
-    List<BuildingDto> getAllBuildings();
+    CursorPageDto<BuildingDto> getBuildings(Integer companyId, String namePrefix, KeysetPageRequest page);
 
     EmploymentContractDto createEmploymentContract(EmploymentContractDto employmentContractDto);
 
-    List<EmployeeDto> getAllEmployees(String token);
+    List<EmployeeDto> getAllEmployees(AuthenticatedUser currentUser);
 
     Optional<CompanyAdmin> findByEmail(String email);
 
@@ -68,7 +68,7 @@ public interface CompanyAdminService {
 
     List<CommonFacilityDto> getAllCommonFacilitiesByBuildingId(Integer buildingId);
 
-    List<CommonFacilityDto> getAllCommonFacilities();
+    CursorPageDto<CommonFacilityDto> getCommonFacilities(Integer companyId, Integer buildingId, String namePrefix, KeysetPageRequest page);
 
     void deleteCommonFacilityById(Integer commonFacilityId);
 
@@ -76,9 +76,11 @@ public interface CompanyAdminService {
 
     Condo getCondoEntityByRegistrationKey(String registrationKey);
     
+    CondoDto getCondoById(AuthenticatedUser currentUser, Integer condoId);
+
     String deleteCondoById(Integer condoId);
     
-    List<CondoDto> getAllCondos();
+    CursorPageDto<CondoDto> getCondos(Integer companyId, Integer buildingId, CondoStatus status, KeysetPageRequest page);
     
     List<CondoDto> getAllCondosByBuildingId(Integer buildingId);
 
@@ -92,11 +94,11 @@ public interface CompanyAdminService {
 
     EmployeeDto updateEmployee(EmployeeDto employeeDto);
 
-    List<EmployeeDto> getAllEmployeesByTypeAndBuilding(String token, String employeeType, Integer buildingId);
+    List<EmployeeDto> getAllEmployeesByTypeAndBuilding(AuthenticatedUser currentUser, String employeeType, Integer buildingId);
 
-    List<EmployeeAssignmentDto> getAllEmployeeAssignments(String token);
+    List<EmployeeAssignmentDto> getAllEmployeeAssignments(AuthenticatedUser currentUser);
 
     EmployeeAssignmentDto assignEmployeeToAssignment(Integer employeeId, Integer assignmentId);
 
-    List<EmployeeAssignmentDto> getAllUnassignedEmployeeAssignments(String token);
+    List<EmployeeAssignmentDto> getAllUnassignedEmployeeAssignments(AuthenticatedUser currentUser);
 }
@@ -3,9 +3,12 @@ package com.rently.rentlyAPI.services;
 import com.rently.rentlyAPI.dto.BuildingDto;
 import com.rently.rentlyAPI.dto.CompanyDto;
 import com.rently.rentlyAPI.dto.CondoDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.entity.Building;
 import com.rently.rentlyAPI.entity.Company;
 import com.rently.rentlyAPI.entity.Condo;
+import com.rently.rentlyAPI.entity.enums.CondoStatus;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 
 import java.util.List;
 
@@ -30,11 +33,14 @@ public interface CondoService {
     // Delete a Company by ID
     void deleteCondoById(Integer condoId);
 
-    // Retrieve all Condos
-    List<CondoDto> getAllCondos();
+    // Retrieve a page of the Condos of a company, optionally of one building and in one status
+    CursorPageDto<CondoDto> getCondos(Integer companyId, Integer buildingId, CondoStatus status, KeysetPageRequest page);
 
     // Retrieve all Condos by Building ID
     List<CondoDto> getAllCondosByBuildingId(Integer buildingId);
+
+    // Retrieve all Condos the occupant has a housing contract with
+    List<CondoDto> getAllCondosByOccupantId(Integer occupantId);
     
     
     CondoDto createCondoAndLinkToBuilding(CondoDto condoDto);
@@ -1,10 +1,12 @@
 package com.rently.rentlyAPI.services;
 
 import com.rently.rentlyAPI.dto.AssignmentUpdateDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
 import com.rently.rentlyAPI.entity.OwnerRequest;
 import com.rently.rentlyAPI.entity.user.Employee;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface EmployeeAssignmentService {
@@ -23,4 +25,8 @@ public interface EmployeeAssignmentService {
     AssignmentUpdateDto updateAssignmentStatus(Integer assignmentId, AssignmentUpdateDto assignmentUpdateDto);
 
     EmployeeAssignmentDto getEmployeeAssignmentByOwnerRequestId(Integer id);
+
+    List<EmployeeAssignmentDto> getEmployeeAssignmentsByOwnerRequestIds(Collection<Integer> ownerRequestIds);
+
+    CursorPageDto<EmployeeAssignmentDto> getEmployeeAssignmentsByOwnerId(Integer ownerId, String cursor, Integer limit);
 }
@@ -4,6 +4,7 @@ import com.rently.rentlyAPI.dto.AssignmentUpdateDto;
 import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
 import com.rently.rentlyAPI.dto.EmployeeDto;
 import com.rently.rentlyAPI.entity.user.Employee;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,7 +18,6 @@ public interface EmployeeService {
 
     Employee findById(Integer employeeId);
 
-    Employee findEmployeeEntityByToken(String token);
 
     void deleteEmployee(Integer id);
 
@@ -29,10 +29,10 @@ public interface EmployeeService {
 
     List<EmployeeAssignmentDto> getAllUnassignedEmployeeAssignmentsByCompanyId(Integer companyId);
 
-    List<EmployeeAssignmentDto> getAllAssignments(String token);
+    List<EmployeeAssignmentDto> getAllAssignments(AuthenticatedUser currentUser);
 
-    EmployeeAssignmentDto getAssignmentById(String token, Integer assignmentId);
+    EmployeeAssignmentDto getAssignmentById(AuthenticatedUser currentUser, Integer assignmentId);
 
-    AssignmentUpdateDto updateAssignmentStatus(String token, AssignmentUpdateDto assignmentUpdateDto, Integer id);
+    AssignmentUpdateDto updateAssignmentStatus(AuthenticatedUser currentUser, AssignmentUpdateDto assignmentUpdateDto, Integer id);
 
 }
@@ -20,6 +20,8 @@ public interface HousingContractService {
 	
 	List<HousingContract> findHousingContractEntitiesByOccupantId(Integer occupantId);
 	
+	List<HousingContractDto> getHousingContractsByOccupantId(Integer occupantId);
+	
 	Optional<HousingContract> findHousingContractByCondoIdAndOccupantId(Integer condoId, Integer occupantId);
 	
 	void deleteHousingContract(Integer housingContractId);
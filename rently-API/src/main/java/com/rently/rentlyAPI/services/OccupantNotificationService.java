@@ -0,0 +1,13 @@
+package com.rently.rentlyAPI.services;
+
+import com.rently.rentlyAPI.dto.OccupantNotificationDto;
+
+import java.util.List;
+
+public interface OccupantNotificationService {
+
+    // the latest first
+    List<OccupantNotificationDto> getNotifications(Integer occupantId);
+
+    OccupantNotificationDto markAsRead(Integer occupantId, Integer id);
+}
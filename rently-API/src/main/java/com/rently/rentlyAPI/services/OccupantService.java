@@ -1,45 +1,73 @@
 package com.rently.rentlyAPI.services;
 
+import com.rently.rentlyAPI.dto.BulkReservationReportDto;
+import com.rently.rentlyAPI.dto.BulkReservationRequestDto;
 import com.rently.rentlyAPI.dto.CommonFacilityReservationDto;
 import com.rently.rentlyAPI.dto.CondoDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.HousingContractAndCondoDto;
 import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
+import com.rently.rentlyAPI.dto.FacilityAvailabilityDto;
+import com.rently.rentlyAPI.dto.OccupantDashboardDto;
+import com.rently.rentlyAPI.dto.OccupantNotificationDto;
 import com.rently.rentlyAPI.dto.OwnerRequestDto;
+import com.rently.rentlyAPI.dto.WaitlistEntryDto;
 import com.rently.rentlyAPI.entity.user.Occupant;
+import com.rently.rentlyAPI.entity.user.Owner;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface OccupantService {
-    CommonFacilityReservationDto createCommonFacilityReservation(String token, CommonFacilityReservationDto commonFacilityReservationDto);
+    CommonFacilityReservationDto createCommonFacilityReservation(Occupant occupant, CommonFacilityReservationDto commonFacilityReservationDto);
+
+    BulkReservationReportDto createCommonFacilityReservations(Occupant occupant, BulkReservationRequestDto bulkReservationRequestDto);
 
     Occupant findOccupantEntityById(Integer occupantId);
 
     Occupant findOccupantEntityByEmail(String email);
 
-    void deleteCommonFacilityReservation(String token, Integer id);
+    void deleteCommonFacilityReservation(AuthenticatedUser currentUser, Integer id);
+
+    CommonFacilityReservationDto getCommonFacilityReservation(AuthenticatedUser currentUser, Integer id);
+
+    List<CommonFacilityReservationDto> getAllCommonFacilityReservations(AuthenticatedUser currentUser);
+
+    FacilityAvailabilityDto getCommonFacilityAvailability(AuthenticatedUser currentUser, Integer commonFacilityId, LocalDate from, LocalDate to);
+
+    List<FacilityAvailabilityDto> getBuildingAvailability(AuthenticatedUser currentUser, Integer buildingId, LocalDate from, LocalDate to);
 
-    CommonFacilityReservationDto getCommonFacilityReservation(String token, Integer id);
+    WaitlistEntryDto joinCommonFacilityWaitlist(Occupant occupant, CommonFacilityReservationDto commonFacilityReservationDto);
 
-    List<CommonFacilityReservationDto> getAllCommonFacilityReservations(String token);
+    void leaveCommonFacilityWaitlist(AuthenticatedUser currentUser, Integer id);
 
-    Occupant findOccupantEntityByToken(String token);
+    List<WaitlistEntryDto> getAllWaitlistEntries(AuthenticatedUser currentUser);
 
-    OwnerRequestDto createOwnerRequest(String token, OwnerRequestDto ownerRequestDto);
+    List<WaitlistEntryDto> getCommonFacilityWaitlist(AuthenticatedUser currentUser, Integer commonFacilityId);
 
-    void deleteOwnerRequest(String token, Integer id);
+    List<OccupantNotificationDto> getNotifications(AuthenticatedUser currentUser);
 
-    List<OwnerRequestDto> getAllOwnerRequests(String token);
+    OccupantNotificationDto markNotificationAsRead(AuthenticatedUser currentUser, Integer id);
 
-    OwnerRequestDto getOwnerRequestById(String token, Integer id);
+    OwnerRequestDto createOwnerRequest(Owner owner, OwnerRequestDto ownerRequestDto);
+
+    void deleteOwnerRequest(Owner owner, Integer id);
+
+    List<OwnerRequestDto> getAllOwnerRequests(AuthenticatedUser currentUser);
+
+    OwnerRequestDto getOwnerRequestById(AuthenticatedUser currentUser, Integer id);
     
     /*
      * Condo
      */
-    List<CondoDto> getMyCondos(String token);
+    List<CondoDto> getMyCondos(AuthenticatedUser currentUser);
     
-    HousingContractAndCondoDto getMyCondoInformationById(String token, Integer condoId);
+    HousingContractAndCondoDto getMyCondoInformationById(AuthenticatedUser currentUser, Integer condoId);
+
+    CursorPageDto<EmployeeAssignmentDto> getAllOwnerRequestsStatus(AuthenticatedUser currentUser, String cursor, Integer limit);
 
-    List<EmployeeAssignmentDto> getAllOwnerRequestsStatus(String token);
+    EmployeeAssignmentDto getOwnerRequestStatusByRequestId(AuthenticatedUser currentUser, Integer requestId);
 
-    EmployeeAssignmentDto getOwnerRequestStatusByRequestId(String token, Integer requestId);
+    OccupantDashboardDto getDashboard(AuthenticatedUser currentUser);
 }
@@ -1,5 +1,6 @@
 package com.rently.rentlyAPI.services;
 
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
 import com.rently.rentlyAPI.dto.OwnerRequestDto;
 import com.rently.rentlyAPI.entity.Building;
@@ -22,4 +23,6 @@ public interface OwnerRequestService {
     List<EmployeeAssignmentDto> getAssignmentStatuses(List<OwnerRequestDto> ownerRequests);
 
     EmployeeAssignmentDto getAssignmentStatusByRequestId(Integer requestId);
+
+    CursorPageDto<EmployeeAssignmentDto> getAssignmentStatusesByOwnerId(Integer ownerId, String cursor, Integer limit);
 }
@@ -1,5 +1,6 @@
 package com.rently.rentlyAPI.services;
 
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
 import com.rently.rentlyAPI.dto.OwnerRequestDto;
 import com.rently.rentlyAPI.entity.user.Owner;
@@ -24,4 +25,6 @@ public interface OwnerService {
     List<EmployeeAssignmentDto> getAssignmentStatuses(List<OwnerRequestDto> ownerRequests);
 
     EmployeeAssignmentDto getAssignmentStatus(Integer requestId);
+
+    CursorPageDto<EmployeeAssignmentDto> getAssignmentStatusesByOwnerId(Integer ownerId, String cursor, Integer limit);
 }
@@ -0,0 +1,73 @@
+package com.rently.rentlyAPI.services;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public interface PortfolioExportService {
+
+    enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+    }
+
+    enum Section {
+        BUILDINGS("buildings", "building", "id", "name", "number_of_floors", "address", "description", "company_id"),
+        CONDOS("condos", "condo", "id", "address", "unit_number", "description", "registration_key", "status",
+                "building_id", "parking_id", "locker_id"),
+        HOUSING_CONTRACTS("housing-contracts", "housing_contract", "id", "company_id", "occupant_id", "condo_id",
+                "monthly_rent", "occupant_type"),
+        EMPLOYEES("employees", "employee", "id", "email", "first_name", "last_name", "phone_number", "bio", "role",
+                "company_id", "employee_type");
+
+        private final String parameter;
+        private final String type;
+        private final List<String> columns;
+
+        Section(String parameter, String type, String... columns) {
+            this.parameter = parameter;
+            this.type = type;
+            this.columns = List.of(columns);
+        }
+
+        public String parameter() {
+            return parameter;
+        }
+
+        // the value of the type field of an NDJSON line
+        public String type() {
+            return type;
+        }
+
+        public List<String> columns() {
+            return columns;
+        }
+    }
+
+    record Export(Integer companyId, Format format, List<Section> sections) {
+        public String filename() {
+            String name = sections.size() == 1 ? sections.get(0).parameter() : "portfolio";
+            return "company-" + companyId + "-" + name + "." + format.extension;
+        }
+    }
+
+    // Validates the export while the response can still be an error, the rows are only written once it is committed
+    Export prepare(Integer companyId, String format, String section);
+
+    void write(Export export, OutputStream out) throws IOException;
+}
@@ -0,0 +1,49 @@
+package com.rently.rentlyAPI.services;
+
+import com.rently.rentlyAPI.dto.ImportJobDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public interface PortfolioImportService {
+
+    enum Format {
+        CSV,
+        // a json array of objects, or one object per line (ndjson)
+        JSON
+    }
+
+    // the columns of a csv header, or the fields of a json object
+    enum Section {
+        BUILDINGS("buildings", "name", "address", "description", "number_of_floors"),
+        // the condo address is the building address followed by the unit number
+        CONDOS("condos", "building_name", "unit_number", "description", "status"),
+        // unit_number assigns the parking to that condo of the building, external_ref is the company's own reference
+        // for it; a row needs one of them so importing it again is recognized
+        PARKINGS("parkings", "building_name", "parking_fee", "unit_number", "external_ref"),
+        LOCKERS("lockers", "building_name", "locker_fee", "unit_number", "external_ref");
+
+        private final String parameter;
+        private final List<String> columns;
+
+        Section(String parameter, String... columns) {
+            this.parameter = parameter;
+            this.columns = List.of(columns);
+        }
+
+        public String parameter() {
+            return parameter;
+        }
+
+        public List<String> columns() {
+            return columns;
+        }
+    }
+
+    // Checks the parameters and spools the body to a temporary file, the rows are imported in the background
+    ImportJobDto start(Integer companyId, String format, String section, InputStream body) throws IOException;
+
+    // The progress of a job, and the rows it rejected so far
+    ImportJobDto getJob(Integer companyId, String jobId);
+}
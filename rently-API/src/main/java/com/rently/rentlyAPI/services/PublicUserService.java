@@ -1,8 +1,10 @@
 package com.rently.rentlyAPI.services;
 
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.PublicUserDto;
 import com.rently.rentlyAPI.entity.user.Occupant;
 import com.rently.rentlyAPI.entity.user.PublicUser;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,8 +14,6 @@ public interface PublicUserService {
      // Find a PublicUserOptional by email
      Optional<PublicUser> findByEmail(String email);
 
-     // Find a PublicUser entity by token
-     PublicUser findPublicUserEntityByToken(String token);
 
      // Find a PublicUserDto by email
      PublicUserDto findPublicUserDtoByEmail(String email);
@@ -36,8 +36,8 @@ public interface PublicUserService {
      // Delete a PublicUser by ID
      String deletePublicUserById(Integer publicUserId);
 
-     // Retrieve all PublicUsers
-     List<PublicUserDto> getAllPublicUsers();
+     // Retrieve a page of PublicUsers whose email starts with the prefix
+     CursorPageDto<PublicUserDto> getPublicUsers(String emailPrefix, KeysetPageRequest page);
      
      Occupant transformToOccupant(String email, String key);
 }
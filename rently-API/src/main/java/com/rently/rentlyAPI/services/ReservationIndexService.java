@@ -0,0 +1,95 @@
+package com.rently.rentlyAPI.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rently.rentlyAPI.repository.CommonFacilityReservationRepository;
+import com.rently.rentlyAPI.utils.SlotCalendar;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+/**
+ * In-memory interval index and slot calendar of the reservations of each facility, the fast pre-check of a booking
+ * and the availability shown to the occupants.
+ * The exclusion constraints of the database stay authoritative: the index is loaded on first use, then only follows
+ * the reservations committed by this instance, and is reloaded after expire-after-write to catch up with the others.
+ * A free slot is therefore only a hint (the insert may still be rejected), a conflict is confirmed in the database.
+ */
+@Service
+public class ReservationIndexService {
+
+    private final CommonFacilityReservationRepository commonFacilityReservationRepository;
+
+    // common facility id -> its reservations
+    private final Cache<Integer, SlotCalendar> indexes;
+
+    public ReservationIndexService(CommonFacilityReservationRepository commonFacilityReservationRepository,
+                                   @Value("${application.reservations.index.maximum-size:1000}") long maximumSize,
+                                   @Value("${application.reservations.index.expire-after-write:600000}") long expireAfterWrite) {
+        this.commonFacilityReservationRepository = commonFacilityReservationRepository;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWrite))
+                .build();
+    }
+
+    public boolean mightOverlap(Integer commonFacilityId, LocalDateTime start, LocalDateTime end) {
+        return indexOf(commonFacilityId).overlaps(start, end);
+    }
+
+    public BitSet busySlots(Integer commonFacilityId, LocalDate day) {
+        return indexOf(commonFacilityId).busySlots(day);
+    }
+
+    // the conflict seen in memory is gone from the database (cancelled on another instance), start over from it
+    public void invalidate(Integer commonFacilityId) {
+        indexes.invalidate(commonFacilityId);
+    }
+
+    public void addAfterCommit(Integer commonFacilityId, Integer id, LocalDateTime start, LocalDateTime end) {
+        afterCommit(() -> {
+            SlotCalendar index = indexes.getIfPresent(commonFacilityId);
+            if (index != null) {
+                index.add(id, start, end);
+            }
+        });
+    }
+
+    public void removeAfterCommit(Integer commonFacilityId, Integer id) {
+        afterCommit(() -> {
+            SlotCalendar index = indexes.getIfPresent(commonFacilityId);
+            if (index != null) {
+                index.remove(id);
+            }
+        });
+    }
+
+    private SlotCalendar indexOf(Integer commonFacilityId) {
+        return indexes.get(commonFacilityId, id -> {
+            SlotCalendar index = new SlotCalendar();
+            commonFacilityReservationRepository.findAllDtosByCommonFacilityId(id)
+                    .forEach(reservation -> index.add(reservation.getId(), reservation.getStartTime(), reservation.getEndTime()));
+            return index;
+        });
+    }
+
+    // a rolled back reservation never reaches the index
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.rently.rentlyAPI.services;
+
+import com.rently.rentlyAPI.dto.CommonFacilityReservationDto;
+import com.rently.rentlyAPI.dto.WaitlistEntryDto;
+import com.rently.rentlyAPI.entity.CommonFacility;
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.user.Occupant;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReservationWaitlistService {
+
+    // published in the transaction of a promotion: a listener writing with it runs before the commit, one telling
+    // the outside world after it, see OccupantNotificationServiceImpl
+    record ReservationPromotedEvent(Integer occupantId, String occupantEmail, CommonFacilityReservationDto reservation) {
+    }
+
+    WaitlistEntryDto joinWaitlist(Company company, CommonFacility commonFacility, Occupant occupant, CommonFacilityReservationDto commonFacilityReservationDto);
+
+    void leaveWaitlist(Integer occupantId, Integer id);
+
+    List<WaitlistEntryDto> getWaitlistEntries(Integer occupantId);
+
+    List<WaitlistEntryDto> getCommonFacilityWaitlist(Integer commonFacilityId);
+
+    List<CommonFacilityReservationDto> promote(Integer commonFacilityId, LocalDateTime start, LocalDateTime end);
+}
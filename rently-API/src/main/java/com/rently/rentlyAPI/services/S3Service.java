@@ -1,6 +1,7 @@
 package com.rently.rentlyAPI.services;
 
 import com.rently.rentlyAPI.dto.CondoFileDto;
+import com.rently.rentlyAPI.entity.user.User;
 import org.hibernate.Interceptor;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -8,7 +9,7 @@ import java.security.Principal;
 
 public interface S3Service {
 	//TODO: throw appropriate exception
-	public void uploadImage(MultipartFile imageFile, String token) throws Exception;
+	public void uploadImage(MultipartFile imageFile, User user) throws Exception;
 	
 	public void uploadCondoFile(MultipartFile multipartFile, String description, Integer condoId) throws Exception;
 }
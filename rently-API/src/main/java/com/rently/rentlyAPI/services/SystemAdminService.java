@@ -1,8 +1,10 @@
 package com.rently.rentlyAPI.services;
 
 import com.rently.rentlyAPI.dto.CompanyDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.SystemAdminDto;
 import com.rently.rentlyAPI.entity.user.SystemAdmin;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -31,8 +33,8 @@ public interface SystemAdminService {
     // Delete a SystemAdmin by ID
     void deleteSystemAdminById(Integer systemAdminId);
     
-    // Retrieve all SystemAdmins
-    List<SystemAdminDto> getAllSystemAdmins();
+    // Retrieve a page of SystemAdmins whose email starts with the prefix
+    CursorPageDto<SystemAdminDto> getSystemAdmins(String emailPrefix, KeysetPageRequest page);
     
     /*
      * The following methods are calling other services
@@ -0,0 +1,21 @@
+package com.rently.rentlyAPI.services;
+
+import com.rently.rentlyAPI.entity.user.User;
+
+import java.util.Optional;
+
+public interface UserDirectoryService {
+
+    // resolves a user of any type from its email
+    Optional<User> findUserByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    // creates or repoints the entry of the user's email, call it whenever a user is saved under a new email or type
+    void register(User user);
+
+    void remove(User user);
+
+    void updateEmail(String previousEmail, User user);
+
+}
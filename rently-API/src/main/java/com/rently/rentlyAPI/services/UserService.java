@@ -2,10 +2,12 @@ package com.rently.rentlyAPI.services;
 
 
 import com.rently.rentlyAPI.dto.CompanyAdminDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.EmployeeDto;
 import com.rently.rentlyAPI.dto.PublicUserDto;
 import com.rently.rentlyAPI.dto.SystemAdminDto;
 import com.rently.rentlyAPI.entity.user.User;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 
 import java.util.List;
 
@@ -21,11 +23,11 @@ public interface UserService {
 
     PublicUserDto registerPublicUser(PublicUserDto publicUserDto);
 
-    String userKeyActivation(String token, String key);
+    String userKeyActivation(User user, String key);
 
-    List<SystemAdminDto> getAllSystemAdmins();
+    CursorPageDto<SystemAdminDto> getSystemAdmins(String emailPrefix, KeysetPageRequest page);
 
-    List<CompanyAdminDto> getAllCompanyAdmins();
+    CursorPageDto<CompanyAdminDto> getCompanyAdmins(Integer companyId, String emailPrefix, KeysetPageRequest page);
 
     void deleteCompanyAdmin(Integer id);
 
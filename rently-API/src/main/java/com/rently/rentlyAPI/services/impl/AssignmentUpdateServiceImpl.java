@@ -1,5 +1,7 @@
 package com.rently.rentlyAPI.services.impl;
 
+import com.rently.rentlyAPI.dto.AssignmentUpdateDto;
+import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
 import com.rently.rentlyAPI.entity.AssignmentUpdate;
 import com.rently.rentlyAPI.entity.EmployeeAssignment;
 import com.rently.rentlyAPI.entity.enums.AssignmentStatus;
@@ -7,8 +9,13 @@ import com.rently.rentlyAPI.repository.AssignmentUpdateRepository;
 import com.rently.rentlyAPI.services.AssignmentUpdateService;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
@@ -40,4 +47,22 @@ public class AssignmentUpdateServiceImpl implements AssignmentUpdateService {
                 .comment("An employee has been assigned to this assignment.")
                 .build();
     }
+
+    // one query for the updates of all the given assignments, grouped back onto their assignment
+    @Override
+    @Transactional(readOnly = true)
+    public void attachUpdates(List<EmployeeAssignmentDto> employeeAssignments) {
+        if (employeeAssignments.isEmpty()) {
+            return;
+        }
+        Map<Integer, EmployeeAssignmentDto> byId = employeeAssignments.stream()
+                .collect(Collectors.toMap(EmployeeAssignmentDto::getId, Function.identity()));
+        assignmentUpdateRepository.findRowsByAssignmentIds(byId.keySet()).forEach(row ->
+                byId.get(row.getAssignmentId()).getAssignmentUpdates().add(AssignmentUpdateDto.builder()
+                        .id(row.getId())
+                        .creationDate(row.getCreationDate())
+                        .status(row.getStatus().name())
+                        .comment(row.getComment())
+                        .build()));
+    }
 }
@@ -1,36 +1,49 @@
 package com.rently.rentlyAPI.services.impl;
 
 import com.rently.rentlyAPI.dto.BuildingDto;
+import com.rently.rentlyAPI.dto.BulkReservationReportDto;
+import com.rently.rentlyAPI.dto.BulkReservationRequestDto;
 import com.rently.rentlyAPI.dto.CommonFacilityDto;
 import com.rently.rentlyAPI.dto.CommonFacilityReservationDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
+import com.rently.rentlyAPI.dto.FacilityAvailabilityDto;
+import com.rently.rentlyAPI.dto.WaitlistEntryDto;
 import com.rently.rentlyAPI.entity.Building;
 import com.rently.rentlyAPI.entity.CommonFacility;
 import com.rently.rentlyAPI.entity.Company;
 import com.rently.rentlyAPI.entity.user.Occupant;
 import com.rently.rentlyAPI.exceptions.AuthenticationException;
+import com.rently.rentlyAPI.exceptions.OperationNonPermittedException;
 import com.rently.rentlyAPI.repository.BuildingRepository;
+import com.rently.rentlyAPI.repository.KeysetPageRepository;
 import com.rently.rentlyAPI.services.BuildingService;
 import com.rently.rentlyAPI.services.CommonFacilityReservationService;
 import com.rently.rentlyAPI.services.CommonFacilityService;
 import com.rently.rentlyAPI.services.CompanyService;
+import com.rently.rentlyAPI.services.ReservationWaitlistService;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class BuildingServiceImpl implements BuildingService {
 
     private final BuildingRepository buildingRepository;
+    private final KeysetPageRepository keysetPageRepository;
     private final CompanyService companyService;
     private final CommonFacilityService commonFacilityService;
     private final CommonFacilityReservationService commonFacilityReservationService;
+    private final ReservationWaitlistService reservationWaitlistService;
 
     @Override
+    @Transactional
     public BuildingDto createBuilding(BuildingDto buildingDto) {
          Building building = BuildingDto.toEntity(buildingDto);
          Building savedBuilding = buildingRepository.save(building);
@@ -38,6 +51,7 @@ public class BuildingServiceImpl implements BuildingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BuildingDto findBuildingDtoById(Integer buildingId) {
         Building building = buildingRepository.findById(buildingId)
                 .orElseThrow(() -> new EntityNotFoundException("Building with ID " + buildingId + " not found"));
@@ -45,18 +59,22 @@ public class BuildingServiceImpl implements BuildingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Building findBuildingEntityById(Integer buildingId) {
         return buildingRepository.findById(buildingId)
                 .orElseThrow(() -> new EntityNotFoundException("Building with ID " + buildingId + " not found"));
     }
 
     @Override
-    public Building findBuildingEntityByName(String buildingName) {
-        return buildingRepository.findByName(buildingName)
-                .orElseThrow(() -> new EntityNotFoundException("Building with name " + buildingName + " not found"));
+    @Transactional(readOnly = true)
+    public Building findBuildingEntityByNameAndCompanyId(String buildingName, Integer companyId) {
+        // a query rather than the cached natural id, so the company it checks is the one in the database
+        return buildingRepository.findByNameAndCompanyId(buildingName, companyId)
+                .orElseThrow(() -> new EntityNotFoundException("Building with name " + buildingName + " not found in the company"));
     }
 
     @Override
+    @Transactional
     public BuildingDto updateBuilding(BuildingDto buildingDto) {
 
         // Find the Building Entity by ID
@@ -78,6 +96,7 @@ public class BuildingServiceImpl implements BuildingService {
     }
 
     @Override
+    @Transactional
     public void deleteBuilding(Integer buildingId) {
         // Attempt to retrieve the building by ID
         Building building = buildingRepository.findById(buildingId)
@@ -88,14 +107,24 @@ public class BuildingServiceImpl implements BuildingService {
     }
 
     @Override
-    public List<BuildingDto> getAllBuildings() {
-        List<Building> buildings = buildingRepository.findAll();
-        return buildings.stream()
-                .map(BuildingDto::fromEntity)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDto<BuildingDto> getBuildings(Integer companyId, String namePrefix, KeysetPageRequest page) {
+        return keysetPageRepository.findPage(Building.class, page,
+                (building, cb) -> cb.construct(BuildingDto.class, building.get("id"), building.get("name"),
+                        building.get("numberOfFloors"), building.get("address"), building.get("description"),
+                        building.get("company").get("id")),
+                (building, cb, predicates) -> {
+                    if (companyId != null) {
+                        predicates.add(cb.equal(building.get("company").get("id"), companyId));
+                    }
+                    if (namePrefix != null && !namePrefix.isBlank()) {
+                        predicates.add(KeysetPageRepository.startsWith(cb, building.get("name"), namePrefix));
+                    }
+                });
     }
 
     @Override
+    @Transactional
     public BuildingDto createBuildingAndLinkToCompany(BuildingDto buildingDto) {
         Optional<Building> existingBuilding = buildingRepository.findByName(buildingDto.getName());
 
@@ -122,19 +151,19 @@ public class BuildingServiceImpl implements BuildingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BuildingDto> getAllBuildingsByCompanyId(Integer companyId) {
-        List<Building> buildings = buildingRepository.findAllByCompanyId(companyId);
-        return buildings.stream()
-                .map(BuildingDto::fromEntity)
-                .collect(Collectors.toList());
+        return buildingRepository.findAllDtosByCompanyId(companyId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<CommonFacility> findCommonFacilityByName(Integer buildingId, String facilityName) {
         return commonFacilityService.findCommonFacilityByName(buildingId, facilityName);
     }
 
     @Override
+    @Transactional
     public CommonFacilityDto createCommonFacility(CommonFacilityDto commonFacilityDto) {
         Building buildingToLink = findBuildingEntityById(commonFacilityDto.getBuildingId());
 
@@ -148,26 +177,31 @@ public class BuildingServiceImpl implements BuildingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CommonFacilityDto getCommonFacilityById(Integer commonFacilityId) {
         return commonFacilityService.findCommonFacilityDtoById(commonFacilityId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommonFacilityDto> getAllCommonFacilitiesByBuildingId(Integer buildingId) {
         findBuildingEntityById(buildingId);
         return commonFacilityService.getAllCommonFacilityByBuildingId(buildingId);
     }
 
     @Override
-    public List<CommonFacilityDto> getAllCommonFacilities() {
-        return commonFacilityService.getAllCommonFacilities();
+    @Transactional(readOnly = true)
+    public CursorPageDto<CommonFacilityDto> getCommonFacilities(Integer companyId, Integer buildingId, String namePrefix, KeysetPageRequest page) {
+        return commonFacilityService.getCommonFacilities(companyId, buildingId, namePrefix, page);
     }
 
     @Override
+    @Transactional
     public void deleteCommonFacilityById(Integer commonFacilityId) {
         commonFacilityService.deleteCommonFacilityById(commonFacilityId);
     }
 
+    // not transactional: the reservation commits in its own transaction while its facility is locked
     @Override
     public CommonFacilityReservationDto createCommonFacilityReservation(Occupant occupant, CommonFacilityReservationDto commonFacilityReservationDto) {
         CommonFacility commonFacility = commonFacilityService.findCommonFacilityEntityById(commonFacilityReservationDto.getCommonFacilityId());
@@ -175,21 +209,80 @@ public class BuildingServiceImpl implements BuildingService {
         return commonFacilityReservationService.createCommonFacilityReservation(company, commonFacility, occupant, commonFacilityReservationDto);
     }
 
+    // not transactional, see createCommonFacilityReservation
     @Override
+    public BulkReservationReportDto createCommonFacilityReservations(Occupant occupant, BulkReservationRequestDto bulkReservationRequestDto) {
+        if (bulkReservationRequestDto.getCommonFacilityId() == null) {
+            throw new OperationNonPermittedException("The common facility id is required");
+        }
+        CommonFacility commonFacility = commonFacilityService.findCommonFacilityEntityById(bulkReservationRequestDto.getCommonFacilityId());
+        Company company = commonFacility.getBuilding().getCompany();
+        return commonFacilityReservationService.createCommonFacilityReservations(company, commonFacility, occupant, bulkReservationRequestDto);
+    }
+
+    @Override
+    @Transactional
     public void deleteCommonFacilityReservation(Integer occupantId, Integer id) {
         commonFacilityReservationService.deleteCommonFacilityReservation(occupantId, id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CommonFacilityReservationDto getCommonFacilityReservation(Integer occupantId, Integer id) {
         return commonFacilityReservationService.findCommonFacilityReservationDtoById(occupantId, id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommonFacilityReservationDto> getAllCommonFacilityReservations(Integer occupantId) {
         return commonFacilityReservationService.getAllCommonFacilityReservations(occupantId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public FacilityAvailabilityDto getCommonFacilityAvailability(Integer commonFacilityId, LocalDate from, LocalDate to) {
+        commonFacilityService.findCommonFacilityDtoById(commonFacilityId);
+        return commonFacilityReservationService.getAvailability(commonFacilityId, from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FacilityAvailabilityDto> getCommonFacilitiesAvailability(Integer buildingId, LocalDate from, LocalDate to) {
+        return getAllCommonFacilitiesByBuildingId(buildingId).stream()
+                .map(commonFacility -> commonFacilityReservationService.getAvailability(commonFacility.getId(), from, to))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntryDto joinCommonFacilityWaitlist(Occupant occupant, CommonFacilityReservationDto commonFacilityReservationDto) {
+        if (commonFacilityReservationDto.getCommonFacilityId() == null) {
+            throw new OperationNonPermittedException("The common facility id is required");
+        }
+        CommonFacility commonFacility = commonFacilityService.findCommonFacilityEntityById(commonFacilityReservationDto.getCommonFacilityId());
+        Company company = commonFacility.getBuilding().getCompany();
+        return reservationWaitlistService.joinWaitlist(company, commonFacility, occupant, commonFacilityReservationDto);
+    }
+
+    @Override
+    @Transactional
+    public void leaveCommonFacilityWaitlist(Integer occupantId, Integer id) {
+        reservationWaitlistService.leaveWaitlist(occupantId, id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDto> getAllWaitlistEntries(Integer occupantId) {
+        return reservationWaitlistService.getWaitlistEntries(occupantId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDto> getCommonFacilityWaitlist(Integer commonFacilityId) {
+        commonFacilityService.findCommonFacilityDtoById(commonFacilityId);
+        return reservationWaitlistService.getCommonFacilityWaitlist(commonFacilityId);
+    }
+
 //	private final BuildingRepository buildingRepository;
 //
 //	@Override
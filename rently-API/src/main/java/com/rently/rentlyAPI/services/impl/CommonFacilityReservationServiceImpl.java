@@ -1,40 +1,153 @@
 package com.rently.rentlyAPI.services.impl;
 
+import com.rently.rentlyAPI.dto.BulkReservationReportDto;
+import com.rently.rentlyAPI.dto.BulkReservationRequestDto;
 import com.rently.rentlyAPI.dto.CommonFacilityReservationDto;
+import com.rently.rentlyAPI.dto.FacilityAvailabilityDto;
+import com.rently.rentlyAPI.dto.OccurrenceReportDto;
+import com.rently.rentlyAPI.dto.RecurrenceDto;
+import com.rently.rentlyAPI.dto.TimeSlotDto;
 import com.rently.rentlyAPI.entity.CommonFacility;
 import com.rently.rentlyAPI.entity.CommonFacilityReservation;
 import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.enums.RecurrenceFrequency;
 import com.rently.rentlyAPI.entity.user.Occupant;
 import com.rently.rentlyAPI.exceptions.AuthenticationException;
 import com.rently.rentlyAPI.exceptions.OperationNonPermittedException;
+import com.rently.rentlyAPI.exceptions.ServiceUnavailableException;
 import com.rently.rentlyAPI.repository.CommonFacilityReservationRepository;
 import com.rently.rentlyAPI.services.CommonFacilityReservationService;
-import lombok.AllArgsConstructor;
+import com.rently.rentlyAPI.services.ReservationIndexService;
+import com.rently.rentlyAPI.utils.IntervalIndex;
+import com.rently.rentlyAPI.utils.SlotCalendar;
+import com.rently.rentlyAPI.utils.EntityIdAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 @Service
-@AllArgsConstructor
 public class CommonFacilityReservationServiceImpl implements CommonFacilityReservationService {
 
+    // Postgres exclusion_violation
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final CommonFacilityReservationRepository commonFacilityReservationRepository;
+    private final ReservationIndexService reservationIndexService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityIdAllocator entityIdAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    // facility id -> stripe, the bookings of a facility are made one at a time by this instance
+    private final ReentrantLock[] facilityLocks;
+    private final long lockTimeout;
+    private final int maxAttempts;
+    private final int availabilityMaxDays;
+    private final int bulkMaxOccurrences;
+
+    public CommonFacilityReservationServiceImpl(CommonFacilityReservationRepository commonFacilityReservationRepository,
+                                                ReservationIndexService reservationIndexService,
+                                                NamedParameterJdbcTemplate jdbcTemplate,
+                                                EntityIdAllocator entityIdAllocator,
+                                                ApplicationEventPublisher eventPublisher,
+                                                PlatformTransactionManager transactionManager,
+                                                @Value("${application.reservations.lock-stripes:64}") int lockStripes,
+                                                @Value("${application.reservations.lock-timeout:5000}") long lockTimeout,
+                                                @Value("${application.reservations.max-attempts:3}") int maxAttempts,
+                                                @Value("${application.reservations.availability.max-days:92}") int availabilityMaxDays,
+                                                @Value("${application.reservations.bulk.max-occurrences:500}") int bulkMaxOccurrences) {
+        this.commonFacilityReservationRepository = commonFacilityReservationRepository;
+        this.reservationIndexService = reservationIndexService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityIdAllocator = entityIdAllocator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.facilityLocks = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            facilityLocks[i] = new ReentrantLock();
+        }
+        this.lockTimeout = lockTimeout;
+        this.maxAttempts = maxAttempts;
+        this.availabilityMaxDays = availabilityMaxDays;
+        this.bulkMaxOccurrences = bulkMaxOccurrences;
+    }
 
+    /**
+     * Not transactional: the reservation is checked, inserted and committed in its own transaction while the facility
+     * is locked, so the next booking of the facility on this instance sees it. The bookings made on other instances
+     * are excluded by the constraints of the database, a deadlock between two of them is retried.
+     */
     @Override
     public CommonFacilityReservationDto createCommonFacilityReservation(Company company, CommonFacility commonFacility, Occupant occupant, CommonFacilityReservationDto commonFacilityReservationDto) {
-        //check if there is already a reservation at the given time slot for the given user
-        Optional<CommonFacilityReservation> ownExistingReservation = commonFacilityReservationRepository.findByOccupantIdAndDate(occupant.getId(), commonFacilityReservationDto.getReservationDate());
-        if (ownExistingReservation.isPresent()) {
-            throw new OperationNonPermittedException("There is already a reservation at the given time slot for occupant with id " + occupant.getId());
+        LocalDateTime start = commonFacilityReservationDto.getStartTime();
+        LocalDateTime end = commonFacilityReservationDto.getEndTime();
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new OperationNonPermittedException("A reservation needs a start time before its end time");
+        }
+
+        ReentrantLock lock = lockFacility(commonFacility.getId());
+        try {
+            return withRetries(() -> book(company, commonFacility, occupant, commonFacilityReservationDto));
+        } finally {
+            lock.unlock();
         }
+    }
+
+    /**
+     * Books the free occurrences of the request and reports on each of them, like a single booking in one transaction
+     * while the facility is locked: the reservations of the facility and of the occupant over the span of the
+     * occurrences are read with one query, the occurrences are checked against them in memory, and the free ones are
+     * inserted as one JDBC batch. An occurrence overlapping an earlier one of the request is rejected too.
+     * A batch rejected by the constraints of the database, booked meanwhile on another instance, is checked again.
+     */
+    @Override
+    public BulkReservationReportDto createCommonFacilityReservations(Company company, CommonFacility commonFacility, Occupant occupant, BulkReservationRequestDto bulkReservationRequestDto) {
+        List<TimeSlotDto> occurrences = expand(bulkReservationRequestDto);
+
+        ReentrantLock lock = lockFacility(commonFacility.getId());
+        try {
+            return withRetries(() -> bookAll(company, commonFacility, occupant, occurrences));
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        Optional<CommonFacilityReservation> otherExistingReservation = commonFacilityReservationRepository.findByCommonFacilityIdAndDate(commonFacility.getId(), commonFacilityReservationDto.getReservationDate());
-        if (otherExistingReservation.isPresent()) {
-            throw new OperationNonPermittedException("There is already a reservation at the given time slot by another occupant.");
+    private CommonFacilityReservationDto book(Company company, CommonFacility commonFacility, Occupant occupant, CommonFacilityReservationDto commonFacilityReservationDto) {
+        LocalDateTime start = commonFacilityReservationDto.getStartTime();
+        LocalDateTime end = commonFacilityReservationDto.getEndTime();
+
+        //check if the user already has a reservation overlapping the given time slot
+        if (commonFacilityReservationRepository.existsOverlappingByOccupantId(occupant.getId(), start, end)) {
+            throw new OperationNonPermittedException("There is already a reservation at the given time slot for occupant with id " + occupant.getId());
         }
 
+        //a free slot in the index goes straight to the insert, a conflict is confirmed first (the index may be stale)
+        if (reservationIndexService.mightOverlap(commonFacility.getId(), start, end)) {
+            if (commonFacilityReservationRepository.existsOverlappingByCommonFacilityId(commonFacility.getId(), start, end)) {
+                throw new OperationNonPermittedException("There is already a reservation at the given time slot by another occupant.");
+            }
+            reservationIndexService.invalidate(commonFacility.getId());
+        }
 
         CommonFacilityReservation commonFacilityReservation = CommonFacilityReservationDto.toEntity(commonFacilityReservationDto);
 
@@ -42,18 +155,196 @@ public class CommonFacilityReservationServiceImpl implements CommonFacilityReser
         commonFacilityReservation.setCommonFacility(commonFacility);
         commonFacilityReservation.setOccupant(occupant);
 
-        CommonFacilityReservation savedReservation = commonFacilityReservationRepository.save(commonFacilityReservation);
+        CommonFacilityReservation savedReservation;
+        try {
+            savedReservation = commonFacilityReservationRepository.saveAndFlush(commonFacilityReservation);
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                // booked concurrently on another instance, the exclusion constraints of the V3 migration rejected this one
+                throw new OperationNonPermittedException("There is already a reservation at the given time slot.");
+            }
+            throw e;
+        }
+        reservationIndexService.addAfterCommit(commonFacility.getId(), savedReservation.getId(), start, end);
         return CommonFacilityReservationDto.fromEntity(savedReservation);
     }
 
+    private BulkReservationReportDto bookAll(Company company, CommonFacility commonFacility, Occupant occupant, List<TimeSlotDto> occurrences) {
+        // two indexes: a reservation of the facility may overlap one of the occupant elsewhere
+        IntervalIndex facilityReservations = new IntervalIndex();
+        IntervalIndex occupantReservations = new IntervalIndex();
+        jdbcTemplate.query("SELECT id, common_facility_id, occupant_id, start_time, end_time FROM common_facility_reservation "
+                        + "WHERE (common_facility_id = :commonFacilityId OR occupant_id = :occupantId) "
+                        + "AND end_time > :from AND start_time < :to",
+                Map.of("commonFacilityId", commonFacility.getId(),
+                        "occupantId", occupant.getId(),
+                        "from", occurrences.get(0).getStartTime(),
+                        "to", occurrences.stream().map(TimeSlotDto::getEndTime).max(Comparator.naturalOrder()).orElseThrow()),
+                resultSet -> {
+                    Integer id = resultSet.getInt("id");
+                    LocalDateTime start = resultSet.getObject("start_time", LocalDateTime.class);
+                    LocalDateTime end = resultSet.getObject("end_time", LocalDateTime.class);
+                    if (commonFacility.getId().equals(resultSet.getInt("common_facility_id"))) {
+                        facilityReservations.add(id, start, end);
+                    }
+                    if (occupant.getId().equals(resultSet.getInt("occupant_id"))) {
+                        occupantReservations.add(id, start, end);
+                    }
+                });
+
+        Supplier<Integer> ids = entityIdAllocator.idsFor(CommonFacilityReservation.class);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(occurrences.size());
+        List<OccurrenceReportDto> report = new ArrayList<>(occurrences.size());
+        for (TimeSlotDto occurrence : occurrences) {
+            LocalDateTime start = occurrence.getStartTime();
+            LocalDateTime end = occurrence.getEndTime();
+            OccurrenceReportDto.OccurrenceReportDtoBuilder result = OccurrenceReportDto.builder().startTime(start).endTime(end);
+            if (facilityReservations.overlaps(start, end)) {
+                report.add(result.message("There is already a reservation at the given time slot.").build());
+            } else if (occupantReservations.overlaps(start, end)) {
+                report.add(result.message("There is already a reservation at the given time slot for occupant with id " + occupant.getId()).build());
+            } else {
+                Integer id = ids.get();
+                facilityReservations.add(id, start, end);
+                occupantReservations.add(id, start, end);
+                batch.add(new Object[]{id, now, now, company.getId(), commonFacility.getId(), occupant.getId(), start, end});
+                report.add(result.accepted(true).reservationId(id).build());
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            try {
+                jdbcTemplate.getJdbcTemplate().batchUpdate("INSERT INTO common_facility_reservation (id, created_date, "
+                        + "last_modified_date, company_id, common_facility_id, occupant_id, start_time, end_time) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+            } catch (DataIntegrityViolationException e) {
+                if (isExclusionViolation(e)) {
+                    throw new ConcurrencyFailureException("An occurrence was booked meanwhile on another instance", e);
+                }
+                throw e;
+            }
+        }
+        for (OccurrenceReportDto result : report) {
+            if (result.isAccepted()) {
+                reservationIndexService.addAfterCommit(commonFacility.getId(), result.getReservationId(), result.getStartTime(), result.getEndTime());
+            }
+        }
+        return BulkReservationReportDto.builder()
+                .commonFacilityId(commonFacility.getId())
+                .accepted(batch.size())
+                .rejected(report.size() - batch.size())
+                .occurrences(report)
+                .build();
+    }
+
+    // the occurrences of every reservation of the request, by start time
+    private List<TimeSlotDto> expand(BulkReservationRequestDto bulkReservationRequestDto) {
+        List<TimeSlotDto> reservations = bulkReservationRequestDto.getReservations();
+        if (reservations == null || reservations.isEmpty()) {
+            throw new OperationNonPermittedException("At least one reservation is required");
+        }
+        RecurrenceDto recurrence = bulkReservationRequestDto.getRecurrence();
+        int interval = 1;
+        if (recurrence != null) {
+            if (recurrence.getFrequency() == null) {
+                throw new OperationNonPermittedException("A recurrence needs a frequency");
+            }
+            if (recurrence.getCount() == null && recurrence.getUntil() == null) {
+                throw new OperationNonPermittedException("A recurrence needs a count, an until date or both");
+            }
+            if (recurrence.getCount() != null && recurrence.getCount() < 1) {
+                throw new OperationNonPermittedException("The count of a recurrence must be greater than 0");
+            }
+            if (recurrence.getInterval() != null) {
+                if (recurrence.getInterval() < 1) {
+                    throw new OperationNonPermittedException("The interval of a recurrence must be greater than 0");
+                }
+                interval = recurrence.getInterval();
+            }
+        }
+
+        List<TimeSlotDto> occurrences = new ArrayList<>();
+        for (TimeSlotDto reservation : reservations) {
+            LocalDateTime start = reservation.getStartTime();
+            LocalDateTime end = reservation.getEndTime();
+            if (start == null || end == null || !start.isBefore(end)) {
+                throw new OperationNonPermittedException("A reservation needs a start time before its end time");
+            }
+            if (recurrence != null && recurrence.getUntil() != null && recurrence.getUntil().isBefore(start.toLocalDate())) {
+                throw new OperationNonPermittedException("The until date of a recurrence cannot be before the start date of its reservation");
+            }
+            Duration length = Duration.between(start, end);
+            int count = recurrence == null ? 1 : recurrence.getCount() == null ? Integer.MAX_VALUE : recurrence.getCount();
+            for (int i = 0; i < count; i++) {
+                // from the first occurrence, a monthly reservation on the 31st comes back on the 31st after a short month
+                LocalDateTime occurrence = i == 0 ? start : shift(start, recurrence.getFrequency(), (long) i * interval);
+                if (recurrence != null && recurrence.getUntil() != null && occurrence.toLocalDate().isAfter(recurrence.getUntil())) {
+                    break;
+                }
+                if (occurrences.size() == bulkMaxOccurrences) {
+                    throw new OperationNonPermittedException("A request books at most " + bulkMaxOccurrences + " occurrences");
+                }
+                occurrences.add(new TimeSlotDto(occurrence, occurrence.plus(length)));
+            }
+        }
+        if (occurrences.isEmpty()) {
+            throw new OperationNonPermittedException("The request has no occurrence to book");
+        }
+        occurrences.sort(Comparator.comparing(TimeSlotDto::getStartTime));
+        return occurrences;
+    }
+
+    private static LocalDateTime shift(LocalDateTime start, RecurrenceFrequency frequency, long periods) {
+        return switch (frequency) {
+            case DAILY -> start.plusDays(periods);
+            case WEEKLY -> start.plusWeeks(periods);
+            case MONTHLY -> start.plusMonths(periods);
+        };
+    }
+
+    private ReentrantLock lockFacility(Integer commonFacilityId) {
+        ReentrantLock lock = facilityLocks[Math.floorMod(commonFacilityId, facilityLocks.length)];
+        try {
+            if (!lock.tryLock(lockTimeout, TimeUnit.MILLISECONDS)) {
+                throw new ServiceUnavailableException("The facility is being booked by many occupants, please retry in a moment");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("The booking was interrupted, please retry in a moment");
+        }
+        return lock;
+    }
+
+    // each attempt in its own transaction, a deadlock or a conflicting commit rolls it back and it starts over
+    private <T> T withRetries(Supplier<T> booking) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> booking.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new ServiceUnavailableException("The facility is being booked by many occupants, please retry in a moment");
+                }
+            }
+        }
+    }
+
     @Override
+    @Transactional
     public void deleteCommonFacilityReservation(Integer occupantId, Integer id) {
         //checks that the user has the right to delete the reservation
-        findCommonFacilityReservationDtoById(occupantId, id);
+        CommonFacilityReservationDto reservation = findCommonFacilityReservationDtoById(occupantId, id);
         commonFacilityReservationRepository.deleteById(id);
+        reservationIndexService.removeAfterCommit(reservation.getCommonFacilityId(), id);
+        if (reservation.getStartTime() != null) {
+            // delivered once this transaction commits, the waitlist is promoted in the background
+            eventPublisher.publishEvent(new ReservationCancelledEvent(reservation.getCommonFacilityId(),
+                    reservation.getStartTime(), reservation.getEndTime()));
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CommonFacilityReservationDto findCommonFacilityReservationDtoById(Integer occupantId, Integer id) {
         Optional<CommonFacilityReservation> reservation = commonFacilityReservationRepository.findById(id);
         if (reservation.isEmpty()) throw new AuthenticationException("Reservation with ID " + id + " not found");
@@ -64,9 +355,66 @@ public class CommonFacilityReservationServiceImpl implements CommonFacilityReser
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommonFacilityReservationDto> getAllCommonFacilityReservations(Integer occupantId) {
-        return commonFacilityReservationRepository.findAllByOccupantId(occupantId).stream()
-                .map(CommonFacilityReservationDto::fromEntity)
-                .collect(Collectors.toList());
+        return commonFacilityReservationRepository.findAllDtosByOccupantId(occupantId);
+    }
+
+    /**
+     * The free slots of the facility from the start of the from day to the end of the to day, read from the slot
+     * calendar of this instance: a booking made on another instance in the last expire-after-write may be missing.
+     * Not transactional, only a calendar missing from the cache is read from the database, in its own transaction.
+     */
+    @Override
+    public FacilityAvailabilityDto getAvailability(Integer commonFacilityId, LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new OperationNonPermittedException("The availability needs a from date before or on its to date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= availabilityMaxDays) {
+            throw new OperationNonPermittedException("The availability covers at most " + availabilityMaxDays + " days");
+        }
+
+        List<TimeSlotDto> freeSlots = new ArrayList<>();
+        // start of the free run in progress, carried over midnight
+        LocalDateTime freeSince = null;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            BitSet busy = reservationIndexService.busySlots(commonFacilityId, day);
+            LocalDateTime midnight = day.atStartOfDay();
+            int slot = 0;
+            while (slot < SlotCalendar.SLOTS_PER_DAY) {
+                int busyFrom = busy.nextSetBit(slot);
+                if (freeSince == null && busyFrom != slot) {
+                    freeSince = midnight.plusMinutes((long) slot * SlotCalendar.SLOT_MINUTES);
+                }
+                if (busyFrom < 0) {
+                    break;
+                }
+                if (freeSince != null) {
+                    freeSlots.add(new TimeSlotDto(freeSince, midnight.plusMinutes((long) busyFrom * SlotCalendar.SLOT_MINUTES)));
+                    freeSince = null;
+                }
+                slot = busy.nextClearBit(busyFrom);
+            }
+        }
+        if (freeSince != null) {
+            freeSlots.add(new TimeSlotDto(freeSince, to.plusDays(1).atStartOfDay()));
+        }
+
+        return FacilityAvailabilityDto.builder()
+                .commonFacilityId(commonFacilityId)
+                .from(from)
+                .to(to)
+                .slotMinutes(SlotCalendar.SLOT_MINUTES)
+                .freeSlots(freeSlots)
+                .build();
+    }
+
+    private static boolean isExclusionViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
 }
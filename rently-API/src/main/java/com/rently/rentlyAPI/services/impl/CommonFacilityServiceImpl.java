@@ -1,23 +1,29 @@
 package com.rently.rentlyAPI.services.impl;
 
 import com.rently.rentlyAPI.dto.CommonFacilityDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.entity.Building;
 import com.rently.rentlyAPI.entity.CommonFacility;
 import com.rently.rentlyAPI.repository.CommonFacilityRepository;
+import com.rently.rentlyAPI.repository.KeysetPageRepository;
 import com.rently.rentlyAPI.services.CommonFacilityService;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 import lombok.AllArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class CommonFacilityServiceImpl implements CommonFacilityService {
     private final CommonFacilityRepository commonFacilityRepository;
+    private final KeysetPageRepository keysetPageRepository;
 
     @Override
+    @Transactional
     public CommonFacilityDto createCommonFacilityAndLinkToBuilding(CommonFacilityDto commonFacilityDto, Building buildingToLink) {
         CommonFacility commonFacility = CommonFacilityDto.toEntity(commonFacilityDto);
         commonFacility.setBuilding(buildingToLink);
@@ -26,16 +32,19 @@ public class CommonFacilityServiceImpl implements CommonFacilityService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<CommonFacility> findCommonFacilityByName(Integer buildingId, String facilityName) {
         return commonFacilityRepository.findByNameAndBuildingId(buildingId, facilityName);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<CommonFacility> findCommonFacilityById(Integer commonFacilityId) {
         return commonFacilityRepository.findById(commonFacilityId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CommonFacilityDto findCommonFacilityDtoById(Integer commonFacilityId) {
         CommonFacility commonFacility = commonFacilityRepository.findById(commonFacilityId)
                 .orElseThrow(() -> new IllegalArgumentException("CommonFacility with ID " + commonFacilityId + " not found"));
@@ -43,28 +52,41 @@ public class CommonFacilityServiceImpl implements CommonFacilityService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CommonFacility findCommonFacilityEntityById(Integer commonFacilityId) {
-        return commonFacilityRepository.findById(commonFacilityId)
+        CommonFacility commonFacility = commonFacilityRepository.findById(commonFacilityId)
                 .orElseThrow(() -> new IllegalArgumentException("CommonFacility with ID " + commonFacilityId + " not found"));
+        // the bookings read its company once this transaction is over, the building comes from the second-level cache
+        Hibernate.initialize(commonFacility.getBuilding());
+        return commonFacility;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommonFacilityDto> getAllCommonFacilityByBuildingId(Integer buildingId) {
-        List<CommonFacility> facilities = commonFacilityRepository.findAllByBuildingId(buildingId);
-        return facilities.stream()
-                .map(CommonFacilityDto::fromEntity)
-                .collect(Collectors.toList());
+        return commonFacilityRepository.findAllDtosByBuildingId(buildingId);
     }
 
     @Override
-    public List<CommonFacilityDto> getAllCommonFacilities() {
-        List<CommonFacility> facilities = commonFacilityRepository.findAll();
-        return facilities.stream()
-                .map(CommonFacilityDto::fromEntity)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDto<CommonFacilityDto> getCommonFacilities(Integer companyId, Integer buildingId, String namePrefix, KeysetPageRequest page) {
+        return keysetPageRepository.findPage(CommonFacility.class, page,
+                (facility, cb) -> cb.construct(CommonFacilityDto.class, facility.get("id"), facility.get("name"),
+                        facility.get("description"), facility.get("building").get("id")),
+                (facility, cb, predicates) -> {
+                    // always scoped: a company admin only lists the facilities of their own company
+                    predicates.add(cb.equal(facility.get("building").get("company").get("id"), companyId));
+                    if (buildingId != null) {
+                        predicates.add(cb.equal(facility.get("building").get("id"), buildingId));
+                    }
+                    if (namePrefix != null && !namePrefix.isBlank()) {
+                        predicates.add(KeysetPageRepository.startsWith(cb, facility.get("name"), namePrefix));
+                    }
+                });
     }
 
     @Override
+    @Transactional
     public void deleteCommonFacilityById(Integer commonFacilityId) {
         commonFacilityRepository.deleteById(commonFacilityId);
     }
@@ -2,14 +2,17 @@ package com.rently.rentlyAPI.services.impl;
 
 import com.rently.rentlyAPI.dto.*;
 import com.rently.rentlyAPI.entity.*;
+import com.rently.rentlyAPI.entity.enums.CondoStatus;
 import com.rently.rentlyAPI.entity.user.CompanyAdmin;
 import com.rently.rentlyAPI.entity.user.Employee;
 import com.rently.rentlyAPI.entity.user.Occupant;
 import com.rently.rentlyAPI.exceptions.AuthenticationException;
 import com.rently.rentlyAPI.repository.CompanyAdminRepository;
 import com.rently.rentlyAPI.repository.EmploymentContractRepository;
+import com.rently.rentlyAPI.repository.KeysetPageRepository;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
 import com.rently.rentlyAPI.services.*;
-import com.rently.rentlyAPI.utils.JwtUtils;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 import com.rently.rentlyAPI.utils.RegistrationKeyUtils;
 import lombok.AllArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -29,46 +32,45 @@ public class CompanyAdminServiceImpl implements CompanyAdminService {
     private final HousingContractService housingContractService;
     private final CondoService condoService;
     private final EmployeeAssignmentService employeeAssignmentService;
+    private final UserDirectoryService userDirectoryService;
 
     private final CompanyAdminRepository companyAdminRepository;
+    private final KeysetPageRepository keysetPageRepository;
     private final EmploymentContractRepository employmentContractRepository;
 
-    private final JwtUtils jwtUtils;
     private final RegistrationKeyUtils registrationKeyUtils;
     private final PasswordEncoder passwordEncoder;
 
 
     @Override
-    public CompanyAdmin findCompanyAdminEntityByToken(String token) {
-        String tokenWithoutBearer = token.substring(7);
-        String email = jwtUtils.extractUsername(tokenWithoutBearer);
-        return findCompanyAdminEntityByEmail(email);
-    }
-
-    @Override
+    @Transactional(readOnly = true)
     public CompanyAdminDto findCompanyAdminDtoByEmail(String email) {
         CompanyAdmin companyAdmin = findCompanyAdminEntityByEmail(email);
         return CompanyAdminDto.fromEntity(companyAdmin);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CompanyAdmin findCompanyAdminEntityByEmail(String email) {
         return companyAdminRepository.findByEmail(email)
                 .orElseThrow(() -> new AuthenticationException("CompanyAdmin with email " + email + " not found"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<CompanyAdmin> findByEmail(String email) {
         return companyAdminRepository.findByEmail(email);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CompanyAdminDto findCompanyAdminDtoById(Integer companyAdminId) {
         CompanyAdmin companyAdmin = findCompanyAdminEntityById(companyAdminId);
         return CompanyAdminDto.fromEntity(companyAdmin);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CompanyAdmin findCompanyAdminEntityById(Integer companyAdminId) {
         return companyAdminRepository.findById(companyAdminId)
                 .orElseThrow(() -> new AuthenticationException("CompanyAdmin with ID " + companyAdminId + " not found"));
@@ -95,15 +97,18 @@ public class CompanyAdminServiceImpl implements CompanyAdminService {
 
         // Save the company admin
         CompanyAdmin savedCompanyAdmin = companyAdminRepository.save(companyAdminToSave);
+        userDirectoryService.register(savedCompanyAdmin);
 
         // Return the company adminDto
         return CompanyAdminDto.fromEntity(savedCompanyAdmin);
     }
 
     @Override
+    @Transactional
     public CompanyAdminDto updateCompanyAdmin(CompanyAdminDto companyAdminDto) {
         // Find the CompanyAdmin Entity by its ID
         CompanyAdmin companyAdminToUpdate = findCompanyAdminEntityById(companyAdminDto.getId());
+        String previousEmail = companyAdminToUpdate.getEmail();
 
         // Update the CompanyAdmin details if present
         if (companyAdminDto.getEmail() != null && !companyAdminDto.getEmail().isEmpty()) {
@@ -128,11 +133,13 @@ public class CompanyAdminServiceImpl implements CompanyAdminService {
 
         // Save the updated CompanyAdmin
         CompanyAdmin updatedCompanyAdmin = companyAdminRepository.save(companyAdminToUpdate);
+        userDirectoryService.updateEmail(previousEmail, updatedCompanyAdmin);
 
         return CompanyAdminDto.fromEntity(updatedCompanyAdmin);
     }
 
     @Override
+    @Transactional
     public void deleteCompanyAdminById(Integer companyAdminId) {
 
         // Find the CompanyAdmin Entity by its ID
@@ -140,30 +147,36 @@ public class CompanyAdminServiceImpl implements CompanyAdminService {
 
         // If the CompanyAdmin is found, delete it
         companyAdminRepository.delete(companyAdminToDelete);
+        userDirectoryService.remove(companyAdminToDelete);
     }
 
     @Override
-    public List<CompanyAdminDto> getAllCompanyAdmins() {
-        List<CompanyAdmin> companyAdmins = companyAdminRepository.findAll();
-        return companyAdmins.stream()
-                .map(CompanyAdminDto::fromEntity)
-                .toList();
+    @Transactional(readOnly = true)
+    public CursorPageDto<CompanyAdminDto> getCompanyAdmins(Integer companyId, String emailPrefix, KeysetPageRequest page) {
+        return keysetPageRepository.findPage(CompanyAdmin.class, page,
+                (admin, cb) -> cb.construct(CompanyAdminDto.class, admin.get("id"), admin.get("email"), admin.get("firstName"),
+                        admin.get("lastName"), admin.get("phoneNumber"), admin.get("bio"), admin.get("role"),
+                        admin.get("company").get("id")),
+                (admin, cb, predicates) -> {
+                    if (companyId != null) {
+                        predicates.add(cb.equal(admin.get("company").get("id"), companyId));
+                    }
+                    if (emailPrefix != null && !emailPrefix.isBlank()) {
+                        predicates.add(KeysetPageRepository.startsWith(cb, admin.get("email"), emailPrefix));
+                    }
+                });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CompanyAdminDto> getAllCompanyAdminsByCompanyName(String companyName) {
-        List<CompanyAdmin> companyAdmins = companyAdminRepository.findAllByCompanyName(companyName);
-        return companyAdmins.stream()
-                .map(CompanyAdminDto::fromEntity)
-                .toList();
+        return companyAdminRepository.findAllDtosByCompanyName(companyName);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CompanyAdminDto> getAllCompanyAdminsByCompanyId(Integer companyId) {
-        List<CompanyAdmin> companyAdmins = companyAdminRepository.findAllByCompanyId(companyId);
-        return companyAdmins.stream()
-                .map(CompanyAdminDto::fromEntity)
-                .toList();
+        return companyAdminRepository.findAllDtosByCompanyId(companyId);
     }
 
 
@@ -171,9 +184,10 @@ public class CompanyAdminServiceImpl implements CompanyAdminService {
      * Building logic
      */
     @Override
-    public BuildingDto createBuildingAndLinkToCompany(String token, BuildingDto buildingDto) {
+    @Transactional
+    public BuildingDto createBuildingAndLinkToCompany(AuthenticatedUser currentUser, BuildingDto buildingDto) {
         // this adds an extra layer of security, the company admin can only create a building for his company
-        Integer adminCompanyId = findCompanyAdminEntityByToken(token).getCompany().getId();
+        Integer adminCompanyId = companyIdOf(currentUser);
         if (!buildingDto.getCompanyId().equals(adminCompanyId)) {
             throw new AuthenticationException("You are not authorized to create a building for another company");
         }
@@ -182,19 +196,17 @@ public class CompanyAdminServiceImpl implements CompanyAdminService {
     }
 
     @Override
-    public BuildingDto getBuildingByName(String token, String buildingName) {
-        Integer adminCompanyId = findCompanyAdminEntityByToken(token).getCompany().getId();
-        if (buildingService.findBuildingEntityByName(buildingName).getCompany().getId().equals(adminCompanyId)) {
-            throw new AuthenticationException("You are not authorized to access a building in another company");
-        }
-
-        Building building = buildingService.findBuildingEntityByName(buildingName);
+    @Transactional(readOnly = true)
+    public BuildingDto getBuildingByName(AuthenticatedUser currentUser, String buildingName) {
+        Integer adminCompanyId = companyIdOf(currentUser);
+        Building building = buildingService.findBuildingEntityByNameAndCompanyId(buildingName, adminCompanyId);
         return BuildingDto.fromEntity(building);
     }
 
     @Override
-    public BuildingDto getBuildingById(String token, Integer buildingId) {
-        Integer adminCompanyId = findCompanyAdminEntityByToken(token).getCompany().getId();
+    @Transactional(readOnly = true)
+    public BuildingDto getBuildingById(AuthenticatedUser currentUser, Integer buildingId) {
+        Integer adminCompanyId = companyIdOf(currentUser);
         if (!buildingService.findBuildingEntityById(buildingId).getCompany().getId().equals(adminCompanyId)) {
             throw new AuthenticationException("You are not authorized to access a building in another company");
         }
@@ -202,11 +214,13 @@ public class CompanyAdminServiceImpl implements CompanyAdminService {
     }
 
     @Override
-    public List<BuildingDto> getAllBuildings() {
-        return buildingService.getAllBuildings();
+    @Transactional(readOnly = true)
+    public CursorPageDto<BuildingDto> getBuildings(Integer companyId, String namePrefix, KeysetPageRequest page) {
+        return buildingService.getBuildings(companyId, namePrefix, page);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BuildingDto> getAllBuildingsByCompanyId(Integer companyId) {
         return buildingService.getAllBuildingsByCompanyId(companyId);
     }
@@ -216,32 +230,49 @@ public class CompanyAdminServiceImpl implements CompanyAdminService {
      * Condo logic
      */
     @Override
+    @Transactional(readOnly = true)
     public Condo getCondoEntityByRegistrationKey(String registrationKey) {
         return condoService.findCondoEntityByRegistrationKey(registrationKey);
     }
 
     @Override
+    @Transactional
     public CondoDto createCondoAndLinkToBuilding(CondoDto condoDto) {
         return condoService.createCondoAndLinkToBuilding(condoDto);
     }
     
     @Override
+    @Transactional
     public String deleteCondoById(Integer condoId) {
         condoService.deleteCondoById(condoId);
         return "Condo deleted successfully";
     }
     
     @Override
-    public List<CondoDto> getAllCondos() {
-        return condoService.getAllCondos();
+    @Transactional(readOnly = true)
+    public CondoDto getCondoById(AuthenticatedUser currentUser, Integer condoId) {
+        Integer adminCompanyId = companyIdOf(currentUser);
+        Condo condo = condoService.findCondoEntityById(condoId);
+        if (!condo.getBuilding().getCompany().getId().equals(adminCompanyId)) {
+            throw new AuthenticationException("You are not authorized to access a condo in another company");
+        }
+        return CondoDto.fromEntity(condo);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<CondoDto> getCondos(Integer companyId, Integer buildingId, CondoStatus status, KeysetPageRequest page) {
+        return condoService.getCondos(companyId, buildingId, status, page);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<CondoDto> getAllCondosByBuildingId(Integer buildingId) {
         return condoService.getAllCondosByBuildingId(buildingId);
     }
     
     @Override
+    @Transactional
     public String generateKeyForCondoAndCreateHousingContract(RegistrationKeyRequestDto registrationKeyRequestDto, HousingContractDto housingContractDto) {
         Condo condo = condoService.findCondoEntityById(registrationKeyRequestDto.getCondoId());
         Company company = companyService.findCompanyEntityById(condo.getBuilding().getCompany().getId());
@@ -270,6 +301,7 @@ public class CompanyAdminServiceImpl implements CompanyAdminService {
     }
 
     @Override
+    @Transactional
     public HousingContractDto linkOccupantToHousingContract(Occupant occupant, Condo condo) {
         HousingContract housingContract = housingContractService.findHousingContractEntityByCondoId(condo.getId());
         //TODO: RENTER and OWNER have a field that count the number of condos they have,
@@ -280,38 +312,45 @@ public class CompanyAdminServiceImpl implements CompanyAdminService {
     }
 
     @Override
+    @Transactional
     public void deleteCompanyAdmin(Integer id) {
-        findCompanyAdminEntityById(id);
-        companyAdminRepository.deleteById(id);
+        CompanyAdmin companyAdminToDelete = findCompanyAdminEntityById(id);
+        companyAdminRepository.delete(companyAdminToDelete);
+        userDirectoryService.remove(companyAdminToDelete);
     }
 
     @Override
+    @Transactional
     public EmployeeDto updateEmployee(EmployeeDto employeeDto) {
         return employeeService.updateEmployee(employeeDto);
     }
 
     @Override
-    public List<EmployeeDto> getAllEmployeesByTypeAndBuilding(String token, String employeeType, Integer buildingId) {
+    @Transactional(readOnly = true)
+    public List<EmployeeDto> getAllEmployeesByTypeAndBuilding(AuthenticatedUser currentUser, String employeeType, Integer buildingId) {
 
-        Integer companyId = findCompanyAdminEntityByToken(token).getCompany().getId();
+        Integer companyId = companyIdOf(currentUser);
         return employeeService.getAllEmployeesByTypeAndBuilding(companyId, employeeType, buildingId);
     }
 
     @Override
-    public List<EmployeeAssignmentDto> getAllEmployeeAssignments(String token) {
-        Integer companyId = findCompanyAdminEntityByToken(token).getCompany().getId();
+    @Transactional(readOnly = true)
+    public List<EmployeeAssignmentDto> getAllEmployeeAssignments(AuthenticatedUser currentUser) {
+        Integer companyId = companyIdOf(currentUser);
         return employeeService.getAllEmployeeAssignmentsByCompanyId(companyId);
     }
 
     @Override
+    @Transactional
     public EmployeeAssignmentDto assignEmployeeToAssignment(Integer employeeId, Integer assignmentId) {
         Employee employee = employeeService.findById(employeeId);
         return employeeAssignmentService.assignEmployeeToAssignment(employee, assignmentId);
     }
 
     @Override
-    public List<EmployeeAssignmentDto> getAllUnassignedEmployeeAssignments(String token) {
-        Integer companyId = findCompanyAdminEntityByToken(token).getCompany().getId();
+    @Transactional(readOnly = true)
+    public List<EmployeeAssignmentDto> getAllUnassignedEmployeeAssignments(AuthenticatedUser currentUser) {
+        Integer companyId = companyIdOf(currentUser);
         return employeeService.getAllUnassignedEmployeeAssignmentsByCompanyId(companyId);
     }
 
@@ -319,6 +358,7 @@ public class CompanyAdminServiceImpl implements CompanyAdminService {
      * Employee logic
      */
     @Override
+    @Transactional
     public EmploymentContractDto createEmploymentContract(EmploymentContractDto employmentContractDto) {
         // no need to check that the company exists, we know it exists because the company admin exists
         // Check that the building exists
@@ -342,8 +382,9 @@ public class CompanyAdminServiceImpl implements CompanyAdminService {
     }
 
     @Override
-    public List<EmployeeDto> getAllEmployees(String token) {
-        Integer companyId = findCompanyAdminEntityByToken(token).getCompany().getId();
+    @Transactional(readOnly = true)
+    public List<EmployeeDto> getAllEmployees(AuthenticatedUser currentUser) {
+        Integer companyId = companyIdOf(currentUser);
         return employeeService.getAllEmployeesByCompanyId(companyId);
     }
 
@@ -352,29 +393,41 @@ public class CompanyAdminServiceImpl implements CompanyAdminService {
      * Common Facility logic
      */
     @Override
+    @Transactional
     public CommonFacilityDto createCommonFacilityAndLinkToBuilding(CommonFacilityDto commonFacilityDto) {
         return buildingService.createCommonFacility(commonFacilityDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CommonFacilityDto getCommonFacilityById(Integer commonFacilityId) {
         return buildingService.getCommonFacilityById(commonFacilityId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommonFacilityDto> getAllCommonFacilitiesByBuildingId(Integer buildingId) {
 
         return buildingService.getAllCommonFacilitiesByBuildingId(buildingId);
     }
 
     @Override
-    public List<CommonFacilityDto> getAllCommonFacilities() {
-        return buildingService.getAllCommonFacilities();
+    @Transactional(readOnly = true)
+    public CursorPageDto<CommonFacilityDto> getCommonFacilities(Integer companyId, Integer buildingId, String namePrefix, KeysetPageRequest page) {
+        return buildingService.getCommonFacilities(companyId, buildingId, namePrefix, page);
     }
 
     @Override
+    @Transactional
     public void deleteCommonFacilityById(Integer commonFacilityId) {
         buildingService.deleteCommonFacilityById(commonFacilityId);
     }
 
+    private Integer companyIdOf(AuthenticatedUser currentUser) {
+        if (currentUser.getCompanyId() == null) {
+            throw new AuthenticationException("Company admin with email " + currentUser.getEmail() + " has no company");
+        }
+        return currentUser.getCompanyId();
+    }
+
 }
@@ -10,6 +10,7 @@ import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.security.SecureRandom;
 import java.util.List;
@@ -23,6 +24,7 @@ public class CompanyServiceImpl implements CompanyService {
     private final CompanyRepository companyRepository;
     
     @Override
+    @Transactional(readOnly = true)
     public CompanyDto findCompanyDtoById(Integer companyId) {
         
         Company company = findCompanyEntityById(companyId);
@@ -30,6 +32,7 @@ public class CompanyServiceImpl implements CompanyService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Company findCompanyEntityById(Integer companyId) {
         
         return companyRepository.findById(companyId)
@@ -37,6 +40,7 @@ public class CompanyServiceImpl implements CompanyService {
     }
 
     @Override
+    @Transactional
     public CompanyDto createCompany(CompanyDto companyDto) {
         // Check if the company already exists
         Optional<Company> company = companyRepository.findCompanyByName(companyDto.getName());
@@ -54,6 +58,7 @@ public class CompanyServiceImpl implements CompanyService {
     }
     
     @Override
+    @Transactional
     public CompanyDto updateCompany(CompanyDto companyDto) {
         
         // Find the Company Entity by its ID
@@ -71,6 +76,7 @@ public class CompanyServiceImpl implements CompanyService {
     }
 
     @Override
+    @Transactional
     public void deleteCompanyById(Integer companyId) {
         
         // Attempt to retrieve the company by ID
@@ -81,6 +87,7 @@ public class CompanyServiceImpl implements CompanyService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CompanyDto> getAllCompanies() {
         List<Company> companies = companyRepository.findAll();
         return companies.stream()
@@ -2,17 +2,25 @@ package com.rently.rentlyAPI.services.impl;
 
 import com.rently.rentlyAPI.dto.BuildingDto;
 import com.rently.rentlyAPI.dto.CondoDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.SystemAdminDto;
 import com.rently.rentlyAPI.entity.Building;
 import com.rently.rentlyAPI.entity.Condo;
+import com.rently.rentlyAPI.entity.Locker;
+import com.rently.rentlyAPI.entity.Parking;
 import com.rently.rentlyAPI.entity.enums.CondoStatus;
 import com.rently.rentlyAPI.entity.user.SystemAdmin;
 import com.rently.rentlyAPI.repository.CondoRepository;
+import com.rently.rentlyAPI.repository.KeysetPageRepository;
 import com.rently.rentlyAPI.services.BuildingService;
 import com.rently.rentlyAPI.services.CondoService;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,11 +30,13 @@ import java.util.Optional;
 public class CondoServiceImpl implements CondoService {
 
     private final CondoRepository condoRepository;
+    private final KeysetPageRepository keysetPageRepository;
     
     private final BuildingService buildingService;
 
 
     @Override
+    @Transactional(readOnly = true)
     public CondoDto findCondoDtoById(Integer condoId) {
         Condo condo = condoRepository.findById(condoId)
                 .orElseThrow(() -> new EntityNotFoundException("Condo with ID " + condoId + " not found"));
@@ -34,6 +44,7 @@ public class CondoServiceImpl implements CondoService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Condo findCondoEntityById(Integer condoId) {
         Condo condo = condoRepository.findById(condoId)
                 .orElseThrow(() -> new EntityNotFoundException("Condo with ID " + condoId + " not found"));
@@ -41,6 +52,7 @@ public class CondoServiceImpl implements CondoService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Condo findByUnitNumberAndBuildingId(Integer unitNumber, Integer buildingId) {
         Condo condo = condoRepository.findByUnitNumberAndBuildingId(unitNumber, buildingId)
             .orElseThrow(() -> new EntityNotFoundException("Condo with unit number " + unitNumber +
@@ -49,6 +61,7 @@ public class CondoServiceImpl implements CondoService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Condo findCondoEntityByRegistrationKey(String registrationKey) {
         Condo condo = condoRepository.findCondoByRegistrationKey(registrationKey)
                 .orElseThrow(() -> new EntityNotFoundException("Condo with registration key " + registrationKey + " not found"));
@@ -56,6 +69,7 @@ public class CondoServiceImpl implements CondoService {
     }
     
     @Override
+    @Transactional
     public CondoDto createCondo(CondoDto condoDto) {
         Condo condo = CondoDto.toEntity(condoDto);
         Condo savedCondo = condoRepository.save(condo);
@@ -63,6 +77,7 @@ public class CondoServiceImpl implements CondoService {
     }
 
     @Override
+    @Transactional
     public CondoDto updateCondo(CondoDto condoDto) {
         // Find the SystemAdmin Entity by its ID
         Condo condoToUpdate = findCondoEntityById(condoDto.getId());
@@ -93,6 +108,7 @@ public class CondoServiceImpl implements CondoService {
     }
 
     @Override
+    @Transactional
     public void deleteCondoById(Integer condoId) {
         Condo condo = condoRepository.findById(condoId)
                 .orElseThrow(() -> new EntityNotFoundException("Condo with ID " + condoId + " not found"));
@@ -100,24 +116,45 @@ public class CondoServiceImpl implements CondoService {
     }
 
     @Override
-    public List<CondoDto> getAllCondos() {
-        List<Condo> condos = condoRepository.findAll();
-        return condos.stream()
-                .map(CondoDto::fromEntity)
-                .toList();
+    @Transactional(readOnly = true)
+    public CursorPageDto<CondoDto> getCondos(Integer companyId, Integer buildingId, CondoStatus status, KeysetPageRequest page) {
+        return keysetPageRepository.findPage(Condo.class, page,
+                (condo, cb) -> {
+                    // parking and locker own the relationship, so they are joined instead of being loaded one condo at a time
+                    Join<Condo, Parking> parking = condo.join("parking", JoinType.LEFT);
+                    Join<Condo, Locker> locker = condo.join("locker", JoinType.LEFT);
+                    return cb.construct(CondoDto.class, condo.get("id"), condo.get("address"), condo.get("unitNumber"),
+                            condo.get("description"), condo.get("registrationKey"), condo.get("status"),
+                            condo.get("building").get("id"), parking.get("id"), locker.get("id"));
+                },
+                (condo, cb, predicates) -> {
+                    // always scoped: a company admin only lists the condos of their own company
+                    predicates.add(cb.equal(condo.get("building").get("company").get("id"), companyId));
+                    if (buildingId != null) {
+                        predicates.add(cb.equal(condo.get("building").get("id"), buildingId));
+                    }
+                    if (status != null) {
+                        predicates.add(cb.equal(condo.get("status"), status));
+                    }
+                });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CondoDto> getAllCondosByBuildingId(Integer buildingId) {
         // just to throw an exception if building does not exist
         Building building = buildingService.findBuildingEntityById(buildingId);
         
-        List<Condo> condos = condoRepository.findAllByBuildingId(buildingId);
-        return condos.stream()
-                .map(CondoDto::fromEntity)
-                .toList();
+        return condoRepository.findAllDtosByBuildingId(buildingId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CondoDto> getAllCondosByOccupantId(Integer occupantId) {
+        return condoRepository.findAllDtosByOccupantId(occupantId);
     }
     
+    @Transactional
     public CondoDto createCondoAndLinkToBuilding(CondoDto condoDto){
         Optional<Condo> existingCondo = condoRepository.findByUnitNumberAndBuildingId(condoDto.getUnitNumber(), condoDto.getBuildingId());
         
@@ -141,6 +178,7 @@ public class CondoServiceImpl implements CondoService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public boolean keyExists(String registrationKey) {
         return condoRepository.existsByRegistrationKey(registrationKey);
     }
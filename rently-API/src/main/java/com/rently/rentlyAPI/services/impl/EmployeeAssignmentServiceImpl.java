@@ -1,6 +1,7 @@
 package com.rently.rentlyAPI.services.impl;
 
 import com.rently.rentlyAPI.dto.AssignmentUpdateDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
 import com.rently.rentlyAPI.entity.AssignmentUpdate;
 import com.rently.rentlyAPI.entity.EmployeeAssignment;
@@ -11,11 +12,15 @@ import com.rently.rentlyAPI.exceptions.OperationNonPermittedException;
 import com.rently.rentlyAPI.repository.EmployeeAssignmentRepository;
 import com.rently.rentlyAPI.services.AssignmentUpdateService;
 import com.rently.rentlyAPI.services.EmployeeAssignmentService;
+import com.rently.rentlyAPI.utils.CursorUtils;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +32,7 @@ public class EmployeeAssignmentServiceImpl implements EmployeeAssignmentService
 
 
     @Override
+    @Transactional
     public void createEmployeeAssignment(OwnerRequest savedOwnerRequest) {
         List<AssignmentUpdate> updates = new ArrayList<>();
 
@@ -49,15 +55,17 @@ public class EmployeeAssignmentServiceImpl implements EmployeeAssignmentService
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeAssignmentDto> getAllEmployeeAssignmentsByCompanyId(Integer companyId) {
-        return employeeAssignmentRepository.findAllByCompanyId(companyId).stream()
-                .map(EmployeeAssignmentDto::fromEntity)
-                .toList();
+        List<EmployeeAssignmentDto> employeeAssignments = employeeAssignmentRepository.findAllDtosByCompanyId(companyId);
+        assignmentUpdateService.attachUpdates(employeeAssignments);
+        return employeeAssignments;
     }
 
     @Override
+    @Transactional
     public EmployeeAssignmentDto assignEmployeeToAssignment(Employee employee, Integer assignmentId) {
-        EmployeeAssignment employeeAssignment = employeeAssignmentRepository.findById(assignmentId).orElseThrow();
+        EmployeeAssignment employeeAssignment = employeeAssignmentRepository.findWithUpdatesById(assignmentId).orElseThrow();
         employeeAssignment.setEmployee(employee);
         employeeAssignment.setStatus(AssignmentStatus.ASSIGNED);
         AssignmentUpdate assignmentUpdate = assignmentUpdateService.createAssignmentUpdateOnAssign(employeeAssignment);
@@ -69,6 +77,7 @@ public class EmployeeAssignmentServiceImpl implements EmployeeAssignmentService
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeAssignmentDto> getAllUnassignedEmployeeAssignmentsByCompanyId(Integer companyId) {
         List<EmployeeAssignmentDto> employeeAssignments = getAllEmployeeAssignmentsByCompanyId(companyId);//getAllEmployeeAssignmentsByCompanyId(companyId);
         return employeeAssignments.stream()
@@ -78,14 +87,15 @@ public class EmployeeAssignmentServiceImpl implements EmployeeAssignmentService
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeAssignmentDto> getAllAssignments(Integer id) {
-        List<EmployeeAssignment> employeeAssignments = employeeAssignmentRepository.findAllByEmployeeId(id);
-        return employeeAssignments.stream()
-                .map(EmployeeAssignmentDto::fromEntity)
-                .toList();
+        List<EmployeeAssignmentDto> employeeAssignments = employeeAssignmentRepository.findAllDtosByEmployeeId(id);
+        assignmentUpdateService.attachUpdates(employeeAssignments);
+        return employeeAssignments;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public EmployeeAssignmentDto getAssignmentByEmployeeIdAndAssignmentId(Integer employeeId, Integer assignmentId) {
         Optional<EmployeeAssignment> employeeAssignment = employeeAssignmentRepository.findByEmployeeIdAndId(employeeId, assignmentId);
         if (employeeAssignment.isEmpty()) {
@@ -96,8 +106,9 @@ public class EmployeeAssignmentServiceImpl implements EmployeeAssignmentService
     }
 
     @Override
+    @Transactional
     public AssignmentUpdateDto updateAssignmentStatus(Integer assignmentId, AssignmentUpdateDto assignmentUpdateDto) {
-        EmployeeAssignment employeeAssignment = employeeAssignmentRepository.findById(assignmentId).orElseThrow();
+        EmployeeAssignment employeeAssignment = employeeAssignmentRepository.findWithUpdatesById(assignmentId).orElseThrow();
         if (employeeAssignment.getStatus().equals(AssignmentStatus.COMPLETED) || employeeAssignment.getStatus().equals(AssignmentStatus.CANCELLED)) {
             throw new OperationNonPermittedException("You cannot modify a closed assignment");
         }
@@ -116,9 +127,35 @@ public class EmployeeAssignmentServiceImpl implements EmployeeAssignmentService
     }
 
     @Override
+    @Transactional(readOnly = true)
     public EmployeeAssignmentDto getEmployeeAssignmentByOwnerRequestId(Integer id) {
         return EmployeeAssignmentDto.fromEntity(employeeAssignmentRepository.findByOwnerRequestId(id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeAssignmentDto> getEmployeeAssignmentsByOwnerRequestIds(Collection<Integer> ownerRequestIds) {
+        if (ownerRequestIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<EmployeeAssignmentDto> employeeAssignments = employeeAssignmentRepository.findAllDtosByOwnerRequestIds(ownerRequestIds);
+        assignmentUpdateService.attachUpdates(employeeAssignments);
+        return employeeAssignments;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<EmployeeAssignmentDto> getEmployeeAssignmentsByOwnerId(Integer ownerId, String cursor, Integer limit) {
+        int pageSize = CursorUtils.checkLimit(limit);
+        Integer beforeId = CursorUtils.decodeId(cursor);
+
+        // one row more than the page tells whether there is a next page
+        List<EmployeeAssignmentDto> rows = employeeAssignmentRepository.findDtosByOwnerIdBefore(
+                ownerId, beforeId != null ? beforeId : Integer.MAX_VALUE, PageRequest.of(0, pageSize + 1));
+        CursorPageDto<EmployeeAssignmentDto> page = CursorPageDto.of(rows, pageSize, assignment -> CursorUtils.encode(assignment.getId()));
+        assignmentUpdateService.attachUpdates(page.getItems());
+        return page;
+    }
+
 
 }
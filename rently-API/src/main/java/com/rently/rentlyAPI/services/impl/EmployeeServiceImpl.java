@@ -8,16 +8,19 @@ import com.rently.rentlyAPI.entity.EmploymentContract;
 import com.rently.rentlyAPI.entity.enums.WorkType;
 import com.rently.rentlyAPI.entity.user.Employee;
 import com.rently.rentlyAPI.exceptions.AuthenticationException;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
+import com.rently.rentlyAPI.security.Role;
 import com.rently.rentlyAPI.repository.EmployeeRepository;
 import com.rently.rentlyAPI.repository.EmploymentContractRepository;
 import com.rently.rentlyAPI.services.CompanyService;
 import com.rently.rentlyAPI.services.EmployeeAssignmentService;
 import com.rently.rentlyAPI.services.EmployeeService;
-import com.rently.rentlyAPI.utils.JwtUtils;
+import com.rently.rentlyAPI.services.UserDirectoryService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -30,10 +33,11 @@ public class EmployeeServiceImpl implements EmployeeService {
     private final CompanyService companyService;
     private final EmploymentContractRepository employmentContractRepository;
     private final EmployeeAssignmentService employeeAssignmentService;
+    private final UserDirectoryService userDirectoryService;
     private final PasswordEncoder passwordEncoder;
-    private final JwtUtils jwtUtils;
 
     @Override
+    @Transactional
     public EmployeeDto registerEmployee(EmployeeDto employeeDto) {
         if (employeeDto.getPassword() != null) {
             // Encode the password if provided (null with google for example)
@@ -51,48 +55,41 @@ public class EmployeeServiceImpl implements EmployeeService {
 
         // Save the employee
         Employee savedEmployee = employeeRepository.save(employeeToSave);
+        userDirectoryService.register(savedEmployee);
 
         // Return the employee dto
         return EmployeeDto.fromEntity(savedEmployee);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeDto> getAllEmployeesByCompanyId(Integer companyId) {
-        List<Employee> employees = employeeRepository.findAllByCompanyId(companyId);
-        return employees.stream()
-                .map(EmployeeDto::fromEntity)
-                .collect(Collectors.toList());
+        return employeeRepository.findAllDtosByCompanyId(companyId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Employee> findByEmail(String email) {
         return employeeRepository.findByEmail(email);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Employee findById(Integer employeeId) {
         return employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new EntityNotFoundException("Employee with id: " + employeeId + " not found"));
     }
 
     @Override
-    public Employee findEmployeeEntityByToken(String token) {
-        String tokenWithoutBearer = token.substring(7);
-        String email = jwtUtils.extractUsername(tokenWithoutBearer);
-        Optional<Employee> employee = findByEmail(email);
-        if (employee.isPresent()) {
-            return employee.get();
-        }
-        throw new AuthenticationException("Employee with email " + email + " not found");
-    }
-
-    @Override
+    @Transactional
     public void deleteEmployee(Integer id) {
-        findById(id);
-        employeeRepository.deleteById(id);
+        Employee employeeToDelete = findById(id);
+        employeeRepository.delete(employeeToDelete);
+        userDirectoryService.remove(employeeToDelete);
     }
 
     @Override
+    @Transactional
     public EmployeeDto updateEmployee(EmployeeDto employeeDto) {
         // Find the Employee Entity by its ID
         Employee employeeToUpdate = findById(employeeDto.getId());
@@ -115,6 +112,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeDto> getAllEmployeesByTypeAndBuilding(Integer companyId, String employeeType, Integer buildingId) {
         List<EmploymentContract> contracts = employmentContractRepository.findByCompanyIdAndBuildingId(companyId, buildingId);
         if (contracts.isEmpty()) {
@@ -134,32 +132,42 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeAssignmentDto> getAllEmployeeAssignmentsByCompanyId(Integer companyId) {
         return employeeAssignmentService.getAllEmployeeAssignmentsByCompanyId(companyId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeAssignmentDto> getAllUnassignedEmployeeAssignmentsByCompanyId(Integer companyId) {
         return employeeAssignmentService.getAllUnassignedEmployeeAssignmentsByCompanyId(companyId);
     }
 
     @Override
-    public List<EmployeeAssignmentDto> getAllAssignments(String token) {
-        Employee employee = findEmployeeEntityByToken(token);
-        return employeeAssignmentService.getAllAssignments(employee.getId());
+    @Transactional(readOnly = true)
+    public List<EmployeeAssignmentDto> getAllAssignments(AuthenticatedUser currentUser) {
+        return employeeAssignmentService.getAllAssignments(employeeIdOf(currentUser));
     }
 
     @Override
-    public EmployeeAssignmentDto getAssignmentById(String token, Integer assignmentId) {
-        Employee employee = findEmployeeEntityByToken(token);
-        return employeeAssignmentService.getAssignmentByEmployeeIdAndAssignmentId(employee.getId(), assignmentId);
+    @Transactional(readOnly = true)
+    public EmployeeAssignmentDto getAssignmentById(AuthenticatedUser currentUser, Integer assignmentId) {
+        return employeeAssignmentService.getAssignmentByEmployeeIdAndAssignmentId(employeeIdOf(currentUser), assignmentId);
     }
 
     @Override
-    public AssignmentUpdateDto updateAssignmentStatus(String token, AssignmentUpdateDto assignmentUpdateDto, Integer id) {
-        EmployeeAssignmentDto assignmentDto = getAssignmentById(token, id);
+    @Transactional
+    public AssignmentUpdateDto updateAssignmentStatus(AuthenticatedUser currentUser, AssignmentUpdateDto assignmentUpdateDto, Integer id) {
+        EmployeeAssignmentDto assignmentDto = getAssignmentById(currentUser, id);
         return employeeAssignmentService.updateAssignmentStatus(assignmentDto.getId(), assignmentUpdateDto);
     }
 
+    // the employee endpoints are open to any authenticated user, the role in the token decides
+    private Integer employeeIdOf(AuthenticatedUser currentUser) {
+        if (currentUser.getRole() != Role.EMPLOYEE) {
+            throw new AuthenticationException("Employee with email " + currentUser.getEmail() + " not found");
+        }
+        return currentUser.getId();
+    }
 
 }
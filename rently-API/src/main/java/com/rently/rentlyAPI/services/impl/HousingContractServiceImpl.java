@@ -9,6 +9,7 @@ import com.rently.rentlyAPI.repository.HousingContractRepository;
 import com.rently.rentlyAPI.services.HousingContractService;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +21,7 @@ public class HousingContractServiceImpl implements HousingContractService {
 	private final HousingContractRepository housingContractRepository;
 	
 	@Override
+	@Transactional
 	public HousingContract createHousingContractWithoutOccupant(Company company, Condo condo, HousingContractDto housingContractDto) {
 		// Check if there is already a housing contract for the given condo
 		Optional<HousingContract> existingHousingContract = housingContractRepository.findByCondoId(condo.getId());
@@ -38,6 +40,7 @@ public class HousingContractServiceImpl implements HousingContractService {
 	}
 	
 	@Override
+	@Transactional
 	public HousingContractDto setOccupantToHousingContract(HousingContract housingContract, Occupant occupant) {
 		housingContract.setOccupant(occupant);
 		HousingContract savedHousingContract = housingContractRepository.save(housingContract);
@@ -45,6 +48,7 @@ public class HousingContractServiceImpl implements HousingContractService {
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public HousingContract findHousingContractEntityByCondoId(Integer condoId) {
 		Optional<HousingContract> housingContract = housingContractRepository.findByCondoId(condoId);
 		if(housingContract.isEmpty()) {
@@ -54,11 +58,19 @@ public class HousingContractServiceImpl implements HousingContractService {
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<HousingContract> findHousingContractEntitiesByOccupantId(Integer occupantId) {
 		return housingContractRepository.findAllByOccupantId(occupantId);
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
+	public List<HousingContractDto> getHousingContractsByOccupantId(Integer occupantId) {
+		return housingContractRepository.findAllDtosByOccupantId(occupantId);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
 	public Optional<HousingContract> findHousingContractByCondoIdAndOccupantId(Integer condoId, Integer occupantId) {
 		return housingContractRepository.findByCondoIdAndOccupantId(condoId, occupantId);
 	}
@@ -0,0 +1,68 @@
+package com.rently.rentlyAPI.services.impl;
+
+import com.rently.rentlyAPI.dto.CommonFacilityReservationDto;
+import com.rently.rentlyAPI.dto.OccupantNotificationDto;
+import com.rently.rentlyAPI.entity.CommonFacilityReservation;
+import com.rently.rentlyAPI.entity.OccupantNotification;
+import com.rently.rentlyAPI.exceptions.AuthenticationException;
+import com.rently.rentlyAPI.repository.CommonFacilityReservationRepository;
+import com.rently.rentlyAPI.repository.OccupantNotificationRepository;
+import com.rently.rentlyAPI.services.OccupantNotificationService;
+import com.rently.rentlyAPI.services.ReservationWaitlistService.ReservationPromotedEvent;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Notifications the occupants read from their dashboard. A promotion of the waitlist writes one in its own
+ * transaction, so the occupant is told about every reservation made for them and about none that rolled back.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class OccupantNotificationServiceImpl implements OccupantNotificationService {
+
+    private final OccupantNotificationRepository occupantNotificationRepository;
+    private final CommonFacilityReservationRepository commonFacilityReservationRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onReservationPromoted(ReservationPromotedEvent event) {
+        CommonFacilityReservationDto promoted = event.reservation();
+        // saved by the promotion, so found in its persistence context without a query
+        CommonFacilityReservation reservation = commonFacilityReservationRepository.findById(promoted.getId())
+                .orElseThrow(() -> new IllegalStateException("Promoted reservation " + promoted.getId() + " not found"));
+        occupantNotificationRepository.save(OccupantNotification.builder()
+                .occupant(reservation.getOccupant())
+                .commonFacilityReservationId(reservation.getId())
+                .message("A slot you were waiting for is now booked for you: " + reservation.getCommonFacility().getName()
+                        + " from " + reservation.getStartTime() + " to " + reservation.getEndTime())
+                .build());
+        log.info("Waitlist entry of occupant {} promoted to reservation {}, notification saved", event.occupantId(), promoted.getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OccupantNotificationDto> getNotifications(Integer occupantId) {
+        return occupantNotificationRepository.findAllDtosByOccupantId(occupantId);
+    }
+
+    @Override
+    @Transactional
+    public OccupantNotificationDto markAsRead(Integer occupantId, Integer id) {
+        OccupantNotification notification = occupantNotificationRepository.findById(id)
+                .orElseThrow(() -> new AuthenticationException("Notification with ID " + id + " not found"));
+        if (!notification.getOccupant().getId().equals(occupantId)) {
+            throw new AuthenticationException("You do not have access to other people's notifications");
+        }
+        if (notification.getReadDate() == null) {
+            notification.setReadDate(LocalDateTime.now());
+        }
+        return OccupantNotificationDto.fromEntity(notification);
+    }
+}
@@ -10,14 +10,18 @@ import com.rently.rentlyAPI.entity.user.Occupant;
 import com.rently.rentlyAPI.entity.user.Owner;
 import com.rently.rentlyAPI.entity.user.Renter;
 import com.rently.rentlyAPI.exceptions.AuthenticationException;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
+import com.rently.rentlyAPI.security.Role;
 import com.rently.rentlyAPI.services.*;
-import com.rently.rentlyAPI.utils.JwtUtils;
+import com.rently.rentlyAPI.utils.ParallelQueryExecutor;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @AllArgsConstructor
@@ -27,69 +31,59 @@ public class OccupantServiceImpl implements OccupantService {
     private final HousingContractService housingContractService;
     private final RenterService renterService;
     private final OwnerService ownerService;
-    private final JwtUtils jwtUtils;
+    private final ParallelQueryExecutor parallelQueryExecutor;
+    private final OccupantNotificationService occupantNotificationService;
 
+    // not transactional, see BuildingServiceImpl#createCommonFacilityReservation
     @Override
-    public CommonFacilityReservationDto createCommonFacilityReservation(String token, CommonFacilityReservationDto commonFacilityReservationDto) {
-        Occupant occupantToLink = findOccupantEntityByToken(token);
-        return buildingService.createCommonFacilityReservation(occupantToLink, commonFacilityReservationDto);
+    public CommonFacilityReservationDto createCommonFacilityReservation(Occupant occupant, CommonFacilityReservationDto commonFacilityReservationDto) {
+        return buildingService.createCommonFacilityReservation(occupant, commonFacilityReservationDto);
     }
 
-    public Occupant findOccupantEntityByToken(String token) {
-        String tokenWithoutBearer = token.substring(7);
-        String email = jwtUtils.extractUsername(tokenWithoutBearer);
-        return findOccupantEntityByEmail(email);
-
+    // not transactional, see BuildingServiceImpl#createCommonFacilityReservation
+    @Override
+    public BulkReservationReportDto createCommonFacilityReservations(Occupant occupant, BulkReservationRequestDto bulkReservationRequestDto) {
+        return buildingService.createCommonFacilityReservations(occupant, bulkReservationRequestDto);
     }
 
     @Override
-    public OwnerRequestDto createOwnerRequest(String token, OwnerRequestDto ownerRequestDto) {
-        Occupant occupantToLink = findOccupantEntityByToken(token);
-        return ownerService.createOwnerRequest((Owner) occupantToLink, ownerRequestDto);
+    @Transactional
+    public OwnerRequestDto createOwnerRequest(Owner owner, OwnerRequestDto ownerRequestDto) {
+        return ownerService.createOwnerRequest(owner, ownerRequestDto);
     }
 
     @Override
-    public void deleteOwnerRequest(String token, Integer id) {
-        Occupant occupantToLink = findOccupantEntityByToken(token);
-        ownerService.deleteOwnerRequest((Owner) occupantToLink, id);
+    @Transactional
+    public void deleteOwnerRequest(Owner owner, Integer id) {
+        ownerService.deleteOwnerRequest(owner, id);
     }
 
     @Override
-    public List<OwnerRequestDto> getAllOwnerRequests(String token) {
-        Integer occupantId = findOccupantEntityByToken(token).getId();
+    @Transactional(readOnly = true)
+    public List<OwnerRequestDto> getAllOwnerRequests(AuthenticatedUser currentUser) {
+        Integer occupantId = occupantIdOf(currentUser);
         return ownerService.getAllOwnerRequests(occupantId);
     }
 
     @Override
-    public OwnerRequestDto getOwnerRequestById(String token, Integer requestId) {
-        Integer occupantId = findOccupantEntityByToken(token).getId();
+    @Transactional(readOnly = true)
+    public OwnerRequestDto getOwnerRequestById(AuthenticatedUser currentUser, Integer requestId) {
+        Integer occupantId = occupantIdOf(currentUser);
         return ownerService.getOwnerRequestById(occupantId, requestId);
     }
     
     @Override
-    public List<CondoDto> getMyCondos(String token) {
-        // Step 1: Extract Occupant Id
-        Integer occupantId = findOccupantEntityByToken(token).getId();
-        
-        // Step 2: Fetch All Housing Contracts of that occupant
-        List<HousingContract> contracts = housingContractService.findHousingContractEntitiesByOccupantId(occupantId);
-        
-        // Step 3: Get the Condo Ids from the Housing Contracts, fetch them, convert to Dtos and add to the List
-        List<CondoDto> condosDto = new ArrayList<>();
-        for (HousingContract contract : contracts) {
-            Condo condo = condoService.findCondoEntityById(contract.getCondo().getId());
-            CondoDto condoDto = CondoDto.fromEntity(condo);
-            condosDto.add(condoDto);
-        }
-        
-        // Step 5: Return the List of Condo DTOs
-        return condosDto;
+    @Transactional(readOnly = true)
+    public List<CondoDto> getMyCondos(AuthenticatedUser currentUser) {
+        // the condos are read through the housing contracts of the occupant in a single query
+        return condoService.getAllCondosByOccupantId(occupantIdOf(currentUser));
     }
     
     @Override
-    public HousingContractAndCondoDto getMyCondoInformationById(String token, Integer condoId) {
-        // Step 1: Extract Occupant ID
-        Integer occupantId = findOccupantEntityByToken(token).getId();
+    @Transactional(readOnly = true)
+    public HousingContractAndCondoDto getMyCondoInformationById(AuthenticatedUser currentUser, Integer condoId) {
+        // Step 1: Occupant ID of the current user
+        Integer occupantId = occupantIdOf(currentUser);
         
         // Step 2: For extra security, check if the occupant has a contract with the condo
         Optional<HousingContract> contractOptional = housingContractService.findHousingContractByCondoIdAndOccupantId(condoId, occupantId);
@@ -110,18 +104,43 @@ public class OccupantServiceImpl implements OccupantService {
     }
     
     @Override
-    public List<EmployeeAssignmentDto> getAllOwnerRequestsStatus(String token) {
-        List<OwnerRequestDto> ownerRequests = getAllOwnerRequests(token);
-        return ownerService.getAssignmentStatuses(ownerRequests);
+    @Transactional(readOnly = true)
+    public CursorPageDto<EmployeeAssignmentDto> getAllOwnerRequestsStatus(AuthenticatedUser currentUser, String cursor, Integer limit) {
+        return ownerService.getAssignmentStatusesByOwnerId(occupantIdOf(currentUser), cursor, limit);
     }
 
     @Override
-    public EmployeeAssignmentDto getOwnerRequestStatusByRequestId(String token, Integer requestId) {
-        OwnerRequestDto ownerRequest = getOwnerRequestById(token, requestId);
+    @Transactional(readOnly = true)
+    public EmployeeAssignmentDto getOwnerRequestStatusByRequestId(AuthenticatedUser currentUser, Integer requestId) {
+        OwnerRequestDto ownerRequest = getOwnerRequestById(currentUser, requestId);
         return ownerService.getAssignmentStatus(ownerRequest.getId());
     }
 
+    // not transactional: each section runs in its own read-only transaction on a query thread, see ParallelQueryExecutor,
+    // a transaction here would hold a connection idle while they run
+    @Override
+    public OccupantDashboardDto getDashboard(AuthenticatedUser currentUser) {
+        Integer occupantId = occupantIdOf(currentUser);
+
+        // independent set-based queries, one per section, run side by side
+        CompletableFuture<List<CondoDto>> condos = parallelQueryExecutor.submit(() -> condoService.getAllCondosByOccupantId(occupantId));
+        CompletableFuture<List<HousingContractDto>> housingContracts = parallelQueryExecutor.submit(() -> housingContractService.getHousingContractsByOccupantId(occupantId));
+        CompletableFuture<List<CommonFacilityReservationDto>> reservations = parallelQueryExecutor.submit(() -> buildingService.getAllCommonFacilityReservations(occupantId));
+        CompletableFuture<List<OwnerRequestDto>> ownerRequests = parallelQueryExecutor.submit(() -> ownerService.getAllOwnerRequests(occupantId));
+        CompletableFuture<CursorPageDto<EmployeeAssignmentDto>> requestStatuses = parallelQueryExecutor.submit(() -> ownerService.getAssignmentStatusesByOwnerId(occupantId, null, null));
+        parallelQueryExecutor.awaitAll(condos, housingContracts, reservations, ownerRequests, requestStatuses);
+
+        return OccupantDashboardDto.builder()
+                .condos(condos.join())
+                .housingContracts(housingContracts.join())
+                .facilityReservations(reservations.join())
+                .ownerRequests(ownerRequests.join())
+                .requestStatuses(requestStatuses.join())
+                .build();
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public Occupant findOccupantEntityById(Integer occupantId) {
         Optional<Owner> owner = ownerService.findOwnerEntityById(occupantId);
         Optional<Renter> renter = renterService.findRenterEntityById(occupantId);
@@ -135,6 +154,7 @@ public class OccupantServiceImpl implements OccupantService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Occupant findOccupantEntityByEmail(String email) {
         Optional<Owner> owner = ownerService.findByEmail(email);
         Optional<Renter> renter = renterService.findByEmail(email);
@@ -148,21 +168,87 @@ public class OccupantServiceImpl implements OccupantService {
     }
 
     @Override
-    public void deleteCommonFacilityReservation(String token, Integer id) {
-        Integer occupantId = findOccupantEntityByToken(token).getId();
+    @Transactional
+    public void deleteCommonFacilityReservation(AuthenticatedUser currentUser, Integer id) {
+        Integer occupantId = occupantIdOf(currentUser);
         buildingService.deleteCommonFacilityReservation(occupantId, id);
     }
 
     @Override
-    public CommonFacilityReservationDto getCommonFacilityReservation(String token, Integer id) {
-        Integer occupantId = findOccupantEntityByToken(token).getId();
+    @Transactional(readOnly = true)
+    public CommonFacilityReservationDto getCommonFacilityReservation(AuthenticatedUser currentUser, Integer id) {
+        Integer occupantId = occupantIdOf(currentUser);
         return buildingService.getCommonFacilityReservation(occupantId, id);
     }
 
     @Override
-    public List<CommonFacilityReservationDto> getAllCommonFacilityReservations(String token) {
-        Integer occupantId = findOccupantEntityByToken(token).getId();
+    @Transactional(readOnly = true)
+    public List<CommonFacilityReservationDto> getAllCommonFacilityReservations(AuthenticatedUser currentUser) {
+        Integer occupantId = occupantIdOf(currentUser);
         return buildingService.getAllCommonFacilityReservations(occupantId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public FacilityAvailabilityDto getCommonFacilityAvailability(AuthenticatedUser currentUser, Integer commonFacilityId, LocalDate from, LocalDate to) {
+        occupantIdOf(currentUser);
+        return buildingService.getCommonFacilityAvailability(commonFacilityId, from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FacilityAvailabilityDto> getBuildingAvailability(AuthenticatedUser currentUser, Integer buildingId, LocalDate from, LocalDate to) {
+        occupantIdOf(currentUser);
+        return buildingService.getCommonFacilitiesAvailability(buildingId, from, to);
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntryDto joinCommonFacilityWaitlist(Occupant occupant, CommonFacilityReservationDto commonFacilityReservationDto) {
+        return buildingService.joinCommonFacilityWaitlist(occupant, commonFacilityReservationDto);
+    }
+
+    @Override
+    @Transactional
+    public void leaveCommonFacilityWaitlist(AuthenticatedUser currentUser, Integer id) {
+        Integer occupantId = occupantIdOf(currentUser);
+        buildingService.leaveCommonFacilityWaitlist(occupantId, id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDto> getAllWaitlistEntries(AuthenticatedUser currentUser) {
+        Integer occupantId = occupantIdOf(currentUser);
+        return buildingService.getAllWaitlistEntries(occupantId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDto> getCommonFacilityWaitlist(AuthenticatedUser currentUser, Integer commonFacilityId) {
+        occupantIdOf(currentUser);
+        return buildingService.getCommonFacilityWaitlist(commonFacilityId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OccupantNotificationDto> getNotifications(AuthenticatedUser currentUser) {
+        Integer occupantId = occupantIdOf(currentUser);
+        return occupantNotificationService.getNotifications(occupantId);
+    }
+
+    @Override
+    @Transactional
+    public OccupantNotificationDto markNotificationAsRead(AuthenticatedUser currentUser, Integer id) {
+        Integer occupantId = occupantIdOf(currentUser);
+        return occupantNotificationService.markAsRead(occupantId, id);
+    }
+
+    // the occupant endpoints are open to any authenticated user, the role in the token decides
+    private Integer occupantIdOf(AuthenticatedUser currentUser) {
+        if (currentUser.getRole() != Role.OWNER && currentUser.getRole() != Role.RENTER) {
+            throw new AuthenticationException("Occupant with email " + currentUser.getEmail() + " not found");
+        }
+        return currentUser.getId();
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.rently.rentlyAPI.services.impl;
 
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
 import com.rently.rentlyAPI.dto.OwnerRequestDto;
 import com.rently.rentlyAPI.entity.Building;
@@ -13,6 +14,7 @@ import com.rently.rentlyAPI.services.OwnerRequestService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +27,7 @@ public class OwnerRequestServiceImpl implements OwnerRequestService {
     private final EmployeeAssignmentService employeeAssignmentService;
 
     @Override
+    @Transactional
     public OwnerRequestDto createOwnerRequest(Owner owner, Building building, OwnerRequest ownerRequest) {
         Company company = building.getCompany();
         ownerRequest.setOwner(owner);
@@ -39,24 +42,26 @@ public class OwnerRequestServiceImpl implements OwnerRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OwnerRequest findOwnerRequestEntityById(Integer id) {
         return ownerRequestRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Owner request with ID " + id + " not found"));
     }
 
     @Override
+    @Transactional
     public void deleteOwnerRequest(OwnerRequest ownerRequest) {
         ownerRequestRepository.delete(ownerRequest);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OwnerRequestDto> getAllOwnerRequests(Integer ownerId) {
-        return ownerRequestRepository.findAllByOwnerId(ownerId).stream()
-                .map(OwnerRequestDto::fromEntity)
-                .collect(Collectors.toList());
+        return ownerRequestRepository.findAllDtosByOwnerId(ownerId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OwnerRequestDto getOwnerRequestById(Integer ownerId, Integer requestId) {
         Optional<OwnerRequest> request = ownerRequestRepository.findById(requestId);
         if (request.isEmpty()) throw new EntityNotFoundException("Request with ID " + requestId + " not found");
@@ -67,15 +72,23 @@ public class OwnerRequestServiceImpl implements OwnerRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeAssignmentDto> getAssignmentStatuses(List<OwnerRequestDto> ownerRequests) {
-        List<EmployeeAssignmentDto> assignmentDtos = ownerRequests.stream()
-                .map(ownerRequestDto -> employeeAssignmentService.getEmployeeAssignmentByOwnerRequestId(ownerRequestDto.getId()))
-                .collect(Collectors.toList());
-        return assignmentDtos;
+        // one query for all the requests instead of one per request
+        return employeeAssignmentService.getEmployeeAssignmentsByOwnerRequestIds(ownerRequests.stream()
+                .map(OwnerRequestDto::getId)
+                .collect(Collectors.toList()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public EmployeeAssignmentDto getAssignmentStatusByRequestId(Integer requestId) {
         return employeeAssignmentService.getEmployeeAssignmentByOwnerRequestId(requestId);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<EmployeeAssignmentDto> getAssignmentStatusesByOwnerId(Integer ownerId, String cursor, Integer limit) {
+        return employeeAssignmentService.getEmployeeAssignmentsByOwnerId(ownerId, cursor, limit);
+    }
 }
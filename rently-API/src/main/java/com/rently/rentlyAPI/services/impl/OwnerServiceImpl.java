@@ -1,5 +1,6 @@
 package com.rently.rentlyAPI.services.impl;
 
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
 import com.rently.rentlyAPI.dto.OwnerRequestDto;
 import com.rently.rentlyAPI.entity.Building;
@@ -11,6 +12,7 @@ import com.rently.rentlyAPI.services.OwnerRequestService;
 import com.rently.rentlyAPI.services.OwnerService;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,16 +25,19 @@ public class OwnerServiceImpl implements OwnerService {
     private final OwnerRequestService ownerRequestService;
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Owner> findByEmail(String email) {
         return ownerRepository.findByEmail(email);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Owner> findOwnerEntityById(Integer occupantId) {
         return ownerRepository.findById(occupantId);
     }
 
     @Override
+    @Transactional
     public OwnerRequestDto createOwnerRequest(Owner owner, OwnerRequestDto ownerRequestDto) {
         Building building = buildingService.findBuildingEntityById(ownerRequestDto.getBuildingId());
         OwnerRequest ownerRequest = OwnerRequestDto.toEntity(ownerRequestDto);
@@ -40,6 +45,7 @@ public class OwnerServiceImpl implements OwnerService {
     }
 
     @Override
+    @Transactional
     public void deleteOwnerRequest(Owner owner, Integer id) {
         OwnerRequest ownerRequest = ownerRequestService.findOwnerRequestEntityById(id);
         if (owner.equals(ownerRequest.getOwner()))
@@ -48,23 +54,33 @@ public class OwnerServiceImpl implements OwnerService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OwnerRequestDto> getAllOwnerRequests(Integer ownerId) {
         return ownerRequestService.getAllOwnerRequests(ownerId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OwnerRequestDto getOwnerRequestById(Integer ownerId, Integer requestId) {
         return ownerRequestService.getOwnerRequestById(ownerId, requestId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeAssignmentDto> getAssignmentStatuses(List<OwnerRequestDto> ownerRequests) {
 
         return ownerRequestService.getAssignmentStatuses(ownerRequests);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public EmployeeAssignmentDto getAssignmentStatus(Integer requestId) {
         return ownerRequestService.getAssignmentStatusByRequestId(requestId);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<EmployeeAssignmentDto> getAssignmentStatusesByOwnerId(Integer ownerId, String cursor, Integer limit) {
+        return ownerRequestService.getAssignmentStatusesByOwnerId(ownerId, cursor, limit);
+    }
 }
@@ -0,0 +1,190 @@
+package com.rently.rentlyAPI.services.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rently.rentlyAPI.exceptions.ObjectValidationException;
+import com.rently.rentlyAPI.repository.BuildingRepository;
+import com.rently.rentlyAPI.repository.CondoRepository;
+import com.rently.rentlyAPI.repository.EmployeeRepository;
+import com.rently.rentlyAPI.repository.HousingContractRepository;
+import com.rently.rentlyAPI.services.PortfolioExportService;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams the portfolio of a company row by row. The rows are constructor projections read from a database cursor,
+ * so nothing enters the persistence context and the heap does not grow with the size of the company.
+ */
+@Service
+@AllArgsConstructor
+public class PortfolioExportServiceImpl implements PortfolioExportService {
+
+    private final BuildingRepository buildingRepository;
+    private final CondoRepository condoRepository;
+    private final HousingContractRepository housingContractRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Export prepare(Integer companyId, String format, String section) {
+        Format exportFormat = Arrays.stream(Format.values())
+                .filter(candidate -> candidate.name().equalsIgnoreCase(format))
+                .findFirst()
+                .orElseThrow(() -> invalid("The format must be ndjson or csv"));
+        if (section == null || section.isBlank()) {
+            // a csv file has a single header, so only one section fits in it
+            if (exportFormat == Format.CSV) {
+                throw invalid("A csv export needs a section: buildings, condos, housing-contracts or employees");
+            }
+            return new Export(companyId, exportFormat, List.of(Section.values()));
+        }
+        Section exportSection = Arrays.stream(Section.values())
+                .filter(candidate -> candidate.parameter().equals(section))
+                .findFirst()
+                .orElseThrow(() -> invalid("The section must be buildings, condos, housing-contracts or employees"));
+        return new Export(companyId, exportFormat, List.of(exportSection));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void write(Export export, OutputStream out) throws IOException {
+        RowWriter writer = export.format() == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(objectMapper, out);
+        for (Section section : export.sections()) {
+            writer.startSection(section);
+            switch (section) {
+                case BUILDINGS -> writeRows(buildingRepository.streamDtosByCompanyId(export.companyId()), writer,
+                        building -> new Object[]{building.getId(), building.getName(), building.getNumberOfFloors(),
+                                building.getAddress(), building.getDescription(), building.getCompanyId()});
+                case CONDOS -> writeRows(condoRepository.streamDtosByCompanyId(export.companyId()), writer,
+                        condo -> new Object[]{condo.getId(), condo.getAddress(), condo.getUnitNumber(), condo.getDescription(),
+                                condo.getRegistrationKey(), condo.getStatus(), condo.getBuildingId(), condo.getParkingId(),
+                                condo.getLockerId()});
+                case HOUSING_CONTRACTS -> writeRows(housingContractRepository.streamDtosByCompanyId(export.companyId()), writer,
+                        contract -> new Object[]{contract.getId(), contract.getCompanyId(), contract.getOccupantId(),
+                                contract.getCondoId(), contract.getMonthlyRent(), contract.getOccupantType()});
+                // the password is never part of the export
+                case EMPLOYEES -> writeRows(employeeRepository.streamDtosByCompanyId(export.companyId()), writer,
+                        employee -> new Object[]{employee.getId(), employee.getEmail(), employee.getFirstName(),
+                                employee.getLastName(), employee.getPhoneNumber(), employee.getBio(), employee.getRole(),
+                                employee.getCompanyId(), employee.getEmployeeType()});
+            }
+        }
+        writer.finish();
+    }
+
+    private <T> void writeRows(Stream<T> rows, RowWriter writer, Function<T, Object[]> values) throws IOException {
+        try (rows) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.writeRow(values.apply(iterator.next()));
+            }
+        }
+    }
+
+    private static ObjectValidationException invalid(String message) {
+        return new ObjectValidationException(Set.of(message), "export");
+    }
+
+    private interface RowWriter {
+        void startSection(Section section) throws IOException;
+
+        void writeRow(Object[] values) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    // one JSON object per line, tagged with the type of the row
+    private static class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private Section section;
+        private boolean empty = true;
+
+        NdjsonRowWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void startSection(Section section) {
+            this.section = section;
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", section.type());
+            List<String> columns = section.columns();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeObjectField(columns.get(i), values[i]);
+            }
+            generator.writeEndObject();
+            empty = false;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void startSection(Section section) throws IOException {
+            writeLine(section.columns().toArray());
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            writeLine(values);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writer.write(escape(values[i].toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
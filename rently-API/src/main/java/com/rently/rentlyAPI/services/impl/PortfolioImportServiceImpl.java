@@ -0,0 +1,906 @@
+package com.rently.rentlyAPI.services.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rently.rentlyAPI.dto.ImportJobDto;
+import com.rently.rentlyAPI.dto.ImportRowErrorDto;
+import com.rently.rentlyAPI.entity.Building;
+import com.rently.rentlyAPI.entity.Condo;
+import com.rently.rentlyAPI.entity.Locker;
+import com.rently.rentlyAPI.entity.Parking;
+import com.rently.rentlyAPI.entity.PortfolioImportJob;
+import com.rently.rentlyAPI.entity.PortfolioImportJobError;
+import com.rently.rentlyAPI.entity.enums.CondoStatus;
+import com.rently.rentlyAPI.exceptions.ObjectValidationException;
+import com.rently.rentlyAPI.exceptions.ServiceUnavailableException;
+import com.rently.rentlyAPI.services.PortfolioImportService;
+import com.rently.rentlyAPI.utils.EntityIdAllocator;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Imports the buildings, condos, parkings and lockers of a company from a file, so onboarding does not take one
+ * request (an existence check, a building lookup and a single-row insert) per unit.
+ * The file is read as a stream and handled in chunks, each in its own transaction: the rows of a chunk are validated,
+ * checked for duplicates and references with one query per kind of lookup, and inserted as one JDBC batch with ids
+ * taken from the pooled sequence optimizer Hibernate uses for the entities. Rejected rows are reported with their
+ * position and never stop the import, and importing the same file again only reports its rows as duplicates: units
+ * are recognized by their building and unit number, parkings and lockers by their condo or external reference.
+ * The progress of a job is written to portfolio_import_job after every chunk, so any instance can report it.
+ */
+@Slf4j
+@Service
+public class PortfolioImportServiceImpl implements PortfolioImportService {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final Map<Section, List<String>> REQUIRED_COLUMNS = Map.of(
+            Section.BUILDINGS, List.of("name", "address"),
+            Section.CONDOS, List.of("building_name", "unit_number"),
+            Section.PARKINGS, List.of("building_name", "parking_fee"),
+            Section.LOCKERS, List.of("building_name", "locker_fee"));
+
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private static final String CONCURRENT_CHANGE =
+            "Conflicts with a change made while the file was imported, import the file again to retry it";
+
+    private record ImportRow(long number, Map<String, String> values, String error) {
+    }
+
+    private record BuildingRef(Integer id, String address) {
+    }
+
+    private record UnitKey(Integer buildingId, Integer unitNumber) {
+    }
+
+    private record CondoRef(Integer id, boolean taken) {
+    }
+
+    // a condo given a parking or locker by the file
+    private record CondoKey(Integer id) {
+    }
+
+    private record BuildingRow(long number, String name, String address, String description, Integer numberOfFloors) {
+    }
+
+    private record CondoRow(long number, String buildingName, Integer unitNumber, String description, CondoStatus status) {
+    }
+
+    private record RefKey(Integer buildingId, String externalRef) {
+    }
+
+    private record FeeRow(long number, String buildingName, long fee, Integer unitNumber, String externalRef) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // the progress is committed on its own, so the other instances see it even when the caller has a transaction
+    private final TransactionTemplate progressTransaction;
+    private final EntityIdAllocator entityIdAllocator;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final long retention;
+    private final long staleAfter;
+
+    public PortfolioImportServiceImpl(NamedParameterJdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      EntityIdAllocator entityIdAllocator,
+                                      ObjectMapper objectMapper,
+                                      @Value("${application.portfolio-import.threads:2}") int threads,
+                                      @Value("${application.portfolio-import.queue-capacity:8}") int queueCapacity,
+                                      @Value("${application.portfolio-import.chunk-size:1000}") int chunkSize,
+                                      @Value("${application.portfolio-import.max-errors:1000}") int maxErrors,
+                                      @Value("${application.portfolio-import.retention:86400000}") long retention,
+                                      @Value("${application.portfolio-import.stale-after:600000}") long staleAfter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.progressTransaction = new TransactionTemplate(transactionManager);
+        this.progressTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.entityIdAllocator = entityIdAllocator;
+        this.objectMapper = objectMapper;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "portfolio-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.retention = retention;
+        this.staleAfter = staleAfter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public ImportJobDto start(Integer companyId, String format, String section, InputStream body) throws IOException {
+        ImportJob job = new ImportJob(companyId, parseFormat(format), parseSection(section), maxErrors);
+        // the request body is gone once the response is sent, the job reads its own copy
+        Path file = Files.createTempFile("portfolio-import-", "." + job.format.name().toLowerCase());
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        insertJob(job);
+        try {
+            executor.execute(() -> runFromFile(job, file));
+        } catch (RejectedExecutionException e) {
+            jdbcTemplate.update("DELETE FROM portfolio_import_job WHERE job_id = :jobId", Map.of("jobId", job.id));
+            Files.deleteIfExists(file);
+            throw new ServiceUnavailableException("Too many imports are running, please retry in a moment");
+        }
+        return job.toDto();
+    }
+
+    @Override
+    public ImportJobDto getJob(Integer companyId, String jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ImportJobDto> found = jdbcTemplate.query("SELECT job_id, section, status, rows_read, rows_imported, "
+                        + "rows_rejected, message, started_at, finished_at, last_modified_date FROM portfolio_import_job "
+                        + "WHERE job_id = :jobId AND company_id = :companyId AND created_date > :since",
+                new MapSqlParameterSource("jobId", jobId)
+                        .addValue("companyId", companyId)
+                        .addValue("since", now.minus(retention, ChronoUnit.MILLIS)),
+                (resultSet, rowNumber) -> {
+                    String status = resultSet.getString("status");
+                    String message = resultSet.getString("message");
+                    LocalDateTime lastModified = resultSet.getObject("last_modified_date", LocalDateTime.class);
+                    boolean unfinished = "QUEUED".equals(status) || "RUNNING".equals(status);
+                    if (unfinished && lastModified.isBefore(now.minus(staleAfter, ChronoUnit.MILLIS))) {
+                        // the instance running it stopped, a new import of the file only adds the rows it missed
+                        status = "FAILED";
+                        message = "The import stopped after row " + resultSet.getLong("rows_read")
+                                + " because the server running it stopped, import the file again to finish it";
+                    }
+                    return ImportJobDto.builder()
+                            .jobId(resultSet.getString("job_id"))
+                            .section(resultSet.getString("section"))
+                            .status(status)
+                            .rowsRead(resultSet.getLong("rows_read"))
+                            .rowsImported(resultSet.getLong("rows_imported"))
+                            .rowsRejected(resultSet.getLong("rows_rejected"))
+                            .message(message)
+                            .startedAt(resultSet.getObject("started_at", LocalDateTime.class))
+                            .finishedAt(resultSet.getObject("finished_at", LocalDateTime.class))
+                            .build();
+                });
+        if (found.isEmpty()) {
+            throw new EntityNotFoundException("Import job with ID " + jobId + " not found");
+        }
+        ImportJobDto job = found.get(0);
+        job.setErrors(jdbcTemplate.query(
+                "SELECT file_row, message FROM portfolio_import_job_error WHERE job_id = :jobId ORDER BY file_row",
+                Map.of("jobId", jobId),
+                (resultSet, rowNumber) -> new ImportRowErrorDto(resultSet.getLong("file_row"), resultSet.getString("message"))));
+        return job;
+    }
+
+    /**
+     * Imports the rows on the calling thread, the job is saved so its progress can be followed meanwhile.
+     */
+    public ImportJobDto importRows(Integer companyId, Format format, Section section, InputStream rows) {
+        ImportJob job = new ImportJob(companyId, format, section, maxErrors);
+        insertJob(job);
+        run(job, rows);
+        return job.toDto();
+    }
+
+    /**
+     * Deletes the jobs past their retention, with the rows they rejected.
+     */
+    @Scheduled(
+            initialDelayString = "${application.portfolio-import.sweep-interval:3600000}",
+            fixedDelayString = "${application.portfolio-import.sweep-interval:3600000}"
+    )
+    public void sweep() {
+        Map<String, LocalDateTime> before = Map.of("before", LocalDateTime.now().minus(retention, ChronoUnit.MILLIS));
+        jdbcTemplate.update("DELETE FROM portfolio_import_job_error WHERE job_id IN "
+                + "(SELECT job_id FROM portfolio_import_job WHERE created_date <= :before)", before);
+        int deleted = jdbcTemplate.update("DELETE FROM portfolio_import_job WHERE created_date <= :before", before);
+        if (deleted > 0) {
+            log.info("Swept {} portfolio import jobs", deleted);
+        }
+    }
+
+    private void runFromFile(ImportJob job, Path file) {
+        try (InputStream rows = Files.newInputStream(file)) {
+            run(job, rows);
+        } catch (IOException e) {
+            job.failed("The file could not be read: " + e.getMessage());
+            saveProgress(job);
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete the import file {}", file, e);
+            }
+        }
+    }
+
+    private void run(ImportJob job, InputStream rows) {
+        long start = System.currentTimeMillis();
+        job.started();
+        saveProgress(job);
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        try (RowReader reader = job.format == Format.CSV
+                ? new CsvRowReader(rows, REQUIRED_COLUMNS.get(job.section))
+                : new JsonRowReader(objectMapper, rows)) {
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            importChunk(job, chunk);
+            job.completed();
+        } catch (IOException e) {
+            // the rows before the one that could not be read are still imported
+            importChunk(job, chunk);
+            long rowsRead = job.rowsRead();
+            job.failed("The file could not be read" + (rowsRead > 0 ? " after row " + rowsRead : "") + ": " + e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Import {} of company {} stopped", job.id, job.companyId, e);
+            job.failed("The import stopped after row " + job.rowsRead() + " because of an internal error");
+        }
+        saveProgress(job);
+        ImportJobDto result = job.toDto();
+        log.info("Import of {} for company {} {}: {} rows imported, {} rejected in {} ms", job.section.parameter(),
+                job.companyId, result.getStatus(), result.getRowsImported(), result.getRowsRejected(),
+                System.currentTimeMillis() - start);
+    }
+
+    private void importChunk(ImportJob job, List<ImportRow> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        job.read(chunk.size());
+        List<ImportRow> valid = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (row.error() != null) {
+                job.reject(row.number(), row.error());
+            } else {
+                valid.add(row);
+            }
+        }
+
+        List<Long> inserted = new ArrayList<>(valid.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                switch (job.section) {
+                    case BUILDINGS -> importBuildings(job, valid, inserted);
+                    case CONDOS -> importCondos(job, valid, inserted);
+                    case PARKINGS -> importFees(job, valid, inserted, "parking", "parking_fee", Parking.class);
+                    case LOCKERS -> importFees(job, valid, inserted, "locker", "locker_fee", Locker.class);
+                }
+            });
+            job.chunkCommitted(inserted.size());
+        } catch (DataIntegrityViolationException e) {
+            // another request created one of the rows between the duplicate check and the insert
+            job.chunkRolledBack();
+            inserted.forEach(row -> job.reject(row, CONCURRENT_CHANGE));
+        }
+        saveProgress(job);
+    }
+
+    private void insertJob(ImportJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        progressTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                "INSERT INTO portfolio_import_job (id, created_date, last_modified_date, job_id, company_id, section, "
+                        + "status, rows_read, rows_imported, rows_rejected) "
+                        + "VALUES (:id, :now, :now, :jobId, :companyId, :section, 'QUEUED', 0, 0, 0)",
+                new MapSqlParameterSource("id", entityIdAllocator.idsFor(PortfolioImportJob.class).get())
+                        .addValue("now", now)
+                        .addValue("jobId", job.id)
+                        .addValue("companyId", job.companyId)
+                        .addValue("section", job.section.parameter())));
+    }
+
+    /**
+     * Writes the counters and status of the job, and the rows rejected since the previous call.
+     */
+    private void saveProgress(ImportJob job) {
+        ImportJobDto progress = job.toDto();
+        List<ImportRowErrorDto> errors = job.unsavedErrors();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            progressTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE portfolio_import_job SET last_modified_date = :now, status = :status, "
+                                + "rows_read = :rowsRead, rows_imported = :rowsImported, rows_rejected = :rowsRejected, "
+                                + "message = :message, started_at = :startedAt, finished_at = :finishedAt WHERE job_id = :jobId",
+                        new MapSqlParameterSource("now", now)
+                                .addValue("status", progress.getStatus())
+                                .addValue("rowsRead", progress.getRowsRead())
+                                .addValue("rowsImported", progress.getRowsImported())
+                                .addValue("rowsRejected", progress.getRowsRejected())
+                                .addValue("message", truncate(progress.getMessage()))
+                                .addValue("startedAt", progress.getStartedAt())
+                                .addValue("finishedAt", progress.getFinishedAt())
+                                .addValue("jobId", job.id));
+                Supplier<Integer> ids = entityIdAllocator.idsFor(PortfolioImportJobError.class);
+                insert("INSERT INTO portfolio_import_job_error (id, created_date, last_modified_date, job_id, file_row, "
+                        + "message) VALUES (?, ?, ?, ?, ?, ?)", errors.stream()
+                        .map(error -> new Object[]{ids.get(), now, now, job.id, error.getRow(), truncate(error.getMessage())})
+                        .toList());
+            });
+        } catch (RuntimeException e) {
+            // the import goes on, its progress is written again after the next chunk
+            job.errorsUnsaved(errors.size());
+            log.warn("Could not save the progress of import {}", job.id, e);
+        }
+    }
+
+    private void importBuildings(ImportJob job, List<ImportRow> chunk, List<Long> inserted) {
+        List<BuildingRow> rows = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            try {
+                rows.add(new BuildingRow(row.number(), text(row, "name", true), text(row, "address", true),
+                        text(row, "description", false), integer(row, "number_of_floors", false)));
+            } catch (InvalidRowException e) {
+                job.reject(row.number(), e.getMessage());
+            }
+        }
+
+        // building names are unique across companies
+        Set<String> existing = rows.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT name FROM building WHERE name IN (:names)",
+                Map.of("names", rows.stream().map(BuildingRow::name).toList()), String.class));
+
+        Supplier<Integer> ids = entityIdAllocator.idsFor(Building.class);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (BuildingRow row : rows) {
+            if (existing.contains(row.name())) {
+                job.reject(row.number(), "A building named " + row.name() + " already exists");
+            } else if (!job.claim(row.name())) {
+                job.reject(row.number(), "Building " + row.name() + " appears more than once in the file");
+            } else {
+                batch.add(new Object[]{ids.get(), now, now, job.companyId, row.name(), row.address(), row.description(),
+                        row.numberOfFloors()});
+                inserted.add(row.number());
+            }
+        }
+        insert("INSERT INTO building (id, created_date, last_modified_date, company_id, name, address, description, "
+                + "number_of_floors) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    private void importCondos(ImportJob job, List<ImportRow> chunk, List<Long> inserted) {
+        List<CondoRow> rows = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            try {
+                rows.add(new CondoRow(row.number(), text(row, "building_name", true), integer(row, "unit_number", true),
+                        text(row, "description", false), status(row)));
+            } catch (InvalidRowException e) {
+                job.reject(row.number(), e.getMessage());
+            }
+        }
+
+        Map<String, BuildingRef> buildings = resolveBuildings(job, rows.stream().map(CondoRow::buildingName).toList());
+        Set<UnitKey> existing = new HashSet<>(findUnits(buildings.values(),
+                rows.stream().map(CondoRow::unitNumber).toList(), null).keySet());
+
+        Supplier<Integer> ids = entityIdAllocator.idsFor(Condo.class);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (CondoRow row : rows) {
+            BuildingRef building = buildings.get(row.buildingName());
+            if (building == null) {
+                job.reject(row.number(), "Building " + row.buildingName() + " does not exist in your company");
+                continue;
+            }
+            UnitKey unit = new UnitKey(building.id(), row.unitNumber());
+            if (existing.contains(unit)) {
+                job.reject(row.number(), "Unit " + row.unitNumber() + " already exists in building " + row.buildingName());
+            } else if (!job.claim(unit)) {
+                job.reject(row.number(), "Unit " + row.unitNumber() + " of building " + row.buildingName()
+                        + " appears more than once in the file");
+            } else {
+                batch.add(new Object[]{ids.get(), now, now, building.id(), row.unitNumber(),
+                        building.address() + " " + row.unitNumber(), row.description(), row.status().name()});
+                inserted.add(row.number());
+            }
+        }
+        insert("INSERT INTO condo (id, created_date, last_modified_date, building_id, unit_number, address, description, "
+                + "status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    private void importFees(ImportJob job, List<ImportRow> chunk, List<Long> inserted, String table, String feeColumn,
+                            Class<?> entity) {
+        List<FeeRow> rows = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            try {
+                FeeRow fee = new FeeRow(row.number(), text(row, "building_name", true), amount(row, feeColumn),
+                        integer(row, "unit_number", false), text(row, "external_ref", false));
+                if (fee.unitNumber() == null && fee.externalRef() == null) {
+                    // nothing else tells the row apart when the file is imported again
+                    throw new InvalidRowException("unit_number or external_ref is required");
+                }
+                rows.add(fee);
+            } catch (InvalidRowException e) {
+                job.reject(row.number(), e.getMessage());
+            }
+        }
+
+        Map<String, BuildingRef> buildings = resolveBuildings(job, rows.stream().map(FeeRow::buildingName).toList());
+        Map<UnitKey, CondoRef> condos = findUnits(buildings.values(),
+                rows.stream().map(FeeRow::unitNumber).filter(Objects::nonNull).toList(), table);
+        Set<RefKey> existing = findRefs(buildings.values(),
+                rows.stream().map(FeeRow::externalRef).filter(Objects::nonNull).toList(), table);
+
+        Supplier<Integer> ids = entityIdAllocator.idsFor(entity);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (FeeRow row : rows) {
+            BuildingRef building = buildings.get(row.buildingName());
+            if (building == null) {
+                job.reject(row.number(), "Building " + row.buildingName() + " does not exist in your company");
+                continue;
+            }
+            if (row.externalRef() != null) {
+                RefKey ref = new RefKey(building.id(), row.externalRef());
+                String described = capitalize(table) + " " + row.externalRef();
+                if (existing.contains(ref)) {
+                    job.reject(row.number(), described + " already exists in building " + row.buildingName());
+                    continue;
+                }
+                if (!job.claim(ref)) {
+                    job.reject(row.number(), described + " of building " + row.buildingName()
+                            + " appears more than once in the file");
+                    continue;
+                }
+            }
+            Integer condoId = null;
+            if (row.unitNumber() != null) {
+                CondoRef condo = condos.get(new UnitKey(building.id(), row.unitNumber()));
+                String unit = "Unit " + row.unitNumber() + " of building " + row.buildingName();
+                if (condo == null) {
+                    job.reject(row.number(), unit + " does not exist");
+                    continue;
+                }
+                if (condo.taken()) {
+                    job.reject(row.number(), unit + " already has a " + table);
+                    continue;
+                }
+                if (!job.claim(new CondoKey(condo.id()))) {
+                    job.reject(row.number(), unit + " is given more than one " + table + " in the file");
+                    continue;
+                }
+                condoId = condo.id();
+            }
+            batch.add(new Object[]{ids.get(), now, now, building.id(), condoId, row.externalRef(), row.fee()});
+            inserted.add(row.number());
+        }
+        insert("INSERT INTO " + table + " (id, created_date, last_modified_date, building_id, condo_id, external_ref, "
+                + feeColumn + ") VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    /**
+     * Finds the buildings of the company by name. Every building is looked up once per job, the later chunks
+     * only query the names they have not seen yet.
+     */
+    private Map<String, BuildingRef> resolveBuildings(ImportJob job, List<String> names) {
+        Set<String> missing = new HashSet<>(names);
+        missing.removeAll(job.buildings.keySet());
+        if (!missing.isEmpty()) {
+            jdbcTemplate.query("SELECT id, name, address FROM building WHERE company_id = :companyId AND name IN (:names)",
+                    Map.of("companyId", job.companyId, "names", missing),
+                    resultSet -> {
+                        job.buildings.put(resultSet.getString("name"),
+                                new BuildingRef(resultSet.getInt("id"), resultSet.getString("address")));
+                    });
+        }
+        return job.buildings;
+    }
+
+    /**
+     * The condos of the given buildings among the given unit numbers, in one query. With a fee table, tells for
+     * each one whether it already has a parking or locker.
+     */
+    private Map<UnitKey, CondoRef> findUnits(Collection<BuildingRef> buildings, List<Integer> unitNumbers, String feeTable) {
+        Map<UnitKey, CondoRef> units = new HashMap<>();
+        if (buildings.isEmpty() || unitNumbers.isEmpty()) {
+            return units;
+        }
+        String sql = feeTable == null
+                ? "SELECT c.id, c.building_id, c.unit_number, FALSE AS taken FROM condo c"
+                : "SELECT c.id, c.building_id, c.unit_number, f.id IS NOT NULL AS taken FROM condo c "
+                + "LEFT JOIN " + feeTable + " f ON f.condo_id = c.id";
+        jdbcTemplate.query(sql + " WHERE c.building_id IN (:buildingIds) AND c.unit_number IN (:unitNumbers)",
+                Map.of("buildingIds", buildings.stream().map(BuildingRef::id).toList(),
+                        "unitNumbers", new HashSet<>(unitNumbers)),
+                resultSet -> {
+                    units.put(new UnitKey(resultSet.getInt("building_id"), resultSet.getInt("unit_number")),
+                            new CondoRef(resultSet.getInt("id"), resultSet.getBoolean("taken")));
+                });
+        return units;
+    }
+
+    /**
+     * The external references among the given ones already used by a parking or locker of the given buildings.
+     */
+    private Set<RefKey> findRefs(Collection<BuildingRef> buildings, List<String> externalRefs, String feeTable) {
+        Set<RefKey> refs = new HashSet<>();
+        if (buildings.isEmpty() || externalRefs.isEmpty()) {
+            return refs;
+        }
+        jdbcTemplate.query("SELECT building_id, external_ref FROM " + feeTable
+                        + " WHERE building_id IN (:buildingIds) AND external_ref IN (:externalRefs)",
+                Map.of("buildingIds", buildings.stream().map(BuildingRef::id).toList(),
+                        "externalRefs", new HashSet<>(externalRefs)),
+                resultSet -> {
+                    refs.add(new RefKey(resultSet.getInt("building_id"), resultSet.getString("external_ref")));
+                });
+        return refs;
+    }
+
+    private void insert(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.getJdbcTemplate().batchUpdate(sql, batch);
+        }
+    }
+
+    private static String text(ImportRow row, String column, boolean required) {
+        String value = row.values().get(column);
+        if (value == null && required) {
+            throw new InvalidRowException(column + " is required");
+        }
+        if (value != null && value.length() > MAX_TEXT_LENGTH) {
+            throw new InvalidRowException(column + " is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    private static Integer integer(ImportRow row, String column, boolean required) {
+        String value = text(row, column, required);
+        if (value == null) {
+            return null;
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number < 0) {
+                throw new InvalidRowException(column + " must be greater or equal than 0");
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new InvalidRowException(column + " must be a whole number, got " + value);
+        }
+    }
+
+    private static long amount(ImportRow row, String column) {
+        String value = text(row, column, true);
+        try {
+            long amount = Long.parseLong(value);
+            if (amount < 0) {
+                throw new InvalidRowException(column + " must be greater or equal than 0");
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new InvalidRowException(column + " must be a whole number, got " + value);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static CondoStatus status(ImportRow row) {
+        String value = text(row, "status", false);
+        if (value == null) {
+            return CondoStatus.AVAILABLE;
+        }
+        try {
+            return CondoStatus.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRowException("status must be one of " + Arrays.toString(CondoStatus.values()) + ", got " + value);
+        }
+    }
+
+    private static Format parseFormat(String format) {
+        return Arrays.stream(Format.values())
+                .filter(candidate -> candidate.name().equalsIgnoreCase(format))
+                .findFirst()
+                .orElseThrow(() -> invalid("The format must be csv or json"));
+    }
+
+    private static Section parseSection(String section) {
+        return Arrays.stream(Section.values())
+                .filter(candidate -> candidate.parameter().equals(section))
+                .findFirst()
+                .orElseThrow(() -> invalid("The section must be buildings, condos, parkings or lockers"));
+    }
+
+    private static ObjectValidationException invalid(String message) {
+        return new ObjectValidationException(Set.of(message), "import");
+    }
+
+    // a row that cannot be imported, its message is reported with the row number
+    private static class InvalidRowException extends RuntimeException {
+        InvalidRowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * Progress of an import, only used by the thread running it and saved to portfolio_import_job as it goes.
+     */
+    private static class ImportJob {
+        private final String id = UUID.randomUUID().toString();
+        private final Integer companyId;
+        private final Format format;
+        private final Section section;
+        private final int maxErrors;
+
+        private String status = "QUEUED";
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        private final List<ImportRowErrorDto> errors = new ArrayList<>();
+        private int errorsSaved;
+        private String message;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+
+        // what the previous chunks created or looked up, only used by the thread running the job: building names,
+        // units, condos given a parking or locker and external references
+        private final Set<Object> created = new HashSet<>();
+        private final Map<String, BuildingRef> buildings = new HashMap<>();
+        // what the chunk being imported creates, it only counts once the chunk is committed
+        private final Set<Object> chunkCreated = new HashSet<>();
+
+        ImportJob(Integer companyId, Format format, Section section, int maxErrors) {
+            this.companyId = companyId;
+            this.format = format;
+            this.section = section;
+            this.maxErrors = maxErrors;
+        }
+
+        synchronized void started() {
+            status = "RUNNING";
+            startedAt = LocalDateTime.now();
+        }
+
+        synchronized void read(int rows) {
+            rowsRead += rows;
+        }
+
+        synchronized long rowsRead() {
+            return rowsRead;
+        }
+
+        // false when a previous chunk or the current one already creates it
+        boolean claim(Object key) {
+            return !created.contains(key) && chunkCreated.add(key);
+        }
+
+        synchronized void chunkCommitted(int rows) {
+            rowsImported += rows;
+            created.addAll(chunkCreated);
+            chunkCreated.clear();
+        }
+
+        void chunkRolledBack() {
+            chunkCreated.clear();
+        }
+
+        synchronized void reject(long row, String error) {
+            rowsRejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportRowErrorDto(row, error));
+            }
+        }
+
+        synchronized void completed() {
+            status = "COMPLETED";
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized void failed(String message) {
+            status = "FAILED";
+            this.message = message;
+            finishedAt = LocalDateTime.now();
+        }
+
+        // the rejected rows listed since the previous call
+        synchronized List<ImportRowErrorDto> unsavedErrors() {
+            List<ImportRowErrorDto> unsaved = List.copyOf(errors.subList(errorsSaved, errors.size()));
+            errorsSaved = errors.size();
+            return unsaved;
+        }
+
+        // the last rows handed by unsavedErrors could not be written, they are handed again next time
+        synchronized void errorsUnsaved(int rows) {
+            errorsSaved -= rows;
+        }
+
+        synchronized ImportJobDto toDto() {
+            return ImportJobDto.builder()
+                    .jobId(id)
+                    .section(section.parameter())
+                    .status(status)
+                    .rowsRead(rowsRead)
+                    .rowsImported(rowsImported)
+                    .rowsRejected(rowsRejected)
+                    .errors(List.copyOf(errors))
+                    .message(message)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+
+    private interface RowReader extends Closeable {
+        // null once the file is exhausted
+        ImportRow next() throws IOException;
+    }
+
+    /**
+     * Reads the records of a csv file with a header line, quoted values may contain commas, quotes and line breaks.
+     * Column names are matched case-insensitively, unknown columns are ignored and empty values are null.
+     */
+    private static class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final List<String> header;
+        private long number;
+
+        CsvRowReader(InputStream in, List<String> requiredColumns) throws IOException {
+            reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<String> columns = readRecord();
+            if (columns == null) {
+                throw new IOException("the file is empty");
+            }
+            header = columns.stream().map(column -> column.replace("\uFEFF", "").trim().toLowerCase()).toList();
+            for (String column : requiredColumns) {
+                if (!header.contains(column)) {
+                    throw new IOException("the csv header has no " + column + " column");
+                }
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            List<String> record;
+            do {
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isBlank());
+
+            number++;
+            if (record.size() > header.size()) {
+                return new ImportRow(number, Map.of(), "The row has " + record.size() + " values but the header only "
+                        + header.size() + " columns");
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < record.size(); i++) {
+                String value = record.get(i).trim();
+                values.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            return new ImportRow(number, values, null);
+        }
+
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            for (; c != -1; c = reader.read()) {
+                if (quoted) {
+                    if (c != '"') {
+                        field.append((char) c);
+                        continue;
+                    }
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (quoted) {
+                throw new IOException("a quoted value is not closed");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    // a json array of objects or a sequence of objects (ndjson), read one object at a time
+    private static class JsonRowReader implements RowReader {
+        private static final TypeReference<Map<String, Object>> OBJECT = new TypeReference<>() {
+        };
+
+        private final MappingIterator<Map<String, Object>> objects;
+        private long number;
+
+        JsonRowReader(ObjectMapper objectMapper, InputStream in) throws IOException {
+            objects = objectMapper.readerFor(OBJECT).readValues(in);
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            if (!objects.hasNextValue()) {
+                return null;
+            }
+            Map<String, Object> object = objects.nextValue();
+            number++;
+            Map<String, String> values = new HashMap<>();
+            object.forEach((field, value) -> {
+                String text = value == null ? null : value.toString().trim();
+                values.put(field.toLowerCase(), text == null || text.isEmpty() ? null : text);
+            });
+            return new ImportRow(number, values, null);
+        }
+
+        @Override
+        public void close() throws IOException {
+            objects.close();
+        }
+    }
+}
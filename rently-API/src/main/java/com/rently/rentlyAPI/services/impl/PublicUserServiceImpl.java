@@ -1,5 +1,6 @@
 package com.rently.rentlyAPI.services.impl;
 
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.OwnerDto;
 import com.rently.rentlyAPI.dto.PublicUserDto;
 import com.rently.rentlyAPI.dto.RenterDto;
@@ -8,11 +9,13 @@ import com.rently.rentlyAPI.entity.user.Owner;
 import com.rently.rentlyAPI.entity.user.PublicUser;
 import com.rently.rentlyAPI.entity.user.Renter;
 import com.rently.rentlyAPI.exceptions.AuthenticationException;
+import com.rently.rentlyAPI.repository.KeysetPageRepository;
 import com.rently.rentlyAPI.repository.OwnerRepository;
 import com.rently.rentlyAPI.repository.PublicUserRepository;
 import com.rently.rentlyAPI.repository.RenterRepository;
 import com.rently.rentlyAPI.services.PublicUserService;
-import com.rently.rentlyAPI.utils.JwtUtils;
+import com.rently.rentlyAPI.services.UserDirectoryService;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -27,49 +30,49 @@ import java.util.Optional;
 public class PublicUserServiceImpl implements PublicUserService {
 
     private final PublicUserRepository publicUserRepository;
+    private final KeysetPageRepository keysetPageRepository;
     private final OwnerRepository ownerRepository;
     private final RenterRepository renterRepository;
+    private final UserDirectoryService userDirectoryService;
 
     private final PasswordEncoder passwordEncoder;
 
-    private final JwtUtils jwtUtils;
-
     @Override
+    @Transactional(readOnly = true)
     public Optional<PublicUser> findByEmail(String email) {
         return publicUserRepository.findByEmail(email);
     }
 
     @Override
-    public PublicUser findPublicUserEntityByToken(String token) {
-        String email = jwtUtils.extractUsername(token);
-        return findPublicUserEntityByEmail(email);
-    }
-
-    @Override
+    @Transactional(readOnly = true)
     public PublicUserDto findPublicUserDtoByEmail(String email) {
         PublicUser publicUser = findPublicUserEntityByEmail(email);
         return PublicUserDto.fromEntity(publicUser);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PublicUser findPublicUserEntityByEmail(String email) {
         return publicUserRepository.findByEmail(email)
                 .orElseThrow(() -> new AuthenticationException("PublicUser with email " + email + " not found"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PublicUserDto findPublicUserDtoById(Integer publicUserId) {
         PublicUser publicUser = findPublicUserEntityById(publicUserId);
         return PublicUserDto.fromEntity(publicUser);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PublicUser findPublicUserEntityById(Integer publicUserId) {
         return publicUserRepository.findById(publicUserId)
                 .orElseThrow(() -> new EntityNotFoundException("PublicUser with ID " + publicUserId + " not found"));
     }
 
     @Override
+    @Transactional
     public PublicUserDto registerPublicUser(PublicUserDto publicUserDto) {
         if (publicUserDto.getPassword() != null) {
             // Encode the password if provided (null with google for example)
@@ -79,15 +82,18 @@ public class PublicUserServiceImpl implements PublicUserService {
 
         PublicUser publicUserToSave = PublicUserDto.toEntity(publicUserDto);
 
-        PublicUser savedCompany = publicUserRepository.save(publicUserToSave);
+        PublicUser savedPublicUser = publicUserRepository.save(publicUserToSave);
+        userDirectoryService.register(savedPublicUser);
 
-        return PublicUserDto.fromEntity(savedCompany);
+        return PublicUserDto.fromEntity(savedPublicUser);
     }
 
     @Override
+    @Transactional
     public PublicUserDto updatePublicUser(PublicUserDto publicUserDto) {
         // Find the CompanyAdmin Entity by its ID
         PublicUser publicUserToUpdate = findPublicUserEntityById(publicUserDto.getId());
+        String previousEmail = publicUserToUpdate.getEmail();
 
         // Update the CompanyAdmin details if present
         if (publicUserDto.getEmail() != null && !publicUserDto.getEmail().isEmpty()) {
@@ -112,6 +118,7 @@ public class PublicUserServiceImpl implements PublicUserService {
 
         // Save the updated CompanyAdmin
         PublicUser updatedPublicUser = publicUserRepository.save(publicUserToUpdate);
+        userDirectoryService.updateEmail(previousEmail, updatedPublicUser);
 
         return PublicUserDto.fromEntity(updatedPublicUser);
     }
@@ -121,16 +128,22 @@ public class PublicUserServiceImpl implements PublicUserService {
 
         PublicUser publicUser = findPublicUserEntityById(publicUserId);
         publicUserRepository.delete(publicUser);
+        userDirectoryService.remove(publicUser);
 
         return "Public User deleted successfully";
     }
 
     @Override
-    public List<PublicUserDto> getAllPublicUsers() {
-        List<PublicUser> publicUsers = publicUserRepository.findAll();
-        return publicUsers.stream()
-                .map(PublicUserDto::fromEntity)
-                .toList();
+    @Transactional(readOnly = true)
+    public CursorPageDto<PublicUserDto> getPublicUsers(String emailPrefix, KeysetPageRequest page) {
+        return keysetPageRepository.findPage(PublicUser.class, page,
+                (user, cb) -> cb.construct(PublicUserDto.class, user.get("id"), user.get("email"), user.get("firstName"),
+                        user.get("lastName"), user.get("phoneNumber"), user.get("bio"), user.get("role")),
+                (user, cb, predicates) -> {
+                    if (emailPrefix != null && !emailPrefix.isBlank()) {
+                        predicates.add(KeysetPageRepository.startsWith(cb, user.get("email"), emailPrefix));
+                    }
+                });
     }
 
     @Override
@@ -147,6 +160,8 @@ public class PublicUserServiceImpl implements PublicUserService {
             Owner owner = OwnerDto.fromPublicUser(publicUser);
             deletePublicUserById(publicUser.getId());
             Owner savedOwner = ownerRepository.save(owner);
+            // repoint the email from the public user to the owner
+            userDirectoryService.register(savedOwner);
             return savedOwner;
         }
 
@@ -154,6 +169,7 @@ public class PublicUserServiceImpl implements PublicUserService {
             Renter renter = RenterDto.fromPublicUser(publicUser);
             deletePublicUserById(publicUser.getId());
             Renter savedRenter = renterRepository.save(renter);
+            userDirectoryService.register(savedRenter);
             return savedRenter;
         }
 
@@ -5,6 +5,7 @@ import com.rently.rentlyAPI.repository.RenterRepository;
 import com.rently.rentlyAPI.services.RenterService;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -14,11 +15,13 @@ public class RenterServiceImpl implements RenterService {
     private final RenterRepository renterRepository;
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Renter> findByEmail(String email) {
         return renterRepository.findByEmail(email);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Renter> findRenterEntityById(Integer occupantId) {
         return renterRepository.findById(occupantId);
     }
@@ -0,0 +1,207 @@
+package com.rently.rentlyAPI.services.impl;
+
+import com.rently.rentlyAPI.dto.CommonFacilityReservationDto;
+import com.rently.rentlyAPI.dto.WaitlistEntryDto;
+import com.rently.rentlyAPI.entity.CommonFacility;
+import com.rently.rentlyAPI.entity.CommonFacilityReservation;
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.ReservationWaitlistEntry;
+import com.rently.rentlyAPI.entity.user.Occupant;
+import com.rently.rentlyAPI.exceptions.AuthenticationException;
+import com.rently.rentlyAPI.exceptions.OperationNonPermittedException;
+import com.rently.rentlyAPI.repository.CommonFacilityReservationRepository;
+import com.rently.rentlyAPI.repository.ReservationWaitlistEntryRepository;
+import com.rently.rentlyAPI.services.CommonFacilityReservationService.ReservationCancelledEvent;
+import com.rently.rentlyAPI.services.ReservationIndexService;
+import com.rently.rentlyAPI.services.ReservationWaitlistService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First come first served waitlist of the taken slots of the facilities, kept in the database.
+ * A cancellation is followed, once committed, by the promotion of the entries its slot satisfies, on a background
+ * thread so the cancel call does not wait for it. Each promotion books and dequeues in one transaction, on the entries
+ * it locked in the order they joined, so two workers (two cancellations, two instances) never promote the same entry
+ * nor one ahead of an earlier one. The sweep catches up with the slots freed while no worker could promote them, and
+ * drops the entries whose slot has started.
+ */
+@Slf4j
+@Service
+public class ReservationWaitlistServiceImpl implements ReservationWaitlistService {
+
+    private final ReservationWaitlistEntryRepository reservationWaitlistEntryRepository;
+    private final CommonFacilityReservationRepository commonFacilityReservationRepository;
+    private final ReservationIndexService reservationIndexService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int batchSize;
+
+    public ReservationWaitlistServiceImpl(ReservationWaitlistEntryRepository reservationWaitlistEntryRepository,
+                                          CommonFacilityReservationRepository commonFacilityReservationRepository,
+                                          ReservationIndexService reservationIndexService,
+                                          ApplicationEventPublisher eventPublisher,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${application.reservations.waitlist.queue-capacity:1000}") int queueCapacity,
+                                          @Value("${application.reservations.waitlist.batch-size:100}") int batchSize) {
+        this.reservationWaitlistEntryRepository = reservationWaitlistEntryRepository;
+        this.commonFacilityReservationRepository = commonFacilityReservationRepository;
+        this.reservationIndexService = reservationIndexService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // one worker: promotions of a facility run in the order of its cancellations
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "reservation-waitlist");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.batchSize = batchSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntryDto joinWaitlist(Company company, CommonFacility commonFacility, Occupant occupant, CommonFacilityReservationDto commonFacilityReservationDto) {
+        LocalDateTime start = commonFacilityReservationDto.getStartTime();
+        LocalDateTime end = commonFacilityReservationDto.getEndTime();
+        if (start == null || end == null || !start.isBefore(end) || !start.isAfter(LocalDateTime.now())) {
+            throw new OperationNonPermittedException("A waitlist entry needs a start time in the future before its end time");
+        }
+        if (!commonFacilityReservationRepository.existsOverlappingByCommonFacilityId(commonFacility.getId(), start, end)) {
+            throw new OperationNonPermittedException("The time slot is free, it can be booked right away");
+        }
+        if (commonFacilityReservationRepository.existsOverlappingByOccupantId(occupant.getId(), start, end)) {
+            throw new OperationNonPermittedException("There is already a reservation at the given time slot for occupant with id " + occupant.getId());
+        }
+
+        ReservationWaitlistEntry entry = ReservationWaitlistEntry.builder()
+                .company(company)
+                .commonFacility(commonFacility)
+                .occupant(occupant)
+                .startTime(start)
+                .endTime(end)
+                .build();
+        try {
+            entry = reservationWaitlistEntryRepository.saveAndFlush(entry);
+        } catch (DataIntegrityViolationException e) {
+            throw new OperationNonPermittedException("Occupant with id " + occupant.getId() + " is already waiting for this time slot");
+        }
+        return WaitlistEntryDto.fromEntity(entry, reservationWaitlistEntryRepository.findPositionById(entry.getId()));
+    }
+
+    @Override
+    @Transactional
+    public void leaveWaitlist(Integer occupantId, Integer id) {
+        ReservationWaitlistEntry entry = reservationWaitlistEntryRepository.findById(id)
+                .orElseThrow(() -> new AuthenticationException("Waitlist entry with ID " + id + " not found"));
+        if (!entry.getOccupant().getId().equals(occupantId)) {
+            throw new AuthenticationException("You do not have access to other people's waitlist entries");
+        }
+        reservationWaitlistEntryRepository.delete(entry);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDto> getWaitlistEntries(Integer occupantId) {
+        return reservationWaitlistEntryRepository.findAllDtosByOccupantId(occupantId, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDto> getCommonFacilityWaitlist(Integer commonFacilityId) {
+        return reservationWaitlistEntryRepository.findAllDtosByCommonFacilityId(commonFacilityId, LocalDateTime.now());
+    }
+
+    // after the cancellation commits, off its thread
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReservationCancelled(ReservationCancelledEvent event) {
+        try {
+            executor.execute(() -> promoteQuietly(event.commonFacilityId(), event.startTime(), event.endTime()));
+        } catch (RejectedExecutionException e) {
+            log.warn("The waitlist promotion queue is full, the sweep will promote for facility {}", event.commonFacilityId());
+        }
+    }
+
+    /**
+     * Books the waiting entries overlapping [start, end) whose slot is now free, in the order they joined, and
+     * dequeues them in the same transaction. An entry whose slot is still partly taken, or whose occupant booked
+     * something else at that time meanwhile, keeps its place.
+     */
+    @Override
+    public List<CommonFacilityReservationDto> promote(Integer commonFacilityId, LocalDateTime start, LocalDateTime end) {
+        List<ReservationPromotedEvent> promotions = transactionTemplate.execute(status -> {
+            List<ReservationPromotedEvent> promoted = new ArrayList<>();
+            for (ReservationWaitlistEntry entry : reservationWaitlistEntryRepository.lockWaitingOverlapping(
+                    commonFacilityId, start, end, LocalDateTime.now(), PageRequest.of(0, batchSize))) {
+                Occupant occupant = entry.getOccupant();
+                if (commonFacilityReservationRepository.existsOverlappingByCommonFacilityId(commonFacilityId, entry.getStartTime(), entry.getEndTime())
+                        || commonFacilityReservationRepository.existsOverlappingByOccupantId(occupant.getId(), entry.getStartTime(), entry.getEndTime())) {
+                    continue;
+                }
+                // a reservation made meanwhile on another instance fails the exclusion constraints and rolls back
+                // every promotion of this transaction, the sweep tries them again
+                CommonFacilityReservation reservation = commonFacilityReservationRepository.saveAndFlush(CommonFacilityReservation.builder()
+                        .company(entry.getCompany())
+                        .commonFacility(entry.getCommonFacility())
+                        .occupant(occupant)
+                        .startTime(entry.getStartTime())
+                        .endTime(entry.getEndTime())
+                        .build());
+                reservationWaitlistEntryRepository.delete(entry);
+                reservationIndexService.addAfterCommit(commonFacilityId, reservation.getId(), reservation.getStartTime(), reservation.getEndTime());
+                ReservationPromotedEvent event = new ReservationPromotedEvent(occupant.getId(), occupant.getEmail(), CommonFacilityReservationDto.fromEntity(reservation));
+                eventPublisher.publishEvent(event);
+                promoted.add(event);
+            }
+            return promoted;
+        });
+        return promotions.stream().map(ReservationPromotedEvent::reservation).toList();
+    }
+
+    @Scheduled(
+            initialDelayString = "${application.reservations.waitlist.sweep-interval:60000}",
+            fixedDelayString = "${application.reservations.waitlist.sweep-interval:60000}"
+    )
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = reservationWaitlistEntryRepository.deleteAllStarted(now);
+        List<ReservationWaitlistEntry> free = reservationWaitlistEntryRepository.findAllFreeWaiting(now, PageRequest.of(0, batchSize));
+        free.forEach(entry -> promoteQuietly(entry.getCommonFacility().getId(), entry.getStartTime(), entry.getEndTime()));
+        if (expired > 0 || !free.isEmpty()) {
+            log.info("Swept {} started waitlist entries, {} free ones promoted", expired, free.size());
+        }
+    }
+
+    private void promoteQuietly(Integer commonFacilityId, LocalDateTime start, LocalDateTime end) {
+        try {
+            promote(commonFacilityId, start, end);
+        } catch (RuntimeException e) {
+            log.warn("Could not promote the waitlist of facility {} for {} - {}, the sweep will retry", commonFacilityId, start, end, e);
+        }
+    }
+}
\ No newline at end of file
@@ -23,7 +23,6 @@ import com.rently.rentlyAPI.repository.UserRepository;
 import com.rently.rentlyAPI.services.CondoService;
 import com.rently.rentlyAPI.services.S3Service;
 import com.rently.rentlyAPI.services.UserService;
-import com.rently.rentlyAPI.utils.JwtUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -52,9 +51,6 @@ public class S3ServiceImpl implements S3Service {
 	@Autowired
 	private CondoFileRepository condoFileRepository;
 
-	@Autowired
-	private JwtUtils jwtUtils;
-
 	private String bucketName = "rently-bucket-0";
 	Regions region = Regions.CA_CENTRAL_1;
 
@@ -80,10 +76,9 @@ public class S3ServiceImpl implements S3Service {
 	//TODO: Make proper custom exception handling
 	//uploadImage method is used to upload the image to the S3 bucket and save the file to the database.
 	@Override
-	public void uploadImage(MultipartFile imageFile, String token) {
+	public void uploadImage(MultipartFile imageFile, User user) {
 
 		try {
-			User user = userService.findUserAccordingToTypeWithEmail(jwtUtils.extractUsername(token));
 
 			// If profile picture existe delete from db and s3
 			Optional<S3File> profilePicture = Optional.ofNullable(user.getProfilePicture());
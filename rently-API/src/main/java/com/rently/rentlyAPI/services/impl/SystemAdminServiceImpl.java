@@ -1,16 +1,21 @@
 package com.rently.rentlyAPI.services.impl;
 
 import com.rently.rentlyAPI.dto.CompanyDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.SystemAdminDto;
 import com.rently.rentlyAPI.entity.user.SystemAdmin;
 import com.rently.rentlyAPI.exceptions.AuthenticationException;
+import com.rently.rentlyAPI.repository.KeysetPageRepository;
 import com.rently.rentlyAPI.repository.SystemAdminRepository;
 import com.rently.rentlyAPI.services.CompanyService;
 import com.rently.rentlyAPI.services.SystemAdminService;
+import com.rently.rentlyAPI.services.UserDirectoryService;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,39 +26,47 @@ import java.util.Optional;
 public class SystemAdminServiceImpl implements SystemAdminService {
 
     private final CompanyService companyService;
+    private final UserDirectoryService userDirectoryService;
 
     private final SystemAdminRepository systemAdminRepository;
+    private final KeysetPageRepository keysetPageRepository;
     private final PasswordEncoder passwordEncoder;
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<SystemAdmin> findByEmail(String email) {
         return systemAdminRepository.findByEmail(email);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public SystemAdminDto findSystemAdminDtoByEmail(String email) {
         SystemAdmin systemAdmin = findSystemAdminEntityByEmail(email);
         return SystemAdminDto.fromEntity(systemAdmin);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public SystemAdmin findSystemAdminEntityByEmail(String email) {
         return systemAdminRepository.findByEmail(email).orElseThrow(() -> new AuthenticationException("SystemAdmin with email " + email + " not found"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public SystemAdminDto findSystemAdminDtoById(Integer systemAdminId) {
         SystemAdmin systemAdmin = findSystemAdminEntityById(systemAdminId);
         return SystemAdminDto.fromEntity(systemAdmin);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public SystemAdmin findSystemAdminEntityById(Integer systemAdminId) {
 
         return systemAdminRepository.findById(systemAdminId).orElseThrow(() -> new EntityNotFoundException("SystemAdmin with ID " + systemAdminId + " not found"));
     }
 
     @Override
+    @Transactional
     public SystemAdminDto registerSystemAdmin(SystemAdminDto systemAdminDto) {
         // Encode the password
         if (systemAdminDto.getPassword() != null) {
@@ -64,14 +77,17 @@ public class SystemAdminServiceImpl implements SystemAdminService {
         // Convert the SystemAdminDto to a SystemAdmin entity and save it
         SystemAdmin systemAdminToSave = SystemAdminDto.toEntity(systemAdminDto);
         systemAdminToSave = systemAdminRepository.save(systemAdminToSave);
+        userDirectoryService.register(systemAdminToSave);
 
         return SystemAdminDto.fromEntity(systemAdminToSave);
     }
 
     @Override
+    @Transactional
     public SystemAdminDto updateSystemAdmin(SystemAdminDto systemAdminDto) {
         // Find the SystemAdmin Entity by its ID
         SystemAdmin systemAdminToUpdate = findSystemAdminEntityById(systemAdminDto.getId());
+        String previousEmail = systemAdminToUpdate.getEmail();
 
         // Update SystemAdmin details if present
         if (systemAdminDto.getNumberCreatedCompanies() != null && systemAdminDto.getNumberCreatedCompanies() >= 0) {
@@ -96,11 +112,13 @@ public class SystemAdminServiceImpl implements SystemAdminService {
 
         // Save the updated SystemAdmin
         SystemAdmin updatedSystemAdmin = systemAdminRepository.save(systemAdminToUpdate);
+        userDirectoryService.updateEmail(previousEmail, updatedSystemAdmin);
 
         return SystemAdminDto.fromEntity(updatedSystemAdmin);
     }
 
     @Override
+    @Transactional
     public void deleteSystemAdminById(Integer systemAdminId) {
 
         // Find the SystemAdmin Entity by its ID
@@ -108,12 +126,21 @@ public class SystemAdminServiceImpl implements SystemAdminService {
 
         // If the SystemAdmin is found, delete it
         systemAdminRepository.delete(systemAdminToDelete);
+        userDirectoryService.remove(systemAdminToDelete);
     }
 
     @Override
-    public List<SystemAdminDto> getAllSystemAdmins() {
-        List<SystemAdmin> systemAdmins = systemAdminRepository.findAll();
-        return systemAdmins.stream().map(SystemAdminDto::fromEntity).toList();
+    @Transactional(readOnly = true)
+    public CursorPageDto<SystemAdminDto> getSystemAdmins(String emailPrefix, KeysetPageRequest page) {
+        return keysetPageRepository.findPage(SystemAdmin.class, page,
+                (admin, cb) -> cb.construct(SystemAdminDto.class, admin.get("id"), admin.get("numberCreatedCompanies"),
+                        admin.get("email"), admin.get("firstName"), admin.get("lastName"), admin.get("phoneNumber"),
+                        admin.get("bio"), admin.get("role")),
+                (admin, cb, predicates) -> {
+                    if (emailPrefix != null && !emailPrefix.isBlank()) {
+                        predicates.add(KeysetPageRepository.startsWith(cb, admin.get("email"), emailPrefix));
+                    }
+                });
     }
 
     @Override
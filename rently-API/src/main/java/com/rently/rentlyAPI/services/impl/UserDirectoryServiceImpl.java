@@ -0,0 +1,257 @@
+package com.rently.rentlyAPI.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rently.rentlyAPI.entity.UserDirectoryEntry;
+import com.rently.rentlyAPI.entity.user.User;
+import com.rently.rentlyAPI.repository.*;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.services.UserDirectoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Resolves users through the user_directory table instead of probing every user table.
+ * A hit costs one indexed lookup on the email plus a primary key load in the right table, and the
+ * (role, id) pair is cached in process so repeated lookups (every authenticated request) skip the first query.
+ * Until the directory has been backfilled for existing users, a miss falls back to the legacy probe.
+ */
+@Slf4j
+@Service
+public class UserDirectoryServiceImpl implements UserDirectoryService {
+
+    private record DirectoryKey(Role role, Integer userId) {
+    }
+
+    private static final int BACKFILL_MAX_ATTEMPTS = 3;
+
+    private final UserDirectoryRepository userDirectoryRepository;
+    private final UserRepository userRepository;
+    private final SystemAdminRepository systemAdminRepository;
+    private final CompanyAdminRepository companyAdminRepository;
+    private final EmployeeRepository employeeRepository;
+    private final PublicUserRepository publicUserRepository;
+    private final OwnerRepository ownerRepository;
+    private final RenterRepository renterRepository;
+
+    // the lookups run in read-only transactions, which are never flushed and may read a replica
+    private final TransactionTemplate registrationTransaction;
+
+    private final Cache<String, DirectoryKey> cache;
+    private final int backfillBatchSize;
+
+    // once every existing user has an entry, a directory miss means the user does not exist
+    private volatile boolean backfilled = false;
+
+    public UserDirectoryServiceImpl(UserDirectoryRepository userDirectoryRepository,
+                                    UserRepository userRepository,
+                                    SystemAdminRepository systemAdminRepository,
+                                    CompanyAdminRepository companyAdminRepository,
+                                    EmployeeRepository employeeRepository,
+                                    PublicUserRepository publicUserRepository,
+                                    OwnerRepository ownerRepository,
+                                    RenterRepository renterRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${application.user-directory.cache.maximum-size:10000}") long cacheMaximumSize,
+                                    @Value("${application.user-directory.cache.expire-after-write:600000}") long cacheExpireAfterWrite,
+                                    @Value("${application.user-directory.backfill.batch-size:1000}") int backfillBatchSize) {
+        this.userDirectoryRepository = userDirectoryRepository;
+        this.userRepository = userRepository;
+        this.systemAdminRepository = systemAdminRepository;
+        this.companyAdminRepository = companyAdminRepository;
+        this.employeeRepository = employeeRepository;
+        this.publicUserRepository = publicUserRepository;
+        this.ownerRepository = ownerRepository;
+        this.renterRepository = renterRepository;
+        // an email has a user per role at most: a batch must hold more than that, its last email is left for the next one
+        if (backfillBatchSize <= Role.values().length) {
+            throw new IllegalArgumentException("application.user-directory.backfill.batch-size must be greater than "
+                    + Role.values().length + ", got " + backfillBatchSize);
+        }
+        this.registrationTransaction = new TransactionTemplate(transactionManager);
+        this.registrationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(Duration.ofMillis(cacheExpireAfterWrite))
+                .build();
+        this.backfillBatchSize = backfillBatchSize;
+    }
+
+    @Override
+    public Optional<User> findUserByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+
+        DirectoryKey cached = cache.getIfPresent(email);
+        if (cached != null) {
+            Optional<User> user = load(cached, email);
+            if (user.isPresent()) {
+                return user;
+            }
+            // the user was deleted or changed type on another instance
+            cache.invalidate(email);
+        }
+
+        Optional<UserDirectoryEntry> entry = userDirectoryRepository.findByEmail(email);
+        if (entry.isPresent()) {
+            DirectoryKey key = new DirectoryKey(entry.get().getRole(), entry.get().getUserId());
+            Optional<User> user = load(key, email);
+            if (user.isPresent()) {
+                cache.put(email, key);
+                return user;
+            }
+        }
+
+        if (backfilled) {
+            return Optional.empty();
+        }
+        Optional<User> user = probe(email);
+        user.ifPresent(this::registerFound);
+        return user;
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        if (email == null) {
+            return false;
+        }
+        if (cache.getIfPresent(email) != null || userDirectoryRepository.existsByEmail(email)) {
+            return true;
+        }
+        return !backfilled && findUserByEmail(email).isPresent();
+    }
+
+    @Override
+    @Transactional
+    public void register(User user) {
+        UserDirectoryEntry entry = userDirectoryRepository.findByEmail(user.getEmail())
+                .orElseGet(() -> UserDirectoryEntry.builder().email(user.getEmail()).build());
+        entry.setRole(user.getRole());
+        entry.setUserId(user.getId());
+        userDirectoryRepository.save(entry);
+        cache.put(user.getEmail(), new DirectoryKey(user.getRole(), user.getId()));
+    }
+
+    @Override
+    @Transactional
+    public void remove(User user) {
+        userDirectoryRepository.deleteByUserIdAndRole(user.getId(), user.getRole());
+        cache.invalidate(user.getEmail());
+    }
+
+    @Override
+    @Transactional
+    public void updateEmail(String previousEmail, User user) {
+        if (Objects.equals(previousEmail, user.getEmail())) {
+            return;
+        }
+        userDirectoryRepository.findByEmail(previousEmail)
+                .filter(entry -> entry.getRole() == user.getRole() && entry.getUserId().equals(user.getId()))
+                .ifPresent(entry -> {
+                    entry.setEmail(user.getEmail());
+                    userDirectoryRepository.save(entry);
+                });
+        cache.invalidate(previousEmail);
+        cache.put(user.getEmail(), new DirectoryKey(user.getRole(), user.getId()));
+    }
+
+    /**
+     * Creates the missing entries for users registered before the directory existed, reading the users in batches
+     * in email order. Emails present in several tables keep the type the legacy probe would have returned.
+     * A batch another instance backfilled at the same time is retried without the entries it created.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int created = 0;
+        String afterEmail = "";
+        List<UserDirectoryEntry> users;
+        while (!(users = userRepository.findDirectoryEntriesAfter(afterEmail, PageRequest.of(0, backfillBatchSize))).isEmpty()) {
+            if (users.size() == backfillBatchSize) {
+                // the users of the last email may go on in the next batch, a batch holds more than the tables of an email
+                String lastEmail = users.get(users.size() - 1).getEmail();
+                users = users.stream().filter(user -> !user.getEmail().equals(lastEmail)).toList();
+            }
+            afterEmail = users.get(users.size() - 1).getEmail();
+            Optional<Integer> batchCreated = backfill(users);
+            if (batchCreated.isEmpty()) {
+                // keep probing until the next start
+                return;
+            }
+            created += batchCreated.get();
+        }
+        backfilled = true;
+        log.info("User directory backfilled with {} entries", created);
+    }
+
+    // the number of entries created, empty when the batch kept conflicting with another instance
+    private Optional<Integer> backfill(List<UserDirectoryEntry> users) {
+        for (int attempt = 1; ; attempt++) {
+            Map<String, UserDirectoryEntry> missing = new LinkedHashMap<>();
+            users.stream()
+                    .sorted(Comparator.comparing(UserDirectoryEntry::getRole))
+                    .forEach(user -> missing.putIfAbsent(user.getEmail(), UserDirectoryEntry.builder()
+                            .email(user.getEmail())
+                            .role(user.getRole())
+                            .userId(user.getUserId())
+                            .build()));
+            missing.keySet().removeAll(userDirectoryRepository.findAllEmailsIn(missing.keySet()));
+            try {
+                userDirectoryRepository.saveAll(missing.values());
+                return Optional.of(missing.size());
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == BACKFILL_MAX_ATTEMPTS) {
+                    log.warn("User directory backfill stopped: {}", e.getMostSpecificCause().getMessage());
+                    return Optional.empty();
+                }
+                // another instance is backfilling the same emails, the next attempt skips the ones it created
+                log.debug("User directory backfill conflict, attempt {}: {}", attempt, e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    // registered in a transaction of its own, the one of the lookup may be read-only
+    private void registerFound(User user) {
+        try {
+            registrationTransaction.executeWithoutResult(status -> register(user));
+        } catch (DataIntegrityViolationException e) {
+            // registered at the same time by another lookup
+            log.debug("User directory entry of {} already registered", user.getEmail());
+        }
+    }
+
+    private Optional<User> load(DirectoryKey key, String email) {
+        Optional<? extends User> user = switch (key.role()) {
+            case SYSTEM_ADMIN -> systemAdminRepository.findById(key.userId());
+            case COMPANY_ADMIN -> companyAdminRepository.findById(key.userId());
+            case EMPLOYEE -> employeeRepository.findById(key.userId());
+            case PUBLIC_USER -> publicUserRepository.findById(key.userId());
+            case OWNER -> ownerRepository.findById(key.userId());
+            case RENTER -> renterRepository.findById(key.userId());
+            case USER -> Optional.empty();
+        };
+        return user.filter(found -> email.equals(found.getEmail())).map(User.class::cast);
+    }
+
+    // legacy resolution, in the order UserServiceImpl used to probe the tables
+    private Optional<User> probe(String email) {
+        return systemAdminRepository.findByEmail(email).<User>map(User.class::cast)
+                .or(() -> companyAdminRepository.findByEmail(email))
+                .or(() -> employeeRepository.findByEmail(email))
+                .or(() -> publicUserRepository.findByEmail(email))
+                .or(() -> ownerRepository.findByEmail(email))
+                .or(() -> renterRepository.findByEmail(email));
+    }
+}
@@ -1,6 +1,7 @@
 package com.rently.rentlyAPI.services.impl;
 
 import com.rently.rentlyAPI.dto.CompanyAdminDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
 import com.rently.rentlyAPI.dto.EmployeeDto;
 import com.rently.rentlyAPI.dto.PublicUserDto;
 import com.rently.rentlyAPI.dto.SystemAdminDto;
@@ -10,9 +11,10 @@ import com.rently.rentlyAPI.entity.user.User;
 import com.rently.rentlyAPI.exceptions.AuthenticationException;
 import com.rently.rentlyAPI.security.Role;
 import com.rently.rentlyAPI.services.*;
-import com.rently.rentlyAPI.utils.JwtUtils;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -26,43 +28,22 @@ public class UserServiceImpl implements UserService {
     private final PublicUserService publicUserService;
     private final OwnerService ownerService;
     private final RenterService renterService;
+    private final UserDirectoryService userDirectoryService;
 
-    private final JwtUtils jwtUtils;
 
     /**
-     * This method finds a user with the given email and returns it, regardless of the role
+     * This method finds a user with the given email and returns it, regardless of the role.
+     * The user directory resolves the email to the right table in a single indexed lookup.
      *
      * @param email the email of the user to be found
      * @return User with the given email
      * @throws AuthenticationException if no user with the given email is found
      */
     @Override
+    @Transactional(readOnly = true)
     public User findUserAccordingToTypeWithEmail(String email) {
-
-        if (systemAdminService.findByEmail(email).isPresent()) {
-            return systemAdminService.findByEmail(email).get();
-        }
-
-        if (companyAdminService.findByEmail(email).isPresent()) {
-            return companyAdminService.findByEmail(email).get();
-        }
-
-        if (employeeService.findByEmail(email).isPresent()) {
-            return employeeService.findByEmail(email).get();
-        }
-
-        if (publicUserService.findByEmail(email).isPresent()) {
-            return publicUserService.findByEmail(email).get();
-        }
-
-        if (ownerService.findByEmail(email).isPresent()) {
-            return ownerService.findByEmail(email).get();
-        }
-
-        if (renterService.findByEmail(email).isPresent()) {
-            return renterService.findByEmail(email).get();
-        }
-        throw new AuthenticationException("User with email " + email + " not found");
+        return userDirectoryService.findUserByEmail(email)
+                .orElseThrow(() -> new AuthenticationException("User with email " + email + " not found"));
     }
 
     /**
@@ -71,17 +52,13 @@ public class UserServiceImpl implements UserService {
      * @param email the email of the user to be checked
      * @return true if the user exists, false otherwise
      */
+    @Transactional(readOnly = true)
     public boolean userExistsForRegistration(String email) {
-        try {
-            findUserAccordingToTypeWithEmail(email);
-        } catch (AuthenticationException e) {
-            // this means no user exists with this email
-            return false;
-        }
-        return true;
+        return userDirectoryService.existsByEmail(email);
     }
 
     @Override
+    @Transactional
     public SystemAdminDto registerSystemAdmin(SystemAdminDto systemAdminDto) {
         if (userExistsForRegistration(systemAdminDto.getEmail()) == false) {
             return systemAdminService.registerSystemAdmin(systemAdminDto);
@@ -92,6 +69,7 @@ public class UserServiceImpl implements UserService {
 
 
     @Override
+    @Transactional
     public CompanyAdminDto registerCompanyAdmin(CompanyAdminDto companyAdminDto) {
         if (userExistsForRegistration(companyAdminDto.getEmail()) == false) {
             return companyAdminService.registerCompanyAdminAndLinkToCompany(companyAdminDto);
@@ -100,6 +78,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public EmployeeDto registerEmployee(EmployeeDto employeeDto) {
         if (userExistsForRegistration(employeeDto.getEmail()) == false) {
             return employeeService.registerEmployee(employeeDto);
@@ -108,6 +87,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public PublicUserDto registerPublicUser(PublicUserDto publicUserDto) {
         if (userExistsForRegistration(publicUserDto.getEmail()) == false) {
             return publicUserService.registerPublicUser(publicUserDto);
@@ -116,16 +96,13 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public String userKeyActivation(String token, String key) {
+    @Transactional
+    public String userKeyActivation(User user, String key) {
         // find the condo with the key
         Condo condo = companyAdminService.getCondoEntityByRegistrationKey(key);
 
-        String tokenWithoutBearer = token.substring(7);
-        String userEmail = jwtUtils.extractUsername(tokenWithoutBearer);
-        User user = findUserAccordingToTypeWithEmail(userEmail);
-
         if (user.getRole().equals(Role.PUBLIC_USER)) {
-            Occupant newOccupant = publicUserService.transformToOccupant(userEmail, key);
+            Occupant newOccupant = publicUserService.transformToOccupant(user.getEmail(), key);
             return companyAdminService.linkOccupantToHousingContract(newOccupant, condo).toString();
         }
 
@@ -139,13 +116,15 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<SystemAdminDto> getAllSystemAdmins() {
-        return systemAdminService.getAllSystemAdmins();
+    @Transactional(readOnly = true)
+    public CursorPageDto<SystemAdminDto> getSystemAdmins(String emailPrefix, KeysetPageRequest page) {
+        return systemAdminService.getSystemAdmins(emailPrefix, page);
     }
 
     @Override
-    public List<CompanyAdminDto> getAllCompanyAdmins() {
-        return companyAdminService.getAllCompanyAdmins();
+    @Transactional(readOnly = true)
+    public CursorPageDto<CompanyAdminDto> getCompanyAdmins(Integer companyId, String emailPrefix, KeysetPageRequest page) {
+        return companyAdminService.getCompanyAdmins(companyId, emailPrefix, page);
     }
 
     @Override
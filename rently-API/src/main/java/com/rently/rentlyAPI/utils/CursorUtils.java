@@ -0,0 +1,77 @@
+package com.rently.rentlyAPI.utils;
+
+import com.rently.rentlyAPI.exceptions.ObjectValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque cursors for keyset pagination. A cursor holds the sort key of the last row of a page,
+ * the next page continues strictly after it, so pages stay stable while rows are being inserted.
+ */
+public final class CursorUtils {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final String SEPARATOR = "|";
+
+    private CursorUtils() {
+    }
+
+    public static String encode(Object... keys) {
+        StringBuilder joined = new StringBuilder();
+        for (Object key : keys) {
+            if (!joined.isEmpty()) {
+                joined.append(SEPARATOR);
+            }
+            joined.append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the keys of the cursor, or null when there is no cursor (first page).
+     */
+    public static String[] decode(String cursor, int keyCount) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+            if (keys.length == keyCount) {
+                return keys;
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+        throw invalid("The cursor is not valid");
+    }
+
+    public static Integer decodeId(String cursor) {
+        String[] keys = decode(cursor, 1);
+        if (keys == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(keys[0]);
+        } catch (NumberFormatException e) {
+            throw invalid("The cursor is not valid");
+        }
+    }
+
+    public static int checkLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw invalid("The limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    private static ObjectValidationException invalid(String message) {
+        return new ObjectValidationException(Set.of(message), "cursor");
+    }
+}
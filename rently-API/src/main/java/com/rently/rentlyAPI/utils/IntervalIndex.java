@@ -0,0 +1,67 @@
+package com.rently.rentlyAPI.utils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Thread-safe sorted set of half-open [start, end) intervals that do not overlap each other, like the reservations
+ * of one facility. Sorted by start, the only interval that can overlap a new one is the last starting before its end,
+ * so an overlap check is one O(log n) lookup whatever the number of intervals.
+ * Reads are lock free, writes are serialized.
+ */
+public class IntervalIndex {
+
+    public record Interval(Integer id, LocalDateTime start, LocalDateTime end) {
+    }
+
+    private final NavigableMap<LocalDateTime, Interval> byStart = new ConcurrentSkipListMap<>();
+
+    private final Map<Integer, LocalDateTime> startsById = new ConcurrentHashMap<>();
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Interval> last = byStart.lowerEntry(end);
+        return last != null && last.getValue().end().isAfter(start);
+    }
+
+    // the intervals overlapping [from, to), by start
+    public List<Interval> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<Interval> intervals = new ArrayList<>();
+        Map.Entry<LocalDateTime, Interval> before = byStart.lowerEntry(from);
+        if (before != null && before.getValue().end().isAfter(from)) {
+            intervals.add(before.getValue());
+        }
+        intervals.addAll(byStart.subMap(from, true, to, false).values());
+        return intervals;
+    }
+
+    public Interval get(Integer id) {
+        LocalDateTime start = startsById.get(id);
+        Interval interval = start == null ? null : byStart.get(start);
+        return interval != null && interval.id().equals(id) ? interval : null;
+    }
+
+    public synchronized void add(Integer id, LocalDateTime start, LocalDateTime end) {
+        remove(id);
+        Interval replaced = byStart.put(start, new Interval(id, start, end));
+        if (replaced != null) {
+            startsById.remove(replaced.id());
+        }
+        startsById.put(id, start);
+    }
+
+    public synchronized void remove(Integer id) {
+        LocalDateTime start = startsById.remove(id);
+        if (start != null) {
+            byStart.computeIfPresent(start, (key, interval) -> interval.id().equals(id) ? null : interval);
+        }
+    }
+
+    public int size() {
+        return startsById.size();
+    }
+}
@@ -1,10 +1,18 @@
 package com.rently.rentlyAPI.utils;
 
+import com.rently.rentlyAPI.entity.user.CompanyAdmin;
+import com.rently.rentlyAPI.entity.user.Employee;
+import com.rently.rentlyAPI.entity.user.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,23 +23,88 @@ import org.springframework.stereotype.Service;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class JwtUtils {
 
+    public static final String ROLES_CLAIM = "roles";
+    public static final String USER_ID_CLAIM = "user_id";
+    public static final String COMPANY_ID_CLAIM = "company_id";
+
+    // tokens issued before key ids were introduced carry no kid header
+    public static final String DEFAULT_KEY_ID = "default";
+
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
 
+    @Value("${application.security.jwt.active-key-id:" + DEFAULT_KEY_ID + "}")
+    private String activeKeyId;
+
+    // "kid:base64-secret" entries still accepted for verification while their tokens expire
+    @Value("${application.security.jwt.previous-keys:}")
+    private List<String> previousKeys = List.of();
+
     @Value("${application.security.jwt.expiration}")
     private long jwtExpiration;
 
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long refreshExpiration;
 
+    @Value("${application.security.jwt.claims-only.enabled:false}")
+    private boolean claimsOnlyAuthentication;
+
+    @Value("${application.security.jwt.claims-only.max-age:3600000}")
+    private long claimsMaxAge;
+
+    private Key activeKey;
+
+    private Map<String, Key> verificationKeys;
+
+    private JwtParser jwtParser;
+
+    /**
+     * Decodes the secrets once and builds the parser shared by every request (it is immutable and thread-safe).
+     * The active key signs new tokens; the previous keys only verify, so a secret can be rotated without
+     * invalidating the tokens already in circulation.
+     */
+    @PostConstruct
+    public void initKeys() {
+        Map<String, Key> keys = new HashMap<>();
+        for (String previousKey : previousKeys) {
+            if (previousKey.isBlank()) {
+                continue;
+            }
+            int separator = previousKey.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("Invalid previous JWT key entry, expected kid:secret");
+            }
+            keys.put(previousKey.substring(0, separator).trim(), toKey(previousKey.substring(separator + 1).trim()));
+        }
+        activeKey = toKey(secretKey);
+        keys.put(activeKeyId, activeKey);
+        verificationKeys = Map.copyOf(keys);
+
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        String keyId = header.getKeyId() == null ? DEFAULT_KEY_ID : header.getKeyId();
+                        Key key = verificationKeys.get(keyId);
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key id " + keyId);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
     public String generateToken(UserDetails userDetails, boolean isRefreshToken) {
         Map<String, Object> extraClaims = new HashMap<>();
         if (!isRefreshToken) {
@@ -39,42 +112,75 @@ public class JwtUtils {
                     .stream()
                     .map(GrantedAuthority::getAuthority)
                     .collect(Collectors.toSet());
-            extraClaims.put("roles", roles);
+            extraClaims.put(ROLES_CLAIM, roles);
+            addIdentityClaims(extraClaims, userDetails);
         }
         long expiration = isRefreshToken ? refreshExpiration : jwtExpiration;
         return buildToken(extraClaims, userDetails.getUsername(), expiration);
     }
 
+    private void addIdentityClaims(Map<String, Object> claims, UserDetails userDetails) {
+        if (!(userDetails instanceof User user)) {
+            return;
+        }
+        claims.put(USER_ID_CLAIM, user.getId());
+        if (user instanceof CompanyAdmin companyAdmin && companyAdmin.getCompany() != null) {
+            claims.put(COMPANY_ID_CLAIM, companyAdmin.getCompany().getId());
+        }
+        if (user instanceof Employee employee && employee.getCompany() != null) {
+            claims.put(COMPANY_ID_CLAIM, employee.getCompany().getId());
+        }
+    }
+
     private String buildToken(Map<String, Object> claims, String subject, long expiration) {
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(activeKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final Claims claims = extractAllClaims(token);
+        return isTokenValid(parseClaims(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
         final String username = claims.getSubject();
         return username.equals(userDetails.getUsername()) && !isTokenExpired(claims);
     }
 
+    /**
+     * Whether the filter may trust the claims of this (already verified) access token without
+     * loading the user. Only tokens minted with the identity claims qualify, and only while they
+     * are younger than the configured max age; older tokens fall back to the user lookup so that
+     * deleted users and role changes are picked up within that window.
+     */
+    public boolean canAuthenticateFromClaims(Claims claims) {
+        return claimsOnlyAuthentication
+                && claims.get(USER_ID_CLAIM) != null
+                && claims.get(ROLES_CLAIM) != null
+                && claims.getIssuedAt() != null
+                && System.currentTimeMillis() - claims.getIssuedAt().getTime() <= claimsMaxAge;
+    }
+
     private boolean isTokenExpired(Claims claims) {
         return claims.getExpiration().before(new Date());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the signature and expiration of the token and returns its claims.
+     * Callers holding the claims should pass them along instead of parsing the token again.
+     */
+    public Claims parseClaims(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+    private static Key toKey(String base64Secret) {
+        byte[] keyBytes = Decoders.BASE64.decode(base64Secret);
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
@@ -93,13 +199,10 @@ public class JwtUtils {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parseClaims(token));
     }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
-
-
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.rently.rentlyAPI.utils;
+
+import com.rently.rentlyAPI.dto.PageQueryDto;
+import com.rently.rentlyAPI.exceptions.ObjectValidationException;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * A validated keyset page: the sort, the keys of the last row of the previous page (null on the first page) and the size.
+ */
+public record KeysetPageRequest(SortKey sortKey, boolean descending, Integer afterId, LocalDateTime afterModified, int limit) {
+
+    public enum SortKey {
+        ID("id"),
+        // the audit column, falls back to the creation date for rows that were never modified
+        LAST_MODIFIED_DATE("lastModifiedDate");
+
+        private final String parameter;
+
+        SortKey(String parameter) {
+            this.parameter = parameter;
+        }
+
+        static SortKey fromParameter(String parameter) {
+            if (parameter == null || parameter.isBlank()) {
+                return ID;
+            }
+            for (SortKey sortKey : values()) {
+                if (sortKey.parameter.equals(parameter)) {
+                    return sortKey;
+                }
+            }
+            throw invalid("The sort must be id or lastModifiedDate");
+        }
+    }
+
+    public static KeysetPageRequest firstPage(int limit) {
+        return new KeysetPageRequest(SortKey.ID, false, null, null, limit);
+    }
+
+    public static KeysetPageRequest of(PageQueryDto query) {
+        if (query == null) {
+            return firstPage(CursorUtils.DEFAULT_LIMIT);
+        }
+        int limit = CursorUtils.checkLimit(query.getLimit());
+        String[] keys = CursorUtils.decode(query.getCursor(), 4);
+        if (keys == null) {
+            return new KeysetPageRequest(SortKey.fromParameter(query.getSort()), isDescending(query.getDirection()), null, null, limit);
+        }
+        try {
+            return new KeysetPageRequest(SortKey.valueOf(keys[0]), Boolean.parseBoolean(keys[1]), Integer.valueOf(keys[2]),
+                    keys[3].isEmpty() ? null : LocalDateTime.parse(keys[3]), limit);
+        } catch (RuntimeException e) {
+            throw invalid("The cursor is not valid");
+        }
+    }
+
+    public String cursorAfter(Integer id, LocalDateTime modified) {
+        return CursorUtils.encode(sortKey.name(), descending, id, modified != null ? modified : "");
+    }
+
+    private static boolean isDescending(String direction) {
+        if (direction == null || direction.isBlank() || direction.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (direction.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw invalid("The direction must be asc or desc");
+    }
+
+    private static ObjectValidationException invalid(String message) {
+        return new ObjectValidationException(Set.of(message), "cursor");
+    }
+}
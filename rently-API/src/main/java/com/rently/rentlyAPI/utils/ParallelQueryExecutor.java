@@ -0,0 +1,117 @@
+package com.rently.rentlyAPI.utils;
+
+import com.rently.rentlyAPI.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent read queries of one request side by side, each on its own pooled connection.
+ * The pool is small and bounded so a burst of aggregate requests cannot drain the connection pool:
+ * once the queue is full the query simply runs on the calling thread, which only makes that request sequential.
+ * Each query runs in a read-only transaction whose timeout cancels its statements on the database once the request
+ * gave up on it, interrupting the query thread alone does not stop a running statement.
+ * Being a MeterBinder bean, its load is exported as parallel.queries.* metrics.
+ */
+public class ParallelQueryExecutor implements MeterBinder {
+
+    private final ThreadPoolExecutor executor;
+
+    // the queries run as the requesting user, the replica routing keeps their reads on the primary after a write
+    private final ExecutorService securityContextExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final long timeoutMillis;
+
+    public ParallelQueryExecutor(int threads, int queueCapacity, long timeoutMillis, PlatformTransactionManager transactionManager) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "parallel-query-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        this.securityContextExecutor = new DelegatingSecurityContextExecutorService(executor);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // in seconds, rounded up so the statements outlive the wait of awaitAll
+        this.transactionTemplate.setTimeout((int) Math.max(1, (timeoutMillis + 999) / 1000));
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Cancelling the returned future interrupts the query thread, unlike a future of CompletableFuture.supplyAsync.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = securityContextExecutor.submit(() -> {
+            try {
+                result.complete(transactionTemplate.execute(status -> query.get()));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, e) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Waits for all the given queries, rethrowing the first failure as it was thrown by the query.
+     */
+    public void awaitAll(CompletableFuture<?>... queries) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(queries);
+        try {
+            all.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            for (CompletableFuture<?> query : queries) {
+                query.cancel(true);
+            }
+            throw new ServiceUnavailableException("The request took too long, please retry in a moment");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("The request was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public ThreadPoolExecutor getThreadPoolExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("parallel.queries.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Queries running on the parallel query pool")
+                .register(registry);
+        Gauge.builder("parallel.queries.queued", executor, pool -> pool.getQueue().size())
+                .description("Queries waiting for a parallel query thread")
+                .register(registry);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,193 @@
+package com.rently.rentlyAPI.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the connections of read-only transactions to the replica and everything else to the primary.
+ * It has to sit behind a LazyConnectionDataSourceProxy: the transaction managers fetch the connection before they
+ * flag the transaction as read-only, the proxy defers the fetch to the first statement.
+ * <p>
+ * Reads stay on the primary while the replica is unreachable or lags more than maxLag behind, and for a user
+ * during stickyWindow after one of their own writes was committed, so they read what they just wrote.
+ * Being a MeterBinder bean, its decisions are exported as datasource.routing and the lag as datasource.replica.lag.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    // why a read-only transaction was kept on the primary, or "replica" when it was not
+    private enum Reason {
+        REPLICA,
+        LAG,
+        STICKY
+    }
+
+    // 0 on a standby that replayed all it received, an idle primary sends nothing and the replay timestamp gets old.
+    // 0 as well on a server that is not a standby at all (a local copy of the database)
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            END""";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+
+    private final long maxLagMillis;
+
+    private final long lagCheckIntervalMillis;
+
+    // principal name -> commit of their last write, forgotten after the sticky window
+    private final Cache<String, Boolean> recentWriters;
+
+    private final Map<Reason, Counter> routingCounters = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService lagChecker;
+
+    // unknown until the first check succeeds, the reads stay on the primary meanwhile
+    private volatile long replicaLagMillis = -1;
+
+    private volatile long lastLagCheckMillis;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long maxLagMillis,
+                                    long lagCheckIntervalMillis, long stickyWindowMillis) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.replicaJdbcTemplate.setQueryTimeout((int) Math.max(1, lagCheckIntervalMillis / 1000));
+        this.maxLagMillis = maxLagMillis;
+        this.lagCheckIntervalMillis = lagCheckIntervalMillis;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(stickyWindowMillis))
+                .build();
+        this.lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        checkReplicaLag();
+        lagChecker.scheduleWithFixedDelay(this::checkReplicaLag, lagCheckIntervalMillis, lagCheckIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        lagChecker.shutdownNow();
+    }
+
+    public void checkReplicaLag() {
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+            if (replicaLagMillis < 0) {
+                log.info("Replica reachable, read-only transactions are routed to it");
+            }
+            replicaLagMillis = lag == null ? 0 : lag.longValue();
+            lastLagCheckMillis = System.currentTimeMillis();
+        } catch (RuntimeException e) {
+            if (replicaLagMillis >= 0) {
+                log.warn("Replica unreachable, read-only transactions stay on the primary", e);
+            }
+            replicaLagMillis = -1;
+        }
+    }
+
+    /**
+     * The replica serves reads while its last measured lag is below maxLag, and that measurement is recent:
+     * a stuck checker must not keep routing to a replica that fell behind since.
+     */
+    public boolean isReplicaUsable() {
+        long lag = replicaLagMillis;
+        return lag >= 0
+                && lag <= maxLagMillis
+                && System.currentTimeMillis() - lastLagCheckMillis <= 3 * lagCheckIntervalMillis;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriteOnCommit();
+            return Target.PRIMARY;
+        }
+        Reason reason = isReplicaUsable() ? stickyReason() : Reason.LAG;
+        count(reason);
+        return reason == Reason.REPLICA ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    private Reason stickyReason() {
+        String writer = currentWriter();
+        if (writer != null && recentWriters.getIfPresent(writer) != null) {
+            return Reason.STICKY;
+        }
+        return Reason.REPLICA;
+    }
+
+    // a read-write transaction that only read makes its user sticky too, which only costs them the replica for a while
+    private void rememberWriteOnCommit() {
+        String writer = currentWriter();
+        if (writer == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(writer, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentWriter() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private void count(Reason reason) {
+        Counter counter = routingCounters.get(reason);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Reason reason : Reason.values()) {
+            routingCounters.put(reason, Counter.builder("datasource.routing")
+                    .description("Read-only transactions by the pool that served them and why")
+                    .tag("target", reason == Reason.REPLICA ? "replica" : "primary")
+                    .tag("reason", reason.name().toLowerCase())
+                    .register(registry));
+        }
+        Gauge.builder("datasource.replica.lag", this, dataSource -> dataSource.replicaLagMillis)
+                .description("Replication lag of the replica in milliseconds, -1 when it is unreachable")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+}
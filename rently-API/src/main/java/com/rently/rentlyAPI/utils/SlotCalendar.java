@@ -0,0 +1,89 @@
+package com.rently.rentlyAPI.utils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The reservations of one facility: their interval index, and for each day asked for a bitmap of its 96 fifteen-minute
+ * slots, a bit set when a reservation covers any part of the slot. The free slots of a day are the clear bits.
+ * A day's bitmap is computed from the intervals the first time it is read, then kept up to date by add and remove,
+ * which only touch the days of the interval they change.
+ */
+public class SlotCalendar {
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private static final long SLOT_SECONDS = SLOT_MINUTES * 60;
+    private static final int WORDS = (SLOTS_PER_DAY + 63) / 64;
+
+    private final IntervalIndex intervals = new IntervalIndex();
+
+    // day -> its busy slots, only the days read so far
+    private final Map<LocalDate, long[]> days = new ConcurrentHashMap<>();
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return intervals.overlaps(start, end);
+    }
+
+    // a slot shared by two reservations (18:00-18:10 and 18:10-18:30) stays busy when one of them is removed,
+    // so the days are computed again from the intervals rather than cleared
+    public synchronized void add(Integer id, LocalDateTime start, LocalDateTime end) {
+        IntervalIndex.Interval previous = intervals.get(id);
+        intervals.add(id, start, end);
+        if (previous != null) {
+            recompute(previous.start(), previous.end());
+        }
+        recompute(start, end);
+    }
+
+    public synchronized void remove(Integer id) {
+        IntervalIndex.Interval removed = intervals.get(id);
+        if (removed != null) {
+            intervals.remove(id);
+            recompute(removed.start(), removed.end());
+        }
+    }
+
+    /**
+     * The busy slots of the day, slot i starting i * 15 minutes after midnight. A copy: later bookings do not show in it.
+     */
+    public BitSet busySlots(LocalDate day) {
+        return BitSet.valueOf(days.computeIfAbsent(day, this::bitmapOf));
+    }
+
+    public int size() {
+        return intervals.size();
+    }
+
+    private void recompute(LocalDateTime start, LocalDateTime end) {
+        for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            days.computeIfPresent(day, (key, bits) -> bitmapOf(key));
+        }
+    }
+
+    private long[] bitmapOf(LocalDate day) {
+        LocalDateTime midnight = day.atStartOfDay();
+        long[] bits = new long[WORDS];
+        for (IntervalIndex.Interval interval : intervals.overlapping(midnight, midnight.plusDays(1))) {
+            long from = Math.max(0, Duration.between(midnight, interval.start()).getSeconds());
+            long to = Math.min(SLOTS_PER_DAY * SLOT_SECONDS, Duration.between(midnight, interval.end()).getSeconds());
+            setRange(bits, (int) (from / SLOT_SECONDS), (int) ((to + SLOT_SECONDS - 1) / SLOT_SECONDS));
+        }
+        return bits;
+    }
+
+    // sets the slots [from, to)
+    private static void setRange(long[] bits, int from, int to) {
+        for (int word = from >>> 6; word < WORDS && word << 6 < to; word++) {
+            int low = Math.max(from - (word << 6), 0);
+            int high = Math.min(to - (word << 6), 64);
+            long upTo = high == 64 ? -1L : (1L << high) - 1;
+            bits[word] |= upTo & (-1L << low);
+        }
+    }
+}
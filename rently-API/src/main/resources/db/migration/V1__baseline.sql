@@ -0,0 +1,424 @@
+-- Baseline: the schema Hibernate generated from the entities before migrations were versioned
+-- (PostgreSQLDialect, Spring physical naming). Databases created by ddl-auto are baselined at this
+-- version instead of running it, see spring.flyway.baseline-on-migrate, so it must not hold anything
+-- added since: the later migrations create it.
+
+create sequence assignment_update_seq start with 1 increment by 50;
+
+create sequence building_seq start with 1 increment by 50;
+
+create sequence common_facility_reservation_seq start with 1 increment by 50;
+
+create sequence common_facility_seq start with 1 increment by 50;
+
+create sequence company_seq start with 1 increment by 50;
+
+create sequence condo_seq start with 1 increment by 50;
+
+create sequence employee_assignment_seq start with 1 increment by 50;
+
+create sequence employment_contract_seq start with 1 increment by 50;
+
+create sequence housing_contract_seq start with 1 increment by 50;
+
+create sequence key_seq start with 1 increment by 50;
+
+create sequence locker_seq start with 1 increment by 50;
+
+create sequence owner_request_seq start with 1 increment by 50;
+
+create sequence parking_seq start with 1 increment by 50;
+
+create sequence s3_file_seq start with 1 increment by 50;
+
+create sequence user_seq start with 1 increment by 50;
+
+create table assignment_update (
+    employee_assignment_id integer,
+    id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    comment varchar(255),
+    status varchar(255) default 'NOT_ASSIGNED' not null check (status in ('NOT_ASSIGNED','ASSIGNED','IN_PROGRESS','COMPLETED','CANCELLED')),
+    primary key (id)
+);
+
+create table building (
+    company_id integer,
+    id integer not null,
+    number_of_floors integer,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    address varchar(255),
+    description varchar(255),
+    name varchar(255) unique,
+    primary key (id)
+);
+
+create table common_facility (
+    building_id integer,
+    id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    description varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table common_facility_reservation (
+    common_facility_id integer,
+    company_id integer,
+    id integer not null,
+    occupant_id integer,
+    created_date timestamp(6) not null,
+    duration bigint not null,
+    last_modified_date timestamp(6),
+    date varchar(255),
+    primary key (id)
+);
+
+create table company (
+    id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    name varchar(255) unique,
+    primary key (id)
+);
+
+create table company_admin (
+    company_id integer not null,
+    id integer not null,
+    profile_picture_id integer unique,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    bio varchar(255),
+    email varchar(255) unique,
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    phone_number varchar(255),
+    role varchar(255) default 'USER' not null check (role in ('USER','SYSTEM_ADMIN','COMPANY_ADMIN','EMPLOYEE','PUBLIC_USER','OWNER','RENTER')),
+    primary key (id)
+);
+
+create table condo (
+    building_id integer,
+    id integer not null,
+    unit_number integer,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    address varchar(255),
+    description varchar(255),
+    registration_key varchar(255) unique,
+    status varchar(255) default 'AVAILABLE' not null check (status in ('AVAILABLE','OWNED','RENTED')),
+    primary key (id),
+    constraint UKcy1ptxwmcgmf1q3k91cfx3tl3 unique (building_id, unit_number)
+);
+
+create table condo_file (
+    condo_id integer,
+    id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    description varchar(1024),
+    stored_url varchar(2048),
+    file_type varchar(255) not null check (file_type in ('PDF','DOC','DOCX','XLS','XLSX','PPT','PPTX','JPG','PNG','GIF')),
+    filename varchar(255) not null unique,
+    primary key (id)
+);
+
+create table employee (
+    assignment_count int default 0 not null,
+    company_id integer,
+    id integer not null,
+    profile_picture_id integer unique,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    bio varchar(255),
+    email varchar(255) unique,
+    employee_type varchar(255) default 'GENERAL' not null check (employee_type in ('PLUMBING','ELECTRICITY','GENERAL','SECURITY','CLEANING')),
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    phone_number varchar(255),
+    role varchar(255) default 'USER' not null check (role in ('USER','SYSTEM_ADMIN','COMPANY_ADMIN','EMPLOYEE','PUBLIC_USER','OWNER','RENTER')),
+    primary key (id)
+);
+
+create table employee_assignment (
+    company_id integer,
+    employee_id integer,
+    id integer not null,
+    request_id integer,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    status varchar(255) default 'NOT_ASSIGNED' not null check (status in ('NOT_ASSIGNED','ASSIGNED','IN_PROGRESS','COMPLETED','CANCELLED')),
+    work_type varchar(255) default 'GENERAL' not null check (work_type in ('PLUMBING','ELECTRICITY','GENERAL','SECURITY','CLEANING')),
+    primary key (id)
+);
+
+create table employment_contract (
+    building_id integer,
+    company_id integer,
+    employee_id integer,
+    id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    yearly_salary bigint not null,
+    start_date varchar(255),
+    primary key (id)
+);
+
+create table housing_contract (
+    company_id integer,
+    condo_id integer,
+    id integer not null,
+    monthly_rent integer,
+    occupant_id integer,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    occupant_type varchar(255),
+    primary key (id)
+);
+
+create table key (
+    company_id integer,
+    id integer not null,
+    is_active boolean not null,
+    revoked boolean not null,
+    role smallint check (role between 0 and 6),
+    user_id integer,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    key varchar(1000) not null unique,
+    primary key (id)
+);
+
+create table locker (
+    building_id integer,
+    condo_id integer unique,
+    id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    locker_fee bigint not null,
+    primary key (id)
+);
+
+create table owner (
+    id integer not null,
+    profile_picture_id integer unique,
+    property_owned int default 0 not null,
+    request_count int default 0 not null,
+    resident_since_years int default 0 not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    bio varchar(255),
+    email varchar(255) unique,
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    phone_number varchar(255),
+    role varchar(255) default 'USER' not null check (role in ('USER','SYSTEM_ADMIN','COMPANY_ADMIN','EMPLOYEE','PUBLIC_USER','OWNER','RENTER')),
+    primary key (id)
+);
+
+create table owner_request (
+    building_id integer,
+    company_id integer,
+    id integer not null,
+    owner_id integer,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    request_description varchar(255),
+    work_type varchar(255) default 'GENERAL' not null check (work_type in ('PLUMBING','ELECTRICITY','GENERAL','SECURITY','CLEANING')),
+    primary key (id)
+);
+
+create table parking (
+    building_id integer,
+    condo_id integer unique,
+    id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    parking_fee bigint not null,
+    primary key (id)
+);
+
+create table public_user (
+    id integer not null,
+    profile_picture_id integer unique,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    bio varchar(255),
+    email varchar(255) unique,
+    field_to_change_later varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    phone_number varchar(255),
+    role varchar(255) default 'USER' not null check (role in ('USER','SYSTEM_ADMIN','COMPANY_ADMIN','EMPLOYEE','PUBLIC_USER','OWNER','RENTER')),
+    primary key (id)
+);
+
+create table renter (
+    id integer not null,
+    profile_picture_id integer unique,
+    property_rented int default 0 not null,
+    resident_since_years int default 0 not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    bio varchar(255),
+    email varchar(255) unique,
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    phone_number varchar(255),
+    role varchar(255) default 'USER' not null check (role in ('USER','SYSTEM_ADMIN','COMPANY_ADMIN','EMPLOYEE','PUBLIC_USER','OWNER','RENTER')),
+    primary key (id)
+);
+
+create table s3_file (
+    id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    stored_url varchar(2048),
+    file_type varchar(255) not null check (file_type in ('PDF','DOC','DOCX','XLS','XLSX','PPT','PPTX','JPG','PNG','GIF')),
+    filename varchar(255) not null unique,
+    primary key (id)
+);
+
+create table system_admin (
+    id integer not null,
+    number_created_companies integer,
+    profile_picture_id integer unique,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    bio varchar(255),
+    email varchar(255) unique,
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    phone_number varchar(255),
+    role varchar(255) default 'USER' not null check (role in ('USER','SYSTEM_ADMIN','COMPANY_ADMIN','EMPLOYEE','PUBLIC_USER','OWNER','RENTER')),
+    primary key (id)
+);
+
+alter table if exists assignment_update
+   add constraint FKi1uplr40gqxf6ixvmloafi1l2
+   foreign key (employee_assignment_id)
+   references employee_assignment;
+
+alter table if exists building
+   add constraint FK1xoqlpbis7tcdvl2q3h9lb4fh
+   foreign key (company_id)
+   references company;
+
+alter table if exists common_facility
+   add constraint FKbgnxj6fpv8fxj4fp89le17sdq
+   foreign key (building_id)
+   references building;
+
+alter table if exists common_facility_reservation
+   add constraint FK3yhjfxecad9b1fqj62t4sbyca
+   foreign key (common_facility_id)
+   references common_facility;
+
+alter table if exists common_facility_reservation
+   add constraint FK8u0pg4asrv8ampt6ul35khxqk
+   foreign key (company_id)
+   references company;
+
+alter table if exists company_admin
+   add constraint FKiqg7hedtcjrenfir5q3pgmax7
+   foreign key (company_id)
+   references company;
+
+alter table if exists condo
+   add constraint FKkusvg5o7ul7uqwpq47t4dltp5
+   foreign key (building_id)
+   references building;
+
+alter table if exists condo_file
+   add constraint FKr6n99dskxqbtw2hm936dxbklt
+   foreign key (condo_id)
+   references condo;
+
+alter table if exists employee
+   add constraint FK5v50ed2bjh60n1gc7ifuxmgf4
+   foreign key (company_id)
+   references company;
+
+alter table if exists employee_assignment
+   add constraint FK1e26msluwewg7utw90ue0u9mo
+   foreign key (company_id)
+   references company;
+
+alter table if exists employee_assignment
+   add constraint FK32iqv36db44xvco4il53hyqih
+   foreign key (employee_id)
+   references employee;
+
+alter table if exists employee_assignment
+   add constraint FKs11jfp4rxpd3qoigwsy7bargh
+   foreign key (request_id)
+   references owner_request;
+
+alter table if exists employment_contract
+   add constraint FKdsrea93ojrbcu867p4lx9nell
+   foreign key (building_id)
+   references building;
+
+alter table if exists employment_contract
+   add constraint FK9x1r8x7npqk6rsxjb8jwqgfgk
+   foreign key (company_id)
+   references company;
+
+alter table if exists employment_contract
+   add constraint FK9l8m43d71ay4j0wivy7ue6a80
+   foreign key (employee_id)
+   references employee;
+
+alter table if exists housing_contract
+   add constraint FKmth2kno1fsxhlac4g2541ymnf
+   foreign key (company_id)
+   references company;
+
+alter table if exists housing_contract
+   add constraint FK1x129k6oa64ulia9by6q6x4q4
+   foreign key (condo_id)
+   references condo;
+
+alter table if exists locker
+   add constraint FK5iastkpdmp04r1cri9iysfhy3
+   foreign key (building_id)
+   references building;
+
+alter table if exists locker
+   add constraint FKcemgt8118b2k0f7k4avi76fsy
+   foreign key (condo_id)
+   references condo;
+
+alter table if exists owner_request
+   add constraint FKsakuxes8bbnonpdqkd3l76hqk
+   foreign key (building_id)
+   references building;
+
+alter table if exists owner_request
+   add constraint FKkx56voo9dsgf2dafbrxa8vuxr
+   foreign key (company_id)
+   references company;
+
+alter table if exists owner_request
+   add constraint FKp1r2lexvisijo4iid8dhwkeri
+   foreign key (owner_id)
+   references owner;
+
+alter table if exists parking
+   add constraint FK49a3dishmpiru2rn0mqmlmcrm
+   foreign key (building_id)
+   references building;
+
+alter table if exists parking
+   add constraint FKs6ssmodv5p3xdsui9tiq79r8m
+   foreign key (condo_id)
+   references condo;
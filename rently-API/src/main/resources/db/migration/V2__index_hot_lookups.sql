@@ -0,0 +1,35 @@
+-- Indexes for the lookups that used to scan their whole table, each one is checked against its query plan
+-- by SchemaMigrationTest. CONCURRENTLY keeps the tables writable while they build, Flyway runs this
+-- migration outside a transaction because of it.
+
+-- CommonFacilityReservationRepository#findByCommonFacilityIdAndDate, the booking conflict check
+create index concurrently if not exists idx_common_facility_reservation_facility_date
+    on common_facility_reservation (common_facility_id, date);
+
+-- #findByOccupantIdAndDate and the occupant reservation list (leading column)
+create index concurrently if not exists idx_common_facility_reservation_occupant_date
+    on common_facility_reservation (occupant_id, date);
+
+-- EmployeeAssignmentRepository#findAllDtosByCompanyId (leading column) and the assignments of a company by status
+create index concurrently if not exists idx_employee_assignment_company_status
+    on employee_assignment (company_id, status);
+
+-- #findByOwnerRequestId and the batched status lookup of an owner's requests
+create index concurrently if not exists idx_employee_assignment_request
+    on employee_assignment (request_id);
+
+-- HousingContractRepository#findAllByOccupantId, the occupant condos and dashboard
+create index concurrently if not exists idx_housing_contract_occupant
+    on housing_contract (occupant_id);
+
+-- #findByCondoId and #findByCondoIdAndOccupantId
+create index concurrently if not exists idx_housing_contract_condo
+    on housing_contract (condo_id);
+
+-- OwnerRequestRepository#findAllDtosByOwnerId and the owner request status pages
+create index concurrently if not exists idx_owner_request_owner
+    on owner_request (owner_id);
+
+-- EmploymentContractRepository#findByCompanyIdAndBuildingId
+create index concurrently if not exists idx_employment_contract_company_building
+    on employment_contract (company_id, building_id);
@@ -0,0 +1,60 @@
+-- Reservations get real [start_time, end_time) timestamps instead of the free-form date and its duration, and the
+-- database rejects overlapping reservations of a facility or of an occupant with exclusion constraints.
+
+-- btree_gist lets the integer ids take part in the gist index next to the ranges. It is a trusted extension,
+-- the owner of the database can create it
+create extension if not exists btree_gist;
+
+alter table common_facility_reservation
+    add column start_time timestamp(6),
+    add column end_time timestamp(6);
+
+-- the dates were days, written YYYY-MM-DD or DD-MM-YYYY, and the conflict check treated them as whole days:
+-- the duration was never set by the API. Dates that do not parse (31-02-2024) are left undated
+create function pg_temp.reservation_day(value text, format text) returns timestamp language plpgsql as $$
+begin
+    return to_date(value, format)::timestamp;
+exception when others then
+    return null;
+end $$;
+
+update common_facility_reservation set start_time = pg_temp.reservation_day(date, 'YYYY-MM-DD')
+    where date ~ '^\d{4}-\d{2}-\d{2}$';
+update common_facility_reservation set start_time = pg_temp.reservation_day(date, 'DD-MM-YYYY')
+    where date ~ '^\d{2}-\d{2}-\d{4}$';
+update common_facility_reservation
+    set end_time = start_time + case when duration > 0 then make_interval(mins => duration::int) else interval '1 day' end
+    where start_time is not null;
+
+-- the same day written both ways slipped through the string comparison, the first reservation keeps the slot and
+-- the later ones are left undated: kept for their occupant, ignored by the constraints and the interval index
+update common_facility_reservation r set start_time = null, end_time = null
+    where r.start_time is not null
+      and exists (select 1 from common_facility_reservation o
+                  where o.id < r.id
+                    and o.start_time is not null
+                    and (o.common_facility_id = r.common_facility_id or o.occupant_id = r.occupant_id)
+                    and tsrange(o.start_time, o.end_time) && tsrange(r.start_time, r.end_time));
+
+alter table common_facility_reservation
+    add constraint common_facility_reservation_time_range check (start_time < end_time),
+    add constraint common_facility_reservation_facility_no_overlap
+        exclude using gist (common_facility_id with =, tsrange(start_time, end_time) with &&)
+        where (start_time is not null and end_time is not null),
+    add constraint common_facility_reservation_occupant_no_overlap
+        exclude using gist (occupant_id with =, tsrange(start_time, end_time) with &&)
+        where (start_time is not null and end_time is not null);
+
+-- drops the two (…, date) indexes of V2 with it
+alter table common_facility_reservation
+    drop column date,
+    drop column duration;
+
+-- CommonFacilityReservationRepository#existsOverlappingByCommonFacilityId: the reservations ending after the new
+-- start, the upcoming ones of the facility
+create index idx_common_facility_reservation_facility_end
+    on common_facility_reservation (common_facility_id, end_time);
+
+-- #existsOverlappingByOccupantId and the occupant reservation list (leading column)
+create index idx_common_facility_reservation_occupant_end
+    on common_facility_reservation (occupant_id, end_time);
@@ -0,0 +1,26 @@
+-- Occupants wait in line for a taken slot of a facility and are promoted to a reservation when it frees up, see
+-- ReservationWaitlistServiceImpl. The line is kept here so it survives restarts and is shared by the instances.
+
+create sequence reservation_waitlist_entry_seq start with 1 increment by 50;
+
+create table reservation_waitlist_entry (
+    id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    company_id integer,
+    common_facility_id integer not null,
+    occupant_id integer not null,
+    start_time timestamp(6) not null,
+    end_time timestamp(6) not null,
+    primary key (id),
+    constraint reservation_waitlist_entry_time_range check (start_time < end_time),
+    -- an occupant waits once for a slot, the occupant lookups use it too (leading column)
+    constraint reservation_waitlist_entry_occupant_slot unique (occupant_id, common_facility_id, start_time, end_time),
+    constraint fk_reservation_waitlist_entry_company foreign key (company_id) references company,
+    constraint fk_reservation_waitlist_entry_common_facility foreign key (common_facility_id) references common_facility
+);
+
+-- ReservationWaitlistEntryRepository#lockWaitingOverlapping, the promotion candidates of a freed slot, and the
+-- waiting line of a facility
+create index idx_reservation_waitlist_entry_facility_end
+    on reservation_waitlist_entry (common_facility_id, end_time);
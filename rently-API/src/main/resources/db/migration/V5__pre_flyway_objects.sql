@@ -0,0 +1,74 @@
+-- The tables, columns and indexes added between the baseline and the first migrations, when the schema still came
+-- from ddl-auto. A database baselined at V1 has none of them, one created by ddl-auto after they were added has
+-- some or all of them: every statement is a no-op for what already exists.
+
+-- revoked access tokens, see TokenRevocationService
+create sequence if not exists revoked_token_seq start with 1 increment by 50;
+
+create table if not exists revoked_token (
+    id integer not null,
+    created_date timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    last_modified_date timestamp(6),
+    token_id varchar(255) not null unique,
+    primary key (id)
+);
+
+-- TokenRevocationService purges the expired tokens
+create index if not exists idx_revoked_token_expires_at
+    on revoked_token (expires_at);
+
+-- email -> user type and id, see UserDirectoryService
+create sequence if not exists user_directory_seq start with 1 increment by 50;
+
+create table if not exists user_directory (
+    id integer not null,
+    user_id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    email varchar(255) not null unique,
+    role varchar(255) not null check (role in ('USER','SYSTEM_ADMIN','COMPANY_ADMIN','EMPLOYEE','PUBLIC_USER','OWNER','RENTER')),
+    primary key (id)
+);
+
+-- refresh token families and expiry, see RefreshTokenService
+alter table key
+    add column if not exists family_id varchar(255),
+    add column if not exists expires_at timestamp(6);
+
+-- the family revoked when one of its tokens is reused
+create index if not exists idx_key_family_id
+    on key (family_id);
+
+-- the purge of the expired refresh tokens
+create index if not exists idx_key_expires_at
+    on key (expires_at);
+
+-- the single user table of the single-table-users profile (META-INF/orm-single-table-users.xml), filled from the
+-- table-per-class tables by UserTableMigrationJob. Nothing reads it until that profile is active
+create table if not exists app_user (
+    id integer not null primary key,
+    user_type varchar(31) not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    email varchar(255) unique,
+    password varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    phone_number varchar(255),
+    bio varchar(255),
+    role varchar(255) default 'USER' not null,
+    profile_picture_id integer unique,
+    number_created_companies integer,
+    company_id integer,
+    assignment_count int default 0 not null,
+    employee_type varchar(255) default 'GENERAL' not null,
+    field_to_change_later varchar(255),
+    resident_since_years int default 0 not null,
+    property_owned int default 0 not null,
+    request_count int default 0 not null,
+    property_rented int default 0 not null
+);
+
+-- moved past the legacy user_seq by UserTableMigrationJob before the profile switch
+create sequence if not exists app_user_seq start with 1 increment by 50;
@@ -0,0 +1,20 @@
+-- What happened to an occupant while they were away, e.g. a waitlist entry promoted to a reservation, kept until
+-- they read it. See OccupantNotificationServiceImpl.
+
+create sequence occupant_notification_seq start with 1 increment by 50;
+
+create table occupant_notification (
+    id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    occupant_id integer not null,
+    message varchar(255) not null,
+    -- no foreign key: the notification outlives a cancellation of the reservation
+    common_facility_reservation_id integer,
+    read_date timestamp(6),
+    primary key (id)
+);
+
+-- OccupantNotificationRepository, the notifications of an occupant
+create index idx_occupant_notification_occupant
+    on occupant_notification (occupant_id);
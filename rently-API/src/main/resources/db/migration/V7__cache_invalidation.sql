@@ -0,0 +1,18 @@
+-- Company, Building and CommonFacility are cached per instance (hibernate-cache.conf). Their updates and deletes
+-- are written here in the same transaction and every instance evicts them on its next poll, see
+-- CacheInvalidationService.
+
+create sequence cache_invalidation_seq start with 1 increment by 50;
+
+create table cache_invalidation (
+    id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    entity_name varchar(255) not null,
+    entity_id integer not null,
+    primary key (id)
+);
+
+-- the poll reads the rows written since the previous one, the sweep deletes the old ones
+create index idx_cache_invalidation_created_date
+    on cache_invalidation (created_date);
@@ -0,0 +1,10 @@
+-- The reference a company gives a parking or locker in its own records, e.g. P2-041. It tells a parking or locker
+-- that belongs to no condo apart from the others of its building, so importing the same file again finds it, see
+-- PortfolioImportServiceImpl.
+
+alter table parking add column external_ref varchar(255);
+alter table locker add column external_ref varchar(255);
+
+-- a reference is given once per building, the parkings and lockers without one are not constrained
+alter table parking add constraint parking_building_external_ref unique (building_id, external_ref);
+alter table locker add constraint locker_building_external_ref unique (building_id, external_ref);
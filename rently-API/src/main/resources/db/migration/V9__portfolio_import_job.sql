@@ -0,0 +1,42 @@
+-- The progress of the portfolio imports and the rows they rejected, written by the instance running the import so
+-- the status requests can be answered by any instance, and after a restart. See PortfolioImportServiceImpl.
+
+create sequence portfolio_import_job_seq start with 1 increment by 50;
+create sequence portfolio_import_job_error_seq start with 1 increment by 50;
+
+create table portfolio_import_job (
+    id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    job_id varchar(255) not null,
+    company_id integer not null,
+    section varchar(255) not null,
+    status varchar(255) not null,
+    rows_read bigint not null,
+    rows_imported bigint not null,
+    rows_rejected bigint not null,
+    message varchar(1000),
+    started_at timestamp(6),
+    finished_at timestamp(6),
+    primary key (id),
+    constraint portfolio_import_job_job_id unique (job_id)
+);
+
+-- the sweep deletes the jobs past their retention
+create index idx_portfolio_import_job_created_date
+    on portfolio_import_job (created_date);
+
+create table portfolio_import_job_error (
+    id integer not null,
+    created_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    job_id varchar(255) not null,
+    file_row bigint not null,
+    message varchar(1000) not null,
+    primary key (id),
+    constraint fk_portfolio_import_job_error_job foreign key (job_id) references portfolio_import_job (job_id)
+);
+
+-- the rejected rows of a job, in the order of the file
+create index idx_portfolio_import_job_error_job
+    on portfolio_import_job_error (job_id, file_row);
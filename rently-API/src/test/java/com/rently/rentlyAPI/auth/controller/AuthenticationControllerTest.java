@@ -4,6 +4,7 @@ import com.rently.rentlyAPI.auth.dto.AuthenticationResponseDto;
 import com.rently.rentlyAPI.auth.dto.ChangePasswordRequestDto;
 import com.rently.rentlyAPI.auth.dto.LoginRequestDto;
 import com.rently.rentlyAPI.auth.services.Impl.AuthenticationServiceImpl;
+import com.rently.rentlyAPI.entity.user.PublicUser;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -47,11 +48,11 @@ public class AuthenticationControllerTest {
 
     @Test
     public void testChangePassword() {
-        String token = "dummyToken";
+        PublicUser user = PublicUser.builder().email("user@rently.com").build();
         ChangePasswordRequestDto requestDto = new ChangePasswordRequestDto("oldPassword", "newPassword", "newPassword");
-        when(authenticationService.changePassword(token, requestDto)).thenReturn("Password changed successfully");
+        when(authenticationService.changePassword(user, requestDto)).thenReturn("Password changed successfully");
 
-        ResponseEntity<String> responseEntity = authenticationController.changePassword(token, requestDto);
+        ResponseEntity<String> responseEntity = authenticationController.changePassword(user, requestDto);
 
         assertEquals("Password changed successfully", responseEntity.getBody());
     }
@@ -0,0 +1,121 @@
+package com.rently.rentlyAPI.auth.services;
+
+import com.rently.rentlyAPI.entity.Key;
+import com.rently.rentlyAPI.entity.user.PublicUser;
+import com.rently.rentlyAPI.exceptions.AuthenticationException;
+import com.rently.rentlyAPI.repository.KeyRepository;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.services.UserService;
+import com.rently.rentlyAPI.utils.JwtUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RefreshTokenServiceTest {
+
+    private final KeyRepository keyRepository = mock(KeyRepository.class);
+    private final UserService userService = mock(UserService.class);
+
+    private RefreshTokenService refreshTokenService;
+    private PublicUser user;
+
+    @BeforeEach
+    public void setUp() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretKey", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpiration", 604800000L);
+        ReflectionTestUtils.setField(jwtUtils, "activeKeyId", JwtUtils.DEFAULT_KEY_ID);
+        jwtUtils.initKeys();
+
+        refreshTokenService = new RefreshTokenService(keyRepository, jwtUtils, userService);
+        ReflectionTestUtils.setField(refreshTokenService, "sweepBatchSize", 2);
+
+        user = PublicUser.builder().id(4).email("user@rently.com").role(Role.PUBLIC_USER).build();
+        when(userService.findUserAccordingToTypeWithEmail("user@rently.com")).thenReturn(user);
+    }
+
+    @Test
+    public void testIssueStoresHashOnly() {
+        String token = refreshTokenService.issue(user);
+
+        ArgumentCaptor<Key> saved = ArgumentCaptor.forClass(Key.class);
+        verify(keyRepository).save(saved.capture());
+        assertEquals(RefreshTokenService.hash(token), saved.getValue().getKey());
+        assertNotEquals(token, saved.getValue().getKey());
+        assertNotNull(saved.getValue().getFamilyId());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    public void testRotateIssuesNextTokenInSameFamily() {
+        String token = refreshTokenService.issue(user);
+        Key stored = stored(token, false);
+        when(keyRepository.markUsed(stored.getId())).thenReturn(1);
+
+        RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate(token);
+
+        assertSame(user, rotated.user());
+        assertNotEquals(token, rotated.refreshToken());
+        ArgumentCaptor<Key> saved = ArgumentCaptor.forClass(Key.class);
+        verify(keyRepository, times(2)).save(saved.capture());
+        assertEquals("family", saved.getValue().getFamilyId());
+        verify(keyRepository, never()).revokeFamily(any());
+    }
+
+    @Test
+    public void testReusedTokenRevokesFamily() {
+        String token = refreshTokenService.issue(user);
+        stored(token, true);
+
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(token));
+        verify(keyRepository).revokeFamily("family");
+    }
+
+    @Test
+    public void testConcurrentRotationIsTreatedAsReuse() {
+        String token = refreshTokenService.issue(user);
+        Key stored = stored(token, false);
+        when(keyRepository.markUsed(stored.getId())).thenReturn(0);
+
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(token));
+        verify(keyRepository).revokeFamily("family");
+    }
+
+    @Test
+    public void testUnknownTokenIsRejected() {
+        String token = refreshTokenService.issue(user);
+
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate(token));
+        assertThrows(AuthenticationException.class, () -> refreshTokenService.rotate("not-a-jwt"));
+        verify(keyRepository, never()).markUsed(any());
+    }
+
+    @Test
+    public void testSweepDeletesInBatches() {
+        when(keyRepository.deleteExpiredBatch(any(), eq(2))).thenReturn(2, 2, 1);
+
+        refreshTokenService.sweepExpired();
+
+        verify(keyRepository, times(3)).deleteExpiredBatch(any(), eq(2));
+    }
+
+    private Key stored(String token, boolean revoked) {
+        Key key = Key.builder()
+                .id(10)
+                .key(RefreshTokenService.hash(token))
+                .isActive(true)
+                .revoked(revoked)
+                .familyId("family")
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build();
+        when(keyRepository.findByKey(RefreshTokenService.hash(token))).thenReturn(key);
+        return key;
+    }
+}
@@ -0,0 +1,86 @@
+package com.rently.rentlyAPI.auth.services;
+
+import com.rently.rentlyAPI.auth.entity.RevokedToken;
+import com.rently.rentlyAPI.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedRevocations", 100);
+        when(revokedTokenRepository.findAllByExpiresAtAfter(any())).thenReturn(List.of(
+                RevokedToken.builder().tokenId("loaded").expiresAt(LocalDateTime.now().plusHours(1)).build()
+        ));
+        tokenRevocationService.loadRevokedTokens();
+    }
+
+    @Test
+    public void testRevokedTokensAreLoadedOnStartup() {
+        assertTrue(tokenRevocationService.isRevoked("loaded"));
+        assertFalse(tokenRevocationService.isRevoked("unknown"));
+        assertFalse(tokenRevocationService.isRevoked(null));
+    }
+
+    @Test
+    public void testRevokePersistsAndRejects() {
+        tokenRevocationService.revoke("jti", new Date(System.currentTimeMillis() + 60000));
+
+        assertTrue(tokenRevocationService.isRevoked("jti"));
+        verify(revokedTokenRepository, times(1)).save(argThat(token -> token.getTokenId().equals("jti")));
+    }
+
+    @Test
+    public void testRevokeAlreadyExpiredTokenIsNotKept() {
+        tokenRevocationService.revoke("expired", new Date(System.currentTimeMillis() - 60000));
+
+        assertFalse(tokenRevocationService.isRevoked("expired"));
+    }
+
+    @Test
+    public void testSynchronizePicksUpOtherInstancesRevocations() {
+        when(revokedTokenRepository.findAllByCreationDateAfterAndExpiresAtAfter(any(), any())).thenReturn(List.of(
+                RevokedToken.builder().tokenId("remote").expiresAt(LocalDateTime.now().plusHours(1)).build()
+        ));
+
+        tokenRevocationService.synchronize();
+
+        assertTrue(tokenRevocationService.isRevoked("remote"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSweepForgetsExpiredRevocations() {
+        tokenRevocationService.revoke("short", new Date(System.currentTimeMillis() + 60000));
+        Map<String, LocalDateTime> revokedTokens = (Map<String, LocalDateTime>) ReflectionTestUtils.getField(tokenRevocationService, "revokedTokens");
+        revokedTokens.put("stale", LocalDateTime.now().minusMinutes(1));
+        when(revokedTokenRepository.deleteAllExpired(any())).thenReturn(1);
+
+        tokenRevocationService.sweepExpired();
+
+        assertTrue(tokenRevocationService.isRevoked("short"));
+        assertTrue(tokenRevocationService.isRevoked("loaded"));
+        assertFalse(tokenRevocationService.isRevoked("stale"));
+        verify(revokedTokenRepository, times(1)).deleteAllExpired(any());
+    }
+}
@@ -0,0 +1,87 @@
+package com.rently.rentlyAPI.config;
+
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.repository.CompanyRepository;
+import com.rently.rentlyAPI.utils.EmbeddedPostgresExtension;
+import com.rently.rentlyAPI.utils.EmbeddedPostgresJpaTest;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two embedded Postgres with the same schema but their own rows, the repositories tell which one they read.
+ */
+@Import(ReadReplicaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "application.datasource.replica.enabled=true",
+        "application.datasource.replica.sticky-window=60000"
+})
+class ReadReplicaConfigTest extends EmbeddedPostgresJpaTest {
+
+    // the primary is the postgres of EmbeddedPostgresJpaTest
+    @RegisterExtension
+    static final EmbeddedPostgresExtension replica = new EmbeddedPostgresExtension();
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @BeforeAll
+    static void loadReplica() {
+        Flyway.configure()
+                .dataSource(replica.getDataSource())
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+        new JdbcTemplate(replica.getDataSource())
+                .update("INSERT INTO company (id, created_date, name) VALUES (nextval('company_seq'), now(), 'Replica Co')");
+    }
+
+    @DynamicPropertySource
+    static void replicaDatasource(DynamicPropertyRegistry registry) {
+        replica.registerDataSource(registry, "application.datasource.replica");
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testWritesGoToThePrimaryAndReadOnlyQueriesToTheReplica() {
+        companyRepository.save(Company.builder().name("Primary Co").build());
+
+        assertEquals(List.of("Replica Co"), companyNames());
+    }
+
+    @Test
+    void testTheWriterReadsItsOwnWriteFromThePrimary() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("admin@rently.com", null, List.of()));
+
+        companyRepository.save(Company.builder().name("Sticky Co").build());
+
+        assertTrue(companyNames().contains("Sticky Co"));
+    }
+
+    private List<String> companyNames() {
+        return companyRepository.findAll().stream().map(Company::getName).toList();
+    }
+}
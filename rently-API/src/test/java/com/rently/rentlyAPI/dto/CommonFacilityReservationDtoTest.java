@@ -4,6 +4,8 @@ import com.rently.rentlyAPI.entity.CommonFacility;
 import com.rently.rentlyAPI.entity.CommonFacilityReservation;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDateTime;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 
@@ -14,7 +16,8 @@ public class CommonFacilityReservationDtoTest {
     public void testFromEntity() {
         CommonFacilityReservation commonFacilityReservation = new CommonFacilityReservation();
         commonFacilityReservation.setId(1);
-        commonFacilityReservation.setDate("2024-03-21");
+        commonFacilityReservation.setStartTime(LocalDateTime.of(2024, 3, 21, 18, 0));
+        commonFacilityReservation.setEndTime(LocalDateTime.of(2024, 3, 21, 20, 0));
 
         CommonFacility commonFacility = new CommonFacility();
         commonFacility.setId(1);
@@ -24,14 +27,16 @@ public class CommonFacilityReservationDtoTest {
 
         assertEquals(commonFacilityReservation.getId(), commonFacilityReservationDto.getId());
         assertEquals(commonFacilityReservation.getCommonFacility().getId(), commonFacilityReservationDto.getCommonFacilityId());
-        assertEquals(commonFacilityReservation.getDate(), commonFacilityReservationDto.getReservationDate());
+        assertEquals(commonFacilityReservation.getStartTime(), commonFacilityReservationDto.getStartTime());
+        assertEquals(commonFacilityReservation.getEndTime(), commonFacilityReservationDto.getEndTime());
     }
 
     @Test
     public void testToEntity() {
         CommonFacilityReservationDto commonFacilityReservationDto = CommonFacilityReservationDto.builder()
                 .commonFacilityId(0)
-                .reservationDate("2024-03-21")
+                .startTime(LocalDateTime.of(2024, 3, 21, 18, 0))
+                .endTime(LocalDateTime.of(2024, 3, 21, 20, 0))
                 .build();
 
         CommonFacility commonFacility = mock(CommonFacility.class);
@@ -41,6 +46,7 @@ public class CommonFacilityReservationDtoTest {
         commonFacilityReservation.setCommonFacility(commonFacility);
 
         assertEquals(commonFacilityReservationDto.getCommonFacilityId(), commonFacilityReservation.getCommonFacility().getId());
-        assertEquals(commonFacilityReservationDto.getReservationDate(), commonFacilityReservation.getDate());
+        assertEquals(commonFacilityReservationDto.getStartTime(), commonFacilityReservation.getStartTime());
+        assertEquals(commonFacilityReservationDto.getEndTime(), commonFacilityReservation.getEndTime());
     }
 }
@@ -4,6 +4,8 @@ import com.rently.rentlyAPI.entity.user.Occupant;
 import com.rently.rentlyAPI.entity.user.Owner;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDateTime;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -30,8 +32,8 @@ public class CommonFacilityReservationTest {
         commonFacilityReservation.setCompany(company); // Set company
         commonFacilityReservation.setCommonFacility(commonFacility); // Set common facility
         commonFacilityReservation.setOccupant(occupant); // Set occupant
-        commonFacilityReservation.setDuration(60); // Set duration
-        commonFacilityReservation.setDate("2024-03-21"); // Set date
+        commonFacilityReservation.setStartTime(LocalDateTime.of(2024, 3, 21, 18, 0)); // Set start time
+        commonFacilityReservation.setEndTime(LocalDateTime.of(2024, 3, 21, 19, 0)); // Set end time
 
         // Assert that the CommonFacilityReservation entity is not null
         assertNotNull(commonFacilityReservation);
@@ -41,7 +43,7 @@ public class CommonFacilityReservationTest {
         assertEquals(company, commonFacilityReservation.getCompany());
         assertEquals(commonFacility, commonFacilityReservation.getCommonFacility());
         assertEquals(occupant, commonFacilityReservation.getOccupant());
-        assertEquals(60, commonFacilityReservation.getDuration());
-        assertEquals("2024-03-21", commonFacilityReservation.getDate());
+        assertEquals(LocalDateTime.of(2024, 3, 21, 18, 0), commonFacilityReservation.getStartTime());
+        assertEquals(LocalDateTime.of(2024, 3, 21, 19, 0), commonFacilityReservation.getEndTime());
     }
 }
@@ -20,10 +20,11 @@ public class ParkingTest {
         Building building = new Building();
         Condo condo = new Condo();
 
-        Parking parking = new Parking(building, 100L, condo);
+        Parking parking = new Parking(building, 100L, "P-1", condo);
 
         assertEquals(building, parking.getBuilding());
         assertEquals(100L, parking.getParkingFee());
+        assertEquals("P-1", parking.getExternalRef());
         assertEquals(condo, parking.getCondo());
     }
 
@@ -4,6 +4,7 @@ import com.rently.rentlyAPI.exceptions.AuthenticationException;
 import com.rently.rentlyAPI.exceptions.FileUploadException;
 import com.rently.rentlyAPI.exceptions.ObjectValidationException;
 import com.rently.rentlyAPI.exceptions.OperationNonPermittedException;
+import com.rently.rentlyAPI.exceptions.ServiceUnavailableException;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -161,5 +162,19 @@ public class GlobalExceptionHandlerTest {
         assertEquals("errorMessage", testResponseEntity.getBody().getErrorMessage());
     }
 
+    @Test
+    public void testHandleServiceUnavailableException() {
+        // Arrange
+        GlobalExceptionHandler testGlobalExceptionHandler = new GlobalExceptionHandler();
+
+        // Act
+        ResponseEntity<ExceptionRepresentation> testResponseEntity = testGlobalExceptionHandler.handleException(new ServiceUnavailableException("errorMsg"));
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, testResponseEntity.getStatusCode());
+        assertEquals("1", testResponseEntity.getHeaders().getFirst("Retry-After"));
+        assertEquals("errorMsg", testResponseEntity.getBody().getErrorMessage());
+    }
+
 
 }
@@ -0,0 +1,95 @@
+package com.rently.rentlyAPI.migration;
+
+import com.rently.rentlyAPI.utils.EmbeddedPostgresExtension;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Databases created by ddl-auto before the migrations existed are baselined at V1, the later migrations must bring
+ * them to the schema a new database gets.
+ */
+class BaselineMigrationTest {
+
+    // tables, their columns and indexes of the schema
+    private static final String COLUMNS = "SELECT table_name || '.' || column_name || ' ' || data_type || ' ' || is_nullable "
+            + "FROM information_schema.columns WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history' ORDER BY 1";
+    private static final String INDEXES = "SELECT tablename || '.' || indexname FROM pg_indexes WHERE schemaname = 'public' "
+            + "AND tablename <> 'flyway_schema_history' ORDER BY 1";
+
+    @RegisterExtension
+    static final EmbeddedPostgresExtension postgres = new EmbeddedPostgresExtension();
+
+    private static DataSource migrated;
+
+    @BeforeAll
+    static void migrateNewDatabase() {
+        migrated = database("migrated");
+        flyway(migrated).migrate();
+    }
+
+    @Test
+    void testADatabaseCreatedAtTheBaselineGetsTheObjectsAddedSince() throws IOException {
+        DataSource baseline = database("baseline");
+        new JdbcTemplate(baseline).execute(script("V1__baseline.sql"));
+
+        flyway(baseline).migrate();
+
+        assertSameSchema(migrated, baseline);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(baseline);
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7", "8", "9"), jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank", String.class));
+    }
+
+    @Test
+    void testADatabaseCreatedAfterTheAuthTablesKeepsThem() throws IOException {
+        // ddl-auto created revoked_token, user_directory and the key columns before they had a migration
+        DataSource later = database("later");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(later);
+        jdbcTemplate.execute(script("V1__baseline.sql"));
+        jdbcTemplate.execute(script("V5__pre_flyway_objects.sql"));
+        jdbcTemplate.update("INSERT INTO revoked_token (id, created_date, expires_at, token_id) VALUES (1, now(), now(), 'jti')");
+
+        flyway(later).migrate();
+
+        assertSameSchema(migrated, later);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM revoked_token", Integer.class));
+    }
+
+    private static void assertSameSchema(DataSource expected, DataSource actual) {
+        JdbcTemplate expectedTemplate = new JdbcTemplate(expected);
+        JdbcTemplate actualTemplate = new JdbcTemplate(actual);
+        assertEquals(expectedTemplate.queryForList(COLUMNS, String.class), actualTemplate.queryForList(COLUMNS, String.class));
+        assertEquals(expectedTemplate.queryForList(INDEXES, String.class), actualTemplate.queryForList(INDEXES, String.class));
+    }
+
+    private static DataSource database(String name) {
+        new JdbcTemplate(postgres.getDataSource()).execute("CREATE DATABASE " + name);
+        return postgres.getDataSource(name);
+    }
+
+    // the same settings as spring.flyway in application.yml and FlywayConfig
+    private static Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load();
+    }
+
+    private static String script(String name) throws IOException {
+        return new ClassPathResource("db/migration/" + name).getContentAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,116 @@
+package com.rently.rentlyAPI.migration;
+
+import com.rently.rentlyAPI.utils.EmbeddedPostgresExtension;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrates reservations made with the free-form dates up to V3, then checks the exclusion constraints it adds.
+ */
+class ReservationTimeRangeMigrationTest {
+
+    @RegisterExtension
+    static final EmbeddedPostgresExtension postgres = new EmbeddedPostgresExtension();
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateLegacyReservations() {
+        jdbcTemplate = new JdbcTemplate(postgres.getDataSource());
+        migrate("2");
+        jdbcTemplate.execute("""
+                INSERT INTO company (id, created_date, name) VALUES (1, now(), 'Rently');
+                INSERT INTO building (id, created_date, company_id, name) VALUES (1, now(), 1, 'Tower');
+                INSERT INTO common_facility (id, created_date, building_id, name)
+                    VALUES (1, now(), 1, 'Pool'), (2, now(), 1, 'Gym');
+                INSERT INTO owner (id, created_date, email, role)
+                    SELECT g, now(), 'owner' || g || '@rently.com', 'OWNER' FROM generate_series(1, 5) g;
+                INSERT INTO common_facility_reservation (id, created_date, company_id, common_facility_id, occupant_id, date, duration)
+                    VALUES (1, now(), 1, 1, 1, '2024-03-21', 0),
+                           (2, now(), 1, 1, 2, '21-03-2024', 0),
+                           (3, now(), 1, 2, 3, '2024-03-21', 90),
+                           (4, now(), 1, 2, 4, '31-02-2024', 0),
+                           (5, now(), 1, 2, 5, 'next friday', 0);
+                """);
+        migrate("3");
+    }
+
+    @Test
+    void testLegacyDatesBecomeTimeRanges() {
+        assertRange(1, LocalDateTime.of(2024, 3, 21, 0, 0), LocalDateTime.of(2024, 3, 22, 0, 0));
+        assertRange(3, LocalDateTime.of(2024, 3, 21, 0, 0), LocalDateTime.of(2024, 3, 21, 1, 30));
+    }
+
+    @Test
+    void testDuplicateAndUnreadableDatesAreLeftUndated() {
+        for (int id : new int[]{2, 4, 5}) {
+            Map<String, Object> row = row(id);
+            assertNull(row.get("start_time"), "reservation " + id);
+            assertNull(row.get("end_time"), "reservation " + id);
+        }
+    }
+
+    @Test
+    void testOverlappingReservationsOfAFacilityAreRejected() {
+        insert(10, 1, 1, "2025-01-10 18:00", "2025-01-10 20:00");
+
+        assertExclusionViolation(() -> insert(11, 1, 2, "2025-01-10 19:00", "2025-01-10 21:00"));
+        insert(12, 1, 2, "2025-01-10 20:00", "2025-01-10 21:00");
+        insert(13, 2, 3, "2025-01-10 19:00", "2025-01-10 21:00");
+    }
+
+    @Test
+    void testOverlappingReservationsOfAnOccupantAreRejected() {
+        insert(20, 1, 4, "2025-02-10 18:00", "2025-02-10 20:00");
+
+        assertExclusionViolation(() -> insert(21, 2, 4, "2025-02-10 19:00", "2025-02-10 21:00"));
+    }
+
+    @Test
+    void testEmptyOrReversedRangesAreRejected() {
+        assertThrows(DataIntegrityViolationException.class, () -> insert(30, 1, 5, "2025-03-10 18:00", "2025-03-10 18:00"));
+        assertThrows(DataIntegrityViolationException.class, () -> insert(31, 1, 5, "2025-03-10 18:00", "2025-03-10 17:00"));
+    }
+
+    private static void migrate(String target) {
+        Flyway.configure()
+                .dataSource(postgres.getDataSource())
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private static void insert(int id, int facilityId, int occupantId, String start, String end) {
+        jdbcTemplate.update("INSERT INTO common_facility_reservation " +
+                        "(id, created_date, company_id, common_facility_id, occupant_id, start_time, end_time) " +
+                        "VALUES (?, now(), 1, ?, ?, ?::timestamp, ?::timestamp)",
+                id, facilityId, occupantId, start, end);
+    }
+
+    private static void assertExclusionViolation(Runnable insert) {
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class, insert::run);
+        assertEquals("23P01", ((SQLException) e.getMostSpecificCause()).getSQLState());
+    }
+
+    private static void assertRange(int id, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> row = row(id);
+        assertEquals(start, ((Timestamp) row.get("start_time")).toLocalDateTime());
+        assertEquals(end, ((Timestamp) row.get("end_time")).toLocalDateTime());
+    }
+
+    private static Map<String, Object> row(int id) {
+        return jdbcTemplate.queryForMap("SELECT start_time, end_time FROM common_facility_reservation WHERE id = ?", id);
+    }
+}
@@ -0,0 +1,141 @@
+package com.rently.rentlyAPI.migration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rently.rentlyAPI.utils.EmbeddedPostgresJpaTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations on a real Postgres, lets Hibernate validate the entities against the result, and checks
+ * with EXPLAIN that every index of V2 is what serves its lookup on a realistically sized table.
+ */
+class SchemaMigrationTest extends EmbeddedPostgresJpaTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testMigrationsAreAppliedInOrder() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank", String.class);
+
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7", "8", "9"), versions);
+    }
+
+    @Test
+    void testEachIndexServesItsLookup() {
+        loadPortfolio();
+
+        assertIndexServes("idx_common_facility_reservation_facility_end",
+                "SELECT * FROM common_facility_reservation WHERE common_facility_id = 42 " +
+                        "AND end_time > '2024-12-01 18:00' AND start_time < '2024-12-01 20:00'");
+        // without it the gist index of the occupant exclusion constraint serves the lookup, only slower
+        assertIndexServes("idx_common_facility_reservation_occupant_end",
+                "SELECT * FROM common_facility_reservation WHERE occupant_id = 4242 " +
+                        "AND end_time > '2024-12-01 18:00' AND start_time < '2024-12-01 20:00'", 4);
+        assertIndexServes("idx_common_facility_reservation_occupant_end",
+                "SELECT * FROM common_facility_reservation WHERE occupant_id = 4242 ORDER BY id");
+        // each company holds 1% of the assignments, the index saves less than on the point lookups
+        assertIndexServes("idx_employee_assignment_company_status",
+                "SELECT * FROM employee_assignment WHERE company_id = 7 AND status = 'IN_PROGRESS'", 4);
+        assertIndexServes("idx_employee_assignment_company_status",
+                "SELECT * FROM employee_assignment WHERE company_id = 7 ORDER BY id", 2);
+        assertIndexServes("idx_employee_assignment_request",
+                "SELECT * FROM employee_assignment WHERE request_id = 4242");
+        assertIndexServes("idx_housing_contract_occupant",
+                "SELECT * FROM housing_contract WHERE occupant_id = 4242");
+        assertIndexServes("idx_housing_contract_condo",
+                "SELECT * FROM housing_contract WHERE condo_id = 4242");
+        assertIndexServes("idx_owner_request_owner",
+                "SELECT * FROM owner_request WHERE owner_id = 4242 ORDER BY id");
+        assertIndexServes("idx_employment_contract_company_building",
+                "SELECT * FROM employment_contract WHERE company_id = 7 AND building_id = 107");
+    }
+
+    private void assertIndexServes(String index, String query) {
+        assertIndexServes(index, query, 10);
+    }
+
+    /**
+     * The plan must use the index, and without it (dropped in a savepoint) the same query must cost at least
+     * minSpeedup times more.
+     */
+    private void assertIndexServes(String index, String query, int minSpeedup) {
+        JsonNode withIndex = plan(query);
+        assertTrue(indexesUsed(withIndex).contains(index), index + " is not used by " + query + ": " + withIndex);
+
+        jdbcTemplate.execute("SAVEPOINT without_index");
+        jdbcTemplate.execute("DROP INDEX " + index);
+        JsonNode withoutIndex = plan(query);
+        jdbcTemplate.execute("ROLLBACK TO SAVEPOINT without_index");
+
+        double cost = withIndex.get("Total Cost").asDouble();
+        double costWithoutIndex = withoutIndex.get("Total Cost").asDouble();
+        assertTrue(cost * minSpeedup < costWithoutIndex,
+                index + " only brings " + query + " from " + costWithoutIndex + " down to " + cost);
+    }
+
+    private JsonNode plan(String query) {
+        String json = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + query, String.class);
+        try {
+            return objectMapper.readTree(json).get(0).get("Plan");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> indexesUsed(JsonNode node) {
+        List<String> indexes = new ArrayList<>();
+        if (node.has("Index Name")) {
+            indexes.add(node.get("Index Name").asText());
+        }
+        if (node.has("Plans")) {
+            node.get("Plans").forEach(child -> indexes.addAll(indexesUsed(child)));
+        }
+        return indexes;
+    }
+
+    // 100 companies, 20k owners and 50k condos, with 200k reservations of an hour spread over a year
+    private void loadPortfolio() {
+        jdbcTemplate.execute("""
+                INSERT INTO company (id, created_date, name)
+                    SELECT g, now(), 'company ' || g FROM generate_series(1, 100) g;
+                INSERT INTO building (id, created_date, company_id, name)
+                    SELECT g, now(), 1 + g % 100, 'building ' || g FROM generate_series(1, 1000) g;
+                INSERT INTO common_facility (id, created_date, building_id, name)
+                    SELECT g, now(), 1 + g % 1000, 'facility ' || g FROM generate_series(1, 2000) g;
+                INSERT INTO condo (id, created_date, building_id, unit_number, status)
+                    SELECT g, now(), 1 + g % 1000, g, 'AVAILABLE' FROM generate_series(1, 50000) g;
+                INSERT INTO owner (id, created_date, email, role)
+                    SELECT g, now(), 'owner' || g || '@rently.com', 'OWNER' FROM generate_series(1, 20000) g;
+                INSERT INTO employee (id, created_date, company_id, email, role)
+                    SELECT g, now(), 1 + g % 100, 'employee' || g || '@rently.com', 'EMPLOYEE' FROM generate_series(1, 2000) g;
+                INSERT INTO owner_request (id, created_date, company_id, owner_id, building_id)
+                    SELECT g, now(), 1 + g % 100, 1 + g % 20000, 1 + g % 1000 FROM generate_series(1, 50000) g;
+                INSERT INTO employee_assignment (id, created_date, company_id, employee_id, request_id, status)
+                    SELECT g, now(), 1 + g % 100, 1 + g % 2000, g,
+                           (ARRAY['NOT_ASSIGNED', 'ASSIGNED', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED'])[1 + g / 100 % 5]
+                    FROM generate_series(1, 50000) g;
+                INSERT INTO housing_contract (id, created_date, company_id, condo_id, occupant_id, monthly_rent)
+                    SELECT g, now(), 1 + g % 100, g, 1 + g % 20000, 1000 FROM generate_series(1, 50000) g;
+                INSERT INTO common_facility_reservation (id, created_date, company_id, common_facility_id, occupant_id, start_time, end_time)
+                    SELECT g, now(), 1 + g % 100, 1 + g % 2000, 1 + g % 20000,
+                           timestamp '2024-01-01 08:00' + g / 2000 * interval '3 days 1 hour',
+                           timestamp '2024-01-01 09:00' + g / 2000 * interval '3 days 1 hour'
+                    FROM generate_series(1, 200000) g;
+                INSERT INTO employment_contract (id, created_date, company_id, building_id, employee_id, yearly_salary)
+                    SELECT g, now(), 1 + g % 100, 1 + g % 1000, 1 + g % 2000, 50000 FROM generate_series(1, 20000) g;
+                ANALYZE;
+                """);
+    }
+}
@@ -0,0 +1,167 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.dto.AssignmentUpdateDto;
+import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
+import com.rently.rentlyAPI.entity.AssignmentUpdate;
+import com.rently.rentlyAPI.entity.Building;
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.EmployeeAssignment;
+import com.rently.rentlyAPI.entity.EmploymentContract;
+import com.rently.rentlyAPI.entity.OwnerRequest;
+import com.rently.rentlyAPI.entity.enums.AssignmentStatus;
+import com.rently.rentlyAPI.entity.enums.WorkType;
+import com.rently.rentlyAPI.entity.user.Employee;
+import com.rently.rentlyAPI.entity.user.Owner;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.services.EmployeeAssignmentService;
+import com.rently.rentlyAPI.services.impl.AssignmentUpdateServiceImpl;
+import com.rently.rentlyAPI.services.impl.EmployeeAssignmentServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Without open-session-in-view the entities are detached once the service returns: whatever the DTOs map has to be
+ * fetched inside the service transaction, in as few statements as the entity graphs allow.
+ */
+@DataJpaTest
+@Import({EmployeeAssignmentServiceImpl.class, AssignmentUpdateServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fetch-plans;NON_KEYWORDS=KEY,VALUE,USER",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class FetchPlanTest {
+
+    @TestConfiguration
+    static class AuditConfig {
+        @Bean
+        AuditorAware<Integer> auditorAware() {
+            return Optional::empty;
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EmployeeAssignmentService employeeAssignmentService;
+    @Autowired
+    private EmploymentContractRepository employmentContractRepository;
+
+    private Statistics statistics;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void testAssignmentIsMappedWithItsUpdatesInOneStatement() {
+        EmployeeAssignment assignment = persistAssignment("fetch-one");
+
+        EmployeeAssignmentDto byEmployee = countingStatements(1, () -> employeeAssignmentService
+                .getAssignmentByEmployeeIdAndAssignmentId(assignment.getEmployee().getId(), assignment.getId()));
+        EmployeeAssignmentDto byRequest = countingStatements(1, () -> employeeAssignmentService
+                .getEmployeeAssignmentByOwnerRequestId(assignment.getOwnerRequest().getId()));
+
+        assertEquals(List.of("NOT_ASSIGNED", "ASSIGNED"),
+                byEmployee.getAssignmentUpdates().stream().map(AssignmentUpdateDto::getStatus).toList());
+        assertEquals(byEmployee.getAssignmentUpdates(), byRequest.getAssignmentUpdates());
+    }
+
+    @Test
+    void testStatusUpdateAppendsToTheFetchedUpdates() {
+        EmployeeAssignment assignment = persistAssignment("fetch-two");
+
+        AssignmentUpdateDto update = AssignmentUpdateDto.builder().status("COMPLETED").comment("done").build();
+        employeeAssignmentService.updateAssignmentStatus(assignment.getId(), update);
+
+        EmployeeAssignmentDto updated = employeeAssignmentService
+                .getEmployeeAssignmentByOwnerRequestId(assignment.getOwnerRequest().getId());
+        assertEquals("COMPLETED", updated.getStatus());
+        assertEquals(3, updated.getAssignmentUpdates().size());
+    }
+
+    @Test
+    void testContractsAreReadWithTheirEmployees() {
+        EmployeeAssignment assignment = persistAssignment("fetch-three");
+        Building building = assignment.getOwnerRequest().getBuilding();
+        inTransaction(() -> {
+            entityManager.persist(EmploymentContract.builder().company(assignment.getCompany()).building(building)
+                    .employee(assignment.getEmployee()).yearlySalary(50000).build());
+            return null;
+        });
+
+        List<EmploymentContract> contracts = countingStatements(1, () -> employmentContractRepository
+                .findByCompanyIdAndBuildingId(assignment.getCompany().getId(), building.getId()));
+
+        assertEquals(WorkType.GENERAL, contracts.get(0).getEmployee().getEmployeeType());
+    }
+
+    private EmployeeAssignment persistAssignment(String name) {
+        return inTransaction(() -> {
+            Company company = Company.builder().name(name).build();
+            entityManager.persist(company);
+            Building building = Building.builder().name(name).address("1 Main St").company(company).build();
+            entityManager.persist(building);
+            Employee employee = Employee.builder().email(name + "-employee@rently.com").password("p").firstName("E")
+                    .lastName("M").role(Role.EMPLOYEE).company(company).employeeType(WorkType.GENERAL).build();
+            entityManager.persist(employee);
+            Owner owner = Owner.builder().email(name + "-owner@rently.com").password("p").firstName("O").lastName("W")
+                    .role(Role.OWNER).build();
+            entityManager.persist(owner);
+            OwnerRequest request = OwnerRequest.builder().company(company).owner(owner).building(building)
+                    .workType(WorkType.GENERAL).requestDescription("leak").build();
+            entityManager.persist(request);
+            EmployeeAssignment assignment = EmployeeAssignment.builder().company(company).ownerRequest(request)
+                    .employee(employee).workType(WorkType.GENERAL).status(AssignmentStatus.ASSIGNED).build();
+            entityManager.persist(assignment);
+            entityManager.persist(AssignmentUpdate.builder().employeeAssignment(assignment)
+                    .status(AssignmentStatus.NOT_ASSIGNED).comment("created").build());
+            entityManager.persist(AssignmentUpdate.builder().employeeAssignment(assignment)
+                    .status(AssignmentStatus.ASSIGNED).comment("assigned").build());
+            return assignment;
+        });
+    }
+
+    // the call runs outside any transaction of the test, the result is detached when it is checked
+    private <T> T countingStatements(long expected, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        assertEquals(expected, statistics.getPrepareStatementCount());
+        return result;
+    }
+
+    private <T> T inTransaction(Supplier<T> step) {
+        return transactionTemplate.execute(status -> step.get());
+    }
+}
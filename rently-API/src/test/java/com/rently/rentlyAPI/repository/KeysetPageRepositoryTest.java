@@ -0,0 +1,257 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.dto.CommonFacilityDto;
+import com.rently.rentlyAPI.dto.CompanyAdminDto;
+import com.rently.rentlyAPI.dto.CondoDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
+import com.rently.rentlyAPI.dto.PageQueryDto;
+import com.rently.rentlyAPI.entity.Building;
+import com.rently.rentlyAPI.entity.CommonFacility;
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.Condo;
+import com.rently.rentlyAPI.entity.Parking;
+import com.rently.rentlyAPI.entity.enums.CondoStatus;
+import com.rently.rentlyAPI.entity.user.CompanyAdmin;
+import com.rently.rentlyAPI.exceptions.ObjectValidationException;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.services.impl.CommonFacilityServiceImpl;
+import com.rently.rentlyAPI.services.impl.CompanyAdminServiceImpl;
+import com.rently.rentlyAPI.services.impl.CondoServiceImpl;
+import com.rently.rentlyAPI.utils.KeysetPageRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every page is one statement, the pages cover the rows exactly once and the filters are applied in SQL.
+ */
+@DataJpaTest
+@Import(KeysetPageRepository.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:keyset-pages;NON_KEYWORDS=KEY,VALUE,USER",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Parking puts @NotBlank on its fee, which bean validation cannot check on a long
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none"
+})
+class KeysetPageRepositoryTest {
+
+    @TestConfiguration
+    static class AuditConfig {
+        @Bean
+        AuditorAware<Integer> auditorAware() {
+            return Optional::empty;
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CondoRepository condoRepository;
+    @Autowired
+    private KeysetPageRepository keysetPageRepository;
+
+    private Statistics statistics;
+    private CondoServiceImpl condoService;
+    private Company company;
+    private Building building;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        condoService = new CondoServiceImpl(condoRepository, keysetPageRepository, null);
+        company = Company.builder().name("Rently").build();
+        entityManager.persist(company);
+        building = persistBuilding("Tower");
+    }
+
+    @Test
+    void testPagesCoverEveryCondoOnceInIdOrder() {
+        List<Integer> ids = new ArrayList<>();
+        for (int unit = 1; unit <= 25; unit++) {
+            ids.add(persistCondo(building, unit, CondoStatus.AVAILABLE).getId());
+        }
+        entityManager.persist(Parking.builder().building(building).condo(entityManager.find(Condo.class, ids.get(0))).parkingFee(50).build());
+
+        List<Integer> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String current = cursor;
+            CursorPageDto<CondoDto> page = countingStatements(1,
+                    () -> condoService.getCondos(company.getId(), null, null, KeysetPageRequest.of(new PageQueryDto(current, 10, null, null))));
+            page.getItems().forEach(condo -> seen.add(condo.getId()));
+            if (pages == 0) {
+                assertNotNull(page.getItems().get(0).getParkingId());
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(ids, seen);
+    }
+
+    @Test
+    void testLastPageThatIsExactlyFullHasNoCursor() {
+        for (int unit = 1; unit <= 4; unit++) {
+            persistCondo(building, unit, CondoStatus.AVAILABLE);
+        }
+
+        CursorPageDto<CondoDto> first = condoService.getCondos(company.getId(), null, null, KeysetPageRequest.of(new PageQueryDto(null, 2, null, "desc")));
+        CursorPageDto<CondoDto> second = condoService.getCondos(company.getId(), null, null, KeysetPageRequest.of(new PageQueryDto(first.getNextCursor(), 2, null, null)));
+
+        assertEquals(4, first.getItems().get(0).getUnitNumber());
+        // the direction comes from the cursor, not from the request of the next page
+        assertEquals(List.of(2, 1), second.getItems().stream().map(CondoDto::getUnitNumber).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testFiltersAreAppliedBeforePaging() {
+        Building other = persistBuilding("Annex");
+        for (int unit = 1; unit <= 6; unit++) {
+            persistCondo(building, unit, unit % 2 == 0 ? CondoStatus.OWNED : CondoStatus.AVAILABLE);
+            persistCondo(other, unit, CondoStatus.OWNED);
+        }
+
+        CursorPageDto<CondoDto> page = countingStatements(1,
+                () -> condoService.getCondos(company.getId(), building.getId(), CondoStatus.OWNED, KeysetPageRequest.firstPage(10)));
+
+        assertEquals(List.of(2, 4, 6), page.getItems().stream().map(CondoDto::getUnitNumber).toList());
+        assertTrue(page.getItems().stream().allMatch(condo -> condo.getBuildingId().equals(building.getId())));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testOnlyTheCondosAndFacilitiesOfTheCompanyAreListed() {
+        Company rival = Company.builder().name("Rival").build();
+        entityManager.persist(rival);
+        Building rivalBuilding = Building.builder().name("Rival Tower").address("2 Main St").numberOfFloors(5).company(rival).build();
+        entityManager.persist(rivalBuilding);
+        Condo own = persistCondo(building, 1, CondoStatus.AVAILABLE);
+        persistCondo(rivalBuilding, 1, CondoStatus.AVAILABLE);
+        CommonFacility pool = CommonFacility.builder().name("Pool").building(building).build();
+        entityManager.persist(pool);
+        entityManager.persist(CommonFacility.builder().name("Pool").building(rivalBuilding).build());
+        CommonFacilityServiceImpl commonFacilityService = new CommonFacilityServiceImpl(null, keysetPageRepository);
+
+        CursorPageDto<CondoDto> condos = countingStatements(1,
+                () -> condoService.getCondos(company.getId(), null, null, KeysetPageRequest.firstPage(10)));
+        CursorPageDto<CommonFacilityDto> facilities = countingStatements(1,
+                () -> commonFacilityService.getCommonFacilities(company.getId(), null, null, KeysetPageRequest.firstPage(10)));
+
+        assertEquals(List.of(own.getId()), condos.getItems().stream().map(CondoDto::getId).toList());
+        assertEquals(List.of(pool.getId()), facilities.getItems().stream().map(CommonFacilityDto::getId).toList());
+        // naming a building of another company does not widen the scope
+        assertTrue(condoService.getCondos(company.getId(), rivalBuilding.getId(), null, KeysetPageRequest.firstPage(10)).getItems().isEmpty());
+    }
+
+    @Test
+    void testLastModifiedDateSortBreaksTiesById() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        Condo oldest = persistCondo(building, 1, CondoStatus.AVAILABLE);
+        Condo tiedFirst = persistCondo(building, 2, CondoStatus.AVAILABLE);
+        Condo tiedSecond = persistCondo(building, 3, CondoStatus.AVAILABLE);
+        Condo newest = persistCondo(building, 4, CondoStatus.AVAILABLE);
+        entityManager.flush();
+        touch(oldest, now.minusDays(2));
+        touch(tiedFirst, now);
+        touch(tiedSecond, now);
+        touch(newest, now.plusDays(1));
+
+        List<Integer> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDto<CondoDto> page = condoService.getCondos(company.getId(), null, null,
+                    KeysetPageRequest.of(new PageQueryDto(cursor, 1, "lastModifiedDate", "desc")));
+            page.getItems().forEach(condo -> seen.add(condo.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(newest.getId(), tiedSecond.getId(), tiedFirst.getId(), oldest.getId()), seen);
+    }
+
+    @Test
+    void testCompanyAdminsAreFilteredByEmailPrefix() {
+        CompanyAdminServiceImpl companyAdminService = new CompanyAdminServiceImpl(null, null, null, null, null, null,
+                null, null, keysetPageRepository, null, null, null);
+        for (int i = 0; i < 5; i++) {
+            persistCompanyAdmin("admin" + i + "@rently.com");
+        }
+        // the wildcards of the prefix are matched literally
+        persistCompanyAdmin("admin_x@rently.com");
+        persistCompanyAdmin("adminXx@rently.com");
+
+        CursorPageDto<CompanyAdminDto> page = countingStatements(1,
+                () -> companyAdminService.getCompanyAdmins(company.getId(), "admin_", KeysetPageRequest.firstPage(10)));
+
+        assertEquals(List.of("admin_x@rently.com"), page.getItems().stream().map(CompanyAdminDto::getEmail).toList());
+        assertEquals(5, companyAdminService.getCompanyAdmins(null, "admin", KeysetPageRequest.firstPage(5)).getItems().size());
+    }
+
+    @Test
+    void testInvalidPageRequestsAreRejected() {
+        assertThrows(ObjectValidationException.class, () -> KeysetPageRequest.of(new PageQueryDto(null, null, "name", null)));
+        assertThrows(ObjectValidationException.class, () -> KeysetPageRequest.of(new PageQueryDto(null, null, null, "up")));
+        assertThrows(ObjectValidationException.class, () -> KeysetPageRequest.of(new PageQueryDto("garbage", null, null, null)));
+        assertThrows(ObjectValidationException.class, () -> KeysetPageRequest.of(new PageQueryDto(null, 1000, null, null)));
+    }
+
+    private Building persistBuilding(String name) {
+        Building persisted = Building.builder().name(name).address("1 Main St").numberOfFloors(10).company(company).build();
+        entityManager.persist(persisted);
+        return persisted;
+    }
+
+    private Condo persistCondo(Building in, int unitNumber, CondoStatus status) {
+        Condo condo = Condo.builder().address("1 Main St #" + unitNumber).unitNumber(unitNumber)
+                .status(status).building(in).build();
+        entityManager.persist(condo);
+        return condo;
+    }
+
+    private void persistCompanyAdmin(String email) {
+        entityManager.persist(CompanyAdmin.builder().email(email).password("p").firstName("A").lastName("D")
+                .role(Role.COMPANY_ADMIN).company(company).build());
+    }
+
+    // auditing stamps the modification date on every flush, so it is set behind its back
+    private void touch(Condo condo, LocalDateTime lastModifiedDate) {
+        entityManager.createQuery("UPDATE Condo c SET c.lastModifiedDate = :date WHERE c.id = :id")
+                .setParameter("date", lastModifiedDate)
+                .setParameter("id", condo.getId())
+                .executeUpdate();
+    }
+
+    private <T> T countingStatements(long expected, Supplier<T> pageCall) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        T result = pageCall.get();
+        assertEquals(expected, statistics.getPrepareStatementCount());
+        return result;
+    }
+}
@@ -0,0 +1,247 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.dto.CompanyAdminDto;
+import com.rently.rentlyAPI.dto.CondoDto;
+import com.rently.rentlyAPI.dto.CursorPageDto;
+import com.rently.rentlyAPI.dto.EmployeeAssignmentDto;
+import com.rently.rentlyAPI.dto.HousingContractDto;
+import com.rently.rentlyAPI.entity.AssignmentUpdate;
+import com.rently.rentlyAPI.entity.Building;
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.Condo;
+import com.rently.rentlyAPI.entity.EmployeeAssignment;
+import com.rently.rentlyAPI.entity.HousingContract;
+import com.rently.rentlyAPI.entity.Locker;
+import com.rently.rentlyAPI.entity.OwnerRequest;
+import com.rently.rentlyAPI.entity.Parking;
+import com.rently.rentlyAPI.entity.enums.AssignmentStatus;
+import com.rently.rentlyAPI.entity.enums.CondoStatus;
+import com.rently.rentlyAPI.entity.enums.WorkType;
+import com.rently.rentlyAPI.entity.user.CompanyAdmin;
+import com.rently.rentlyAPI.entity.user.Employee;
+import com.rently.rentlyAPI.entity.user.Owner;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.services.impl.AssignmentUpdateServiceImpl;
+import com.rently.rentlyAPI.services.impl.EmployeeAssignmentServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The list endpoints read DTO projections, so the number of statements per call must not grow with the number of rows.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:list-projections;NON_KEYWORDS=KEY,VALUE,USER",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Parking and Locker put @NotBlank on their fees, which bean validation cannot check on a long
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none"
+})
+class ListProjectionQueryTest {
+
+    @TestConfiguration
+    static class AuditConfig {
+        @Bean
+        AuditorAware<Integer> auditorAware() {
+            return Optional::empty;
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CondoRepository condoRepository;
+    @Autowired
+    private CompanyAdminRepository companyAdminRepository;
+    @Autowired
+    private EmployeeAssignmentRepository employeeAssignmentRepository;
+    @Autowired
+    private AssignmentUpdateRepository assignmentUpdateRepository;
+    @Autowired
+    private HousingContractRepository housingContractRepository;
+
+    private Statistics statistics;
+    private Company company;
+    private Building building;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        company = Company.builder().name("Rently").build();
+        entityManager.persist(company);
+        building = Building.builder().name("Tower").address("1 Main St").numberOfFloors(10).company(company).build();
+        entityManager.persist(building);
+    }
+
+    @Test
+    void testCondoListIsASingleStatement() {
+        Condo first = persistCondo(1);
+        Parking parking = Parking.builder().building(building).condo(first).parkingFee(50).build();
+        Locker locker = Locker.builder().building(building).condo(first).lockerFee(20).build();
+        entityManager.persist(parking);
+        entityManager.persist(locker);
+
+        List<CondoDto> condos = countingStatements(1, () -> condoRepository.findAllDtosByBuildingId(building.getId()));
+        assertEquals(1, condos.size());
+        assertEquals(parking.getId(), condos.get(0).getParkingId());
+        assertEquals(locker.getId(), condos.get(0).getLockerId());
+        assertEquals("AVAILABLE", condos.get(0).getStatus());
+
+        for (int unit = 2; unit <= 20; unit++) {
+            persistCondo(unit);
+        }
+        condos = countingStatements(1, () -> condoRepository.findAllDtosByBuildingId(building.getId()));
+        assertEquals(20, condos.size());
+        assertNull(condos.get(19).getParkingId());
+        assertEquals(building.getId(), condos.get(19).getBuildingId());
+    }
+
+    @Test
+    void testCompanyAdminListDoesNotLoadProfilePictures() {
+        for (int i = 0; i < 10; i++) {
+            entityManager.persist(CompanyAdmin.builder().email("admin" + i + "@rently.com").password("p")
+                    .firstName("A").lastName("D").role(Role.COMPANY_ADMIN).company(company).build());
+        }
+
+        List<CompanyAdminDto> companyAdmins = countingStatements(1, () -> companyAdminRepository.findAllDtosByCompanyName("Rently"));
+        assertEquals(10, companyAdmins.size());
+        assertEquals(company.getId(), companyAdmins.get(0).getCompanyId());
+        assertEquals("COMPANY_ADMIN", companyAdmins.get(0).getRole());
+        assertNull(companyAdmins.get(0).getPassword());
+    }
+
+    @Test
+    void testAssignmentListReadsUpdatesInOneExtraStatement() {
+        Employee employee = Employee.builder().email("employee@rently.com").password("p").firstName("E").lastName("M")
+                .role(Role.EMPLOYEE).company(company).employeeType(WorkType.GENERAL).build();
+        entityManager.persist(employee);
+        for (int i = 0; i < 5; i++) {
+            EmployeeAssignment assignment = EmployeeAssignment.builder()
+                    .company(company)
+                    .employee(i % 2 == 0 ? employee : null)
+                    .workType(WorkType.GENERAL)
+                    .status(i % 2 == 0 ? AssignmentStatus.ASSIGNED : AssignmentStatus.NOT_ASSIGNED)
+                    .build();
+            entityManager.persist(assignment);
+            entityManager.persist(AssignmentUpdate.builder().employeeAssignment(assignment)
+                    .status(AssignmentStatus.NOT_ASSIGNED).comment("created").build());
+            if (i % 2 == 0) {
+                entityManager.persist(AssignmentUpdate.builder().employeeAssignment(assignment)
+                        .status(AssignmentStatus.ASSIGNED).comment("assigned").build());
+            }
+        }
+        EmployeeAssignmentServiceImpl employeeAssignmentService = new EmployeeAssignmentServiceImpl(
+                employeeAssignmentRepository, new AssignmentUpdateServiceImpl(assignmentUpdateRepository));
+
+        List<EmployeeAssignmentDto> assignments = countingStatements(2,
+                () -> employeeAssignmentService.getAllEmployeeAssignmentsByCompanyId(company.getId()));
+        assertEquals(5, assignments.size());
+        assertNull(assignments.get(1).getEmployeeId());
+        assertEquals(List.of("NOT_ASSIGNED", "ASSIGNED"),
+                assignments.get(0).getAssignmentUpdates().stream().map(update -> update.getStatus()).toList());
+        assertEquals(1, assignments.get(1).getAssignmentUpdates().size());
+
+        assignments = countingStatements(2, () -> employeeAssignmentService.getAllAssignments(employee.getId()));
+        assertEquals(3, assignments.size());
+        assertTrue(assignments.stream().allMatch(assignment -> assignment.getAssignmentUpdates().size() == 2));
+    }
+
+    @Test
+    void testOccupantDashboardQueriesAreSetBased() {
+        Owner owner = Owner.builder().email("owner@rently.com").password("p").firstName("O").lastName("W").role(Role.OWNER).build();
+        entityManager.persist(owner);
+        for (int unit = 1; unit <= 3; unit++) {
+            entityManager.persist(HousingContract.builder().company(company).occupant(owner).condo(persistCondo(unit))
+                    .monthlyRent(1000).occupantType("OWNER").build());
+        }
+        persistCondo(4);
+        List<Integer> requestIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requestIds.add(persistRequestWithAssignment(owner, i).getId());
+        }
+        EmployeeAssignmentServiceImpl employeeAssignmentService = new EmployeeAssignmentServiceImpl(
+                employeeAssignmentRepository, new AssignmentUpdateServiceImpl(assignmentUpdateRepository));
+
+        List<CondoDto> condos = countingStatements(1, () -> condoRepository.findAllDtosByOccupantId(owner.getId()));
+        assertEquals(3, condos.size());
+        List<HousingContractDto> contracts = countingStatements(1, () -> housingContractRepository.findAllDtosByOccupantId(owner.getId()));
+        assertEquals(condos.stream().map(CondoDto::getId).toList(), contracts.stream().map(HousingContractDto::getCondoId).toList());
+        List<EmployeeAssignmentDto> statuses = countingStatements(2,
+                () -> employeeAssignmentService.getEmployeeAssignmentsByOwnerRequestIds(requestIds));
+        assertEquals(3, statuses.size());
+        assertTrue(statuses.stream().allMatch(status -> status.getAssignmentUpdates().size() == 1));
+    }
+
+    @Test
+    void testRequestStatusesArePagedNewestFirst() {
+        Owner owner = Owner.builder().email("owner@rently.com").password("p").firstName("O").lastName("W").role(Role.OWNER).build();
+        entityManager.persist(owner);
+        for (int i = 0; i < 5; i++) {
+            persistRequestWithAssignment(owner, i);
+        }
+        EmployeeAssignmentServiceImpl employeeAssignmentService = new EmployeeAssignmentServiceImpl(
+                employeeAssignmentRepository, new AssignmentUpdateServiceImpl(assignmentUpdateRepository));
+
+        CursorPageDto<EmployeeAssignmentDto> first = countingStatements(2,
+                () -> employeeAssignmentService.getEmployeeAssignmentsByOwnerId(owner.getId(), null, 3));
+        assertEquals(3, first.getItems().size());
+        assertTrue(first.getItems().get(0).getId() > first.getItems().get(2).getId());
+        assertNotNull(first.getNextCursor());
+        assertEquals(1, first.getItems().get(2).getAssignmentUpdates().size());
+
+        CursorPageDto<EmployeeAssignmentDto> second = countingStatements(2,
+                () -> employeeAssignmentService.getEmployeeAssignmentsByOwnerId(owner.getId(), first.getNextCursor(), 3));
+        assertEquals(2, second.getItems().size());
+        assertTrue(second.getItems().get(0).getId() < first.getItems().get(2).getId());
+        assertNull(second.getNextCursor());
+    }
+
+    private OwnerRequest persistRequestWithAssignment(Owner owner, int index) {
+        OwnerRequest request = OwnerRequest.builder().company(company).owner(owner).building(building)
+                .workType(WorkType.GENERAL).requestDescription("request " + index).build();
+        entityManager.persist(request);
+        EmployeeAssignment assignment = EmployeeAssignment.builder().company(company).ownerRequest(request)
+                .workType(WorkType.GENERAL).status(AssignmentStatus.NOT_ASSIGNED).build();
+        entityManager.persist(assignment);
+        entityManager.persist(AssignmentUpdate.builder().employeeAssignment(assignment)
+                .status(AssignmentStatus.NOT_ASSIGNED).comment("created").build());
+        return request;
+    }
+
+    private Condo persistCondo(int unitNumber) {
+        Condo condo = Condo.builder().address("1 Main St #" + unitNumber).unitNumber(unitNumber)
+                .status(CondoStatus.AVAILABLE).building(building).build();
+        entityManager.persist(condo);
+        return condo;
+    }
+
+    private <T> T countingStatements(long expected, Supplier<T> listCall) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        T result = listCall.get();
+        assertEquals(expected, statistics.getPrepareStatementCount());
+        return result;
+    }
+}
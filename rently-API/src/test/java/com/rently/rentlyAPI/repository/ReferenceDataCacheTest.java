@@ -0,0 +1,247 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.entity.Building;
+import com.rently.rentlyAPI.entity.CacheInvalidation;
+import com.rently.rentlyAPI.entity.CommonFacility;
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.services.CacheInvalidationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every step commits on its own, like separate requests: the cache is only filled and invalidated on commit.
+ */
+@DataJpaTest
+@Import(CacheInvalidationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reference-data-cache;NON_KEYWORDS=KEY,VALUE,USER",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ReferenceDataCacheTest {
+
+    @TestConfiguration
+    static class AuditConfig {
+        @Bean
+        AuditorAware<Integer> auditorAware() {
+            return Optional::empty;
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CompanyRepository companyRepository;
+    @Autowired
+    private BuildingRepository buildingRepository;
+    @Autowired
+    private CommonFacilityRepository commonFacilityRepository;
+    @Autowired
+    private KeyRepository keyRepository;
+    @Autowired
+    private CacheInvalidationRepository cacheInvalidationRepository;
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+    @Autowired
+    private DataSource dataSource;
+
+    private Statistics statistics;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void testEntitiesAreLoadedFromTheCacheAfterTheFirstRead() {
+        CommonFacility facility = persistFacility("Acme", "Tower", "Pool");
+
+        int firstRead = statements(() -> loadAll(facility));
+        int secondRead = statements(() -> loadAll(facility));
+
+        assertEquals(3, firstRead);
+        assertEquals(0, secondRead);
+        assertEquals(3, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void testNaturalIdLookupsAreCached() {
+        persistFacility("Globex", "Annex", "Gym");
+
+        statements(() -> lookUpByName("Globex", "Annex"));
+        int secondLookup = statements(() -> lookUpByName("Globex", "Annex"));
+
+        assertEquals(0, secondLookup);
+        assertEquals(2, statistics.getNaturalIdCacheHitCount());
+        assertEquals(Optional.empty(), inTransaction(() -> companyRepository.findCompanyByName(null)));
+    }
+
+    @Test
+    void testUpdatesAndDeletesInvalidateTheCache() {
+        CommonFacility facility = persistFacility("Initech", "Loft", "Sauna");
+        Integer companyId = facility.getBuilding().getCompany().getId();
+        statements(() -> loadAll(facility));
+        statements(() -> lookUpByName("Initech", "Loft"));
+
+        inTransaction(() -> {
+            companyRepository.findById(companyId).orElseThrow().setName("Initrode");
+            commonFacilityRepository.deleteById(facility.getId());
+            return null;
+        });
+
+        assertEquals("Initrode", inTransaction(() -> companyRepository.findById(companyId).orElseThrow().getName()));
+        assertTrue(inTransaction(() -> companyRepository.findCompanyByName("Initech")).isEmpty());
+        assertEquals(companyId, inTransaction(() -> companyRepository.findCompanyByName("Initrode").orElseThrow().getId()));
+        assertTrue(inTransaction(() -> commonFacilityRepository.findById(facility.getId())).isEmpty());
+    }
+
+    @Test
+    void testUpdatesAndDeletesAreRecordedForTheOtherInstances() {
+        CommonFacility facility = persistFacility("Vandelay", "Depot", "Dock");
+        Integer companyId = facility.getBuilding().getCompany().getId();
+        cacheInvalidationRepository.deleteAll();
+
+        inTransaction(() -> {
+            companyRepository.findById(companyId).orElseThrow().setName("Vandelay Industries");
+            commonFacilityRepository.deleteById(facility.getId());
+            return null;
+        });
+
+        assertEquals(List.of(CommonFacility.class.getName() + "#" + facility.getId(), Company.class.getName() + "#" + companyId),
+                cacheInvalidationRepository.findAll().stream()
+                        .map(change -> change.getEntityName() + "#" + change.getEntityId())
+                        .sorted()
+                        .toList());
+    }
+
+    @Test
+    void testAChangeMadeOnAnotherInstanceIsEvictedOnTheNextSynchronization() {
+        CommonFacility facility = persistFacility("Wonka", "Factory", "River");
+        Integer buildingId = facility.getBuilding().getId();
+        Integer companyId = facility.getBuilding().getCompany().getId();
+        statements(() -> loadAll(facility));
+        statements(() -> lookUpByName("Wonka", "Factory"));
+
+        // another instance renames the building: this one only learns of it from cache_invalidation
+        new JdbcTemplate(dataSource).update("UPDATE building SET name = 'Chocolate Factory' WHERE id = ?", buildingId);
+        inTransaction(() -> cacheInvalidationRepository.save(CacheInvalidation.builder()
+                .entityName(Building.class.getName()).entityId(buildingId).build()));
+        assertEquals("Factory", inTransaction(() -> buildingRepository.findById(buildingId).orElseThrow().getName()));
+        // the authorization checks read the building of a name from the database, not from the cache
+        assertTrue(inTransaction(() -> buildingRepository.findByNameAndCompanyId("Factory", companyId)).isEmpty());
+
+        cacheInvalidationService.synchronize();
+
+        // only the building is read again, the facility and the company are still cached
+        assertEquals(1, statements(() -> loadAll(facility)));
+        assertEquals("Chocolate Factory", inTransaction(() -> buildingRepository.findById(buildingId).orElseThrow().getName()));
+        assertTrue(inTransaction(() -> buildingRepository.findByName("Factory")).isEmpty());
+    }
+
+    @Test
+    void testRefreshTokenSweepLeavesTheCacheAlone() {
+        CommonFacility facility = persistFacility("Umbrella", "Hive", "Lab");
+        statements(() -> loadAll(facility));
+
+        inTransaction(() -> keyRepository.deleteExpiredBatch(LocalDateTime.now(), 100));
+
+        assertEquals(0, statements(() -> loadAll(facility)));
+    }
+
+    @Test
+    void testHitsAndMissesAreExportedPerRegion() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HibernateMetrics.monitor(registry, entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory");
+        CommonFacility facility = persistFacility("Hooli", "Campus", "Court");
+
+        statistics.clear();
+        inTransaction(() -> loadAll(facility));
+        inTransaction(() -> loadAll(facility));
+
+        for (String region : List.of("company", "building", "common-facility")) {
+            assertTrue(requests(registry, region, "miss") >= 1, region);
+            assertTrue(requests(registry, region, "hit") >= 1, region);
+        }
+    }
+
+    // inserts are put in the cache on commit, the reads start from a cold cache
+    private CommonFacility persistFacility(String companyName, String buildingName, String facilityName) {
+        CommonFacility persisted = inTransaction(() -> {
+            Company company = Company.builder().name(companyName).build();
+            entityManager.persist(company);
+            Building building = Building.builder().name(buildingName).address("1 Main St").company(company).build();
+            entityManager.persist(building);
+            CommonFacility facility = CommonFacility.builder().name(facilityName).building(building).build();
+            entityManager.persist(facility);
+            return facility;
+        });
+        entityManagerFactory.getCache().evictAll();
+        return persisted;
+    }
+
+    // the authorization checks load the facility, then its building and company by id
+    private Object loadAll(CommonFacility facility) {
+        CommonFacility loaded = commonFacilityRepository.findById(facility.getId()).orElseThrow();
+        Building building = buildingRepository.findById(facility.getBuilding().getId()).orElseThrow();
+        Company company = companyRepository.findById(facility.getBuilding().getCompany().getId()).orElseThrow();
+        return List.of(loaded.getName(), building.getName(), company.getName());
+    }
+
+    private Object lookUpByName(String companyName, String buildingName) {
+        assertTrue(companyRepository.findCompanyByName(companyName).isPresent());
+        assertTrue(buildingRepository.findByName(buildingName).isPresent());
+        return null;
+    }
+
+    private int statements(Supplier<Object> step) {
+        statistics.clear();
+        inTransaction(step);
+        return (int) statistics.getPrepareStatementCount();
+    }
+
+    private <T> T inTransaction(Supplier<T> step) {
+        return transactionTemplate.execute(status -> step.get());
+    }
+
+    private static double requests(SimpleMeterRegistry registry, String region, String result) {
+        return registry.get("hibernate.second.level.cache.requests")
+                .tags("region", region, "result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,68 @@
+package com.rently.rentlyAPI.repository;
+
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.user.CompanyAdmin;
+import com.rently.rentlyAPI.entity.user.Owner;
+import com.rently.rentlyAPI.entity.user.User;
+import com.rently.rentlyAPI.security.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("single-table-users")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:single-table-users;NON_KEYWORDS=KEY,VALUE,USER",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class UserSingleTableMappingTest {
+
+    @TestConfiguration
+    static class AuditConfig {
+        @Bean
+        AuditorAware<Integer> auditorAware() {
+            return Optional::empty;
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OwnerRepository ownerRepository;
+    @Autowired
+    private CompanyAdminRepository companyAdminRepository;
+    @Autowired
+    private CompanyRepository companyRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAllUserTypesShareTheAppUserTable() {
+        Company company = companyRepository.save(Company.builder().name("Rently").build());
+        ownerRepository.save(Owner.builder().email("owner@rently.com").password("p").firstName("O").lastName("W").role(Role.OWNER).build());
+        companyAdminRepository.save(CompanyAdmin.builder().email("admin@rently.com").password("p").firstName("A").lastName("D")
+                .role(Role.COMPANY_ADMIN).company(company).build());
+        userRepository.flush();
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM app_user WHERE user_type = 'OWNER'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM app_user WHERE user_type = 'COMPANY_ADMIN'", Integer.class));
+
+        User owner = userRepository.findByEmail("owner@rently.com").orElseThrow();
+        assertInstanceOf(Owner.class, owner);
+        CompanyAdmin companyAdmin = (CompanyAdmin) userRepository.findByEmail("admin@rently.com").orElseThrow();
+        assertEquals(company.getId(), companyAdmin.getCompany().getId());
+        assertTrue(ownerRepository.findByEmail("admin@rently.com").isEmpty());
+    }
+}
@@ -0,0 +1,41 @@
+package com.rently.rentlyAPI.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedBCryptPasswordEncoderTest {
+
+    private final PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(2, 4, 5000);
+
+    @AfterEach
+    public void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    public void testEncodeAndMatches() {
+        BoundedBCryptPasswordEncoder encoder = new BoundedBCryptPasswordEncoder(4, passwordHashingExecutor);
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertFalse(encoder.matches("secret", null));
+        assertEquals(3, passwordHashingExecutor.getCompletedTasks());
+    }
+
+    @Test
+    public void testUpgradeEncodingWhenTheStoredCostDiffers() {
+        BoundedBCryptPasswordEncoder encoder = new BoundedBCryptPasswordEncoder(5, passwordHashingExecutor);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(null));
+        assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+    }
+}
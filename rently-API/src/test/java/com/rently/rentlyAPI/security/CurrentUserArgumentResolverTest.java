@@ -0,0 +1,120 @@
+package com.rently.rentlyAPI.security;
+
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.user.CompanyAdmin;
+import com.rently.rentlyAPI.entity.user.Occupant;
+import com.rently.rentlyAPI.entity.user.Owner;
+import com.rently.rentlyAPI.entity.user.User;
+import com.rently.rentlyAPI.exceptions.AuthenticationException;
+import com.rently.rentlyAPI.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CurrentUserArgumentResolverTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver(userService);
+    private final NativeWebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest());
+
+    @SuppressWarnings("unused")
+    private void handler(@CurrentUser AuthenticatedUser currentUser, @CurrentUser Occupant occupant,
+                         @CurrentUser CompanyAdmin companyAdmin, AuthenticatedUser notAnnotated) {
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testSupportsOnlyAnnotatedUserParameters() throws Exception {
+        assertTrue(resolver.supportsParameter(parameter(0)));
+        assertTrue(resolver.supportsParameter(parameter(1)));
+        assertFalse(resolver.supportsParameter(parameter(3)));
+    }
+
+    @Test
+    public void testClaimsPrincipalIsPassedWithoutLookup() throws Exception {
+        AuthenticatedUser principal = claimsPrincipal(Role.COMPANY_ADMIN);
+        authenticate(principal);
+
+        assertSame(principal, resolver.resolveArgument(parameter(0), null, webRequest, null));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    public void testEntityPrincipalIsConvertedToAuthenticatedUser() throws Exception {
+        CompanyAdmin companyAdmin = CompanyAdmin.builder()
+                .id(7).email("admin@rently.com").role(Role.COMPANY_ADMIN)
+                .company(Company.builder().id(3).build())
+                .build();
+        authenticate(companyAdmin);
+
+        AuthenticatedUser resolved = (AuthenticatedUser) resolver.resolveArgument(parameter(0), null, webRequest, null);
+
+        assertEquals(7, resolved.getId());
+        assertEquals(3, resolved.getCompanyId());
+        assertEquals(Role.COMPANY_ADMIN, resolved.getRole());
+        assertSame(companyAdmin, resolver.resolveArgument(parameter(2), null, webRequest, null));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    public void testEntityIsLoadedOncePerRequest() throws Exception {
+        authenticate(claimsPrincipal(Role.OWNER));
+        Owner owner = Owner.builder().id(5).email("user@rently.com").role(Role.OWNER).build();
+        when(userService.findUserAccordingToTypeWithEmail("user@rently.com")).thenReturn(owner);
+
+        assertSame(owner, resolver.resolveArgument(parameter(1), null, webRequest, null));
+        assertSame(owner, resolver.resolveArgument(parameter(1), null, webRequest, null));
+        verify(userService, times(1)).findUserAccordingToTypeWithEmail("user@rently.com");
+    }
+
+    @Test
+    public void testWrongUserTypeIsRejected() throws Exception {
+        authenticate(claimsPrincipal(Role.OWNER));
+        when(userService.findUserAccordingToTypeWithEmail("user@rently.com"))
+                .thenReturn(Owner.builder().id(5).email("user@rently.com").role(Role.OWNER).build());
+
+        assertThrows(AuthenticationException.class, () -> resolver.resolveArgument(parameter(2), null, webRequest, null));
+    }
+
+    @Test
+    public void testUnauthenticatedRequestIsRejected() {
+        assertThrows(AuthenticationException.class, () -> resolver.resolveArgument(parameter(0), null, webRequest, null));
+    }
+
+    private AuthenticatedUser claimsPrincipal(Role role) {
+        return AuthenticatedUser.builder()
+                .id(5)
+                .email("user@rently.com")
+                .role(role)
+                .companyId(role == Role.COMPANY_ADMIN ? 3 : null)
+                .authorities(List.of())
+                .build();
+    }
+
+    private void authenticate(UserDetails principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private MethodParameter parameter(int index) throws NoSuchMethodException {
+        Method handler = getClass().getDeclaredMethod("handler", AuthenticatedUser.class, Occupant.class,
+                CompanyAdmin.class, AuthenticatedUser.class);
+        return new MethodParameter(handler, index);
+    }
+}
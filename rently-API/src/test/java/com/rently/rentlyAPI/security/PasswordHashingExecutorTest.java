@@ -0,0 +1,91 @@
+package com.rently.rentlyAPI.security;
+
+import com.rently.rentlyAPI.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingExecutorTest {
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    public void testExecuteReturnsTheResult() {
+        passwordHashingExecutor = new PasswordHashingExecutor(1, 1, 1000);
+
+        assertEquals("hash", passwordHashingExecutor.execute(() -> "hash"));
+        assertEquals(1, passwordHashingExecutor.getCompletedTasks());
+    }
+
+    @Test
+    public void testSaturatedExecutorFailsFast() throws Exception {
+        passwordHashingExecutor = new PasswordHashingExecutor(1, 1, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        // one task running and one queued fill the executor
+        callers.submit(() -> passwordHashingExecutor.execute(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> passwordHashingExecutor.execute(() -> true));
+        while (passwordHashingExecutor.getThreadPoolExecutor().getQueue().isEmpty()) {
+            Thread.onSpinWait();
+        }
+
+        long start = System.nanoTime();
+        assertThrows(ServiceUnavailableException.class, () -> passwordHashingExecutor.execute(() -> true));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertEquals(1, passwordHashingExecutor.getRejectedTasks());
+        release.countDown();
+    }
+
+    @Test
+    public void testSlowTaskTimesOut() {
+        passwordHashingExecutor = new PasswordHashingExecutor(1, 1, 50);
+
+        assertThrows(ServiceUnavailableException.class, () -> passwordHashingExecutor.execute(() -> {
+            Thread.sleep(5000);
+            return true;
+        }));
+        assertEquals(1, passwordHashingExecutor.getTimedOutTasks());
+    }
+
+    @Test
+    public void testTaskExceptionIsRethrown() {
+        passwordHashingExecutor = new PasswordHashingExecutor(1, 1, 1000);
+
+        assertThrows(IllegalArgumentException.class, () -> passwordHashingExecutor.execute(() -> {
+            throw new IllegalArgumentException("invalid hash");
+        }));
+    }
+
+    @Test
+    public void testMetricsAreBound() {
+        passwordHashingExecutor = new PasswordHashingExecutor(1, 1, 1000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        passwordHashingExecutor.bindTo(registry);
+
+        passwordHashingExecutor.execute(() -> "hash");
+
+        assertEquals(1.0, registry.get("password.hashing.tasks").tag("outcome", "completed").functionCounter().count());
+        assertEquals(0.0, registry.get("password.hashing.tasks").tag("outcome", "rejected").functionCounter().count());
+        assertEquals(0.0, registry.get("password.hashing.queued").gauge().value());
+    }
+}
@@ -0,0 +1,116 @@
+package com.rently.rentlyAPI.security.filter;
+
+import com.rently.rentlyAPI.auth.services.TokenRevocationService;
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.user.CompanyAdmin;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.utils.JwtUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JwtAuthenticationFilterClaimsOnlyTest {
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private final HttpServletResponse response = mock(HttpServletResponse.class);
+    private final FilterChain filterChain = mock(FilterChain.class);
+
+    private JwtUtils jwtUtils;
+    private CompanyAdmin companyAdmin;
+
+    @BeforeEach
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretKey", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpiration", 604800000L);
+        ReflectionTestUtils.setField(jwtUtils, "claimsMaxAge", 3600000L);
+        ReflectionTestUtils.setField(jwtUtils, "activeKeyId", JwtUtils.DEFAULT_KEY_ID);
+        jwtUtils.initKeys();
+
+        companyAdmin = CompanyAdmin.builder()
+                .id(7)
+                .email("admin@rently.com")
+                .role(Role.COMPANY_ADMIN)
+                .company(Company.builder().id(3).build())
+                .build();
+
+        when(request.getServletPath()).thenReturn("/api/company-admin/buildings");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testClaimsOnlyModeSkipsUserLookup() throws Exception {
+        ReflectionTestUtils.setField(jwtUtils, "claimsOnlyAuthentication", true);
+        String token = jwtUtils.generateToken(companyAdmin, false);
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+
+        new JwtAuthenticationFilter(jwtUtils, userDetailsService, tokenRevocationService).doFilterInternal(request, response, filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        assertEquals(7, principal.getId());
+        assertEquals(3, principal.getCompanyId());
+        assertEquals(Role.COMPANY_ADMIN, principal.getRole());
+        assertTrue(authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_COMPANY_ADMIN")));
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    public void testDisabledModeLoadsUser() throws Exception {
+        String token = jwtUtils.generateToken(companyAdmin, false);
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(userDetailsService.loadUserByUsername("admin@rently.com")).thenReturn(companyAdmin);
+
+        new JwtAuthenticationFilter(jwtUtils, userDetailsService, tokenRevocationService).doFilterInternal(request, response, filterChain);
+
+        assertSame(companyAdmin, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(userDetailsService, times(1)).loadUserByUsername("admin@rently.com");
+    }
+
+    @Test
+    public void testStaleTokenFallsBackToUserLookup() throws Exception {
+        ReflectionTestUtils.setField(jwtUtils, "claimsOnlyAuthentication", true);
+        ReflectionTestUtils.setField(jwtUtils, "claimsMaxAge", -1L);
+        String token = jwtUtils.generateToken(companyAdmin, false);
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(userDetailsService.loadUserByUsername("admin@rently.com")).thenReturn(companyAdmin);
+
+        new JwtAuthenticationFilter(jwtUtils, userDetailsService, tokenRevocationService).doFilterInternal(request, response, filterChain);
+
+        assertSame(companyAdmin, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(userDetailsService, times(1)).loadUserByUsername("admin@rently.com");
+    }
+
+    @Test
+    public void testRevokedTokenIsNotAuthenticated() throws Exception {
+        ReflectionTestUtils.setField(jwtUtils, "claimsOnlyAuthentication", true);
+        String token = jwtUtils.generateToken(companyAdmin, false);
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(tokenRevocationService.isRevoked(anyString())).thenReturn(true);
+
+        new JwtAuthenticationFilter(jwtUtils, userDetailsService, tokenRevocationService).doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+}
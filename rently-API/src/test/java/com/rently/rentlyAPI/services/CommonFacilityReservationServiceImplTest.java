@@ -0,0 +1,447 @@
+package com.rently.rentlyAPI.services;
+
+import com.rently.rentlyAPI.dto.BulkReservationReportDto;
+import com.rently.rentlyAPI.dto.BulkReservationRequestDto;
+import com.rently.rentlyAPI.dto.CommonFacilityReservationDto;
+import com.rently.rentlyAPI.dto.FacilityAvailabilityDto;
+import com.rently.rentlyAPI.dto.OccurrenceReportDto;
+import com.rently.rentlyAPI.dto.RecurrenceDto;
+import com.rently.rentlyAPI.dto.TimeSlotDto;
+import com.rently.rentlyAPI.entity.Building;
+import com.rently.rentlyAPI.entity.CommonFacility;
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.enums.RecurrenceFrequency;
+import com.rently.rentlyAPI.entity.user.Occupant;
+import com.rently.rentlyAPI.entity.user.Owner;
+import com.rently.rentlyAPI.exceptions.OperationNonPermittedException;
+import com.rently.rentlyAPI.repository.CommonFacilityReservationRepository;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.services.impl.CommonFacilityReservationServiceImpl;
+import com.rently.rentlyAPI.utils.EntityIdAllocator;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * H2 has no exclusion constraint: the conflicts found here are the ones of the interval index and the occupant query,
+ * and the concurrent bookings are kept apart by the facility locks alone. The constraints themselves are checked on
+ * Postgres by ReservationTimeRangeMigrationTest and ConcurrentBookingAcrossInstancesTest.
+ */
+@DataJpaTest
+@Import({CommonFacilityReservationServiceImpl.class, ReservationIndexService.class, EntityIdAllocator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:facility-reservations;NON_KEYWORDS=KEY,VALUE,USER",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class CommonFacilityReservationServiceImplTest {
+
+    private static final LocalDateTime EVENING = LocalDateTime.of(2024, 6, 1, 18, 0);
+
+    @TestConfiguration
+    static class AuditConfig {
+        @Bean
+        AuditorAware<Integer> auditorAware() {
+            return Optional::empty;
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CommonFacilityReservationService commonFacilityReservationService;
+    @Autowired
+    private CommonFacilityReservationRepository commonFacilityReservationRepository;
+
+    private TransactionTemplate transactionTemplate;
+    private Company company;
+    private CommonFacility pool;
+    private CommonFacility gym;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        inTransaction(() -> {
+            company = Company.builder().name("Rently " + UUID.randomUUID()).build();
+            entityManager.persist(company);
+            Building building = Building.builder().name("Tower " + UUID.randomUUID()).address("1 Main St").company(company).build();
+            entityManager.persist(building);
+            pool = CommonFacility.builder().name("Pool").building(building).build();
+            entityManager.persist(pool);
+            gym = CommonFacility.builder().name("Gym").building(building).build();
+            entityManager.persist(gym);
+            return null;
+        });
+    }
+
+    @Test
+    void testOverlappingReservationsOfAFacilityAreRejected() {
+        book(pool, occupant(), EVENING, EVENING.plusHours(2));
+
+        Occupant other = occupant();
+        assertThrows(OperationNonPermittedException.class,
+                () -> book(pool, other, EVENING.plusHours(1), EVENING.plusHours(3)));
+        assertThrows(OperationNonPermittedException.class,
+                () -> book(pool, other, EVENING.minusHours(1), EVENING.plusHours(3)));
+        assertThrows(OperationNonPermittedException.class,
+                () -> book(pool, other, EVENING.plusMinutes(30), EVENING.plusMinutes(45)));
+
+        // [start, end): back to back reservations do not overlap
+        assertNotNull(book(pool, other, EVENING.plusHours(2), EVENING.plusHours(3)).getId());
+        assertNotNull(book(gym, other, EVENING, EVENING.plusHours(1)).getId());
+    }
+
+    @Test
+    void testAnOccupantCannotBookTwoFacilitiesAtOnce() {
+        Occupant occupant = occupant();
+        book(pool, occupant, EVENING, EVENING.plusHours(2));
+
+        assertThrows(OperationNonPermittedException.class,
+                () -> book(gym, occupant, EVENING.plusHours(1), EVENING.plusHours(3)));
+    }
+
+    @Test
+    void testACancelledSlotCanBeBookedAgain() {
+        Occupant occupant = occupant();
+        CommonFacilityReservationDto reservation = book(pool, occupant, EVENING, EVENING.plusHours(2));
+
+        commonFacilityReservationService.deleteCommonFacilityReservation(occupant.getId(), reservation.getId());
+
+        assertNotNull(book(pool, occupant(), EVENING.plusHours(1), EVENING.plusHours(3)).getId());
+    }
+
+    @Test
+    void testASlotFreedOnAnotherInstanceIsNotRejectedByTheIndex() {
+        CommonFacilityReservationDto reservation = book(pool, occupant(), EVENING, EVENING.plusHours(2));
+
+        // cancelled elsewhere: this instance's index still holds the reservation
+        commonFacilityReservationRepository.deleteById(reservation.getId());
+
+        assertNotNull(book(pool, occupant(), EVENING, EVENING.plusHours(2)).getId());
+    }
+
+    @Test
+    void testAReservationMustEndAfterItStarts() {
+        Occupant occupant = occupant();
+
+        assertThrows(OperationNonPermittedException.class, () -> book(pool, occupant, EVENING, EVENING));
+        assertThrows(OperationNonPermittedException.class, () -> book(pool, occupant, EVENING, EVENING.minusHours(1)));
+        assertThrows(OperationNonPermittedException.class, () -> book(pool, occupant, null, EVENING));
+    }
+
+    @Test
+    void testConcurrentBookingsOfASlotHaveExactlyOneWinner() throws InterruptedException {
+        List<Occupant> occupants = occupants(500);
+
+        Map<String, Integer> outcomes = bookAtOnce(occupants.stream()
+                .map(occupant -> (Runnable) () -> book(pool, occupant, EVENING, EVENING.plusHours(2)))
+                .toList());
+
+        assertEquals(Map.of("booked", 1, "OperationNonPermittedException", 499), outcomes);
+        assertEquals(1, commonFacilityReservationRepository.findAllDtosByCommonFacilityId(pool.getId()).size());
+    }
+
+    @Test
+    void testConcurrentBookingsOfDifferentFacilitiesEachHaveTheirWinner() throws InterruptedException {
+        List<CommonFacility> facilities = inTransaction(() -> {
+            List<CommonFacility> created = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                CommonFacility facility = CommonFacility.builder().name("Room " + i).building(pool.getBuilding()).build();
+                entityManager.persist(facility);
+                created.add(facility);
+            }
+            return created;
+        });
+        List<Occupant> occupants = occupants(500);
+
+        List<Runnable> bookings = new ArrayList<>();
+        for (int i = 0; i < occupants.size(); i++) {
+            CommonFacility facility = facilities.get(i % facilities.size());
+            Occupant occupant = occupants.get(i);
+            bookings.add(() -> book(facility, occupant, EVENING, EVENING.plusHours(2)));
+        }
+
+        assertEquals(Map.of("booked", 100, "OperationNonPermittedException", 400), bookAtOnce(bookings));
+    }
+
+    @Test
+    void testTheAvailabilityFollowsTheBookingsAndCancellations() {
+        LocalDate day = EVENING.toLocalDate();
+        assertEquals(List.of(slot(day.atStartOfDay(), day.plusDays(1).atStartOfDay())), freeSlots(pool, day, day));
+
+        Occupant occupant = occupant();
+        CommonFacilityReservationDto reservation = book(pool, occupant, EVENING, EVENING.plusMinutes(100));
+        // 19:40 ends in the slot of 19:30, which is not free
+        assertEquals(List.of(slot(day.atStartOfDay(), EVENING), slot(EVENING.plusMinutes(105), day.plusDays(1).atStartOfDay())),
+                freeSlots(pool, day, day));
+        assertEquals(List.of(slot(day.atStartOfDay(), day.plusDays(1).atStartOfDay())), freeSlots(gym, day, day));
+
+        commonFacilityReservationService.deleteCommonFacilityReservation(occupant.getId(), reservation.getId());
+        assertEquals(List.of(slot(day.atStartOfDay(), day.plusDays(1).atStartOfDay())), freeSlots(pool, day, day));
+    }
+
+    @Test
+    void testFreeSlotsRunOverMidnight() {
+        LocalDate day = EVENING.toLocalDate();
+        book(pool, occupant(), EVENING, EVENING.plusHours(1));
+        book(pool, occupant(), EVENING.plusDays(2), EVENING.plusDays(2).plusHours(1));
+
+        assertEquals(List.of(slot(day.atStartOfDay(), EVENING),
+                        slot(EVENING.plusHours(1), EVENING.plusDays(2)),
+                        slot(EVENING.plusDays(2).plusHours(1), day.plusDays(3).atStartOfDay())),
+                freeSlots(pool, day, day.plusDays(2)));
+    }
+
+    @Test
+    void testTheAvailabilityRangeIsBounded() {
+        LocalDate day = EVENING.toLocalDate();
+
+        assertThrows(OperationNonPermittedException.class, () -> freeSlots(pool, day, day.minusDays(1)));
+        assertThrows(OperationNonPermittedException.class, () -> freeSlots(pool, day, day.plusDays(92)));
+        assertNotNull(freeSlots(pool, day, day.plusDays(91)));
+    }
+
+    @Test
+    void testAMonthOfABuildingReturnsInMilliseconds() {
+        List<CommonFacility> facilities = inTransaction(() -> {
+            List<CommonFacility> created = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                CommonFacility facility = CommonFacility.builder().name("Room " + i).building(pool.getBuilding()).build();
+                entityManager.persist(facility);
+                created.add(facility);
+            }
+            return created;
+        });
+        LocalDate first = EVENING.toLocalDate().withDayOfMonth(1);
+        List<Occupant> occupants = occupants(facilities.size());
+        for (int i = 0; i < facilities.size(); i++) {
+            for (int day = 0; day < 30; day += 3) {
+                LocalDateTime start = first.plusDays(day).atTime(8 + i % 12, 0);
+                book(facilities.get(i), occupants.get(i), start, start.plusMinutes(90));
+            }
+        }
+        facilities.forEach(facility -> freeSlots(facility, first, first.plusDays(29)));
+
+        int months = 100;
+        long started = System.nanoTime();
+        for (int month = 0; month < months; month++) {
+            for (CommonFacility facility : facilities) {
+                // 10 reservations split the month in 11 free slots
+                assertEquals(11, freeSlots(facility, first, first.plusDays(29)).size());
+            }
+        }
+        long averageNanos = (System.nanoTime() - started) / months;
+
+        assertTrue(averageNanos < 5_000_000, "Average building month: " + averageNanos + "ns");
+    }
+
+    @Test
+    void testAWeeklyReservationBooksTheFreeOccurrences() {
+        Occupant committee = occupant();
+        book(pool, occupant(), EVENING.plusWeeks(2), EVENING.plusWeeks(2).plusHours(1));
+        book(gym, committee, EVENING.plusWeeks(5).plusMinutes(30), EVENING.plusWeeks(5).plusHours(2));
+
+        BulkReservationReportDto report = bookAll(pool, committee, recurrence(RecurrenceFrequency.WEEKLY, 10, null),
+                slot(EVENING, EVENING.plusHours(1)));
+
+        assertEquals(8, report.getAccepted());
+        assertEquals(2, report.getRejected());
+        List<OccurrenceReportDto> occurrences = report.getOccurrences();
+        assertEquals(10, occurrences.size());
+        for (int week = 0; week < 10; week++) {
+            OccurrenceReportDto occurrence = occurrences.get(week);
+            assertEquals(EVENING.plusWeeks(week), occurrence.getStartTime());
+            assertEquals(week != 2 && week != 5, occurrence.isAccepted(), "week " + week);
+            assertEquals(occurrence.isAccepted(), occurrence.getReservationId() != null);
+        }
+        assertEquals("There is already a reservation at the given time slot.", occurrences.get(2).getMessage());
+        assertTrue(occurrences.get(5).getMessage().startsWith("There is already a reservation at the given time slot for occupant"));
+
+        // in the database and in the index
+        assertEquals(9, commonFacilityReservationRepository.findAllDtosByCommonFacilityId(pool.getId()).size());
+        assertThrows(OperationNonPermittedException.class, () -> book(pool, occupant(), EVENING.plusWeeks(9), EVENING.plusWeeks(9).plusHours(1)));
+        assertEquals(slot(EVENING.plusWeeks(3).minusHours(18), EVENING.plusWeeks(3)),
+                freeSlots(pool, EVENING.plusWeeks(3).toLocalDate(), EVENING.plusWeeks(3).toLocalDate()).get(0));
+    }
+
+    @Test
+    void testOccurrencesOfARequestCannotOverlapEachOther() {
+        BulkReservationReportDto report = bookAll(pool, occupant(), null,
+                slot(EVENING.plusHours(1), EVENING.plusHours(3)),
+                slot(EVENING, EVENING.plusHours(2)),
+                slot(EVENING.plusHours(3), EVENING.plusHours(4)));
+
+        // by start time, the earliest one wins
+        assertEquals(List.of(true, false, true), report.getOccurrences().stream().map(OccurrenceReportDto::isAccepted).toList());
+        assertEquals(EVENING, report.getOccurrences().get(0).getStartTime());
+    }
+
+    @Test
+    void testMonthlyOccurrencesKeepTheirDayOfTheMonth() {
+        LocalDateTime boardMeeting = LocalDateTime.of(2024, 1, 31, 19, 0);
+
+        BulkReservationReportDto report = bookAll(gym, occupant(),
+                recurrence(RecurrenceFrequency.MONTHLY, null, LocalDate.of(2024, 4, 30)),
+                slot(boardMeeting, boardMeeting.plusHours(2)));
+
+        assertEquals(List.of(LocalDateTime.of(2024, 1, 31, 19, 0), LocalDateTime.of(2024, 2, 29, 19, 0),
+                        LocalDateTime.of(2024, 3, 31, 19, 0), LocalDateTime.of(2024, 4, 30, 19, 0)),
+                report.getOccurrences().stream().map(OccurrenceReportDto::getStartTime).toList());
+        assertEquals(4, report.getAccepted());
+    }
+
+    @Test
+    void testInvalidOrOversizedRequestsAreRejectedWhole() {
+        Occupant occupant = occupant();
+        TimeSlotDto evening = slot(EVENING, EVENING.plusHours(1));
+
+        assertThrows(OperationNonPermittedException.class, () -> bookAll(pool, occupant, null));
+        assertThrows(OperationNonPermittedException.class, () -> bookAll(pool, occupant, null, slot(EVENING, EVENING)));
+        assertThrows(OperationNonPermittedException.class,
+                () -> bookAll(pool, occupant, recurrence(RecurrenceFrequency.DAILY, null, null), evening));
+        assertThrows(OperationNonPermittedException.class,
+                () -> bookAll(pool, occupant, recurrence(RecurrenceFrequency.DAILY, 0, null), evening));
+        // beyond the 500 occurrences of a request
+        assertThrows(OperationNonPermittedException.class,
+                () -> bookAll(pool, occupant, recurrence(RecurrenceFrequency.DAILY, null, EVENING.toLocalDate().plusYears(2)), evening));
+        assertTrue(commonFacilityReservationRepository.findAllDtosByOccupantId(occupant.getId()).isEmpty());
+    }
+
+    @Test
+    void testARecurrenceEndingBeforeItStartsIsRejected() {
+        Occupant occupant = occupant();
+
+        OperationNonPermittedException e = assertThrows(OperationNonPermittedException.class,
+                () -> bookAll(pool, occupant, recurrence(RecurrenceFrequency.WEEKLY, 4, EVENING.toLocalDate().minusDays(1)),
+                        slot(EVENING, EVENING.plusHours(1))));
+        assertTrue(e.getErrorMsg().contains("until"));
+        // the same day is fine, it books the first occurrence only
+        assertEquals(1, bookAll(pool, occupant, recurrence(RecurrenceFrequency.WEEKLY, 4, EVENING.toLocalDate()),
+                slot(EVENING, EVENING.plusHours(1))).getAccepted());
+    }
+
+    // runs the bookings from as many threads released together, counts how each one ended
+    private static Map<String, Integer> bookAtOnce(List<Runnable> bookings) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(bookings.size());
+        CountDownLatch ready = new CountDownLatch(bookings.size());
+        CountDownLatch go = new CountDownLatch(1);
+        Map<String, Integer> outcomes = new ConcurrentHashMap<>();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable booking : bookings) {
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    try {
+                        booking.run();
+                        outcomes.merge("booked", 1, Integer::sum);
+                    } catch (RuntimeException e) {
+                        outcomes.merge(e.getClass().getSimpleName(), 1, Integer::sum);
+                    }
+                    return null;
+                }));
+            }
+            ready.await();
+            go.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return outcomes;
+    }
+
+    private CommonFacilityReservationDto book(CommonFacility facility, Occupant occupant, LocalDateTime start, LocalDateTime end) {
+        CommonFacilityReservationDto reservation = CommonFacilityReservationDto.builder()
+                .commonFacilityId(facility.getId())
+                .startTime(start)
+                .endTime(end)
+                .build();
+        return commonFacilityReservationService.createCommonFacilityReservation(company, facility, occupant, reservation);
+    }
+
+    private BulkReservationReportDto bookAll(CommonFacility facility, Occupant occupant, RecurrenceDto recurrence, TimeSlotDto... reservations) {
+        BulkReservationRequestDto request = BulkReservationRequestDto.builder()
+                .commonFacilityId(facility.getId())
+                .reservations(List.of(reservations))
+                .recurrence(recurrence)
+                .build();
+        return commonFacilityReservationService.createCommonFacilityReservations(company, facility, occupant, request);
+    }
+
+    private static RecurrenceDto recurrence(RecurrenceFrequency frequency, Integer count, LocalDate until) {
+        return RecurrenceDto.builder().frequency(frequency).count(count).until(until).build();
+    }
+
+    private List<TimeSlotDto> freeSlots(CommonFacility facility, LocalDate from, LocalDate to) {
+        FacilityAvailabilityDto availability = commonFacilityReservationService.getAvailability(facility.getId(), from, to);
+        return availability.getFreeSlots();
+    }
+
+    private static TimeSlotDto slot(LocalDateTime start, LocalDateTime end) {
+        return new TimeSlotDto(start, end);
+    }
+
+    private Occupant occupant() {
+        return inTransaction(() -> {
+            Owner owner = Owner.builder().email(UUID.randomUUID() + "@rently.com").password("p").firstName("O")
+                    .lastName("W").role(Role.OWNER).build();
+            entityManager.persist(owner);
+            return owner;
+        });
+    }
+
+    private List<Occupant> occupants(int count) {
+        return inTransaction(() -> {
+            List<Occupant> created = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Owner owner = Owner.builder().email(UUID.randomUUID() + "@rently.com").password("p").firstName("O")
+                        .lastName("W").role(Role.OWNER).build();
+                entityManager.persist(owner);
+                created.add(owner);
+            }
+            return created;
+        });
+    }
+
+    private <T> T inTransaction(Supplier<T> step) {
+        return transactionTemplate.execute(status -> step.get());
+    }
+}
@@ -0,0 +1,224 @@
+package com.rently.rentlyAPI.services;
+
+import com.rently.rentlyAPI.dto.BulkReservationReportDto;
+import com.rently.rentlyAPI.dto.BulkReservationRequestDto;
+import com.rently.rentlyAPI.dto.CommonFacilityReservationDto;
+import com.rently.rentlyAPI.dto.RecurrenceDto;
+import com.rently.rentlyAPI.dto.TimeSlotDto;
+import com.rently.rentlyAPI.entity.Building;
+import com.rently.rentlyAPI.entity.CommonFacility;
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.enums.RecurrenceFrequency;
+import com.rently.rentlyAPI.entity.user.Occupant;
+import com.rently.rentlyAPI.entity.user.Owner;
+import com.rently.rentlyAPI.repository.CommonFacilityReservationRepository;
+import com.rently.rentlyAPI.repository.ReservationWaitlistEntryRepository;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.services.impl.CommonFacilityReservationServiceImpl;
+import com.rently.rentlyAPI.services.impl.ReservationWaitlistServiceImpl;
+import com.rently.rentlyAPI.utils.EmbeddedPostgresJpaTest;
+import com.rently.rentlyAPI.utils.EntityIdAllocator;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Several service instances, each with its own facility locks and interval index, book the same slots at once on a
+ * real Postgres: only the exclusion constraints keep them apart.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.datasource.hikari.maximum-pool-size=20")
+class ConcurrentBookingAcrossInstancesTest extends EmbeddedPostgresJpaTest {
+
+    private static final LocalDateTime EVENING = LocalDateTime.of(2024, 6, 1, 18, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private CommonFacilityReservationRepository commonFacilityReservationRepository;
+    @Autowired
+    private ReservationWaitlistEntryRepository reservationWaitlistEntryRepository;
+
+    @Test
+    void testConcurrentBookingsOnSeveralInstancesHaveExactlyOneWinner() throws InterruptedException {
+        CommonFacility partyRoom = facility("Party room");
+        List<Occupant> occupants = occupants(500);
+        List<CommonFacilityReservationService> instances = instances(4, 3);
+
+        List<Runnable> bookings = new ArrayList<>();
+        for (int i = 0; i < occupants.size(); i++) {
+            CommonFacilityReservationService instance = instances.get(i % instances.size());
+            Occupant occupant = occupants.get(i);
+            CommonFacilityReservationDto reservation = CommonFacilityReservationDto.builder()
+                    .commonFacilityId(partyRoom.getId())
+                    .startTime(EVENING)
+                    .endTime(EVENING.plusHours(4))
+                    .build();
+            bookings.add(() -> instance.createCommonFacilityReservation(partyRoom.getBuilding().getCompany(), partyRoom, occupant, reservation));
+        }
+
+        assertEquals(Map.of("booked", 1, "OperationNonPermittedException", 499), bookAtOnce(bookings));
+        assertEquals(1, commonFacilityReservationRepository.findAllDtosByCommonFacilityId(partyRoom.getId()).size());
+    }
+
+    @Test
+    void testConcurrentRecurringBookingsOnSeveralInstancesShareTheOccurrences() throws InterruptedException {
+        CommonFacility yogaRoom = facility("Yoga room");
+        List<Occupant> occupants = occupants(8);
+        // a batch that lost to another instance is checked again, as many times as it takes here
+        List<CommonFacilityReservationService> instances = instances(4, occupants.size());
+
+        // every other week for half of them, every week for the others: they all want the even weeks
+        List<BulkReservationReportDto> reports = Collections.synchronizedList(new ArrayList<>());
+        List<Runnable> bookings = new ArrayList<>();
+        for (int i = 0; i < occupants.size(); i++) {
+            CommonFacilityReservationService instance = instances.get(i % instances.size());
+            Occupant occupant = occupants.get(i);
+            BulkReservationRequestDto request = BulkReservationRequestDto.builder()
+                    .commonFacilityId(yogaRoom.getId())
+                    .reservations(List.of(new TimeSlotDto(EVENING, EVENING.plusHours(1))))
+                    .recurrence(RecurrenceDto.builder().frequency(RecurrenceFrequency.WEEKLY)
+                            .interval(i % 2 == 0 ? 2 : 1).count(i % 2 == 0 ? 10 : 20).build())
+                    .build();
+            bookings.add(() -> reports.add(instance.createCommonFacilityReservations(yogaRoom.getBuilding().getCompany(), yogaRoom, occupant, request)));
+        }
+
+        assertEquals(Map.of("booked", 8), bookAtOnce(bookings));
+        assertEquals(20, reports.stream().mapToInt(BulkReservationReportDto::getAccepted).sum());
+        assertEquals(20, commonFacilityReservationRepository.findAllDtosByCommonFacilityId(yogaRoom.getId()).size());
+    }
+
+    @Test
+    void testConcurrentPromotionsOnSeveralInstancesBookEachEntryOnce() throws InterruptedException {
+        CommonFacility sauna = facility("Sauna");
+        List<Occupant> occupants = occupants(4);
+        LocalDateTime start = LocalDateTime.now().plusDays(7).withHour(18).withMinute(0).withSecond(0).withNano(0);
+        CommonFacilityReservationService bookings = instances(1, 3).get(0);
+        CommonFacilityReservationDto taken = bookings.createCommonFacilityReservation(sauna.getBuilding().getCompany(), sauna, occupants.get(0),
+                CommonFacilityReservationDto.builder().commonFacilityId(sauna.getId()).startTime(start).endTime(start.plusHours(2)).build());
+
+        // two wait for the first hour, one for the second
+        List<ReservationWaitlistService> waitlists = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            waitlists.add(new ReservationWaitlistServiceImpl(reservationWaitlistEntryRepository, commonFacilityReservationRepository,
+                    new ReservationIndexService(commonFacilityReservationRepository, 100, 600000), eventPublisher, transactionManager, 10, 100));
+        }
+        for (int i = 1; i < occupants.size(); i++) {
+            LocalDateTime from = i < 3 ? start : start.plusHours(1);
+            waitlists.get(0).joinWaitlist(sauna.getBuilding().getCompany(), sauna, occupants.get(i),
+                    CommonFacilityReservationDto.builder().commonFacilityId(sauna.getId()).startTime(from).endTime(from.plusHours(1)).build());
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> commonFacilityReservationRepository.deleteById(taken.getId()));
+
+        List<Runnable> promotions = new ArrayList<>();
+        for (ReservationWaitlistService waitlist : waitlists) {
+            promotions.add(() -> waitlist.promote(sauna.getId(), start, start.plusHours(2)));
+        }
+        // the instances promoting after the first one find the entries gone or their slot taken
+        assertEquals(Map.of("booked", 8), bookAtOnce(promotions));
+        assertEquals(2, commonFacilityReservationRepository.findAllDtosByCommonFacilityId(sauna.getId()).size());
+        assertEquals(start, commonFacilityReservationRepository.findAllDtosByOccupantId(occupants.get(1).getId()).get(0).getStartTime());
+        assertEquals(start.plusHours(1), commonFacilityReservationRepository.findAllDtosByOccupantId(occupants.get(3).getId()).get(0).getStartTime());
+        assertEquals(1, waitlists.get(0).getWaitlistEntries(occupants.get(2).getId()).size());
+    }
+
+    private CommonFacility facility(String name) {
+        Company company = Company.builder().name("Rently " + name).build();
+        Building building = Building.builder().name("Tower " + name).address("1 Main St").company(company).build();
+        CommonFacility facility = CommonFacility.builder().name(name).building(building).build();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.persist(company);
+            entityManager.persist(building);
+            entityManager.persist(facility);
+        });
+        return facility;
+    }
+
+    private List<Occupant> occupants(int count) {
+        List<Occupant> occupants = new ArrayList<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                Owner owner = Owner.builder().email(UUID.randomUUID() + "@rently.com").password("p").firstName("O")
+                        .lastName("W").role(Role.OWNER).build();
+                entityManager.persist(owner);
+                occupants.add(owner);
+            }
+        });
+        return occupants;
+    }
+
+    // each with its own facility locks and index, like the services of separate application instances
+    private List<CommonFacilityReservationService> instances(int count, int maxAttempts) {
+        List<CommonFacilityReservationService> instances = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            instances.add(new CommonFacilityReservationServiceImpl(commonFacilityReservationRepository,
+                    new ReservationIndexService(commonFacilityReservationRepository, 100, 600000),
+                    jdbcTemplate, new EntityIdAllocator(entityManager), eventPublisher, transactionManager, 64, 5000, maxAttempts, 92, 500));
+        }
+        return instances;
+    }
+
+    // runs the bookings from as many threads released together, counts how each one ended
+    private static Map<String, Integer> bookAtOnce(List<Runnable> bookings) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(bookings.size());
+        CountDownLatch ready = new CountDownLatch(bookings.size());
+        CountDownLatch go = new CountDownLatch(1);
+        Map<String, Integer> outcomes = new ConcurrentHashMap<>();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable booking : bookings) {
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    try {
+                        booking.run();
+                        outcomes.merge("booked", 1, Integer::sum);
+                    } catch (RuntimeException e) {
+                        outcomes.merge(e.getClass().getSimpleName(), 1, Integer::sum);
+                    }
+                    return null;
+                }));
+            }
+            ready.await();
+            go.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return outcomes;
+    }
+}
@@ -0,0 +1,105 @@
+package com.rently.rentlyAPI.services;
+
+import com.rently.rentlyAPI.dto.*;
+import com.rently.rentlyAPI.exceptions.AuthenticationException;
+import com.rently.rentlyAPI.security.AuthenticatedUser;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.services.impl.OccupantServiceImpl;
+import com.rently.rentlyAPI.utils.ParallelQueryExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OccupantServiceImplTest {
+
+    @Mock
+    private BuildingService buildingService;
+    @Mock
+    private CondoService condoService;
+    @Mock
+    private HousingContractService housingContractService;
+    @Mock
+    private RenterService renterService;
+    @Mock
+    private OwnerService ownerService;
+
+    private ParallelQueryExecutor parallelQueryExecutor;
+    private OccupantServiceImpl occupantService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        parallelQueryExecutor = new ParallelQueryExecutor(5, 10, 5000, mock(PlatformTransactionManager.class));
+        occupantService = new OccupantServiceImpl(buildingService, condoService, housingContractService, renterService,
+                ownerService, parallelQueryExecutor, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelQueryExecutor.shutdown();
+    }
+
+    @Test
+    void testDashboardRunsOneQueryPerSectionInParallel() {
+        // every query waits for all the others, so this only completes if the five of them run at the same time
+        CountDownLatch allStarted = new CountDownLatch(5);
+        CondoDto condo = CondoDto.builder().id(1).build();
+        HousingContractDto contract = HousingContractDto.builder().id(2).condoId(1).build();
+        CommonFacilityReservationDto reservation = CommonFacilityReservationDto.builder().id(3).build();
+        OwnerRequestDto request = OwnerRequestDto.builder().id(4).build();
+        EmployeeAssignmentDto status = EmployeeAssignmentDto.builder().id(5).ownerRequestId(4).build();
+        when(condoService.getAllCondosByOccupantId(7)).thenAnswer(afterAll(allStarted, List.of(condo)));
+        when(housingContractService.getHousingContractsByOccupantId(7)).thenAnswer(afterAll(allStarted, List.of(contract)));
+        when(buildingService.getAllCommonFacilityReservations(7)).thenAnswer(afterAll(allStarted, List.of(reservation)));
+        when(ownerService.getAllOwnerRequests(7)).thenAnswer(afterAll(allStarted, List.of(request)));
+        when(ownerService.getAssignmentStatusesByOwnerId(7, null, null)).thenAnswer(afterAll(allStarted, new CursorPageDto<>(List.of(status), null)));
+
+        OccupantDashboardDto dashboard = occupantService.getDashboard(occupant(Role.OWNER));
+
+        assertEquals(List.of(condo), dashboard.getCondos());
+        assertEquals(List.of(contract), dashboard.getHousingContracts());
+        assertEquals(List.of(reservation), dashboard.getFacilityReservations());
+        assertEquals(List.of(request), dashboard.getOwnerRequests());
+        assertEquals(List.of(status), dashboard.getRequestStatuses().getItems());
+        verify(condoService, never()).findCondoEntityById(any());
+        verifyNoInteractions(renterService);
+    }
+
+    @Test
+    void testDashboardRethrowsTheQueryFailure() {
+        when(condoService.getAllCondosByOccupantId(7)).thenThrow(new IllegalStateException("database down"));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> occupantService.getDashboard(occupant(Role.RENTER)));
+        assertEquals("database down", exception.getMessage());
+    }
+
+    @Test
+    void testDashboardIsOnlyForOccupants() {
+        assertThrows(AuthenticationException.class, () -> occupantService.getDashboard(occupant(Role.PUBLIC_USER)));
+        verifyNoInteractions(condoService, housingContractService, buildingService, ownerService);
+    }
+
+    private Answer<Object> afterAll(CountDownLatch allStarted, Object result) {
+        return invocation -> {
+            allStarted.countDown();
+            assertTrue(allStarted.await(2, TimeUnit.SECONDS), "the dashboard queries did not run in parallel");
+            return result;
+        };
+    }
+
+    private AuthenticatedUser occupant(Role role) {
+        return AuthenticatedUser.builder().id(7).email("occupant@rently.com").role(role).authorities(List.of()).build();
+    }
+}
@@ -0,0 +1,205 @@
+package com.rently.rentlyAPI.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rently.rentlyAPI.entity.Building;
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.Condo;
+import com.rently.rentlyAPI.entity.HousingContract;
+import com.rently.rentlyAPI.entity.Parking;
+import com.rently.rentlyAPI.entity.enums.CondoStatus;
+import com.rently.rentlyAPI.entity.enums.WorkType;
+import com.rently.rentlyAPI.entity.user.Employee;
+import com.rently.rentlyAPI.entity.user.Owner;
+import com.rently.rentlyAPI.exceptions.ObjectValidationException;
+import com.rently.rentlyAPI.repository.BuildingRepository;
+import com.rently.rentlyAPI.repository.CondoRepository;
+import com.rently.rentlyAPI.repository.EmployeeRepository;
+import com.rently.rentlyAPI.repository.HousingContractRepository;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.services.impl.PortfolioExportServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.QueryHint;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:portfolio-export;NON_KEYWORDS=KEY,VALUE,USER",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // Parking puts @NotBlank on its fee, which bean validation cannot check on a long
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none"
+})
+class PortfolioExportServiceImplTest {
+
+    @TestConfiguration
+    static class AuditConfig {
+        @Bean
+        AuditorAware<Integer> auditorAware() {
+            return Optional::empty;
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private BuildingRepository buildingRepository;
+    @Autowired
+    private CondoRepository condoRepository;
+    @Autowired
+    private HousingContractRepository housingContractRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PortfolioExportServiceImpl portfolioExportService;
+    private Company company;
+    private Building building;
+
+    @BeforeEach
+    void setUp() {
+        portfolioExportService = new PortfolioExportServiceImpl(buildingRepository, condoRepository,
+                housingContractRepository, employeeRepository, objectMapper);
+        company = persistCompany("Rently");
+        building = persistBuilding(company, "Tower");
+    }
+
+    @Test
+    void testNdjsonExportHasOneTypedLinePerRow() throws IOException {
+        Condo condo = persistCondo(building, 1);
+        entityManager.persist(Parking.builder().building(building).condo(condo).parkingFee(50).build());
+        persistCondo(building, 2);
+        Owner owner = Owner.builder().email("owner@rently.com").password("p").firstName("O").lastName("W").role(Role.OWNER).build();
+        entityManager.persist(owner);
+        entityManager.persist(HousingContract.builder().company(company).occupant(owner).condo(condo)
+                .monthlyRent(1000).occupantType("OWNER").build());
+        entityManager.persist(Employee.builder().email("employee@rently.com").password("secret").firstName("E").lastName("M")
+                .role(Role.EMPLOYEE).company(company).employeeType(WorkType.GENERAL).build());
+        // another company's portfolio stays out of the export
+        persistCondo(persistBuilding(persistCompany("Other"), "Elsewhere"), 1);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : export("ndjson", null).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+
+        assertEquals(List.of("building", "condo", "condo", "housing_contract", "employee"),
+                lines.stream().map(line -> line.get("type").asText()).toList());
+        assertEquals("Tower", lines.get(0).get("name").asText());
+        assertEquals(condo.getId(), lines.get(1).get("id").asInt());
+        assertFalse(lines.get(1).get("parking_id").isNull());
+        assertTrue(lines.get(2).get("parking_id").isNull());
+        assertEquals(1000, lines.get(3).get("monthly_rent").asInt());
+        assertEquals("employee@rently.com", lines.get(4).get("email").asText());
+        assertFalse(lines.get(4).has("password"));
+    }
+
+    @Test
+    void testCsvExportQuotesValuesThatNeedIt() throws IOException {
+        entityManager.persist(Building.builder().name("Annex, \"B\"").address("2 Main St").numberOfFloors(3)
+                .company(company).build());
+
+        String csv = export("csv", "buildings");
+
+        String[] lines = csv.split("\r\n");
+        assertEquals("id,name,number_of_floors,address,description,company_id", lines[0]);
+        assertEquals(building.getId() + ",Tower,10,1 Main St,," + company.getId(), lines[1]);
+        assertTrue(lines[2].contains(",\"Annex, \"\"B\"\"\",3,"));
+        assertEquals(3, lines.length);
+    }
+
+    @Test
+    void testRowsAreNotKeptInThePersistenceContext() throws IOException {
+        // enough rows to fill the writer buffer, so it is checked while the cursor is still open
+        for (int unit = 1; unit <= 300; unit++) {
+            persistCondo(building, unit);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        int[] maxManaged = {0};
+        OutputStream sizeOnly = new OutputStream() {
+            @Override
+            public void write(int b) {
+                maxManaged[0] = Math.max(maxManaged[0], session.getPersistenceContext().getNumberOfManagedEntities());
+            }
+        };
+        portfolioExportService.write(portfolioExportService.prepare(company.getId(), "csv", "condos"), sizeOnly);
+
+        assertEquals(0, maxManaged[0]);
+    }
+
+    @Test
+    void testEveryExportQueryIsReadFromACursor() throws NoSuchMethodException {
+        for (Class<?> repository : List.of(BuildingRepository.class, CondoRepository.class, HousingContractRepository.class,
+                EmployeeRepository.class)) {
+            QueryHints hints = AnnotatedElementUtils.findMergedAnnotation(
+                    repository.getMethod("streamDtosByCompanyId", Integer.class), QueryHints.class);
+            assertNotNull(hints, repository.getSimpleName());
+            assertEquals(Map.of(HibernateHints.HINT_FETCH_SIZE, "1000", HibernateHints.HINT_READ_ONLY, "true"),
+                    Arrays.stream(hints.value()).collect(Collectors.toMap(QueryHint::name, QueryHint::value)));
+        }
+    }
+
+    @Test
+    void testInvalidExportsAreRejectedBeforeStreaming() {
+        assertThrows(ObjectValidationException.class, () -> portfolioExportService.prepare(company.getId(), "xml", null));
+        assertThrows(ObjectValidationException.class, () -> portfolioExportService.prepare(company.getId(), "csv", null));
+        assertThrows(ObjectValidationException.class, () -> portfolioExportService.prepare(company.getId(), "ndjson", "owners"));
+        assertEquals("company-" + company.getId() + "-portfolio.ndjson",
+                portfolioExportService.prepare(company.getId(), "NDJSON", null).filename());
+    }
+
+    private String export(String format, String section) throws IOException {
+        entityManager.flush();
+        entityManager.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        portfolioExportService.write(portfolioExportService.prepare(company.getId(), format, section), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private Company persistCompany(String name) {
+        Company persisted = Company.builder().name(name).build();
+        entityManager.persist(persisted);
+        return persisted;
+    }
+
+    private Building persistBuilding(Company owner, String name) {
+        Building persisted = Building.builder().name(name).address("1 Main St").numberOfFloors(10).company(owner).build();
+        entityManager.persist(persisted);
+        return persisted;
+    }
+
+    private Condo persistCondo(Building in, int unitNumber) {
+        Condo condo = Condo.builder().address("1 Main St #" + unitNumber).unitNumber(unitNumber)
+                .status(CondoStatus.AVAILABLE).building(in).build();
+        entityManager.persist(condo);
+        return condo;
+    }
+}
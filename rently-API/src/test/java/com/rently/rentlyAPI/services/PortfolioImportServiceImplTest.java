@@ -0,0 +1,416 @@
+package com.rently.rentlyAPI.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rently.rentlyAPI.dto.ImportJobDto;
+import com.rently.rentlyAPI.dto.ImportRowErrorDto;
+import com.rently.rentlyAPI.entity.Building;
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.Condo;
+import com.rently.rentlyAPI.entity.Parking;
+import com.rently.rentlyAPI.entity.enums.CondoStatus;
+import com.rently.rentlyAPI.exceptions.ObjectValidationException;
+import com.rently.rentlyAPI.services.PortfolioImportService.Format;
+import com.rently.rentlyAPI.services.PortfolioImportService.Section;
+import com.rently.rentlyAPI.services.impl.PortfolioImportServiceImpl;
+import com.rently.rentlyAPI.utils.EntityIdAllocator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:portfolio-import;NON_KEYWORDS=KEY,VALUE,USER",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // Parking puts @NotBlank on its fee, which bean validation cannot check on a long
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none"
+})
+class PortfolioImportServiceImplTest {
+
+    @TestConfiguration
+    static class AuditConfig {
+        @Bean
+        AuditorAware<Integer> auditorAware() {
+            return Optional::empty;
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private PortfolioImportServiceImpl portfolioImportService;
+    private Company company;
+    private Building building;
+
+    @BeforeEach
+    void setUp() {
+        // small chunks, so the duplicates and lookups have to carry over from one chunk to the next
+        portfolioImportService = importService(3);
+        company = Company.builder().name("Rently").build();
+        entityManager.persist(company);
+        building = Building.builder().name("Tower").address("1 Main St").numberOfFloors(10).company(company).build();
+        entityManager.persist(building);
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolioImportService.shutdown();
+    }
+
+    @Test
+    void testCsvCondosAreImportedAndBadRowsReported() {
+        Condo existing = persistCondo(1);
+        Company otherCompany = Company.builder().name("Other").build();
+        entityManager.persist(otherCompany);
+        entityManager.persist(Building.builder().name("Annex").address("2 Main St").company(otherCompany).build());
+        entityManager.flush();
+
+        ImportJobDto job = importRows(Format.CSV, Section.CONDOS, """
+                building_name,unit_number,description,status
+                Tower,1,,
+                Tower,2,"Corner unit, ""river"" view",
+                Tower,2,,
+                Tower,-3,,
+                Annex,4,,
+                Tower,5,,rented
+                Tower,six,,
+                Tower,7,,sold
+                """);
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(8, job.getRowsRead());
+        assertEquals(2, job.getRowsImported());
+        assertEquals(6, job.getRowsRejected());
+        assertEquals(Map.of(
+                1L, "Unit 1 already exists in building Tower",
+                3L, "Unit 2 of building Tower appears more than once in the file",
+                4L, "unit_number must be greater or equal than 0",
+                5L, "Building Annex does not exist in your company",
+                7L, "unit_number must be a whole number, got six",
+                8L, "status must be one of [AVAILABLE, OWNED, RENTED], got sold"
+        ), errors(job));
+
+        List<Condo> condos = condosOf(building);
+        assertEquals(List.of(existing.getId()), condos.stream().filter(condo -> condo.getUnitNumber() == 1).map(Condo::getId).toList());
+        Condo corner = condos.stream().filter(condo -> condo.getUnitNumber() == 2).findFirst().orElseThrow();
+        assertEquals("1 Main St 2", corner.getAddress());
+        assertEquals("Corner unit, \"river\" view", corner.getDescription());
+        assertEquals(CondoStatus.AVAILABLE, corner.getStatus());
+        assertNotNull(corner.getCreationDate());
+        Condo rented = condos.stream().filter(condo -> condo.getUnitNumber() == 5).findFirst().orElseThrow();
+        assertEquals(CondoStatus.RENTED, rented.getStatus());
+        assertTrue(rented.getId() > existing.getId());
+    }
+
+    @Test
+    void testJsonArraysAndNdjsonAreBothAccepted() {
+        entityManager.flush();
+
+        ImportJobDto array = importRows(Format.JSON, Section.BUILDINGS, """
+                [{"name": "Annex", "address": "2 Main St", "number_of_floors": 3},
+                 {"name": "Tower", "address": "1 Main St"}]
+                """);
+        ImportJobDto lines = importRows(Format.JSON, Section.BUILDINGS, """
+                {"name": "Garden", "address": "3 Main St", "description": "Low rise"}
+                {"name": "Loft", "number_of_floors": 2}
+                """);
+
+        assertEquals(1, array.getRowsImported());
+        assertEquals(Map.of(2L, "A building named Tower already exists"), errors(array));
+        assertEquals(1, lines.getRowsImported());
+        assertEquals(Map.of(2L, "address is required"), errors(lines));
+
+        entityManager.clear();
+        List<Building> buildings = entityManager.createQuery(
+                "SELECT b FROM Building b WHERE b.company.id = :companyId ORDER BY b.name", Building.class)
+                .setParameter("companyId", company.getId())
+                .getResultList();
+        assertEquals(List.of("Annex", "Garden", "Tower"), buildings.stream().map(Building::getName).toList());
+        assertEquals(3, buildings.get(0).getNumberOfFloors());
+        assertEquals("Low rise", buildings.get(1).getDescription());
+    }
+
+    @Test
+    void testParkingsAreOnlyAssignedToFreeUnits() {
+        Condo taken = persistCondo(1);
+        Condo free = persistCondo(2);
+        entityManager.persist(Parking.builder().building(building).condo(taken).parkingFee(40).build());
+        entityManager.flush();
+
+        ImportJobDto job = importRows(Format.CSV, Section.PARKINGS, """
+                building_name,parking_fee,unit_number,external_ref
+                Tower,50,1,
+                Tower,60,2,
+                Tower,70,2,
+                Tower,80,,P-80
+                Tower,abc,3,
+                Tower,90,9,
+                Tower,100,,
+                """);
+
+        assertEquals(2, job.getRowsImported());
+        assertEquals(Map.of(
+                1L, "Unit 1 of building Tower already has a parking",
+                3L, "Unit 2 of building Tower is given more than one parking in the file",
+                5L, "parking_fee must be a whole number, got abc",
+                6L, "Unit 9 of building Tower does not exist",
+                7L, "unit_number or external_ref is required"
+        ), errors(job));
+        entityManager.clear();
+        List<Parking> parkings = entityManager.createQuery(
+                "SELECT p FROM Parking p LEFT JOIN FETCH p.condo WHERE p.building.id = :buildingId ORDER BY p.parkingFee", Parking.class)
+                .setParameter("buildingId", building.getId())
+                .getResultList();
+        assertEquals(List.of(40L, 60L, 80L), parkings.stream().map(Parking::getParkingFee).toList());
+        assertEquals(free.getId(), parkings.get(1).getCondo().getId());
+        assertNull(parkings.get(2).getCondo());
+        assertEquals("P-80", parkings.get(2).getExternalRef());
+    }
+
+    @Test
+    void testParkingsAndLockersImportedAgainCreateNothing() {
+        persistCondo(1);
+        persistCondo(2);
+        entityManager.flush();
+        String parkings = """
+                building_name,parking_fee,unit_number,external_ref
+                Tower,50,1,
+                Tower,60,,P-1
+                Tower,70,,P-1
+                Tower,80,,P-2
+                Tower,90,2,P-3
+                """;
+        String lockers = """
+                [{"building_name": "Tower", "locker_fee": 10, "unit_number": 2},
+                 {"building_name": "Tower", "locker_fee": 20, "external_ref": "L-1"},
+                 {"building_name": "Tower", "locker_fee": 30, "external_ref": "L-2"},
+                 {"building_name": "Tower", "locker_fee": 40, "external_ref": "L-3"}]
+                """;
+
+        ImportJobDto parkingJob = importRows(Format.CSV, Section.PARKINGS, parkings);
+        ImportJobDto lockerJob = importRows(Format.JSON, Section.LOCKERS, lockers);
+        assertEquals(4, parkingJob.getRowsImported());
+        assertEquals(Map.of(3L, "Parking P-1 of building Tower appears more than once in the file"), errors(parkingJob));
+        assertEquals(4, lockerJob.getRowsImported());
+
+        ImportJobDto parkingsAgain = importRows(Format.CSV, Section.PARKINGS, parkings);
+        ImportJobDto lockersAgain = importRows(Format.JSON, Section.LOCKERS, lockers);
+        assertEquals(0, parkingsAgain.getRowsImported());
+        assertEquals(Map.of(
+                1L, "Unit 1 of building Tower already has a parking",
+                2L, "Parking P-1 already exists in building Tower",
+                3L, "Parking P-1 already exists in building Tower",
+                4L, "Parking P-2 already exists in building Tower",
+                5L, "Parking P-3 already exists in building Tower"
+        ), errors(parkingsAgain));
+        assertEquals(0, lockersAgain.getRowsImported());
+        assertEquals(Map.of(
+                1L, "Unit 2 of building Tower already has a locker",
+                2L, "Locker L-1 already exists in building Tower",
+                3L, "Locker L-2 already exists in building Tower",
+                4L, "Locker L-3 already exists in building Tower"
+        ), errors(lockersAgain));
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM parking", Map.of(), Integer.class));
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM locker", Map.of(), Integer.class));
+    }
+
+    @Test
+    void testRowsOfARolledBackChunkCanStillBeImported() {
+        Condo existing = persistCondo(9);
+        entityManager.flush();
+        // the first chunk is given the id of an existing condo, as if it had been created meanwhile, and rolls back
+        AtomicBoolean collided = new AtomicBoolean();
+        portfolioImportService.shutdown();
+        portfolioImportService = new PortfolioImportServiceImpl(jdbcTemplate, transactionManager,
+                new EntityIdAllocator(entityManager) {
+                    @Override
+                    public Supplier<Integer> idsFor(Class<?> entity) {
+                        Supplier<Integer> ids = super.idsFor(entity);
+                        return entity == Condo.class ? () -> collided.getAndSet(true) ? ids.get() : existing.getId() : ids;
+                    }
+                }, new ObjectMapper(), 1, 1, 3, 1000, 60_000, 60_000);
+
+        ImportJobDto job = importRows(Format.CSV, Section.CONDOS, """
+                building_name,unit_number
+                Tower,1
+                Tower,2
+                Tower,3
+                Tower,1
+                """);
+
+        assertEquals(1, job.getRowsImported());
+        assertEquals(Map.of(
+                1L, "Conflicts with a change made while the file was imported, import the file again to retry it",
+                2L, "Conflicts with a change made while the file was imported, import the file again to retry it",
+                3L, "Conflicts with a change made while the file was imported, import the file again to retry it"
+        ), errors(job));
+        assertEquals(1, condosOf(building).stream().filter(condo -> condo.getUnitNumber() == 1).count());
+    }
+
+    @Test
+    void testFiftyThousandUnitsInUnderAMinute() {
+        portfolioImportService.shutdown();
+        portfolioImportService = importService(1000);
+        StringBuilder csv = new StringBuilder("building_name,unit_number\n");
+        for (int i = 1; i <= 9; i++) {
+            entityManager.persist(Building.builder().name("Tower " + i).address(i + " Main St").company(company).build());
+        }
+        entityManager.flush();
+        for (int unit = 1; unit <= 5_000; unit++) {
+            csv.append("Tower,").append(unit).append('\n');
+            for (int i = 1; i <= 9; i++) {
+                csv.append("Tower ").append(i).append(',').append(unit).append('\n');
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        ImportJobDto job = importRows(Format.CSV, Section.CONDOS, csv.toString());
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(50_000, job.getRowsImported());
+        assertEquals(0, job.getRowsRejected());
+        assertTrue(elapsed < 60_000, "50k units took " + elapsed + " ms");
+        assertEquals(50_000, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT id) FROM condo", Map.of(), Integer.class));
+
+        // importing the file again creates nothing, every row is a duplicate and only the first ones are listed
+        ImportJobDto again = importRows(Format.CSV, Section.CONDOS, csv.toString());
+        assertEquals(0, again.getRowsImported());
+        assertEquals(50_000, again.getRowsRejected());
+        assertEquals(1000, again.getErrors().size());
+    }
+
+    @Test
+    void testUnreadableFileKeepsTheRowsBeforeIt() {
+        entityManager.flush();
+
+        ImportJobDto job = importRows(Format.CSV, Section.CONDOS, """
+                building_name,unit_number,description
+                Tower,1,
+                Tower,2,"never closed
+                Tower,3,
+                """);
+        ImportJobDto noColumn = importRows(Format.CSV, Section.CONDOS, "building_name,description\nTower,x\n");
+        ImportJobDto brokenJson = importRows(Format.JSON, Section.BUILDINGS, "{\"name\": \"Annex\", \"address\": \"2 Main St\"}\n{\"name\": ");
+
+        assertEquals("FAILED", job.getStatus());
+        assertEquals(1, job.getRowsImported());
+        assertEquals("The file could not be read after row 1: a quoted value is not closed", job.getMessage());
+        assertEquals("FAILED", noColumn.getStatus());
+        assertEquals("The file could not be read: the csv header has no unit_number column", noColumn.getMessage());
+        assertEquals("FAILED", brokenJson.getStatus());
+        assertEquals(1, brokenJson.getRowsImported());
+    }
+
+    @Test
+    void testStartedImportRunsInTheBackground() throws Exception {
+        ImportJobDto started = portfolioImportService.start(company.getId(), "csv", "buildings",
+                stream("name,address\n,1 Main St\n"));
+
+        ImportJobDto job = started;
+        for (int attempt = 0; attempt < 100 && !"COMPLETED".equals(job.getStatus()); attempt++) {
+            Thread.sleep(50);
+            job = portfolioImportService.getJob(company.getId(), started.getJobId());
+        }
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(Map.of(1L, "name is required"), errors(job));
+
+        // another company cannot follow the job
+        String jobId = started.getJobId();
+        assertThrows(EntityNotFoundException.class, () -> portfolioImportService.getJob(company.getId() + 1, jobId));
+        assertThrows(ObjectValidationException.class,
+                () -> portfolioImportService.start(company.getId(), "xml", "condos", stream("")));
+        assertThrows(ObjectValidationException.class,
+                () -> portfolioImportService.start(company.getId(), "csv", "owners", stream("")));
+    }
+
+    @Test
+    void testJobsAreReadFromTheDatabase() {
+        entityManager.flush();
+        ImportJobDto job = importRows(Format.CSV, Section.BUILDINGS, "name,address\nAnnex,2 Main St\n,3 Main St\nTower,4 Main St\n");
+
+        // another instance reports the job as the one that ran it
+        PortfolioImportServiceImpl otherInstance = importService(3);
+        ImportJobDto read = otherInstance.getJob(company.getId(), job.getJobId());
+        assertEquals("COMPLETED", read.getStatus());
+        assertEquals("buildings", read.getSection());
+        assertEquals(3, read.getRowsRead());
+        assertEquals(1, read.getRowsImported());
+        assertEquals(List.of(new ImportRowErrorDto(2L, "name is required"),
+                new ImportRowErrorDto(3L, "A building named Tower already exists")), read.getErrors());
+        assertNotNull(read.getFinishedAt());
+
+        // a job its instance stopped saving is reported failed, the sweep forgets it after its retention
+        jdbcTemplate.update("UPDATE portfolio_import_job SET status = 'RUNNING', last_modified_date = :before WHERE job_id = :jobId",
+                Map.of("before", LocalDateTime.now().minusMinutes(2), "jobId", job.getJobId()));
+        ImportJobDto stopped = otherInstance.getJob(company.getId(), job.getJobId());
+        assertEquals("FAILED", stopped.getStatus());
+        assertEquals("The import stopped after row 3 because the server running it stopped, import the file again to finish it",
+                stopped.getMessage());
+        jdbcTemplate.update("UPDATE portfolio_import_job SET created_date = :before WHERE job_id = :jobId",
+                Map.of("before", LocalDateTime.now().minusMinutes(2), "jobId", job.getJobId()));
+        otherInstance.sweep();
+        assertThrows(EntityNotFoundException.class, () -> otherInstance.getJob(company.getId(), job.getJobId()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM portfolio_import_job_error WHERE job_id = :jobId",
+                Map.of("jobId", job.getJobId()), Integer.class));
+        otherInstance.shutdown();
+    }
+
+    private PortfolioImportServiceImpl importService(int chunkSize) {
+        return new PortfolioImportServiceImpl(jdbcTemplate, transactionManager, new EntityIdAllocator(entityManager), new ObjectMapper(),
+                1, 1, chunkSize, 1000, 60_000, 60_000);
+    }
+
+    private ImportJobDto importRows(Format format, Section section, String content) {
+        return portfolioImportService.importRows(company.getId(), format, section, stream(content));
+    }
+
+    private Condo persistCondo(int unitNumber) {
+        Condo condo = Condo.builder().address("1 Main St " + unitNumber).unitNumber(unitNumber)
+                .status(CondoStatus.AVAILABLE).building(building).build();
+        entityManager.persist(condo);
+        return condo;
+    }
+
+    private List<Condo> condosOf(Building in) {
+        entityManager.clear();
+        return entityManager.createQuery("SELECT c FROM Condo c WHERE c.building.id = :buildingId", Condo.class)
+                .setParameter("buildingId", in.getId())
+                .getResultList();
+    }
+
+    private static Map<Long, String> errors(ImportJobDto job) {
+        return job.getErrors().stream().collect(Collectors.toMap(ImportRowErrorDto::getRow, ImportRowErrorDto::getMessage));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
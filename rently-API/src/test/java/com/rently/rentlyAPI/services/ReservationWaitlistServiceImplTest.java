@@ -0,0 +1,252 @@
+package com.rently.rentlyAPI.services;
+
+import com.rently.rentlyAPI.dto.CommonFacilityReservationDto;
+import com.rently.rentlyAPI.dto.OccupantNotificationDto;
+import com.rently.rentlyAPI.dto.WaitlistEntryDto;
+import com.rently.rentlyAPI.entity.Building;
+import com.rently.rentlyAPI.entity.CommonFacility;
+import com.rently.rentlyAPI.entity.Company;
+import com.rently.rentlyAPI.entity.user.Occupant;
+import com.rently.rentlyAPI.entity.user.Owner;
+import com.rently.rentlyAPI.exceptions.AuthenticationException;
+import com.rently.rentlyAPI.exceptions.OperationNonPermittedException;
+import com.rently.rentlyAPI.repository.CommonFacilityReservationRepository;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.services.impl.CommonFacilityReservationServiceImpl;
+import com.rently.rentlyAPI.services.impl.OccupantNotificationServiceImpl;
+import com.rently.rentlyAPI.services.impl.ReservationWaitlistServiceImpl;
+import com.rently.rentlyAPI.utils.EntityIdAllocator;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({CommonFacilityReservationServiceImpl.class, ReservationIndexService.class, EntityIdAllocator.class,
+        ReservationWaitlistServiceImpl.class, OccupantNotificationServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservation-waitlist;NON_KEYWORDS=KEY,VALUE,USER",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ReservationWaitlistServiceImplTest {
+
+    // a waitlist only takes slots to come
+    private static final LocalDateTime EVENING = LocalDateTime.now().plusDays(7).truncatedTo(ChronoUnit.DAYS).plusHours(18);
+
+    @TestConfiguration
+    static class AuditConfig {
+        @Bean
+        AuditorAware<Integer> auditorAware() {
+            return Optional::empty;
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CommonFacilityReservationService commonFacilityReservationService;
+    @Autowired
+    private ReservationWaitlistService reservationWaitlistService;
+    @Autowired
+    private CommonFacilityReservationRepository commonFacilityReservationRepository;
+    @Autowired
+    private OccupantNotificationService occupantNotificationService;
+
+    private TransactionTemplate transactionTemplate;
+    private Company company;
+    private CommonFacility pool;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        inTransaction(() -> {
+            company = Company.builder().name("Rently " + UUID.randomUUID()).build();
+            entityManager.persist(company);
+            Building building = Building.builder().name("Tower " + UUID.randomUUID()).address("1 Main St").company(company).build();
+            entityManager.persist(building);
+            pool = CommonFacility.builder().name("Pool").building(building).build();
+            entityManager.persist(pool);
+            return null;
+        });
+    }
+
+    @Test
+    void testEntriesAreQueuedInTheOrderTheyJoined() {
+        book(occupant(), EVENING, EVENING.plusHours(2));
+
+        WaitlistEntryDto first = join(occupant(), EVENING, EVENING.plusHours(1));
+        WaitlistEntryDto second = join(occupant(), EVENING.plusMinutes(30), EVENING.plusHours(1));
+        // waiting for another part of the evening does not put it behind the others
+        WaitlistEntryDto alone = join(occupant(), EVENING.plusHours(1), EVENING.plusHours(2));
+
+        assertEquals(1, first.getPosition());
+        assertEquals(2, second.getPosition());
+        assertEquals(1, alone.getPosition());
+        assertEquals(List.of(first.getId(), second.getId(), alone.getId()),
+                reservationWaitlistService.getCommonFacilityWaitlist(pool.getId()).stream().map(WaitlistEntryDto::getId).toList());
+    }
+
+    @Test
+    void testAFreeSlotOrASecondEntryCannotJoin() {
+        Occupant occupant = occupant();
+        assertThrows(OperationNonPermittedException.class, () -> join(occupant, EVENING, EVENING.plusHours(1)));
+
+        book(occupant(), EVENING, EVENING.plusHours(1));
+        join(occupant, EVENING, EVENING.plusHours(1));
+        assertThrows(OperationNonPermittedException.class, () -> join(occupant, EVENING, EVENING.plusHours(1)));
+        assertThrows(OperationNonPermittedException.class, () -> join(occupant, EVENING.minusDays(30), EVENING.minusDays(30).plusHours(1)));
+    }
+
+    @Test
+    void testACancellationBooksTheSlotForTheFirstOneWaiting() throws InterruptedException {
+        Occupant holder = occupant();
+        CommonFacilityReservationDto reservation = book(holder, EVENING, EVENING.plusHours(2));
+        Occupant first = occupant();
+        Occupant second = occupant();
+        join(first, EVENING, EVENING.plusHours(2));
+        WaitlistEntryDto next = join(second, EVENING.plusHours(1), EVENING.plusHours(2));
+
+        commonFacilityReservationService.deleteCommonFacilityReservation(holder.getId(), reservation.getId());
+
+        List<CommonFacilityReservationDto> promoted = awaitReservations(first.getId(), 1);
+        assertEquals(EVENING, promoted.get(0).getStartTime());
+        assertEquals(EVENING.plusHours(2), promoted.get(0).getEndTime());
+        // the slot went to the first one, the second keeps waiting, now at the head
+        List<WaitlistEntryDto> waitlist = reservationWaitlistService.getCommonFacilityWaitlist(pool.getId());
+        assertEquals(1, waitlist.size());
+        assertEquals(next.getId(), waitlist.get(0).getId());
+        assertEquals(1, waitlist.get(0).getPosition());
+        assertTrue(reservationWaitlistService.getWaitlistEntries(first.getId()).isEmpty());
+    }
+
+    @Test
+    void testTheOccupantIsNotifiedOfAPromotion() {
+        Occupant holder = occupant();
+        CommonFacilityReservationDto reservation = book(holder, EVENING, EVENING.plusHours(1));
+        Occupant waiting = occupant();
+        join(waiting, EVENING, EVENING.plusHours(1));
+        inTransaction(() -> {
+            commonFacilityReservationRepository.deleteById(reservation.getId());
+            return null;
+        });
+
+        CommonFacilityReservationDto promoted = reservationWaitlistService.promote(pool.getId(), EVENING, EVENING.plusHours(1)).get(0);
+
+        List<OccupantNotificationDto> notifications = occupantNotificationService.getNotifications(waiting.getId());
+        assertEquals(1, notifications.size());
+        assertEquals(promoted.getId(), notifications.get(0).getCommonFacilityReservationId());
+        assertTrue(notifications.get(0).getMessage().contains("Pool"));
+        assertNull(notifications.get(0).getReadDate());
+        assertTrue(occupantNotificationService.getNotifications(holder.getId()).isEmpty());
+
+        Integer id = notifications.get(0).getId();
+        assertThrows(AuthenticationException.class, () -> occupantNotificationService.markAsRead(holder.getId(), id));
+        assertNotNull(occupantNotificationService.markAsRead(waiting.getId(), id).getReadDate());
+    }
+
+    @Test
+    void testAnEntryWhoseOccupantIsBusyIsSkipped() {
+        Occupant holder = occupant();
+        CommonFacilityReservationDto reservation = book(holder, EVENING, EVENING.plusHours(1));
+        Occupant busy = occupant();
+        Occupant next = occupant();
+        join(busy, EVENING, EVENING.plusHours(1));
+        join(next, EVENING, EVENING.plusHours(1));
+        inTransaction(() -> {
+            commonFacilityReservationRepository.deleteById(reservation.getId());
+            return null;
+        });
+        CommonFacility gym = inTransaction(() -> {
+            CommonFacility facility = CommonFacility.builder().name("Gym").building(entityManager.find(CommonFacility.class, pool.getId()).getBuilding()).build();
+            entityManager.persist(facility);
+            return facility;
+        });
+        commonFacilityReservationService.createCommonFacilityReservation(company, gym, busy, CommonFacilityReservationDto.builder()
+                .commonFacilityId(gym.getId()).startTime(EVENING).endTime(EVENING.plusMinutes(30)).build());
+
+        List<CommonFacilityReservationDto> promoted = reservationWaitlistService.promote(pool.getId(), EVENING, EVENING.plusHours(1));
+
+        assertEquals(1, promoted.size());
+        assertEquals(1, commonFacilityReservationRepository.findAllDtosByOccupantId(next.getId()).size());
+        assertEquals(1, reservationWaitlistService.getWaitlistEntries(busy.getId()).size());
+    }
+
+    @Test
+    void testAnEntryCanOnlyBeLeftByItsOccupant() {
+        book(occupant(), EVENING, EVENING.plusHours(1));
+        Occupant occupant = occupant();
+        WaitlistEntryDto entry = join(occupant, EVENING, EVENING.plusHours(1));
+
+        assertThrows(AuthenticationException.class, () -> reservationWaitlistService.leaveWaitlist(occupant().getId(), entry.getId()));
+        reservationWaitlistService.leaveWaitlist(occupant.getId(), entry.getId());
+
+        assertTrue(reservationWaitlistService.getCommonFacilityWaitlist(pool.getId()).isEmpty());
+    }
+
+    // the promotion runs on the waitlist worker after the cancellation returned
+    private List<CommonFacilityReservationDto> awaitReservations(Integer occupantId, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<CommonFacilityReservationDto> reservations = commonFacilityReservationRepository.findAllDtosByOccupantId(occupantId);
+        while (reservations.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            reservations = commonFacilityReservationRepository.findAllDtosByOccupantId(occupantId);
+        }
+        assertEquals(count, reservations.size());
+        return reservations;
+    }
+
+    private WaitlistEntryDto join(Occupant occupant, LocalDateTime start, LocalDateTime end) {
+        CommonFacilityReservationDto slot = CommonFacilityReservationDto.builder()
+                .commonFacilityId(pool.getId())
+                .startTime(start)
+                .endTime(end)
+                .build();
+        return reservationWaitlistService.joinWaitlist(company, pool, occupant, slot);
+    }
+
+    private CommonFacilityReservationDto book(Occupant occupant, LocalDateTime start, LocalDateTime end) {
+        CommonFacilityReservationDto reservation = CommonFacilityReservationDto.builder()
+                .commonFacilityId(pool.getId())
+                .startTime(start)
+                .endTime(end)
+                .build();
+        return commonFacilityReservationService.createCommonFacilityReservation(company, pool, occupant, reservation);
+    }
+
+    private Occupant occupant() {
+        return inTransaction(() -> {
+            Owner owner = Owner.builder().email(UUID.randomUUID() + "@rently.com").password("p").firstName("O")
+                    .lastName("W").role(Role.OWNER).build();
+            entityManager.persist(owner);
+            return owner;
+        });
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+}
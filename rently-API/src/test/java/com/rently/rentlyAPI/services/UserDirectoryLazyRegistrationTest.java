@@ -0,0 +1,79 @@
+package com.rently.rentlyAPI.services;
+
+import com.rently.rentlyAPI.entity.UserDirectoryEntry;
+import com.rently.rentlyAPI.entity.user.Owner;
+import com.rently.rentlyAPI.repository.UserDirectoryRepository;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.services.impl.UserDirectoryServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Users created before the directory existed are registered by the lookup that finds them, logins look users up in a
+ * read-only transaction.
+ */
+@DataJpaTest
+@Import(UserDirectoryServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-directory;NON_KEYWORDS=KEY,VALUE,USER",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class UserDirectoryLazyRegistrationTest {
+
+    @TestConfiguration
+    static class AuditConfig {
+        @Bean
+        AuditorAware<Integer> auditorAware() {
+            return Optional::empty;
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+    @Autowired
+    private UserDirectoryRepository userDirectoryRepository;
+
+    @Test
+    void testALookupInAReadOnlyTransactionRegistersTheUser() {
+        Owner owner = new TransactionTemplate(transactionManager).execute(status -> {
+            Owner legacy = Owner.builder().email("legacy@rently.com").password("p").firstName("O").lastName("W")
+                    .role(Role.OWNER).build();
+            entityManager.persist(legacy);
+            return legacy;
+        });
+        // as on a start whose backfill has not finished yet
+        ReflectionTestUtils.setField((Object) AopTestUtils.getTargetObject(userDirectoryService), "backfilled", false);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        assertTrue(readOnly.execute(status -> userDirectoryService.findUserByEmail("legacy@rently.com")).isPresent());
+
+        UserDirectoryEntry entry = userDirectoryRepository.findByEmail("legacy@rently.com").orElseThrow();
+        assertEquals(Role.OWNER, entry.getRole());
+        assertEquals(owner.getId(), entry.getUserId());
+    }
+}
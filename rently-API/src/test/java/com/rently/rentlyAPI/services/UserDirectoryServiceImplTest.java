@@ -0,0 +1,196 @@
+package com.rently.rentlyAPI.services;
+
+import com.rently.rentlyAPI.entity.UserDirectoryEntry;
+import com.rently.rentlyAPI.entity.user.Renter;
+import com.rently.rentlyAPI.entity.user.User;
+import com.rently.rentlyAPI.repository.*;
+import com.rently.rentlyAPI.security.Role;
+import com.rently.rentlyAPI.services.impl.UserDirectoryServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserDirectoryServiceImplTest {
+
+    @Mock
+    private UserDirectoryRepository userDirectoryRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private SystemAdminRepository systemAdminRepository;
+    @Mock
+    private CompanyAdminRepository companyAdminRepository;
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private PublicUserRepository publicUserRepository;
+    @Mock
+    private OwnerRepository ownerRepository;
+    @Mock
+    private RenterRepository renterRepository;
+
+    private UserDirectoryServiceImpl userDirectoryService;
+
+    private Renter renter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userDirectoryService = new UserDirectoryServiceImpl(userDirectoryRepository, userRepository, systemAdminRepository,
+                companyAdminRepository, employeeRepository, publicUserRepository, ownerRepository, renterRepository, mock(PlatformTransactionManager.class), 100, 60000, 100);
+        renter = Renter.builder().id(12).email("renter@rently.com").role(Role.RENTER).build();
+    }
+
+    @Test
+    void testFindUserByEmail_DirectoryHitLoadsOnlyTheRightTable() {
+        when(userDirectoryRepository.findByEmail("renter@rently.com")).thenReturn(Optional.of(entry("renter@rently.com", Role.RENTER, 12)));
+        when(renterRepository.findById(12)).thenReturn(Optional.of(renter));
+
+        Optional<User> result = userDirectoryService.findUserByEmail("renter@rently.com");
+
+        assertSame(renter, result.orElseThrow());
+        verifyNoInteractions(systemAdminRepository, companyAdminRepository, employeeRepository, publicUserRepository, ownerRepository);
+    }
+
+    @Test
+    void testFindUserByEmail_CachedLookupSkipsTheDirectory() {
+        when(userDirectoryRepository.findByEmail("renter@rently.com")).thenReturn(Optional.of(entry("renter@rently.com", Role.RENTER, 12)));
+        when(renterRepository.findById(12)).thenReturn(Optional.of(renter));
+
+        userDirectoryService.findUserByEmail("renter@rently.com");
+        userDirectoryService.findUserByEmail("renter@rently.com");
+
+        verify(userDirectoryRepository, times(1)).findByEmail("renter@rently.com");
+        verify(renterRepository, times(2)).findById(12);
+    }
+
+    @Test
+    void testFindUserByEmail_MissBeforeBackfillProbesAndRegisters() {
+        when(userDirectoryRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(renterRepository.findByEmail("renter@rently.com")).thenReturn(Optional.of(renter));
+
+        Optional<User> result = userDirectoryService.findUserByEmail("renter@rently.com");
+
+        assertSame(renter, result.orElseThrow());
+        verify(systemAdminRepository, times(1)).findByEmail("renter@rently.com");
+        verify(userDirectoryRepository, times(1)).save(argThat(entry -> entry.getRole() == Role.RENTER && entry.getUserId() == 12));
+    }
+
+    @Test
+    void testFindUserByEmail_MissAfterBackfillIsFinal() {
+        userDirectoryService.backfill();
+
+        when(userDirectoryRepository.findByEmail("nobody@rently.com")).thenReturn(Optional.empty());
+
+        assertTrue(userDirectoryService.findUserByEmail("nobody@rently.com").isEmpty());
+        assertFalse(userDirectoryService.existsByEmail("nobody@rently.com"));
+        verifyNoInteractions(systemAdminRepository, renterRepository);
+    }
+
+    @Test
+    void testBackfillKeepsTheTypeTheProbeWouldHaveReturned() {
+        when(userRepository.findDirectoryEntriesAfter(eq(""), any())).thenReturn(List.of(
+                entry("dup@rently.com", Role.OWNER, 4), entry("dup@rently.com", Role.PUBLIC_USER, 3),
+                entry("renter@rently.com", Role.RENTER, 12)));
+        when(userDirectoryRepository.findAllEmailsIn(any())).thenReturn(List.of("renter@rently.com"));
+
+        userDirectoryService.backfill();
+
+        verify(userDirectoryRepository).saveAll(argThat(entries -> saved(entries).equals(List.of("dup@rently.com PUBLIC_USER 3"))));
+    }
+
+    @Test
+    void testBackfillReadsTheUsersInBatchesOfWholeEmails() {
+        userDirectoryService = new UserDirectoryServiceImpl(userDirectoryRepository, userRepository, systemAdminRepository,
+                companyAdminRepository, employeeRepository, publicUserRepository, ownerRepository, renterRepository, mock(PlatformTransactionManager.class), 100, 60000, 8);
+        List<UserDirectoryEntry> firstBatch = new ArrayList<>();
+        List<String> firstSaved = new ArrayList<>();
+        for (char email = 'a'; email <= 'g'; email++) {
+            firstBatch.add(entry(email + "@rently.com", Role.OWNER, email - 'a' + 1));
+            firstSaved.add(email + "@rently.com OWNER " + (email - 'a' + 1));
+        }
+        firstBatch.add(entry("h@rently.com", Role.RENTER, 8));
+        when(userRepository.findDirectoryEntriesAfter(eq(""), any())).thenReturn(firstBatch);
+        // h@rently.com is read again with the rest of its users
+        when(userRepository.findDirectoryEntriesAfter(eq("g@rently.com"), any())).thenReturn(List.of(
+                entry("h@rently.com", Role.RENTER, 8), entry("h@rently.com", Role.COMPANY_ADMIN, 9)));
+
+        userDirectoryService.backfill();
+
+        verify(userDirectoryRepository).saveAll(argThat(entries -> saved(entries).equals(firstSaved)));
+        verify(userDirectoryRepository).saveAll(argThat(entries -> saved(entries).equals(List.of("h@rently.com COMPANY_ADMIN 9"))));
+        verify(userRepository, never()).findDirectoryEntriesAfter(eq("a@rently.com"), any());
+    }
+
+    @Test
+    void testBackfillBatchMustHoldMoreThanTheUsersOfAnEmail() {
+        // a batch of one email's users would be left empty once that email is put off to the next batch
+        assertThrows(IllegalArgumentException.class, () -> new UserDirectoryServiceImpl(userDirectoryRepository, userRepository,
+                systemAdminRepository, companyAdminRepository, employeeRepository, publicUserRepository, ownerRepository,
+                renterRepository, mock(PlatformTransactionManager.class), 100, 60000, Role.values().length));
+    }
+
+    @Test
+    void testBackfillRetriesABatchAnotherInstanceBackfilled() {
+        when(userRepository.findDirectoryEntriesAfter(eq(""), any())).thenReturn(List.of(
+                entry("a@rently.com", Role.OWNER, 1), entry("b@rently.com", Role.RENTER, 2)));
+        when(userDirectoryRepository.findAllEmailsIn(any())).thenReturn(List.of(), List.of("a@rently.com"));
+        when(userDirectoryRepository.saveAll(any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"))
+                .thenReturn(List.of());
+
+        userDirectoryService.backfill();
+
+        verify(userDirectoryRepository).saveAll(argThat(entries -> saved(entries).equals(List.of("b@rently.com RENTER 2"))));
+        // the directory is complete, a miss no longer probes the user tables
+        when(userDirectoryRepository.findByEmail("nobody@rently.com")).thenReturn(Optional.empty());
+        assertTrue(userDirectoryService.findUserByEmail("nobody@rently.com").isEmpty());
+        verifyNoInteractions(systemAdminRepository);
+    }
+
+    @Test
+    void testBackfillThatKeepsConflictingKeepsProbing() {
+        when(userRepository.findDirectoryEntriesAfter(eq(""), any())).thenReturn(List.of(entry("renter@rently.com", Role.RENTER, 12)));
+        when(userDirectoryRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(renterRepository.findByEmail("renter@rently.com")).thenReturn(Optional.of(renter));
+
+        userDirectoryService.backfill();
+
+        assertSame(renter, userDirectoryService.findUserByEmail("renter@rently.com").orElseThrow());
+        verify(userDirectoryRepository, times(3)).saveAll(any());
+    }
+
+    @Test
+    void testRegisterRepointsTheEmailAfterTransformToOccupant() {
+        UserDirectoryEntry existing = entry("renter@rently.com", Role.PUBLIC_USER, 5);
+        when(userDirectoryRepository.findByEmail("renter@rently.com")).thenReturn(Optional.of(existing));
+
+        userDirectoryService.register(renter);
+
+        assertEquals(Role.RENTER, existing.getRole());
+        assertEquals(12, existing.getUserId());
+        verify(userDirectoryRepository, times(1)).save(existing);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> saved(Iterable<?> entries) {
+        List<String> saved = new ArrayList<>();
+        ((Iterable<UserDirectoryEntry>) entries).forEach(entry ->
+                saved.add(entry.getEmail() + " " + entry.getRole() + " " + entry.getUserId()));
+        return saved;
+    }
+
+    private static UserDirectoryEntry entry(String email, Role role, Integer userId) {
+        return UserDirectoryEntry.builder().email(email).role(role).userId(userId).build();
+    }
+}
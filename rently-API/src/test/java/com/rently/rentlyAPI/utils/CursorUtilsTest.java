@@ -0,0 +1,40 @@
+package com.rently.rentlyAPI.utils;
+
+import com.rently.rentlyAPI.dto.CursorPageDto;
+import com.rently.rentlyAPI.exceptions.ObjectValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CursorUtilsTest {
+
+    @Test
+    public void testCursorRoundTrip() {
+        String cursor = CursorUtils.encode("2024-01-01T10:00", 42);
+
+        assertArrayEquals(new String[]{"2024-01-01T10:00", "42"}, CursorUtils.decode(cursor, 2));
+        assertEquals(42, CursorUtils.decodeId(CursorUtils.encode(42)));
+        assertNull(CursorUtils.decodeId(null));
+    }
+
+    @Test
+    public void testInvalidCursorOrLimitIsRejected() {
+        assertThrows(ObjectValidationException.class, () -> CursorUtils.decodeId("not a cursor"));
+        assertThrows(ObjectValidationException.class, () -> CursorUtils.decodeId(CursorUtils.encode("abc")));
+        assertThrows(ObjectValidationException.class, () -> CursorUtils.decode(CursorUtils.encode(1), 2));
+        assertThrows(ObjectValidationException.class, () -> CursorUtils.checkLimit(0));
+        assertThrows(ObjectValidationException.class, () -> CursorUtils.checkLimit(CursorUtils.MAX_LIMIT + 1));
+        assertEquals(CursorUtils.DEFAULT_LIMIT, CursorUtils.checkLimit(null));
+    }
+
+    @Test
+    public void testPageKeepsTheExtraRowOut() {
+        CursorPageDto<Integer> page = CursorPageDto.of(List.of(5, 4, 3), 2, id -> CursorUtils.encode(id));
+
+        assertEquals(List.of(5, 4), page.getItems());
+        assertEquals(4, CursorUtils.decodeId(page.getNextCursor()));
+        assertNull(CursorPageDto.of(List.of(5, 4), 2, id -> CursorUtils.encode(id)).getNextCursor());
+    }
+}
@@ -0,0 +1,69 @@
+package com.rently.rentlyAPI.utils;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+/**
+ * An embedded Postgres started before the tests of a class and stopped after them, registered as a static field:
+ * <pre>
+ * &#64;RegisterExtension
+ * static final EmbeddedPostgresExtension postgres = new EmbeddedPostgresExtension();
+ * </pre>
+ * initdb refuses to run as root, so as root the tests are skipped, unless the embedded-postgres profile is active:
+ * then they fail, for a CI that must run them as a non-root user (see the README).
+ */
+public class EmbeddedPostgresExtension implements BeforeAllCallback, AfterAllCallback {
+
+    // set by the embedded-postgres profile of the pom
+    private static final String REQUIRED_PROPERTY = "embeddedPostgres.required";
+
+    private EmbeddedPostgres postgres;
+
+    @Override
+    public void beforeAll(ExtensionContext context) throws IOException {
+        boolean root = "root".equals(System.getProperty("user.name"));
+        if (Boolean.getBoolean(REQUIRED_PROPERTY)) {
+            assertFalse(root, "initdb refuses to run as root, run the build as another user");
+        }
+        assumeFalse(root, "initdb refuses to run as root");
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws IOException {
+        if (postgres != null) {
+            postgres.close();
+            postgres = null;
+        }
+    }
+
+    public DataSource getDataSource() {
+        return postgres.getPostgresDatabase();
+    }
+
+    public DataSource getDataSource(String databaseName) {
+        return postgres.getDatabase("postgres", databaseName);
+    }
+
+    public String getJdbcUrl() {
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    /**
+     * Points the url, username and password under the prefix, e.g. spring.datasource, at this Postgres.
+     */
+    public void registerDataSource(DynamicPropertyRegistry registry, String prefix) {
+        registry.add(prefix + ".url", this::getJdbcUrl);
+        registry.add(prefix + ".username", () -> "postgres");
+        registry.add(prefix + ".password", () -> "");
+    }
+}
@@ -0,0 +1,48 @@
+package com.rently.rentlyAPI.utils;
+
+import com.rently.rentlyAPI.config.FlywayConfig;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Optional;
+
+/**
+ * A @DataJpaTest on an embedded Postgres of its own, migrated by Flyway then validated by Hibernate. The context is
+ * closed with the class since its Postgres is stopped then.
+ */
+@DataJpaTest
+@Import({FlywayConfig.class, EmbeddedPostgresJpaTest.AuditConfig.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@DirtiesContext
+public abstract class EmbeddedPostgresJpaTest {
+
+    @RegisterExtension
+    protected static final EmbeddedPostgresExtension postgres = new EmbeddedPostgresExtension();
+
+    @TestConfiguration
+    static class AuditConfig {
+        @Bean
+        AuditorAware<Integer> auditorAware() {
+            return Optional::empty;
+        }
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        postgres.registerDataSource(registry, "spring.datasource");
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+}
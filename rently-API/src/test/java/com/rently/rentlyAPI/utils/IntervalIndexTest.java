@@ -0,0 +1,78 @@
+package com.rently.rentlyAPI.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntervalIndexTest {
+
+    private static final LocalDateTime EVENING = LocalDateTime.of(2024, 6, 1, 18, 0);
+
+    @Test
+    public void testOverlapsAreHalfOpen() {
+        IntervalIndex index = new IntervalIndex();
+        index.add(1, EVENING, EVENING.plusHours(2));
+
+        assertTrue(index.overlaps(EVENING.plusHours(1), EVENING.plusHours(3)));
+        assertTrue(index.overlaps(EVENING.minusHours(1), EVENING.plusMinutes(1)));
+        assertTrue(index.overlaps(EVENING.plusMinutes(30), EVENING.plusMinutes(45)));
+        assertTrue(index.overlaps(EVENING.minusHours(1), EVENING.plusHours(3)));
+        assertFalse(index.overlaps(EVENING.plusHours(2), EVENING.plusHours(3)));
+        assertFalse(index.overlaps(EVENING.minusHours(1), EVENING));
+    }
+
+    @Test
+    public void testRemovedIntervalsFreeTheirSlot() {
+        IntervalIndex index = new IntervalIndex();
+        index.add(1, EVENING, EVENING.plusHours(2));
+        index.add(2, EVENING.plusHours(2), EVENING.plusHours(4));
+
+        index.remove(1);
+        index.remove(3);
+
+        assertEquals(1, index.size());
+        assertFalse(index.overlaps(EVENING, EVENING.plusHours(2)));
+        assertTrue(index.overlaps(EVENING, EVENING.plusHours(3)));
+    }
+
+    @Test
+    public void testReAddingAnIntervalMovesIt() {
+        IntervalIndex index = new IntervalIndex();
+        index.add(1, EVENING, EVENING.plusHours(2));
+
+        index.add(1, EVENING.plusDays(1), EVENING.plusDays(1).plusHours(2));
+
+        assertEquals(1, index.size());
+        assertFalse(index.overlaps(EVENING, EVENING.plusHours(2)));
+        assertTrue(index.overlaps(EVENING.plusDays(1), EVENING.plusDays(1).plusHours(1)));
+    }
+
+    @Test
+    public void testChecksStaySubMillisecondWithYearsOfReservations() {
+        // five years of back to back hourly reservations
+        IntervalIndex index = new IntervalIndex();
+        int hours = 5 * 365 * 24;
+        for (int hour = 0; hour < hours; hour += 2) {
+            index.add(hour, EVENING.plusHours(hour), EVENING.plusHours(hour + 1));
+        }
+
+        Random random = new Random(42);
+        int checks = 100_000;
+        int overlapping = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < checks; i++) {
+            LocalDateTime start = EVENING.plusMinutes(random.nextInt(hours * 60));
+            if (index.overlaps(start, start.plusMinutes(30))) {
+                overlapping++;
+            }
+        }
+        long averageNanos = (System.nanoTime() - started) / checks;
+
+        // every other hour is booked, a half hour slot overlaps a reservation about 3 times out of 4
+        assertTrue(overlapping > checks * 0.7 && overlapping < checks * 0.8, "Overlapping: " + overlapping);
+        assertTrue(averageNanos < 1_000_000, "Average check: " + averageNanos + "ns");
+    }
+}
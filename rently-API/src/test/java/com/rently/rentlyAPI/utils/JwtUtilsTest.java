@@ -0,0 +1,96 @@
+package com.rently.rentlyAPI.utils;
+
+import com.rently.rentlyAPI.entity.user.Owner;
+import com.rently.rentlyAPI.security.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtUtilsTest {
+
+    private static final String OLD_SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String NEW_SECRET = "5A7134743777217A25432A462D4A614E645267556B58703273357638792F423F";
+
+    private Owner owner;
+
+    @BeforeEach
+    public void setUp() {
+        owner = Owner.builder()
+                .id(1)
+                .email("owner@rently.com")
+                .role(Role.OWNER)
+                .build();
+    }
+
+    @Test
+    public void testTokenRoundTripWithKeyId() {
+        JwtUtils jwtUtils = jwtUtils(OLD_SECRET, "k1");
+        String token = jwtUtils.generateToken(owner, false);
+
+        Claims claims = jwtUtils.parseClaims(token);
+
+        assertEquals("owner@rently.com", claims.getSubject());
+        assertNotNull(claims.getId());
+        assertTrue(jwtUtils.isTokenValid(claims, owner));
+        assertEquals("k1", Jwts.parserBuilder().setSigningKey(key(OLD_SECRET)).build().parseClaimsJws(token).getHeader().getKeyId());
+    }
+
+    @Test
+    public void testTokensSignedWithPreviousKeyStillVerifyAfterRotation() {
+        String issuedBeforeRotation = jwtUtils(OLD_SECRET, "k1").generateToken(owner, false);
+
+        JwtUtils rotated = jwtUtils(NEW_SECRET, "k2", "k1:" + OLD_SECRET);
+
+        assertEquals("owner@rently.com", rotated.extractUsername(issuedBeforeRotation));
+        assertEquals("owner@rently.com", rotated.extractUsername(rotated.generateToken(owner, false)));
+    }
+
+    @Test
+    public void testLegacyTokenWithoutKeyIdUsesDefaultKey() {
+        String legacyToken = Jwts.builder()
+                .setSubject("owner@rently.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(key(OLD_SECRET), SignatureAlgorithm.HS256)
+                .compact();
+
+        JwtUtils rotated = jwtUtils(NEW_SECRET, "k2", JwtUtils.DEFAULT_KEY_ID + ":" + OLD_SECRET);
+
+        assertEquals("owner@rently.com", rotated.extractUsername(legacyToken));
+    }
+
+    @Test
+    public void testRetiredKeyIsRejected() {
+        String issuedBeforeRotation = jwtUtils(OLD_SECRET, "k1").generateToken(owner, false);
+
+        JwtUtils rotated = jwtUtils(NEW_SECRET, "k2");
+
+        assertThrows(SignatureException.class, () -> rotated.parseClaims(issuedBeforeRotation));
+    }
+
+    private static JwtUtils jwtUtils(String secret, String keyId, String... previousKeys) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretKey", secret);
+        ReflectionTestUtils.setField(jwtUtils, "activeKeyId", keyId);
+        ReflectionTestUtils.setField(jwtUtils, "previousKeys", List.of(previousKeys));
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpiration", 604800000L);
+        jwtUtils.initKeys();
+        return jwtUtils;
+    }
+
+    private static Key key(String secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
+}
@@ -0,0 +1,58 @@
+package com.rently.rentlyAPI.utils;
+
+import com.rently.rentlyAPI.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ParallelQueryExecutorTest {
+
+    private PlatformTransactionManager transactionManager;
+    private ParallelQueryExecutor parallelQueryExecutor;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        parallelQueryExecutor = new ParallelQueryExecutor(2, 10, 200, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelQueryExecutor.shutdown();
+    }
+
+    @Test
+    void testQueriesRunInAReadOnlyTransactionThatTimesOut() {
+        CompletableFuture<String> query = parallelQueryExecutor.submit(() -> "condos");
+        parallelQueryExecutor.awaitAll(query);
+
+        assertEquals("condos", query.join());
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly() && definition.getTimeout() == 1));
+    }
+
+    @Test
+    void testATimedOutQueryIsInterrupted() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<String> query = parallelQueryExecutor.submit(() -> {
+            try {
+                Thread.sleep(10000);
+                return "too late";
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThrows(ServiceUnavailableException.class, () -> parallelQueryExecutor.awaitAll(query));
+        assertTrue(query.isCancelled());
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS), "the query thread was not interrupted");
+    }
+}
@@ -0,0 +1,127 @@
+package com.rently.rentlyAPI.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two embedded Postgres stand for the primary and the replica, each tells which one it is.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final long STICKY_WINDOW = 500;
+
+    @RegisterExtension
+    static final EmbeddedPostgresExtension primary = new EmbeddedPostgresExtension();
+    @RegisterExtension
+    static final EmbeddedPostgresExtension replica = new EmbeddedPostgresExtension();
+
+    @BeforeAll
+    static void createNodes() {
+        new JdbcTemplate(primary.getDataSource()).execute("CREATE TABLE node AS SELECT 'primary' AS name");
+        new JdbcTemplate(replica.getDataSource()).execute("CREATE TABLE node AS SELECT 'replica' AS name");
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToTheReplica() {
+        ReplicaRoutingDataSource routing = routing(replica.getDataSource());
+        routing.checkReplicaLag();
+
+        assertTrue(routing.isReplicaUsable());
+        assertEquals("primary", node(routing, false));
+        assertEquals("replica", node(routing, true));
+    }
+
+    @Test
+    void testReadsStayOnThePrimaryUntilTheReplicaLagIsKnown() {
+        ReplicaRoutingDataSource routing = routing(replica.getDataSource());
+
+        assertFalse(routing.isReplicaUsable());
+        assertEquals("primary", node(routing, true));
+    }
+
+    @Test
+    void testReadsFallBackToThePrimaryWhenTheReplicaIsUnreachable() {
+        ReplicaRoutingDataSource routing = routing(new DriverManagerDataSource("jdbc:postgresql://localhost:1/postgres"));
+        routing.checkReplicaLag();
+
+        assertFalse(routing.isReplicaUsable());
+        assertEquals("primary", node(routing, true));
+    }
+
+    @Test
+    void testAUsersReadsStayOnThePrimaryAfterTheirOwnWrite() throws InterruptedException {
+        ReplicaRoutingDataSource routing = routing(replica.getDataSource());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        routing.bindTo(registry);
+        routing.checkReplicaLag();
+
+        authenticate("alice@rently.com");
+        assertEquals("primary", node(routing, false));
+        assertEquals("primary", node(routing, true));
+        authenticate("bob@rently.com");
+        assertEquals("replica", node(routing, true));
+
+        Thread.sleep(STICKY_WINDOW * 2);
+        routing.checkReplicaLag();
+        authenticate("alice@rently.com");
+        assertEquals("replica", node(routing, true));
+        assertEquals(1, registry.get("datasource.routing").tag("reason", "sticky").counter().count());
+        assertEquals(2, registry.get("datasource.routing").tag("reason", "replica").counter().count());
+    }
+
+    @Test
+    void testRolledBackWritesDoNotMakeTheUserSticky() {
+        ReplicaRoutingDataSource routing = routing(replica.getDataSource());
+        routing.checkReplicaLag();
+        authenticate("carol@rently.com");
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status -> {
+            new JdbcTemplate(dataSource).update("UPDATE node SET name = name");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", node(routing, true));
+    }
+
+    private static ReplicaRoutingDataSource routing(DataSource replicaDataSource) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                primary.getDataSource(), replicaDataSource, 5000, 1000, STICKY_WINDOW);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    private static String node(ReplicaRoutingDataSource routing, boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        List<String> names = transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForList("SELECT name FROM node", String.class));
+        return names.get(0);
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+}
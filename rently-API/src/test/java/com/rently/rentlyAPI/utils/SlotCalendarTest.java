@@ -0,0 +1,89 @@
+package com.rently.rentlyAPI.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlotCalendarTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 1);
+    private static final LocalDateTime EVENING = DAY.atTime(18, 0);
+
+    @Test
+    public void testReservationsMarkTheSlotsTheyTouch() {
+        SlotCalendar calendar = new SlotCalendar();
+        calendar.add(1, EVENING, EVENING.plusHours(2));
+        calendar.add(2, EVENING.plusHours(3).plusMinutes(5), EVENING.plusHours(3).plusMinutes(20));
+
+        // 18:00 is slot 72, 21:05-21:20 touches the slots of 21:00 and 21:15
+        assertEquals(slots(72, 80, 84, 86), calendar.busySlots(DAY));
+        assertTrue(calendar.busySlots(DAY.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    public void testAReservationOverMidnightMarksBothDays() {
+        SlotCalendar calendar = new SlotCalendar();
+        calendar.add(1, EVENING.plusHours(5), EVENING.plusHours(7));
+
+        assertEquals(slots(92, 96), calendar.busySlots(DAY));
+        assertEquals(slots(0, 4), calendar.busySlots(DAY.plusDays(1)));
+    }
+
+    @Test
+    public void testTheDaysReadAreKeptUpToDate() {
+        SlotCalendar calendar = new SlotCalendar();
+        calendar.add(1, EVENING, EVENING.plusMinutes(10));
+        assertEquals(slots(72, 73), calendar.busySlots(DAY));
+
+        calendar.add(2, EVENING.plusMinutes(10), EVENING.plusMinutes(30));
+        assertEquals(slots(72, 74), calendar.busySlots(DAY));
+
+        // the slot of 18:00 is still taken by 18:10-18:30
+        calendar.remove(1);
+        assertEquals(slots(72, 74), calendar.busySlots(DAY));
+
+        calendar.add(2, EVENING.plusDays(1), EVENING.plusDays(1).plusHours(1));
+        assertTrue(calendar.busySlots(DAY).isEmpty());
+        assertEquals(slots(72, 76), calendar.busySlots(DAY.plusDays(1)));
+
+        calendar.remove(2);
+        assertTrue(calendar.busySlots(DAY.plusDays(1)).isEmpty());
+        assertEquals(0, calendar.size());
+    }
+
+    @Test
+    public void testAMonthOfAFacilityReadsInMicroseconds() {
+        // five years of back to back hourly reservations, every other hour
+        SlotCalendar calendar = new SlotCalendar();
+        int hours = 5 * 365 * 24;
+        for (int hour = 0; hour < hours; hour += 2) {
+            calendar.add(hour, DAY.atStartOfDay().plusHours(hour), DAY.atStartOfDay().plusHours(hour + 1));
+        }
+        for (int day = 0; day < 30; day++) {
+            calendar.busySlots(DAY.plusDays(day));
+        }
+
+        int months = 1000;
+        long started = System.nanoTime();
+        for (int i = 0; i < months; i++) {
+            for (int day = 0; day < 30; day++) {
+                assertEquals(48, calendar.busySlots(DAY.plusDays(day)).cardinality());
+            }
+        }
+        long averageNanos = (System.nanoTime() - started) / months;
+
+        assertTrue(averageNanos < 100_000, "Average month: " + averageNanos + "ns");
+    }
+
+    private static BitSet slots(int... ranges) {
+        BitSet slots = new BitSet();
+        for (int i = 0; i < ranges.length; i += 2) {
+            slots.set(ranges[i], ranges[i + 1]);
+        }
+        return slots;
+    }
+}